@@ -46,6 +46,8 @@
 \ir 04-update-2.sql
 -- Update 3: EDS 1.2 -> 2.0 (Major Upgrade, migrating from Java 8 to Java 11)
 \ir 04-update-3.sql
+-- Update 4: EDS 2.0 -> 2.1 (Performance & Scalability improvements)
+\ir 04-update-4.sql
 
 -- =============================================================================
 -- Done, database is now created :-D
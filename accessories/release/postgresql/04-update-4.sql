@@ -0,0 +1,297 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+
+-- =============================================================================
+-- PostgreSQL Upgrade Script to upgrade EDS from 2.0 to 2.1
+-- -----------------------------------------------------------------------------
+
+DO $U4$
+DECLARE
+    current_schema_version INTEGER;
+BEGIN
+    SELECT max(schema_version)
+    FROM eds_versions
+    INTO current_schema_version;
+
+    IF current_schema_version < 5 THEN
+        -- Performance & Scalability improvements, EDS 2.1.x
+        INSERT INTO eds_versions(schema_version, eds_version, db_vendor) VALUES (5, '2.1.0', 'PostgreSQL');
+
+        -- Larger Data Objects are encrypted in segments, the header with the
+        -- information needed to decrypt them is stored with the Data. Existing
+        -- Data was encrypted in a single operation, so it has no header.
+        ALTER TABLE eds_data ADD COLUMN segment_header VARCHAR(256);
+
+        -- Data Objects are encrypted with their own Data Key, which is stored
+        -- wrapped with the Circle Key. Existing Data was encrypted directly
+        -- with the Circle Key, so it has no Data Key. As the Circle Keys are
+        -- only available to the Members, these Objects are migrated when
+        -- they are read or updated.
+        ALTER TABLE eds_data ADD COLUMN data_key VARCHAR(256);
+
+        -- Circle Keys can be replaced, the Data protected by the previous Key is
+        -- then migrated to the new Key in the background. The progress of the
+        -- migration is kept in the Rotations table.
+        CREATE TABLE eds_rotations (
+          id               SERIAL,
+          circle_id        INTEGER,
+          old_key_id       INTEGER,
+          new_key_id       INTEGER,
+          wrapped_key      VARCHAR(256), -- Previous Circle Key, wrapped with the new
+          last_data_id     BIGINT DEFAULT 0,
+          processed        BIGINT DEFAULT 0,
+          total            BIGINT DEFAULT 0,
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT rotation_pk                    PRIMARY KEY (id),
+          CONSTRAINT rotation_circle_fk             FOREIGN KEY (circle_id) REFERENCES eds_circles (id) ON DELETE CASCADE,
+          CONSTRAINT rotation_old_key_fk            FOREIGN KEY (old_key_id) REFERENCES eds_keys (id) ON DELETE CASCADE,
+          CONSTRAINT rotation_new_key_fk            FOREIGN KEY (new_key_id) REFERENCES eds_keys (id) ON DELETE CASCADE,
+
+          /* Unique Constraints */
+          CONSTRAINT rotation_unique_old_key_id     UNIQUE (old_key_id),
+
+          /* Not Null Constraints */
+          CONSTRAINT rotation_notnull_id            CHECK (id IS NOT NULL),
+          CONSTRAINT rotation_notnull_circle_id     CHECK (circle_id IS NOT NULL),
+          CONSTRAINT rotation_notnull_old_key_id    CHECK (old_key_id IS NOT NULL),
+          CONSTRAINT rotation_notnull_new_key_id    CHECK (new_key_id IS NOT NULL),
+          CONSTRAINT rotation_notnull_wrapped_key   CHECK (wrapped_key IS NOT NULL),
+          CONSTRAINT rotation_notnull_last_data_id  CHECK (last_data_id IS NOT NULL),
+          CONSTRAINT rotation_notnull_processed     CHECK (processed IS NOT NULL),
+          CONSTRAINT rotation_notnull_total         CHECK (total IS NOT NULL),
+          CONSTRAINT rotation_notnull_altered       CHECK (altered IS NOT NULL),
+          CONSTRAINT rotation_notnull_added         CHECK (added IS NOT NULL)
+        );
+
+        -- The Master Key can be replaced while Member Accounts exist, the Salts
+        -- and Initial Vectors are then migrated in the background. The progress of
+        -- the migration is kept in the Master Key Rotations table.
+        CREATE TABLE eds_masterkey_rotations (
+          id               SERIAL,
+          previous_key     VARCHAR(256), -- Previous Master Key, encrypted with the new
+          last_member_id   BIGINT DEFAULT 0,
+          last_data_id     BIGINT DEFAULT 0,
+          processed        BIGINT DEFAULT 0,
+          ready_instances  VARCHAR(1024), -- EDS instances given the new Master Key
+          active_instances VARCHAR(1024), -- EDS instances using the new Master Key
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT masterkey_pk                   PRIMARY KEY (id),
+
+          /* Not Null Constraints */
+          CONSTRAINT masterkey_notnull_id           CHECK (id IS NOT NULL),
+          CONSTRAINT masterkey_notnull_previous_key CHECK (previous_key IS NOT NULL),
+          CONSTRAINT masterkey_notnull_last_member  CHECK (last_member_id IS NOT NULL),
+          CONSTRAINT masterkey_notnull_last_data    CHECK (last_data_id IS NOT NULL),
+          CONSTRAINT masterkey_notnull_processed    CHECK (processed IS NOT NULL),
+          CONSTRAINT masterkey_notnull_altered      CHECK (altered IS NOT NULL),
+          CONSTRAINT masterkey_notnull_added        CHECK (added IS NOT NULL)
+        );
+
+        -- Folder listings & the Inventory can be paged with a Cursor, which
+        -- seeks from the last Id of the previous page, rather than skipping
+        -- all the previous records.
+        CREATE INDEX eds_metadata_parent_index ON eds_metadata (parent_id, id);
+
+        -- Folders keep the number of records they contain, so it is not
+        -- counted whenever a folder is read or deleted.
+        ALTER TABLE eds_metadata ADD COLUMN children BIGINT DEFAULT 0;
+        UPDATE eds_metadata f SET children = (SELECT count(c.id) FROM eds_metadata c WHERE c.parent_id = f.id)
+        WHERE f.datatype_id IN (SELECT t.id FROM eds_datatypes t WHERE t.datatype_name = 'folder');
+        ALTER TABLE eds_metadata ADD CONSTRAINT metadata_notnull_children CHECK (children IS NOT NULL);
+
+        -- Names must be unique within a Folder, regardless of case. Previously,
+        -- only adding records checked this, so existing duplicates are renamed,
+        -- by adding the Id of the record to the name, before the unique index
+        -- is created. The other indexes match the lookups made by EDS.
+        UPDATE eds_metadata m SET name = left(m.name, 60) || ' (' || m.id || ')'
+        WHERE EXISTS (SELECT o.id FROM eds_metadata o
+                      WHERE o.parent_id = m.parent_id
+                        AND o.circle_id = m.circle_id
+                        AND lower(o.name) = lower(m.name)
+                        AND o.id < m.id);
+        CREATE UNIQUE INDEX eds_metadata_unique_name ON eds_metadata (parent_id, lower(name), circle_id);
+        CREATE INDEX eds_metadata_circle_index ON eds_metadata (circle_id, name);
+        CREATE INDEX eds_metadata_datatype_index ON eds_metadata (datatype_id);
+        CREATE INDEX eds_data_metadata_index ON eds_data (metadata_id);
+        CREATE INDEX eds_data_key_index ON eds_data (key_id, id);
+        CREATE INDEX eds_data_sanity_index ON eds_data (sanity_status, sanity_checked);
+        CREATE INDEX eds_trustees_circle_index ON eds_trustees (circle_id, member_id);
+        CREATE INDEX eds_trustees_key_index ON eds_trustees (key_id);
+
+        -- Larger encrypted Data is stored in fixed size chunks, in its own table.
+        -- Existing Data remains stored with the Data, as it has 0 (zero) chunks.
+        ALTER TABLE eds_data ADD COLUMN chunks INTEGER DEFAULT 0;
+        ALTER TABLE eds_data ADD CONSTRAINT data_notnull_chunks CHECK (chunks IS NOT NULL);
+        CREATE TABLE eds_data_chunks (
+          id               SERIAL,
+          data_id          INTEGER,
+          ordinal          INTEGER,
+          chunk            BYTEA,
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT chunk_pk                       PRIMARY KEY (id),
+          CONSTRAINT chunk_data_fk                  FOREIGN KEY (data_id) REFERENCES eds_data (id) ON DELETE CASCADE,
+
+          /* Unique Constraints */
+          CONSTRAINT chunk_unique_ordinal           UNIQUE (data_id, ordinal),
+
+          /* Not Null Constraints */
+          CONSTRAINT chunk_notnull_id               CHECK (id IS NOT NULL),
+          CONSTRAINT chunk_notnull_data_id          CHECK (data_id IS NOT NULL),
+          CONSTRAINT chunk_notnull_ordinal          CHECK (ordinal IS NOT NULL),
+          CONSTRAINT chunk_notnull_chunk            CHECK (chunk IS NOT NULL),
+          CONSTRAINT chunk_notnull_altered          CHECK (altered IS NOT NULL),
+          CONSTRAINT chunk_notnull_added            CHECK (added IS NOT NULL)
+        );
+        -- Encrypted Data cannot be compressed, so it is stored without trying.
+        ALTER TABLE eds_data ALTER COLUMN encrypted_data SET STORAGE EXTERNAL;
+        ALTER TABLE eds_data_chunks ALTER COLUMN chunk SET STORAGE EXTERNAL;
+
+        -- Larger encrypted Data may instead be stored in a Blob Store outside of
+        -- the database, the Data then only has the reference to the Blob.
+        ALTER TABLE eds_data ADD COLUMN blob_reference VARCHAR(256);
+        CREATE INDEX eds_data_blob_index ON eds_data (blob_reference);
+
+        -- The Settings are reloaded by all EDS instances, when the Generation of
+        -- the Settings is increased, only the changed rows are read.
+        ALTER TABLE eds_settings ADD COLUMN generation BIGINT DEFAULT 0;
+        ALTER TABLE eds_settings ADD CONSTRAINT setting_notnull_generation CHECK (generation IS NOT NULL);
+        CREATE INDEX eds_settings_generation_index ON eds_settings (generation);
+
+        -- =============================================================================
+        -- The Generations are counters, which are increased whenever the Settings,
+        -- Circles or DataTypes are changed. Each EDS instance in the cluster polls the
+        -- counters, and reloads the changed Settings or evicts its in-memory caches,
+        -- when they have been increased by another instance.
+        -- =============================================================================
+        CREATE TABLE eds_generations (
+          id               SERIAL,
+          name             VARCHAR(256),
+          generation       BIGINT DEFAULT 0,
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT generation_pk                  PRIMARY KEY (id),
+
+          /* Unique Constraints */
+          CONSTRAINT generation_unique_name         UNIQUE (name),
+
+          /* Not Null Constraints */
+          CONSTRAINT generation_notnull_id          CHECK (id IS NOT NULL),
+          CONSTRAINT generation_notnull_name        CHECK (name IS NOT NULL),
+          CONSTRAINT generation_notnull_generation  CHECK (generation IS NOT NULL),
+          CONSTRAINT generation_notnull_altered     CHECK (altered IS NOT NULL),
+          CONSTRAINT generation_notnull_added       CHECK (added IS NOT NULL)
+        );
+        INSERT INTO eds_generations (name) VALUES
+            ('settings'),
+            ('circles'),
+            ('datatypes');
+
+        -- =============================================================================
+        -- The Sanity check is partitioned across the EDS instances in the cluster, by
+        -- ranges of Data Ids. Before an instance checks a range, it must hold the Lease
+        -- for it, so the instances are checking disjoint ranges. The Lease expires, if
+        -- it is not renewed, so the range of an instance, which has stopped, is claimed
+        -- by another instance. The Lease also holds the checkpoint of the range, so an
+        -- interrupted check is resumed from where it stopped.
+        -- =============================================================================
+        CREATE TABLE eds_sanity_leases (
+          id               SERIAL,
+          range_start      BIGINT, -- First Data Id of the range
+          owner            VARCHAR(256), -- The EDS instance holding the Lease
+          checkpoint       BIGINT, -- Last checked Data Id, if the range is unfinished
+          expires          TIMESTAMP DEFAULT now(),
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT lease_pk                       PRIMARY KEY (id),
+
+          /* Unique Constraints */
+          CONSTRAINT lease_unique_range_start       UNIQUE (range_start),
+
+          /* Not Null Constraints */
+          CONSTRAINT lease_notnull_id               CHECK (id IS NOT NULL),
+          CONSTRAINT lease_notnull_range_start      CHECK (range_start IS NOT NULL),
+          CONSTRAINT lease_notnull_owner            CHECK (owner IS NOT NULL),
+          CONSTRAINT lease_notnull_expires          CHECK (expires IS NOT NULL),
+          CONSTRAINT lease_notnull_altered          CHECK (altered IS NOT NULL),
+          CONSTRAINT lease_notnull_added            CHECK (added IS NOT NULL)
+        );
+
+        -- Sessions are moved to their own table, so a Member may have multiple
+        -- Sessions, found via a keyed HMAC rather than the MasterKey checksum.
+        -- Existing Sessions cannot be converted, so the Members must login again.
+        ALTER TABLE eds_members DROP CONSTRAINT member_unique_session_checksum;
+        ALTER TABLE eds_members DROP COLUMN session_checksum;
+        ALTER TABLE eds_members DROP COLUMN session_crypto;
+        ALTER TABLE eds_members DROP COLUMN session_expire;
+        -- =============================================================================
+        -- Sessions are important for websites, where a user is logging in, and then
+        -- just works with a session onwards. A Member may have multiple Sessions, i.e.
+        -- one per device or browser, each with its own row in this table. The Session
+        -- is found via the lookup_key, which is a keyed HMAC of the Session Key, where
+        -- the HMAC key is derived from the MasterKey. The crypto field holds the
+        -- member's private key encrypted using both a PBKDF2 symmetric key and the
+        -- MasterKey. And finally, the expires flag, which is pre-calculated with the
+        -- "login time" and the maximum life time of a session. So a Timed service can
+        -- remove any existing sessions which have not been logged out.
+        -- =============================================================================
+        CREATE TABLE eds_sessions (
+          id               SERIAL,
+          member_id        INTEGER,
+          lookup_key       VARCHAR(256),   -- Keyed HMAC of the given Session Key
+          crypto           VARCHAR(16384), -- Private Key, stored encrypted & armored
+          expires          TIMESTAMP,      -- Time, when the Session expires
+          altered          TIMESTAMP DEFAULT now(),
+          added            TIMESTAMP DEFAULT now(),
+
+          /* Primary & Foreign Keys */
+          CONSTRAINT session_pk                     PRIMARY KEY (id),
+          CONSTRAINT session_member_fk              FOREIGN KEY (member_id) REFERENCES eds_members (id) ON DELETE CASCADE,
+
+          /* Unique Constraints */
+          CONSTRAINT session_unique_lookup_key      UNIQUE (lookup_key),
+
+          /* Not Null Constraints */
+          CONSTRAINT session_notnull_id             CHECK (id IS NOT NULL),
+          CONSTRAINT session_notnull_member_id      CHECK (member_id IS NOT NULL),
+          CONSTRAINT session_notnull_lookup_key     CHECK (lookup_key IS NOT NULL),
+          CONSTRAINT session_notnull_crypto         CHECK (crypto IS NOT NULL),
+          CONSTRAINT session_notnull_expires        CHECK (expires IS NOT NULL),
+          CONSTRAINT session_notnull_altered        CHECK (altered IS NOT NULL),
+          CONSTRAINT session_notnull_added          CHECK (added IS NOT NULL)
+        );
+        CREATE INDEX eds_sessions_member_index ON eds_sessions (member_id);
+        -- Expired Sessions are removed by the Sanitizer, which is looking them up
+        -- by their expiration time.
+        CREATE INDEX eds_sessions_expires_index ON eds_sessions (expires);
+
+        -- Save changes for EDS 2.1
+        COMMIT;
+    END IF;
+END $U4$;
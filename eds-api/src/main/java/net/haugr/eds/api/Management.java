@@ -19,6 +19,7 @@ package net.haugr.eds.api;
 import net.haugr.eds.api.common.Action;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.CacheRequest;
 import net.haugr.eds.api.requests.FetchCircleRequest;
 import net.haugr.eds.api.requests.FetchMemberRequest;
 import net.haugr.eds.api.requests.FetchTrusteeRequest;
@@ -30,6 +31,7 @@ import net.haugr.eds.api.requests.ProcessTrusteeRequest;
 import net.haugr.eds.api.requests.SanityRequest;
 import net.haugr.eds.api.requests.SettingRequest;
 import net.haugr.eds.api.responses.AuthenticateResponse;
+import net.haugr.eds.api.responses.CacheResponse;
 import net.haugr.eds.api.responses.FetchCircleResponse;
 import net.haugr.eds.api.responses.FetchMemberResponse;
 import net.haugr.eds.api.responses.FetchTrusteeResponse;
@@ -91,9 +93,11 @@ public interface Management {
      *   </li>
      *   <li>
      *     <b>eds.crypto.asymmetric.algorithm</b> - default value: 'RSA_2048'<br>
-     *     Allowed Values: 'RSA_2048', 'RSA_4096', or 'RSA_8192'<br>
+     *     Allowed Values: 'RSA_2048', 'RSA_4096' or 'RSA_8192'<br>
      *     <i> Asymmetric Encryption (Public &amp; Private Key), is used for
-     *     sharing the Symmetric Keys, not for encrypting any data.</i>
+     *     sharing the Symmetric Keys, not for encrypting any data. Existing
+     *     Members keep their Algorithm until their Credentials are
+     *     changed.</i>
      *   </li>
      *   <li>
      *     <b>eds.crypto.signature.algorithm</b> - default value: 'SHA_512'<br>
@@ -134,6 +138,51 @@ public interface Management {
      *     integrity of the stored data.</i>
      *   </li>
      *   <li>
+     *     <b>eds.crypto.segment.size</b> - default value: '1048576'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>Data Objects larger than this amount of bytes, are encrypted in
+     *     segments of this size, which are processed in parallel. Setting it
+     *     to 0 (zero) will disable the segmented encryption. Existing Data
+     *     Objects remain readable, regardless of this setting.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.crypto.parallelism</b> - default value: '4'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The maximum number of Threads, which are used to encrypt or
+     *     decrypt the segments of a single Data Object, or the Data Objects
+     *     of a single Batch. The Threads are taken from the Managed Executor
+     *     Service of the container, where the total number of Threads is
+     *     configured. Setting it to 1 will process everything by the Thread
+     *     of the request.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.data.chunk.size</b> - default value: '1048576'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>Encrypted Data Objects larger than this amount of bytes, are
+     *     stored in chunks of this size, which are read one at a time.
+     *     Smaller Data Objects are stored as a single value, so they are read
+     *     together with the rest of the Data. Setting it to 0 (zero) will
+     *     store all Data Objects as a single value. Existing Data Objects
+     *     remain readable, regardless of this setting.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.data.blob.directory</b> - default value: ''<br>
+     *     Allowed Values: Any directory, writable by the EDS instance(s)<br>
+     *     <i>If set, Encrypted Data Objects larger than the chunk size, are
+     *     stored as files in this directory, rather than in the database.
+     *     The files are named after their checksum, so identical Data is
+     *     only stored once. The setting may not be changed with this request,
+     *     as existing Data Objects otherwise cannot be read.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.crypto.keypair.pool.size</b> - default value: '4'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The number of Asymmetric KeyPairs, which are pre-generated in
+     *     the background per Algorithm, so creating Accounts or changing
+     *     Credentials doesn't have to wait for the KeyPair generation.
+     *     Setting it to 0 (zero) will disable the pre-generation.</i>
+     *   </li>
+     *   <li>
      *     <b>eds.system.salt</b> - default value: -<br>
      *     Allowed Values: Anything, but it should be hard to guess.<br>
      *     <i>This is the System specific Salt, which will be applied whenever
@@ -220,11 +269,122 @@ public interface Management {
      *     is set to 180 days but it can be altered if needed.</i>
      *   </li>
      *   <li>
+     *     <b>eds.sanity.batch.size</b> - default value: '100'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The number of Data Objects, which the sanity check reads and
+     *     updates in each transaction. At most two batches are held in
+     *     memory at any time.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.workers</b> - default value: '0'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of Threads, which are generating the
+     *     Checksums for the sanity check in parallel. The Threads are taken
+     *     from the Managed Executor Service of the container, where the
+     *     total number of Threads is configured. Setting it to 0 (zero) will
+     *     use one Thread per available processor.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.range.size</b> - default value: '100000'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The Data is split into ranges of this many Ids, so the EDS
+     *     instances in a cluster can run the sanity check in parallel, each
+     *     checking different ranges.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.lease.timeout.minutes</b> - default value: '10'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>An EDS instance checking a range of Data holds a Lease for it,
+     *     which is renewed after each batch. If the instance is stopped, the
+     *     Lease expires after this time, and the range is checked by another
+     *     instance.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.rows.per.second</b> - default value: '0'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of Data Objects, which the sanity check of an
+     *     EDS instance may check per second, so it does not compete with the
+     *     requests. Setting it to 0 (zero) will not limit it.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.bytes.per.second</b> - default value: '0'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of bytes, which the sanity check of an EDS
+     *     instance may read per second. Setting it to 0 (zero) will not
+     *     limit it.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.sanity.backoff.latency.millis</b> - default value: '1000'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>If reading or writing a batch takes longer than this, the
+     *     Database is considered busy, and the sanity check halves its
+     *     speed, and slowly speeds up again, once the Database responds in
+     *     time. Setting it to 0 (zero) will disable the back off.</i>
+     *   </li>
+     *   <li>
      *     <b>eds.session.timeout.minutes</b> - default value: '480'<br>
      *     Allowed Values: Any integer<br>
      *     <i>The maximum amount of time a Session may be used.</i>
      *   </li>
      *   <li>
+     *     <b>eds.session.cache.size</b> - default value: '1024'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of Sessions, for which the unlocked Member
+     *     KeyPair is kept in memory. Session requests found in the cache can
+     *     skip the expensive key derivation. Setting it to 0 (zero) will
+     *     disable the cache.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.session.max.per.member</b> - default value: '10'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of Sessions a Member may have at the same
+     *     time. When a Member logs in with a new Session Key, and already
+     *     has this many Sessions, the oldest Session is ended. Setting it
+     *     to 0 (zero) will allow any number of Sessions.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.circle.key.cache.size</b> - default value: '1024'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum number of decrypted Circle Keys, which is kept in
+     *     memory, so reading and writing Data can skip the expensive
+     *     Asymmetric decryption. Setting it to 0 (zero) will disable the
+     *     cache.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.circle.key.cache.timeout.minutes</b> - default value: '15'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The maximum amount of time a decrypted Circle Key is kept in
+     *     memory.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.rotation.batch.size</b> - default value: '100'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>When a Circle Key or the MasterKey is replaced, the existing
+     *     information is migrated to the new Key in the background. This is
+     *     the number of records, which is migrated in each transaction.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.rotation.batch.pause.millis</b> - default value: '250'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The pause between each batch of the Circle Key or MasterKey
+     *     migration, so the migration will not take over the database.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.rotation.grace.period.days</b> - default value: '30'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The number of days, the previous Circle Key may still be used
+     *     for reading, after it was replaced. If the Data is not migrated
+     *     within this period, the migration will no longer pause between
+     *     the batches.</i>
+     *   </li>
+     *   <li>
+     *     <b>eds.cluster.instances</b> - default value: '1'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>The number of EDS instances sharing the same database. When the
+     *     MasterKey is replaced, the migration will not begin, before this
+     *     number of EDS instances have been given the new MasterKey.</i>
+     *   </li>
+     *   <li>
      *     <b>eds.masterkey.url</b> - default value: ''<br>
      *     Allowed Values: Any valid URL<br>
      *     <i>Reference to a series of bytes, which will be used as the secret,
@@ -262,6 +422,34 @@ public interface Management {
      * Master Key, it and can only be updated by this request, it will make the
      * system completely unusable.</p>
      *
+     * <p>If Member Accounts exists, the Master Key is replaced online. Both
+     * the previous and the new Master Key are kept, while the Member Salts
+     * and Initial Vectors are migrated to the new Master Key in the
+     * background. Until the migration has completed, the Master Key cannot be
+     * replaced again, and if the EDS instance is restarted, the new Master
+     * Key must be used to unlock it.</p>
+     *
+     * <p>If several EDS instances share the same database, every instance
+     * must be given the new Master Key, before the migration can begin. The
+     * procedure is:</p>
+     * <ol>
+     *   <li>Set the setting 'eds.cluster.instances' to the number of EDS
+     *   instances.</li>
+     *   <li>Invoke this request with the new Master Key on one EDS instance.
+     *   It will keep using the previous Master Key for new information, so
+     *   the other instances can still read it.</li>
+     *   <li>Invoke this request with the same new Master Key on each of the
+     *   other EDS instances. They are each unlocked with both Master
+     *   Keys.</li>
+     *   <li>Once all instances are given the new Master Key, they switch to
+     *   it, and the migration begins. This is checked every 5 minutes, so it
+     *   may take up to 10 minutes before the migration begins.</li>
+     * </ol>
+     * <p>Each running instance is identified separately, and renews its
+     * registration every 5 minutes. An instance which is stopped is
+     * forgotten after 15 minutes, and must be given the new Master Key
+     * again, once it is restarted.</p>
+     *
      * @param request Request Object
      * @return Response Object with ReturnCode and Message
      */
@@ -293,6 +481,11 @@ public interface Management {
      * <p>The response Object contain a Map of ObjectIds which has failed, with
      * the value being the timestamp of the first check where it failed.</p>
      *
+     * <p>For the System Administrator, the response also contains the
+     * progress of the current, or last, sanity check, i.e. how many of the
+     * Data Objects due to be checked that remains, the speed so far, and the
+     * estimated time of completion.</p>
+     *
      * @param request Request Object
      * @return Response Object with ReturnCode and Message
      */
@@ -304,11 +497,38 @@ public interface Management {
      * can then be used to synchronize a different storage system if they
      * somehow gets out of sync.</p>
      *
+     * <p>The listing is paginated, either by page number or by giving the Next
+     * Cursor from the previous response as Cursor. The latter is preferred
+     * for large installations, as the page is read from where the previous
+     * ended, rather than skipping all the previous records.</p>
+     *
      * @param request Paginated Request Object for the Inventory Report
      * @return Response Object with Inventory report and Return values
      */
     InventoryResponse inventory(InventoryRequest request);
 
+    /**
+     * <p>The Settings, Circles, Keys &amp; DataTypes are rarely changed, but
+     * read with almost every request, so they are kept in the Second-level
+     * Cache of EDS. This request returns the statistics for each Region of
+     * the Cache, i.e. the number of hits, misses &amp; puts, and the Hit
+     * Ratio, which should be close to 1 for a system in normal use.</p>
+     *
+     * <p>The response also contains the statistics of the Pool of
+     * pre-generated KeyPairs of the EDS instance, i.e. the number of
+     * KeyPairs available per Algorithm, and the rate at which the Pool is
+     * refilled. If the callers often miss the Pool, it should be larger.</p>
+     *
+     * <p>If the Database is altered directly, i.e. not via EDS, then the
+     * Cache must be evicted, which is done by setting the Evict flag. The
+     * statistics returned are the ones from before the eviction. The
+     * request can only be made by the System Administrator.</p>
+     *
+     * @param request Request Object
+     * @return Response Object with the Cache statistics and Return values
+     */
+    CacheResponse caches(CacheRequest request);
+
     /**
      * <p>Simple check to see if a Member is authenticated to work with this
      * EDS instance. The Response will return {@link ReturnCode#SUCCESS}
@@ -367,7 +587,10 @@ public interface Management {
      *
      * <p><b>Login / Logout</b> <i>Linking and unlinking a Session with an
      * Account. This is to help websites to use EDS without needing to store
-     * the Account credentials in an unsafe way.</i></p>
+     * the Account credentials in an unsafe way. A Member may have multiple
+     * Sessions at the same time, i.e. one per device. Logging out with a
+     * Session only ends the given Session, logging out with the Account
+     * credentials ends all Sessions of the Member.</i></p>
      *
      * <p><b>Update existing Member</b> <i>This action will only affect a
      * member's own Account. Whereby it is allowed to change the Account Name,
@@ -428,6 +651,13 @@ public interface Management {
      *   <li><b>{@link Action#DELETE}</b> an existing
      *   Circle from the System. This action cannot be reverted - once Deleted,
      *   the Keys and Data will also be deleted.</li>
+     *   <li><b>{@link Action#ROTATE}</b> the Circle Key of an existing
+     *   Circle. A new Circle Key is issued to all Trustees, and the existing
+     *   Data is migrated to the new Key in the background. Until the
+     *   migration has completed, the Data remains readable with both
+     *   Keys. The new Circle Key is only kept in memory, so if EDS is
+     *   restarted, the migration continues once a Trustee accesses the
+     *   Circle.</li>
      * </ul>
      *
      * @param request Request Object
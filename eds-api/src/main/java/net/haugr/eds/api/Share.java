@@ -17,6 +17,7 @@
 package net.haugr.eds.api;
 
 import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.requests.BatchDataRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.FetchDataTypeRequest;
 import net.haugr.eds.api.requests.FetchSignatureRequest;
@@ -24,6 +25,7 @@ import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.requests.ProcessDataTypeRequest;
 import net.haugr.eds.api.requests.SignRequest;
 import net.haugr.eds.api.requests.VerifyRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
 import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.FetchDataTypeResponse;
 import net.haugr.eds.api.responses.FetchSignatureResponse;
@@ -122,6 +124,23 @@ public interface Share {
      */
     ProcessDataResponse processData(ProcessDataRequest request);
 
+    /**
+     * <p>Adds several Data Objects to the same Circle at once, as if each of
+     * them was added with the {@link Action#ADD} Action of the processData
+     * request. The Member is only authenticated once, and the Circle Key is
+     * only extracted once, so importing many Data Objects is not limited by
+     * the cost of these.</p>
+     *
+     * <p>Each Entry is given its own Result, in the same order as the
+     * Entries. If an Entry cannot be added, i.e. if the name is invalid or
+     * already used in the Folder, then only this Entry is rejected, the
+     * others are still added.</p>
+     *
+     * @param request Request Object
+     * @return Response Object with ReturnCode and Message
+     */
+    BatchDataResponse batchData(BatchDataRequest request);
+
     /**
      * <p>Allow retrieving data for a specific Circle from the System. Unless a
      * specific Data Object is requested, the list of returned information will
@@ -137,6 +156,12 @@ public interface Share {
      * many Metadata Objects should be returned, and also which page number to
      * read from.</p>
      *
+     * <p>For large folders, the Next Cursor from the response should be given
+     * as Cursor in the request for the next page, instead of the page number.
+     * The page is then read from where the previous ended, so all pages take
+     * the same time to read. When there are no more pages, the Next Cursor is
+     * not set.</p>
+     *
      * @param request Request Object
      * @return Response Object with ReturnCode and Message
      */
@@ -108,5 +108,12 @@ public enum Action {
      * from a Circle. A Circle Administrator cannot remove themselves from a
      * Circle.</p>
      */
-    REMOVE
+    REMOVE,
+
+    /**
+     * <p>This Action allows a Circle Administrator to replace the Circle Key
+     * with a new Key. The existing Data is migrated to the new Key in the
+     * background, and can still be read while this is happening.</p>
+     */
+    ROTATE
 }
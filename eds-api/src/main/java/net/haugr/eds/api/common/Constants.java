@@ -109,6 +109,9 @@ public final class Constants {
     /** Max Page Size. */
     public static final int MAX_PAGE_SIZE = 100;
 
+    /** Max Batch Size. */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     // =========================================================================
     // Following is a list of the Field names being used as part of the SOAP
     // WSDL file - they are listed here, so the names can be used as part of
@@ -211,6 +214,56 @@ public final class Constants {
     public static final String FIELD_PAGE_NUMBER = "pageNumber";
     /** Field :: Page Size. */
     public static final String FIELD_PAGE_SIZE = "pageSize";
+    /** Field :: Cursor. */
+    public static final String FIELD_CURSOR = "cursor";
+    /** Field :: Next Cursor. */
+    public static final String FIELD_NEXT_CURSOR = "nextCursor";
+    /** Field :: Evict. */
+    public static final String FIELD_EVICT = "evict";
+    /** Field :: Regions. */
+    public static final String FIELD_REGIONS = "regions";
+    /** Field :: Region. */
+    public static final String FIELD_REGION = "region";
+    /** Field :: Hits. */
+    public static final String FIELD_HITS = "hits";
+    /** Field :: Misses. */
+    public static final String FIELD_MISSES = "misses";
+    /** Field :: Puts. */
+    public static final String FIELD_PUTS = "puts";
+    /** Field :: Hit Ratio. */
+    public static final String FIELD_HIT_RATIO = "hitRatio";
+    /** Field :: KeyPair Pool. */
+    public static final String FIELD_KEYPAIR_POOL = "keyPairPool";
+    /** Field :: Depths. */
+    public static final String FIELD_DEPTHS = "depths";
+    /** Field :: Generated. */
+    public static final String FIELD_GENERATED = "generated";
+    /** Field :: Served. */
+    public static final String FIELD_SERVED = "served";
+    /** Field :: Missed. */
+    public static final String FIELD_MISSED = "missed";
+    /** Field :: Refill Rate. */
+    public static final String FIELD_REFILL_RATE = "refillRate";
+    /** Field :: Average Generation. */
+    public static final String FIELD_AVERAGE_GENERATION = "averageGeneration";
+    /** Field :: Entries. */
+    public static final String FIELD_ENTRIES = "entries";
+    /** Field :: Results. */
+    public static final String FIELD_RESULTS = "results";
+    /** Field :: Progress. */
+    public static final String FIELD_PROGRESS = "progress";
+    /** Field :: Running. */
+    public static final String FIELD_RUNNING = "running";
+    /** Field :: Due. */
+    public static final String FIELD_DUE = "due";
+    /** Field :: Remaining. */
+    public static final String FIELD_REMAINING = "remaining";
+    /** Field :: Completion. */
+    public static final String FIELD_COMPLETION = "completion";
+    /** Field :: Throughput. */
+    public static final String FIELD_THROUGHPUT = "throughput";
+    /** Field :: Estimated Completion. */
+    public static final String FIELD_ESTIMATED_COMPLETION = "estimatedCompletion";
 
     // =========================================================================
     // Following is the part of the URLs for all REST based requests. It is
@@ -231,6 +284,8 @@ public final class Constants {
     public static final String REST_SANITIZED = "/sanitized";
     /** REST endpoint for the Inventory Service. */
     public static final String REST_INVENTORY = "/inventory";
+    /** REST endpoint for the Caches Service. */
+    public static final String REST_CACHES = "/caches";
     /** REST endpoint for the Authenticated Service. */
     public static final String REST_AUTHENTICATED = "/authenticated";
 
@@ -265,6 +320,8 @@ public final class Constants {
     public static final String REST_CIRCLES_UPDATE = "/updateCircle";
     /** REST endpoint for Deleting a Circle of Trust. */
     public static final String REST_CIRCLES_DELETE = "/deleteCircle";
+    /** REST endpoint for Rotating the Key of a Circle of Trust. */
+    public static final String REST_CIRCLES_ROTATE = "/rotateCircleKey";
     /** REST endpoint for Fetching Circles of Trust. */
     public static final String REST_CIRCLES_FETCH = "/fetchCircles";
 
@@ -295,6 +352,8 @@ public final class Constants {
     public static final String REST_DATA_BASE = "/data";
     /** REST endpoint for Adding Data. */
     public static final String REST_DATA_ADD = "/addData";
+    /** REST endpoint for Adding several Data Objects at once. */
+    public static final String REST_DATA_BATCH = "/batchData";
     /** REST endpoint for Copying Data. */
     public static final String REST_DATA_COPY = "/copyData";
     /** REST endpoint for Moving Data. */
@@ -0,0 +1,185 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import net.haugr.eds.api.common.Constants;
+
+import java.io.Serial;
+import java.io.Serializable;
+import jakarta.json.bind.annotation.JsonbNillable;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * The Cache Region Object contain the statistics of a Region of the EDS
+ * Second-level Cache, i.e. the number of times a record was found in the
+ * Cache (hits), the number of times it had to be read from the Database
+ * (misses), and the number of records added to the Cache (puts). The numbers
+ * are counted since the EDS instance was started, or the Caches were last
+ * evicted.
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_REGION, Constants.FIELD_HITS, Constants.FIELD_MISSES, Constants.FIELD_PUTS, Constants.FIELD_HIT_RATIO })
+public final class CacheRegion implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** Region. */
+    @JsonbProperty(value = Constants.FIELD_REGION)
+    @JsonbNillable
+    private String region = null;
+
+    /** Hits. */
+    @JsonbProperty(value = Constants.FIELD_HITS)
+    private long hits = 0;
+
+    /** Misses. */
+    @JsonbProperty(value = Constants.FIELD_MISSES)
+    private long misses = 0;
+
+    /** Puts. */
+    @JsonbProperty(value = Constants.FIELD_PUTS)
+    private long puts = 0;
+
+    /** Hit Ratio. */
+    @JsonbProperty(value = Constants.FIELD_HIT_RATIO)
+    private double hitRatio = 0;
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public CacheRegion() {
+        // Empty Constructor
+    }
+
+    /**
+     * Set the Region Name.
+     *
+     * @param region Region Name
+     */
+    public void setRegion(final String region) {
+        this.region = region;
+    }
+
+    /**
+     * Retrieves the Region Name.
+     *
+     * @return Region Name
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Set the number of Cache Hits.
+     *
+     * @param hits Cache Hits
+     */
+    public void setHits(final long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * Retrieves the number of Cache Hits.
+     *
+     * @return Cache Hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Set the number of Cache Misses.
+     *
+     * @param misses Cache Misses
+     */
+    public void setMisses(final long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * Retrieves the number of Cache Misses.
+     *
+     * @return Cache Misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Set the number of Cache Puts.
+     *
+     * @param puts Cache Puts
+     */
+    public void setPuts(final long puts) {
+        this.puts = puts;
+    }
+
+    /**
+     * Retrieves the number of Cache Puts.
+     *
+     * @return Cache Puts
+     */
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * Set the Hit Ratio, the share of lookups found in the Cache, between
+     * 0 and 1.
+     *
+     * @param hitRatio Hit Ratio
+     */
+    public void setHitRatio(final double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    /**
+     * Retrieves the Hit Ratio.
+     *
+     * @return Hit Ratio
+     */
+    public double getHitRatio() {
+        return hitRatio;
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CacheRegion{" +
+                "region='" + region + '\'' +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", puts=" + puts +
+                ", hitRatio=" + hitRatio +
+                '}';
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import net.haugr.eds.api.common.ByteArrayAdapter;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.Utilities;
+
+import java.io.Serial;
+import java.io.Serializable;
+import jakarta.json.bind.annotation.JsonbNillable;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+import jakarta.json.bind.annotation.JsonbTypeAdapter;
+
+/**
+ * The Data Entry Object is a single Data Object, which is added as part of a
+ * Batch Data Request. It has the same information as the Process Data
+ * Request has, when adding Data, except for the Circle Id, which is given
+ * once for the entire Batch.
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_DATA_NAME, Constants.FIELD_FOLDER_ID, Constants.FIELD_TYPENAME, Constants.FIELD_DATA })
+public final class DataEntry implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** The DataName. */
+    @JsonbProperty(value = Constants.FIELD_DATA_NAME)
+    @JsonbNillable
+    private String dataName = null;
+
+    /** The FolderId. */
+    @JsonbProperty(value = Constants.FIELD_FOLDER_ID)
+    @JsonbNillable
+    private String folderId = null;
+
+    /** The TypeName. */
+    @JsonbProperty(value = Constants.FIELD_TYPENAME)
+    @JsonbNillable
+    private String typeName = null;
+
+    /** The Data. */
+    @JsonbProperty(value = Constants.FIELD_DATA)
+    @JsonbTypeAdapter(ByteArrayAdapter.class)
+    @JsonbNillable
+    private byte[] data = null;
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public DataEntry() {
+        // Empty Constructor
+    }
+
+    /**
+     * Set the DataName.
+     *
+     * @param dataName DataName
+     */
+    public void setDataName(final String dataName) {
+        this.dataName = dataName;
+    }
+
+    /**
+     * Retrieves the DataName.
+     *
+     * @return DataName
+     */
+    public String getDataName() {
+        return dataName;
+    }
+
+    /**
+     * Set the FolderId.
+     *
+     * @param folderId FolderId
+     */
+    public void setFolderId(final String folderId) {
+        this.folderId = folderId;
+    }
+
+    /**
+     * Retrieves the FolderId.
+     *
+     * @return FolderId
+     */
+    public String getFolderId() {
+        return folderId;
+    }
+
+    /**
+     * Set the TypeName.
+     *
+     * @param typeName TypeName
+     */
+    public void setTypeName(final String typeName) {
+        this.typeName = typeName;
+    }
+
+    /**
+     * Retrieves the TypeName.
+     *
+     * @return TypeName
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Set the Data.
+     *
+     * @param data Data
+     */
+    public void setData(final byte[] data) {
+        this.data = Utilities.copy(data);
+    }
+
+    /**
+     * Retrieves the Data.
+     *
+     * @return Data
+     */
+    public byte[] getData() {
+        return Utilities.copy(data);
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "DataEntry{" +
+                "dataName='" + dataName + '\'' +
+                ", folderId='" + folderId + '\'' +
+                ", typeName='" + typeName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+import jakarta.json.bind.annotation.JsonbNillable;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * The Data Result Object contain the outcome of adding a single Data Entry
+ * of a Batch Data Request, i.e. the Return Code and Message, which the
+ * Process Data Request would have given, and the Id of the new Data Object,
+ * if it was added successfully.
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_DATA_NAME, Constants.FIELD_DATA_ID, Constants.FIELD_RETURN_CODE, Constants.FIELD_RETURN_MESSAGE })
+public final class DataResult implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** The DataName. */
+    @JsonbProperty(value = Constants.FIELD_DATA_NAME)
+    @JsonbNillable
+    private String dataName = null;
+
+    /** The DataId. */
+    @JsonbProperty(value = Constants.FIELD_DATA_ID)
+    @JsonbNillable
+    private String dataId = null;
+
+    /** The Return Code. */
+    @JsonbProperty(value = Constants.FIELD_RETURN_CODE)
+    private int returnCode = ReturnCode.SUCCESS.getCode();
+
+    /** The Return Message. */
+    @JsonbProperty(value = Constants.FIELD_RETURN_MESSAGE)
+    @JsonbNillable
+    private String returnMessage = "Ok";
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public DataResult() {
+        // Empty Constructor
+    }
+
+    /**
+     * Set the DataName.
+     *
+     * @param dataName DataName
+     */
+    public void setDataName(final String dataName) {
+        this.dataName = dataName;
+    }
+
+    /**
+     * Retrieves the DataName.
+     *
+     * @return DataName
+     */
+    public String getDataName() {
+        return dataName;
+    }
+
+    /**
+     * Set the DataId.
+     *
+     * @param dataId DataId
+     */
+    public void setDataId(final String dataId) {
+        this.dataId = dataId;
+    }
+
+    /**
+     * Retrieves the DataId.
+     *
+     * @return DataId
+     */
+    public String getDataId() {
+        return dataId;
+    }
+
+    /**
+     * Set the Return Code.
+     *
+     * @param returnCode Return Code
+     */
+    public void setReturnCode(final ReturnCode returnCode) {
+        this.returnCode = returnCode.getCode();
+    }
+
+    /**
+     * Retrieves the Return Code.
+     *
+     * @return Return Code
+     */
+    public int getReturnCode() {
+        return returnCode;
+    }
+
+    /**
+     * Set the Return Message.
+     *
+     * @param returnMessage Return Message
+     */
+    public void setReturnMessage(final String returnMessage) {
+        this.returnMessage = returnMessage;
+    }
+
+    /**
+     * Retrieves the Return Message.
+     *
+     * @return Return Message
+     */
+    public String getReturnMessage() {
+        return returnMessage;
+    }
+
+    /**
+     * Simple check to see if the Data Entry was added successfully.
+     *
+     * @return True if the Data Entry was added, otherwise false
+     */
+    public boolean isOk() {
+        return returnCode == ReturnCode.SUCCESS.getCode();
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "DataResult{" +
+                "dataName='" + dataName + '\'' +
+                ", dataId='" + dataId + '\'' +
+                ", returnCode=" + returnCode +
+                ", returnMessage='" + returnMessage + '\'' +
+                '}';
+    }
+}
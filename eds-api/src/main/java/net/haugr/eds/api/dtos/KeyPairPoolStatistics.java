@@ -0,0 +1,211 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import net.haugr.eds.api.common.Constants;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * The KeyPair Pool Statistics Object contain the statistics of the Pool of
+ * pre-generated KeyPairs of the EDS instance, i.e. the number of KeyPairs
+ * currently available per Algorithm (depths), the number generated in the
+ * background, the number taken from the Pool (served), and the number which
+ * the callers had to generate themselves (missed). The numbers are counted
+ * since the EDS instance was started.
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_DEPTHS, Constants.FIELD_GENERATED, Constants.FIELD_SERVED, Constants.FIELD_MISSED, Constants.FIELD_REFILL_RATE, Constants.FIELD_AVERAGE_GENERATION })
+public final class KeyPairPoolStatistics implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** Depths. */
+    @JsonbProperty(value = Constants.FIELD_DEPTHS)
+    private final HashMap<String, Integer> depths = new HashMap<>(0);
+
+    /** Generated. */
+    @JsonbProperty(value = Constants.FIELD_GENERATED)
+    private long generated = 0;
+
+    /** Served. */
+    @JsonbProperty(value = Constants.FIELD_SERVED)
+    private long served = 0;
+
+    /** Missed. */
+    @JsonbProperty(value = Constants.FIELD_MISSED)
+    private long missed = 0;
+
+    /** Refill Rate. */
+    @JsonbProperty(value = Constants.FIELD_REFILL_RATE)
+    private double refillRate = 0;
+
+    /** Average Generation. */
+    @JsonbProperty(value = Constants.FIELD_AVERAGE_GENERATION)
+    private double averageGeneration = 0;
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public KeyPairPoolStatistics() {
+        // Empty Constructor
+    }
+
+    /**
+     * Set the number of available KeyPairs per Algorithm.
+     *
+     * @param depths Available KeyPairs per Algorithm
+     */
+    public void setDepths(final Map<String, Integer> depths) {
+        this.depths.putAll(depths);
+    }
+
+    /**
+     * Retrieves the number of available KeyPairs per Algorithm.
+     *
+     * @return Available KeyPairs per Algorithm
+     */
+    public Map<String, Integer> getDepths() {
+        return Collections.unmodifiableMap(depths);
+    }
+
+    /**
+     * Set the number of KeyPairs generated in the background.
+     *
+     * @param generated Generated KeyPairs
+     */
+    public void setGenerated(final long generated) {
+        this.generated = generated;
+    }
+
+    /**
+     * Retrieves the number of KeyPairs generated in the background.
+     *
+     * @return Generated KeyPairs
+     */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * Set the number of KeyPairs taken from the Pool.
+     *
+     * @param served Served KeyPairs
+     */
+    public void setServed(final long served) {
+        this.served = served;
+    }
+
+    /**
+     * Retrieves the number of KeyPairs taken from the Pool.
+     *
+     * @return Served KeyPairs
+     */
+    public long getServed() {
+        return served;
+    }
+
+    /**
+     * Set the number of KeyPairs, which the callers had to generate, as the
+     * Pool was empty.
+     *
+     * @param missed Missed KeyPairs
+     */
+    public void setMissed(final long missed) {
+        this.missed = missed;
+    }
+
+    /**
+     * Retrieves the number of KeyPairs, which the callers had to generate.
+     *
+     * @return Missed KeyPairs
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    /**
+     * Set the number of KeyPairs generated in the background per minute.
+     *
+     * @param refillRate KeyPairs per minute
+     */
+    public void setRefillRate(final double refillRate) {
+        this.refillRate = refillRate;
+    }
+
+    /**
+     * Retrieves the number of KeyPairs generated in the background per
+     * minute.
+     *
+     * @return KeyPairs per minute
+     */
+    public double getRefillRate() {
+        return refillRate;
+    }
+
+    /**
+     * Set the average time it takes to generate a KeyPair in milliseconds.
+     *
+     * @param averageGeneration Average generation time in milliseconds
+     */
+    public void setAverageGeneration(final double averageGeneration) {
+        this.averageGeneration = averageGeneration;
+    }
+
+    /**
+     * Retrieves the average time it takes to generate a KeyPair in
+     * milliseconds.
+     *
+     * @return Average generation time in milliseconds
+     */
+    public double getAverageGeneration() {
+        return averageGeneration;
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "KeyPairPoolStatistics{" +
+                "depths=" + depths +
+                ", generated=" + generated +
+                ", served=" + served +
+                ", missed=" + missed +
+                ", refillRate=" + refillRate +
+                ", averageGeneration=" + averageGeneration +
+                '}';
+    }
+}
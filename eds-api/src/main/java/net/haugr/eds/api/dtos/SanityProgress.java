@@ -0,0 +1,214 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import net.haugr.eds.api.common.Constants;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import jakarta.json.bind.annotation.JsonbDateFormat;
+import jakarta.json.bind.annotation.JsonbNillable;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * The Sanity Progress Object contain the progress of the current, or last,
+ * sanity check, i.e. the number of Data Objects which were due to be checked,
+ * when the check started, the number which are still remaining, and from the
+ * speed so far, the estimated time of completion. The numbers are for all
+ * EDS instances, as they are sharing the sanity check.
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_RUNNING, Constants.FIELD_DUE, Constants.FIELD_REMAINING, Constants.FIELD_COMPLETION, Constants.FIELD_THROUGHPUT, Constants.FIELD_ESTIMATED_COMPLETION })
+public final class SanityProgress implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** Running. */
+    @JsonbProperty(value = Constants.FIELD_RUNNING)
+    private boolean running = false;
+
+    /** Due. */
+    @JsonbProperty(value = Constants.FIELD_DUE)
+    private long due = 0;
+
+    /** Remaining. */
+    @JsonbProperty(value = Constants.FIELD_REMAINING)
+    private long remaining = 0;
+
+    /** Completion. */
+    @JsonbProperty(value = Constants.FIELD_COMPLETION)
+    private double completion = 0;
+
+    /** Throughput. */
+    @JsonbProperty(value = Constants.FIELD_THROUGHPUT)
+    private double throughput = 0;
+
+    /** Estimated Completion. */
+    @JsonbProperty(value = Constants.FIELD_ESTIMATED_COMPLETION)
+    @JsonbDateFormat(Constants.JSON_DATE_FORMAT)
+    @JsonbNillable
+    private LocalDateTime estimatedCompletion = null;
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public SanityProgress() {
+        // Empty Constructor
+    }
+
+    /**
+     * Set if the sanity check is running on the EDS instance.
+     *
+     * @param running True if running, otherwise false
+     */
+    public void setRunning(final boolean running) {
+        this.running = running;
+    }
+
+    /**
+     * Retrieves if the sanity check is running on the EDS instance.
+     *
+     * @return True if running, otherwise false
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Set the number of Data Objects due to be checked, when the sanity
+     * check started.
+     *
+     * @param due Number of Data Objects due
+     */
+    public void setDue(final long due) {
+        this.due = due;
+    }
+
+    /**
+     * Retrieves the number of Data Objects due to be checked, when the
+     * sanity check started.
+     *
+     * @return Number of Data Objects due
+     */
+    public long getDue() {
+        return due;
+    }
+
+    /**
+     * Set the number of Data Objects still to be checked.
+     *
+     * @param remaining Number of remaining Data Objects
+     */
+    public void setRemaining(final long remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * Retrieves the number of Data Objects still to be checked.
+     *
+     * @return Number of remaining Data Objects
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Set the share of the due Data Objects, which have been checked,
+     * between 0 and 1.
+     *
+     * @param completion Completed share
+     */
+    public void setCompletion(final double completion) {
+        this.completion = completion;
+    }
+
+    /**
+     * Retrieves the share of the due Data Objects, which have been checked.
+     *
+     * @return Completed share
+     */
+    public double getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Set the number of Data Objects checked per second.
+     *
+     * @param throughput Data Objects per second
+     */
+    public void setThroughput(final double throughput) {
+        this.throughput = throughput;
+    }
+
+    /**
+     * Retrieves the number of Data Objects checked per second.
+     *
+     * @return Data Objects per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Set the estimated time, when the sanity check is completed.
+     *
+     * @param estimatedCompletion Estimated time of completion
+     */
+    public void setEstimatedCompletion(final LocalDateTime estimatedCompletion) {
+        this.estimatedCompletion = estimatedCompletion;
+    }
+
+    /**
+     * Retrieves the estimated time, when the sanity check is completed. If
+     * the sanity check is not running, or has not yet checked anything, then
+     * no estimate can be given, and null is returned.
+     *
+     * @return Estimated time of completion, or null
+     */
+    public LocalDateTime getEstimatedCompletion() {
+        return estimatedCompletion;
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "SanityProgress{" +
+                "running=" + running +
+                ", due=" + due +
+                ", remaining=" + remaining +
+                ", completion=" + completion +
+                ", throughput=" + throughput +
+                ", estimatedCompletion=" + estimatedCompletion +
+                '}';
+    }
+}
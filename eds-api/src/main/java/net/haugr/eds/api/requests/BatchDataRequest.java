@@ -0,0 +1,132 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.requests;
+
+import jakarta.json.bind.annotation.JsonbNillable;
+import net.haugr.eds.api.Share;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.dtos.DataEntry;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>The Request Object for adding several Data Objects to a Circle at once.
+ * The Circle Id is required, and the Entries must contain at least 1 and at
+ * most {@link Constants#MAX_BATCH_SIZE} Data Objects. Each Entry must have a
+ * name, and may have a Folder Id, a Type Name and the Data, like the
+ * <b>ADD</b> Action of the Process Data Request.</p>
+ *
+ * <p>The Entries are not validated with the Request, instead each Entry is
+ * given its own result, so an invalid Entry will not prevent the others from
+ * being added.</p>
+ *
+ * <p>For more details, please see the 'batchData' request in the Share
+ * interface: {@link Share#batchData(BatchDataRequest)}</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_CIRCLE_ID, Constants.FIELD_ENTRIES })
+public final class BatchDataRequest extends Authentication implements CircleIdRequest {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** The CircleId. */
+    @JsonbProperty(value = Constants.FIELD_CIRCLE_ID)
+    @JsonbNillable
+    private String circleId = null;
+
+    /** The Data Entries. */
+    @JsonbProperty(value = Constants.FIELD_ENTRIES)
+    private final List<DataEntry> entries = new ArrayList<>(0);
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public BatchDataRequest() {
+        // Generating JavaDoc requires an explicit Constructor, SonarQube
+        // requires explicit comment in empty methods, hence this comment
+        // for the default, empty, constructor.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCircleId(final String circleId) {
+        this.circleId = circleId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCircleId() {
+        return circleId;
+    }
+
+    /**
+     * Set the Data Entries.
+     *
+     * @param entries Data Entries
+     */
+    public void setEntries(final List<DataEntry> entries) {
+        this.entries.clear();
+        if (entries != null) {
+            this.entries.addAll(entries);
+        }
+    }
+
+    /**
+     * Retrieves the Data Entries.
+     *
+     * @return Data Entries
+     */
+    public List<DataEntry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, String> validate() {
+        final Map<String, String> errors = super.validate();
+
+        checkNotNullAndValidId(errors, Constants.FIELD_CIRCLE_ID, circleId, "The Circle Id is missing or invalid.");
+        if (entries.isEmpty() || (entries.size() > Constants.MAX_BATCH_SIZE)) {
+            errors.put(Constants.FIELD_ENTRIES, "The Entries must contain between 1 and " + Constants.MAX_BATCH_SIZE + " Data Objects.");
+        }
+
+        return errors;
+    }
+}
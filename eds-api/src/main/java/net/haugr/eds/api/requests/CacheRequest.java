@@ -0,0 +1,79 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.requests;
+
+import jakarta.json.bind.annotation.JsonbNillable;
+import net.haugr.eds.api.Management;
+import net.haugr.eds.api.common.Constants;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+import java.io.Serial;
+
+/**
+ * <p>Object is used to retrieve the statistics of the EDS Second-level
+ * Cache, and optionally to evict all records from it.</p>
+ *
+ * <p>For more details, please see the 'caches' request in the Management
+ * interface: {@link Management#caches(CacheRequest)}</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_EVICT })
+public final class CacheRequest extends Authentication {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** Evict. */
+    @JsonbProperty(value = Constants.FIELD_EVICT)
+    @JsonbNillable
+    private Boolean evict = false;
+
+    // =========================================================================
+    // Standard Methods (Constructor, Setters & Getters)
+    // =========================================================================
+
+    /**
+     * Default Constructor.
+     */
+    public CacheRequest() {
+        // Generating JavaDoc requires an explicit Constructor, SonarQube
+        // requires explicit comment in empty methods, hence this comment
+        // for the default, empty, constructor.
+    }
+
+    /**
+     * Set the Evict flag, if true, all records are evicted from the Cache
+     * after the statistics have been read.
+     *
+     * @param evict Evict flag
+     */
+    public void setEvict(final Boolean evict) {
+        this.evict = evict;
+    }
+
+    /**
+     * Retrieves the Evict flag.
+     *
+     * @return Evict flag
+     */
+    public Boolean getEvict() {
+        return evict;
+    }
+}
@@ -31,6 +31,11 @@ import java.util.Map;
  * and any positive number. If the number exceeds the number of records, it will
  * simply result in an empty list of Objects being returned.</p>
  *
+ * <p>Rather than the page number, the Next Cursor from the response to the
+ * previous page can be given as Cursor. The next page is then read from where
+ * the previous ended, so reading deep into a large folder is as fast as
+ * reading the first page.</p>
+ *
  * <p>For more details, please see the 'fetchData' request in the Share
  * interface: {@link Share#fetchData(FetchDataRequest)}</p>
  *
@@ -42,6 +47,7 @@ import java.util.Map;
         Constants.FIELD_DATA_ID,
         Constants.FIELD_PAGE_NUMBER,
         Constants.FIELD_PAGE_SIZE,
+        Constants.FIELD_CURSOR,
         Constants.FIELD_DATA_NAME })
 public final class FetchDataRequest extends Authentication implements CircleIdRequest {
 
@@ -69,6 +75,11 @@ public final class FetchDataRequest extends Authentication implements CircleIdRe
     @JsonbNillable
     private Integer pageSize = Constants.MAX_PAGE_SIZE;
 
+    /** Cursor. */
+    @JsonbProperty(value = Constants.FIELD_CURSOR)
+    @JsonbNillable
+    private String cursor = null;
+
     /** DataName. */
     @JsonbProperty(value = Constants.FIELD_DATA_NAME)
     @JsonbNillable
@@ -157,6 +168,26 @@ public final class FetchDataRequest extends Authentication implements CircleIdRe
         return pageSize;
     }
 
+    /**
+     * Set the Cursor, which is the Next Cursor from the response to the
+     * previous page. If given, the next page is read from where the
+     * previous page ended, and the Page Number is ignored.
+     *
+     * @param cursor Cursor
+     */
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Retrieves the Cursor.
+     *
+     * @return Cursor
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
     /**
      * Set the DataName.
      *
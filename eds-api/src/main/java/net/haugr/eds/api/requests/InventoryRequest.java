@@ -33,7 +33,7 @@ import java.util.Map;
  * @author Kim Jensen
  * @since EDS 1.2
  */
-@JsonbPropertyOrder({ Constants.FIELD_PAGE_NUMBER, Constants.FIELD_PAGE_SIZE })
+@JsonbPropertyOrder({ Constants.FIELD_PAGE_NUMBER, Constants.FIELD_PAGE_SIZE, Constants.FIELD_CURSOR })
 public final class InventoryRequest extends Authentication {
 
     /** {@link Constants#SERIAL_VERSION_UID}. */
@@ -50,6 +50,11 @@ public final class InventoryRequest extends Authentication {
     @JsonbNillable
     private Integer pageSize = Constants.MAX_PAGE_SIZE;
 
+    /** Cursor. */
+    @JsonbProperty(value = Constants.FIELD_CURSOR)
+    @JsonbNillable
+    private String cursor = null;
+
     // =========================================================================
     // Standard Methods (Constructor, Setters & Getters)
     // =========================================================================
@@ -99,6 +104,26 @@ public final class InventoryRequest extends Authentication {
         return pageSize;
     }
 
+    /**
+     * Set the Cursor, which is the Next Cursor from the response to the
+     * previous page. If given, the next page is read from where the
+     * previous page ended, and the Page Number is ignored.
+     *
+     * @param cursor Cursor
+     */
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Retrieves the Cursor.
+     *
+     * @return Cursor
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
     // =========================================================================
     // Standard Methods
     // =========================================================================
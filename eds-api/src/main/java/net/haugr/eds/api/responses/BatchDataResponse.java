@@ -0,0 +1,106 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.responses;
+
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.DataResult;
+
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Response contains a Result for each Entry of the Batch Data Request, in
+ * the same order as the Entries were given. The Response itself is
+ * successful, if the Batch could be processed, whether an Entry was added, is
+ * given by its Result.</p>
+ *
+ * <p>Please see {@link EDSResponse} for information about the result of the
+ * processing.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_RESULTS })
+public class BatchDataResponse extends EDSResponse {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** The List of Data Results. */
+    @JsonbProperty(Constants.FIELD_RESULTS)
+    private final List<DataResult> results = new ArrayList<>(0);
+
+    // =========================================================================
+    // Object Constructors
+    // =========================================================================
+
+    /**
+     * Empty Constructor, to use if the setters are invoked. This is required
+     * for WebServices to work properly.
+     */
+    public BatchDataResponse() {
+        // Empty Constructor, required for WebServices
+    }
+
+    /**
+     * Constructor for more detailed responses.
+     *
+     * @param returnMessage The EDS Return Message
+     */
+    public BatchDataResponse(final String returnMessage) {
+        super(returnMessage);
+    }
+
+    /**
+     * Error Constructor, used if an error occurred, and the request could not
+     * complete successfully.
+     *
+     * @param returnCode    The EDS Return Code
+     * @param returnMessage The EDS Return Message
+     */
+    public BatchDataResponse(final ReturnCode returnCode, final String returnMessage) {
+        super(returnCode, returnMessage);
+    }
+
+    // =========================================================================
+    // Setters & Getters
+    // =========================================================================
+
+    /**
+     * Set the List of Data Results.
+     *
+     * @param results List of Data Results
+     */
+    public void setResults(final List<DataResult> results) {
+        this.results.addAll(results);
+    }
+
+    /**
+     * Retrieves the List of Data Results.
+     *
+     * @return List of Data Results
+     */
+    public List<DataResult> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.responses;
+
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.CacheRegion;
+import net.haugr.eds.api.dtos.KeyPairPoolStatistics;
+
+import jakarta.json.bind.annotation.JsonbNillable;
+import jakarta.json.bind.annotation.JsonbProperty;
+import jakarta.json.bind.annotation.JsonbPropertyOrder;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Response contains the statistics of the Regions of the EDS
+ * Second-level Cache, and of the Pool of pre-generated KeyPairs of the EDS
+ * instance.</p>
+ *
+ * <p>Please see {@link EDSResponse} for information about the result of the
+ * processing.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@JsonbPropertyOrder({ Constants.FIELD_REGIONS, Constants.FIELD_KEYPAIR_POOL })
+public class CacheResponse extends EDSResponse {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    @Serial
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    /** The List of Cache Regions. */
+    @JsonbProperty(Constants.FIELD_REGIONS)
+    private final List<CacheRegion> regions = new ArrayList<>(0);
+
+    /** The KeyPair Pool Statistics. */
+    @JsonbProperty(Constants.FIELD_KEYPAIR_POOL)
+    @JsonbNillable
+    private KeyPairPoolStatistics keyPairPool = null;
+
+    // =========================================================================
+    // Object Constructors
+    // =========================================================================
+
+    /**
+     * Empty Constructor, to use if the setters are invoked. This is required
+     * for WebServices to work properly.
+     */
+    public CacheResponse() {
+        // Empty Constructor, required for WebServices
+    }
+
+    /**
+     * Error Constructor, used if an error occurred, and the request could not
+     * complete successfully.
+     *
+     * @param returnCode    The EDS Return Code
+     * @param returnMessage The EDS Return Message
+     */
+    public CacheResponse(final ReturnCode returnCode, final String returnMessage) {
+        super(returnCode, returnMessage);
+    }
+
+    // =========================================================================
+    // Setters & Getters
+    // =========================================================================
+
+    /**
+     * Set the List of Cache Regions.
+     *
+     * @param regions List of Cache Regions
+     */
+    public void setRegions(final List<CacheRegion> regions) {
+        this.regions.addAll(regions);
+    }
+
+    /**
+     * Retrieves the List of Cache Regions.
+     *
+     * @return List of Cache Regions
+     */
+    public List<CacheRegion> getRegions() {
+        return Collections.unmodifiableList(regions);
+    }
+
+    /**
+     * Set the KeyPair Pool Statistics.
+     *
+     * @param keyPairPool KeyPair Pool Statistics
+     */
+    public void setKeyPairPool(final KeyPairPoolStatistics keyPairPool) {
+        this.keyPairPool = keyPairPool;
+    }
+
+    /**
+     * Retrieves the KeyPair Pool Statistics.
+     *
+     * @return KeyPair Pool Statistics, or null
+     */
+    public KeyPairPoolStatistics getKeyPairPool() {
+        return keyPairPool;
+    }
+}
@@ -50,6 +50,7 @@ import java.util.List;
 @JsonbPropertyOrder({
         Constants.FIELD_METADATA,
         Constants.FIELD_RECORDS,
+        Constants.FIELD_NEXT_CURSOR,
         Constants.FIELD_DATA })
 public final class FetchDataResponse extends EDSResponse {
 
@@ -65,6 +66,10 @@ public final class FetchDataResponse extends EDSResponse {
     @JsonbProperty(Constants.FIELD_RECORDS)
     private long records = 0;
 
+    /** The Next Cursor. */
+    @JsonbProperty(Constants.FIELD_NEXT_CURSOR)
+    private String nextCursor = null;
+
     /** The Data. */
     @JsonbProperty(Constants.FIELD_DATA)
     @JsonbTypeAdapter(ByteArrayAdapter.class)
@@ -133,6 +138,25 @@ public final class FetchDataResponse extends EDSResponse {
         return records;
     }
 
+    /**
+     * Set the Next Cursor.
+     *
+     * @param nextCursor Next Cursor
+     */
+    public void setNextCursor(final String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Retrieves the Next Cursor, which is given as Cursor in the request
+     * for the next page. If there are no more records, it is null.
+     *
+     * @return Next Cursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     /**
      * Set the Data.
      *
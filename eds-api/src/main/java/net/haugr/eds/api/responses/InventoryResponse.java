@@ -36,7 +36,7 @@ import java.util.List;
  * @author Kim Jensen
  * @since EDS 1.2
  */
-@JsonbPropertyOrder({ Constants.FIELD_INVENTORY, Constants.FIELD_RECORDS })
+@JsonbPropertyOrder({ Constants.FIELD_INVENTORY, Constants.FIELD_RECORDS, Constants.FIELD_NEXT_CURSOR })
 public class InventoryResponse extends EDSResponse {
 
     /** {@link Constants#SERIAL_VERSION_UID}. */
@@ -51,6 +51,10 @@ public class InventoryResponse extends EDSResponse {
     @JsonbProperty(Constants.FIELD_RECORDS)
     private long records = 0;
 
+    /** The Next Cursor. */
+    @JsonbProperty(Constants.FIELD_NEXT_CURSOR)
+    private String nextCursor = null;
+
     // =========================================================================
     // Object Constructors
     // =========================================================================
@@ -113,4 +117,23 @@ public class InventoryResponse extends EDSResponse {
     public long getRecords() {
         return records;
     }
+
+    /**
+     * Set the Next Cursor.
+     *
+     * @param nextCursor Next Cursor
+     */
+    public void setNextCursor(final String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Retrieves the Next Cursor, which is given as Cursor in the request
+     * for the next page. If there are no more records, it is null.
+     *
+     * @return Next Cursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
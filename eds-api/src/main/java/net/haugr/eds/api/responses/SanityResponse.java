@@ -19,7 +19,9 @@ package net.haugr.eds.api.responses;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.dtos.Sanity;
+import net.haugr.eds.api.dtos.SanityProgress;
 
+import jakarta.json.bind.annotation.JsonbNillable;
 import jakarta.json.bind.annotation.JsonbProperty;
 import jakarta.json.bind.annotation.JsonbPropertyOrder;
 import java.io.Serial;
@@ -39,13 +41,16 @@ import java.util.List;
  * <p>For any system, having <i>any</i> results from request is considered a
  * disaster, as the underlying data storage cannot be trusted.</p>
  *
+ * <p>For the System Administrator, the response also contains the progress
+ * of the current, or last, sanity check.</p>
+ *
  * <p>Please see {@link EDSResponse} for information about the result of the
  * processing.</p>
  *
  * @author Kim Jensen
  * @since EDS 1.0
  */
-@JsonbPropertyOrder(Constants.FIELD_SANITIES)
+@JsonbPropertyOrder({ Constants.FIELD_SANITIES, Constants.FIELD_PROGRESS })
 public final class SanityResponse extends EDSResponse {
 
     /** {@link Constants#SERIAL_VERSION_UID}. */
@@ -56,6 +61,11 @@ public final class SanityResponse extends EDSResponse {
     @JsonbProperty(Constants.FIELD_SANITIES)
     private final List<Sanity> sanities = new ArrayList<>(0);
 
+    /** The Progress of the Sanity check. */
+    @JsonbProperty(Constants.FIELD_PROGRESS)
+    @JsonbNillable
+    private SanityProgress progress = null;
+
     // =========================================================================
     // Object Constructors
     // =========================================================================
@@ -100,4 +110,23 @@ public final class SanityResponse extends EDSResponse {
     public List<Sanity> getSanities() {
         return Collections.unmodifiableList(sanities);
     }
+
+    /**
+     * Set the Progress of the Sanity check.
+     *
+     * @param progress Sanity Progress
+     */
+    public void setProgress(final SanityProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Retrieves the Progress of the Sanity check, only given to the System
+     * Administrator.
+     *
+     * @return Sanity Progress, or null
+     */
+    public SanityProgress getProgress() {
+        return progress;
+    }
 }
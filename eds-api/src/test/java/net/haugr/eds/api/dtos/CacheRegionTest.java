@@ -0,0 +1,62 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class CacheRegionTest {
+
+    @Test
+    void testClassFlow() {
+        final String region = "net.haugr.eds.core.model.entities.CircleEntity";
+
+        final CacheRegion cacheRegion = new CacheRegion();
+        cacheRegion.setRegion(region);
+        cacheRegion.setHits(3L);
+        cacheRegion.setMisses(1L);
+        cacheRegion.setPuts(1L);
+        cacheRegion.setHitRatio(0.75);
+
+        assertEquals(region, cacheRegion.getRegion());
+        assertEquals(3L, cacheRegion.getHits());
+        assertEquals(1L, cacheRegion.getMisses());
+        assertEquals(1L, cacheRegion.getPuts());
+        assertEquals(0.75, cacheRegion.getHitRatio());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final CacheRegion cacheRegion = new CacheRegion();
+        final CacheRegion sameCacheRegion = new CacheRegion();
+        final CacheRegion emptyCacheRegion = new CacheRegion();
+
+        cacheRegion.setRegion("default-query-results-region");
+        cacheRegion.setHits(2L);
+        sameCacheRegion.setRegion(cacheRegion.getRegion());
+        sameCacheRegion.setHits(cacheRegion.getHits());
+
+        assertEquals(sameCacheRegion.toString(), cacheRegion.toString());
+        assertNotEquals(emptyCacheRegion.toString(), cacheRegion.toString());
+    }
+}
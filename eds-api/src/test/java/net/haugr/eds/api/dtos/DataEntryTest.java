@@ -0,0 +1,66 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class DataEntryTest {
+
+    @Test
+    void testClassFlow() {
+        final String dataName = "Data Name";
+        final String folderId = UUID.randomUUID().toString();
+        final String typeName = "The Type";
+        final byte[] data = { (byte) 1, (byte) 2, (byte) 3 };
+
+        final DataEntry entry = new DataEntry();
+        entry.setDataName(dataName);
+        entry.setFolderId(folderId);
+        entry.setTypeName(typeName);
+        entry.setData(data);
+
+        assertEquals(dataName, entry.getDataName());
+        assertEquals(folderId, entry.getFolderId());
+        assertEquals(typeName, entry.getTypeName());
+        assertArrayEquals(data, entry.getData());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final DataEntry entry = new DataEntry();
+        final DataEntry sameEntry = new DataEntry();
+        final DataEntry emptyEntry = new DataEntry();
+
+        entry.setDataName("Data Name");
+        entry.setData(new byte[] { (byte) 1 });
+        sameEntry.setDataName(entry.getDataName());
+        sameEntry.setData(new byte[] { (byte) 2 });
+
+        // The Data is not part of the String representation
+        assertEquals(sameEntry.toString(), entry.toString());
+        assertNotEquals(emptyEntry.toString(), entry.toString());
+    }
+}
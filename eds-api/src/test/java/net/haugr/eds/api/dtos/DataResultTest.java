@@ -0,0 +1,70 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.haugr.eds.api.common.ReturnCode;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class DataResultTest {
+
+    @Test
+    void testClassFlow() {
+        final String dataName = "Data Name";
+        final String dataId = UUID.randomUUID().toString();
+
+        final DataResult result = new DataResult();
+        assertTrue(result.isOk());
+        assertEquals("Ok", result.getReturnMessage());
+
+        result.setDataName(dataName);
+        result.setDataId(dataId);
+        assertEquals(dataName, result.getDataName());
+        assertEquals(dataId, result.getDataId());
+        assertEquals(ReturnCode.SUCCESS.getCode(), result.getReturnCode());
+
+        result.setReturnCode(ReturnCode.IDENTIFICATION_WARNING);
+        result.setReturnMessage("The name is already used.");
+        assertFalse(result.isOk());
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), result.getReturnCode());
+        assertEquals("The name is already used.", result.getReturnMessage());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final DataResult result = new DataResult();
+        final DataResult sameResult = new DataResult();
+        final DataResult emptyResult = new DataResult();
+
+        result.setDataName("Data Name");
+        result.setReturnCode(ReturnCode.VERIFICATION_WARNING);
+        sameResult.setDataName(result.getDataName());
+        sameResult.setReturnCode(ReturnCode.VERIFICATION_WARNING);
+
+        assertEquals(sameResult.toString(), result.toString());
+        assertNotEquals(emptyResult.toString(), result.toString());
+    }
+}
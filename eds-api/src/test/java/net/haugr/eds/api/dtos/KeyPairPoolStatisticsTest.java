@@ -0,0 +1,65 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class KeyPairPoolStatisticsTest {
+
+    @Test
+    void testClassFlow() {
+        final Map<String, Integer> depths = Map.of("RSA_2048", 4);
+
+        final KeyPairPoolStatistics statistics = new KeyPairPoolStatistics();
+        statistics.setDepths(depths);
+        statistics.setGenerated(10L);
+        statistics.setServed(6L);
+        statistics.setMissed(1L);
+        statistics.setRefillRate(2.5);
+        statistics.setAverageGeneration(120.0);
+
+        assertEquals(depths, statistics.getDepths());
+        assertEquals(10L, statistics.getGenerated());
+        assertEquals(6L, statistics.getServed());
+        assertEquals(1L, statistics.getMissed());
+        assertEquals(2.5, statistics.getRefillRate());
+        assertEquals(120.0, statistics.getAverageGeneration());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final KeyPairPoolStatistics statistics = new KeyPairPoolStatistics();
+        final KeyPairPoolStatistics sameStatistics = new KeyPairPoolStatistics();
+        final KeyPairPoolStatistics emptyStatistics = new KeyPairPoolStatistics();
+
+        statistics.setDepths(Map.of("RSA_2048", 2));
+        statistics.setServed(3L);
+        sameStatistics.setDepths(statistics.getDepths());
+        sameStatistics.setServed(statistics.getServed());
+
+        assertEquals(sameStatistics.toString(), statistics.toString());
+        assertNotEquals(emptyStatistics.toString(), statistics.toString());
+    }
+}
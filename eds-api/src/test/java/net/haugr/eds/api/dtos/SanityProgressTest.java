@@ -0,0 +1,66 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class SanityProgressTest {
+
+    @Test
+    void testClassFlow() {
+        final LocalDateTime estimatedCompletion = LocalDateTime.now().plusHours(1);
+
+        final SanityProgress progress = new SanityProgress();
+        progress.setRunning(true);
+        progress.setDue(100L);
+        progress.setRemaining(25L);
+        progress.setCompletion(0.75);
+        progress.setThroughput(12.5);
+        progress.setEstimatedCompletion(estimatedCompletion);
+
+        assertTrue(progress.isRunning());
+        assertEquals(100L, progress.getDue());
+        assertEquals(25L, progress.getRemaining());
+        assertEquals(0.75, progress.getCompletion());
+        assertEquals(12.5, progress.getThroughput());
+        assertEquals(estimatedCompletion, progress.getEstimatedCompletion());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final SanityProgress progress = new SanityProgress();
+        final SanityProgress sameProgress = new SanityProgress();
+        final SanityProgress emptyProgress = new SanityProgress();
+
+        progress.setRunning(true);
+        progress.setDue(10L);
+        sameProgress.setRunning(progress.isRunning());
+        sameProgress.setDue(progress.getDue());
+
+        assertEquals(sameProgress.toString(), progress.toString());
+        assertNotEquals(emptyProgress.toString(), progress.toString());
+    }
+}
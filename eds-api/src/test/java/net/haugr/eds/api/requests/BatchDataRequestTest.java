@@ -0,0 +1,83 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.haugr.eds.api.TestUtilities;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.CredentialType;
+import net.haugr.eds.api.dtos.DataEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class BatchDataRequestTest {
+
+    @Test
+    void testClassFlow() {
+        final String circleId = UUID.randomUUID().toString();
+        final List<DataEntry> entries = List.of(new DataEntry(), new DataEntry());
+
+        final BatchDataRequest request = new BatchDataRequest();
+        request.setAccountName(Constants.ADMIN_ACCOUNT);
+        request.setCredentialType(CredentialType.PASSPHRASE);
+        request.setCredential(TestUtilities.convert(Constants.ADMIN_ACCOUNT));
+        request.setCircleId(circleId);
+        request.setEntries(entries);
+
+        assertEquals(circleId, request.getCircleId());
+        assertEquals(entries, request.getEntries());
+        assertTrue(request.validate().isEmpty());
+    }
+
+    @Test
+    void testEmptyClass() {
+        final BatchDataRequest request = new BatchDataRequest();
+        request.setAccountName("");
+        request.setCredentialType(null);
+        request.setEntries(null);
+
+        final Map<String, String> errors = request.validate();
+        assertEquals(4, errors.size());
+        assertEquals("AccountName is missing, null or invalid.", errors.get(Constants.FIELD_ACCOUNT_NAME));
+        assertEquals("The Credential is missing.", errors.get(Constants.FIELD_CREDENTIAL));
+        assertEquals("The Circle Id is missing or invalid.", errors.get(Constants.FIELD_CIRCLE_ID));
+        assertEquals("The Entries must contain between 1 and 1000 Data Objects.", errors.get(Constants.FIELD_ENTRIES));
+    }
+
+    @Test
+    void testTooManyEntries() {
+        final BatchDataRequest request = new BatchDataRequest();
+        request.setAccountName(Constants.ADMIN_ACCOUNT);
+        request.setCredential(TestUtilities.convert(Constants.ADMIN_ACCOUNT));
+        request.setCircleId(UUID.randomUUID().toString());
+        request.setEntries(new ArrayList<>(Collections.nCopies(Constants.MAX_BATCH_SIZE + 1, new DataEntry())));
+
+        final Map<String, String> errors = request.validate();
+        assertEquals(1, errors.size());
+        assertEquals("The Entries must contain between 1 and 1000 Data Objects.", errors.get(Constants.FIELD_ENTRIES));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.requests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.haugr.eds.api.TestUtilities;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.CredentialType;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class CacheRequestTest {
+
+    @Test
+    void testClassFlow() {
+        final String name = "Authentication Name";
+        final String credentials = "Member Passphrase";
+
+        final CacheRequest request = new CacheRequest();
+        assertFalse(request.getEvict());
+
+        request.setAccountName(name);
+        request.setCredentialType(CredentialType.PASSPHRASE);
+        request.setCredential(TestUtilities.convert(credentials));
+        request.setEvict(true);
+        assertEquals(name, request.getAccountName());
+        assertEquals(credentials, TestUtilities.convert(request.getCredential()));
+        assertTrue(request.getEvict());
+
+        final Map<String, String> errors = request.validate();
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void testEmptyClass() {
+        final CacheRequest request = new CacheRequest();
+        request.setAccountName("");
+        request.setCredentialType(null);
+
+        final Map<String, String> errors = request.validate();
+        assertEquals(2, errors.size());
+        assertEquals("AccountName is missing, null or invalid.", errors.get(Constants.FIELD_ACCOUNT_NAME));
+        assertEquals("The Credential is missing.", errors.get(Constants.FIELD_CREDENTIAL));
+    }
+}
@@ -47,6 +47,7 @@ final class FetchDataRequestTest {
         request.setDataName(dataName);
         request.setPageNumber(43);
         request.setPageSize(56);
+        request.setCursor("MTAw");
 
         assertTrue(request.validate().isEmpty());
         assertEquals(Constants.ADMIN_ACCOUNT, request.getAccountName());
@@ -56,6 +57,7 @@ final class FetchDataRequestTest {
         assertEquals(dataName, request.getDataName());
         assertEquals(43, request.getPageNumber());
         assertEquals(56, request.getPageSize());
+        assertEquals("MTAw", request.getCursor());
     }
 
     @Test
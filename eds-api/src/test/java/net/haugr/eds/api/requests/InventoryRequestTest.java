@@ -18,6 +18,7 @@ package net.haugr.eds.api.requests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.haugr.eds.api.TestUtilities;
@@ -44,13 +45,16 @@ final class InventoryRequestTest {
         assertNotEquals(credentials, TestUtilities.convert(inventoryRequest.getCredential()));
         assertEquals(1, inventoryRequest.getPageNumber());
         assertEquals(Constants.MAX_PAGE_SIZE, inventoryRequest.getPageSize());
+        assertNull(inventoryRequest.getCursor());
 
         inventoryRequest.setAccountName(name);
+        inventoryRequest.setCursor("MTAw");
         inventoryRequest.setCredentialType(type);
         inventoryRequest.setCredential(TestUtilities.convert(credentials));
         assertEquals(name, inventoryRequest.getAccountName());
         assertEquals(type, inventoryRequest.getCredentialType());
         assertEquals(credentials, TestUtilities.convert(inventoryRequest.getCredential()));
+        assertEquals("MTAw", inventoryRequest.getCursor());
 
         final Map<String, String> errors = inventoryRequest.validate();
         assertTrue(errors.isEmpty());
@@ -162,6 +162,31 @@ final class ProcessCircleRequestTest {
         assertEquals("Cannot delete a Circle, without knowing the Circle Id.", errors.get(Constants.FIELD_CIRCLE_ID));
     }
 
+    @Test
+    void testActionRotate() {
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+        request.setAccountName(Constants.ADMIN_ACCOUNT);
+        request.setCredential(TestUtilities.convert(Constants.ADMIN_ACCOUNT));
+        request.setCircleId(UUID.randomUUID().toString());
+        request.setAction(Action.ROTATE);
+
+        final Map<String, String> errors = request.validate();
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void testActionRotateFail() {
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+        request.setAccountName(Constants.ADMIN_ACCOUNT);
+        request.setCredential(TestUtilities.convert(Constants.ADMIN_ACCOUNT));
+        request.setCircleId(null);
+        request.setAction(Action.ROTATE);
+
+        final Map<String, String> errors = request.validate();
+        assertEquals(1, errors.size());
+        assertEquals("Cannot rotate the Circle Key, without knowing the Circle Id.", errors.get(Constants.FIELD_CIRCLE_ID));
+    }
+
     @Test
     void testNonEmptyName() {
         final ProcessCircleRequest request = new ProcessCircleRequest();
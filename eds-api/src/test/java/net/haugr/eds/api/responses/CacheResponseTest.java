@@ -0,0 +1,63 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.api.responses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.CacheRegion;
+import net.haugr.eds.api.dtos.KeyPairPoolStatistics;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class CacheResponseTest {
+
+    @Test
+    void testClassFlow() {
+        final List<CacheRegion> regions = List.of(new CacheRegion(), new CacheRegion());
+        final KeyPairPoolStatistics keyPairPool = new KeyPairPoolStatistics();
+
+        final CacheResponse response = new CacheResponse();
+        response.setRegions(regions);
+        response.setKeyPairPool(keyPairPool);
+
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertEquals("Ok", response.getReturnMessage());
+        assertTrue(response.isOk());
+        assertEquals(regions, response.getRegions());
+        assertEquals(keyPairPool, response.getKeyPairPool());
+    }
+
+    @Test
+    void testError() {
+        final String msg = "Cache Request failed due to Verification Problems.";
+        final CacheResponse response = new CacheResponse(ReturnCode.VERIFICATION_WARNING, msg);
+
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals(msg, response.getReturnMessage());
+        assertFalse(response.isOk());
+        assertTrue(response.getRegions().isEmpty());
+        assertNull(response.getKeyPairPool());
+    }
+}
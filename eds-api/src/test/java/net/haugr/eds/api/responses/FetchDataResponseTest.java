@@ -47,6 +47,7 @@ final class FetchDataResponseTest {
         final FetchDataResponse response = new FetchDataResponse();
         response.setMetadata(metadata);
         response.setRecords(3L);
+        response.setNextCursor("Mw");
         response.setData(data);
 
         Assertions.assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
@@ -54,6 +55,7 @@ final class FetchDataResponseTest {
         assertTrue(response.isOk());
         assertEquals(metadata, response.getMetadata());
         assertEquals(3L, response.getRecords());
+        assertEquals("Mw", response.getNextCursor());
         assertArrayEquals(data, response.getData());
     }
 
@@ -43,12 +43,14 @@ final class InventoryResponseTest {
         final InventoryResponse response = new InventoryResponse();
         response.setInventory(inventory);
         response.setRecords(3L);
+        response.setNextCursor("Mw");
 
         assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
         assertEquals("Ok", response.getReturnMessage());
         assertTrue(response.isOk());
         assertEquals(inventory, response.getInventory());
         assertEquals(3L, response.getRecords());
+        assertEquals("Mw", response.getNextCursor());
     }
 
     @Test
@@ -18,10 +18,12 @@ package net.haugr.eds.api.responses;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.dtos.Sanity;
+import net.haugr.eds.api.dtos.SanityProgress;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -36,14 +38,17 @@ final class SanityResponseTest {
     @Test
     void testClassFlow() {
         final List<Sanity> sanities = new ArrayList<>();
+        final SanityProgress progress = new SanityProgress();
 
         final SanityResponse response = new SanityResponse();
         response.setSanities(sanities);
+        response.setProgress(progress);
 
         assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
         assertEquals("Ok", response.getReturnMessage());
         assertTrue(response.isOk());
         assertEquals(sanities, response.getSanities());
+        assertEquals(progress, response.getProgress());
     }
 
     @Test
@@ -55,5 +60,6 @@ final class SanityResponseTest {
         assertEquals(msg, response.getReturnMessage());
         assertFalse(response.isOk());
         assertTrue(response.getSanities().isEmpty());
+        assertNull(response.getProgress());
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import jakarta.persistence.EntityTransaction;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.TrustLevel;
+import net.haugr.eds.api.requests.FetchDataRequest;
+import net.haugr.eds.api.requests.ProcessDataRequest;
+import net.haugr.eds.api.responses.FetchDataResponse;
+import net.haugr.eds.api.responses.ProcessDataResponse;
+import net.haugr.eds.core.ShareBean;
+import net.haugr.eds.core.enums.Status;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>End-to-end Benchmarks of the Authorization, for a Member which is a
+ * Trustee of many Circles, i.e. an integration Account. Requests without a
+ * CircleId must check that the Member may perform the Action, and find the
+ * Trustee for the Circle of the requested Data, regardless of how many
+ * other Circles the Member belongs to.</p>
+ *
+ * <p>The number of additional Circles is controlled with the circles
+ * parameter, i.e.:
+ * {@code java -jar eds-benchmarks.jar AuthorizationBenchmark -p circles=10000}.
+ * The additional Circles are never accessed, so their Trustees are only
+ * given a placeholder Circle Key.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class AuthorizationBenchmark {
+
+    private static final int FLUSH_SIZE = 500;
+
+    /**
+     * The additional Circles are prepared once, before the Benchmark is
+     * started, and are shared by all Threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Dataset extends BeanSetup {
+
+        @Param({ "0", "10000" })
+        public int circles;
+
+        public String sessionKey;
+        public String dataId;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            prepareDatabase();
+            addCircles(circles);
+            sessionKey = login(ACCOUNT);
+            dataId = addData(sessionKey, "Dataset", 1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            closeDatabase();
+        }
+
+        private void addCircles(final int count) {
+            final Long memberId = dao.findMemberByName(ACCOUNT).getId();
+            final EntityTransaction transaction = entityManager.getTransaction();
+            transaction.begin();
+
+            for (int i = 0; i < count; i++) {
+                final CircleEntity circle = new CircleEntity();
+                circle.setName("Benchmark " + i);
+                save(circle);
+
+                final KeyEntity key = new KeyEntity();
+                key.setAlgorithm(settings.getSymmetricAlgorithm());
+                key.setStatus(Status.ACTIVE);
+                save(key);
+
+                final TrusteeEntity trustee = new TrusteeEntity();
+                trustee.setMember(dao.getReference(MemberEntity.class, memberId));
+                trustee.setCircle(circle);
+                trustee.setKey(key);
+                trustee.setTrustLevel(TrustLevel.WRITE);
+                trustee.setCircleKey(UUID.randomUUID().toString());
+                save(trustee);
+
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+
+            transaction.commit();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Each Thread has its own EntityManager and Bean.
+     */
+    @State(Scope.Thread)
+    public static class Client extends BeanSetup {
+
+        private ShareBean bean;
+        private Dataset dataset;
+        private byte[] payload;
+
+        @Setup(Level.Trial)
+        public void prepare(final Dataset dataset) {
+            this.dataset = dataset;
+            prepareDatabase();
+            bean = prepareShareBean();
+            payload = generateData(1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            closeDatabase();
+        }
+    }
+
+    /**
+     * Fetches the Data Object by its Id alone, so the Member is authorized
+     * without a Circle, and the Trustee is found via the Data Object.
+     */
+    @Benchmark
+    public FetchDataResponse fetchObject(final Client client) {
+        final FetchDataRequest request = client.prepareRequest(FetchDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setDataId(client.dataset.dataId);
+
+        return client.commit(() -> client.bean.fetchData(request));
+    }
+
+    /**
+     * Fetches the content of the Circle root folder, so the Member is
+     * authorized for the given Circle.
+     */
+    @Benchmark
+    public FetchDataResponse fetchFolder(final Client client) {
+        final FetchDataRequest request = client.prepareRequest(FetchDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setCircleId(BeanSetup.CIRCLE_ID);
+        request.setPageSize(Constants.MAX_PAGE_SIZE);
+
+        return client.commit(() -> client.bean.fetchData(request));
+    }
+
+    /**
+     * Updates the Data Object by its Id alone, as for the Fetch, the Trustee
+     * is found via the Data Object.
+     */
+    @Benchmark
+    public ProcessDataResponse updateData(final Client client) {
+        final ProcessDataRequest request = client.prepareRequest(ProcessDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setAction(Action.UPDATE);
+        request.setDataId(client.dataset.dataId);
+        request.setData(client.payload);
+
+        return client.rollback(() -> client.bean.processData(request));
+    }
+}
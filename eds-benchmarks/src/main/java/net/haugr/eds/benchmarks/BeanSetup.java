@@ -0,0 +1,155 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+import jakarta.persistence.EntityTransaction;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.CredentialType;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.ProcessDataRequest;
+import net.haugr.eds.api.requests.ProcessMemberRequest;
+import net.haugr.eds.api.responses.EDSResponse;
+import net.haugr.eds.api.responses.ProcessDataResponse;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.setup.DatabaseSetup;
+
+/**
+ * <p>Runs the Beans outside a container, in the same way as the eds-core
+ * tests are doing it, against the in-memory H2 Database with the test data.
+ * Every instance has its own EntityManager, so each Benchmark Thread must
+ * have its own instance.</p>
+ *
+ * <p>Read requests are committed, as they would be in the container. Write
+ * requests are flushed and rolled back, so the Database is doing the same
+ * work, but the Dataset remains the size it was prepared with.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+public abstract class BeanSetup extends DatabaseSetup {
+
+    protected static final String ACCOUNT = MEMBER_1;
+    protected static final String CIRCLE_ID = CIRCLE_1_ID;
+
+    protected void prepareDatabase() {
+        settings.set(StandardSetting.IS_READY.getKey(), "true");
+    }
+
+    protected void closeDatabase() {
+        entityManager.close();
+    }
+
+    protected <R extends EDSResponse> R commit(final Supplier<R> request) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            final R response = request.get();
+            transaction.commit();
+
+            return throwIfFailed(response);
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        }
+    }
+
+    protected <R extends EDSResponse> R rollback(final Supplier<R> request) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            final R response = request.get();
+            entityManager.flush();
+
+            return throwIfFailed(response);
+        } finally {
+            transaction.rollback();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Logs the given Account in, with a new random Session Key. The Account
+     * Name of the test Members is also their Password.
+     *
+     * @param account Account Name &amp; Password
+     * @return The new Session Key
+     */
+    protected String login(final String account) {
+        final String sessionKey = UUID.randomUUID().toString();
+        final ProcessMemberRequest request = prepareRequest(ProcessMemberRequest.class, account);
+        request.setAction(Action.LOGIN);
+        request.setNewCredential(crypto.stringToBytes(sessionKey));
+        commit(() -> prepareManagementBean().processMember(request));
+
+        return sessionKey;
+    }
+
+    /**
+     * Creates a new Account, via the Administrator, the Account Name is
+     * also the Password.
+     *
+     * @param account Account Name &amp; Password
+     * @return The new Member Id
+     */
+    protected String createMember(final String account) {
+        final ProcessMemberRequest request = prepareRequest(ProcessMemberRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.CREATE);
+        request.setNewAccountName(account);
+        request.setNewCredential(crypto.stringToBytes(account));
+
+        return commit(() -> prepareManagementBean().processMember(request)).getMemberId();
+    }
+
+    protected String addData(final String sessionKey, final String name, final int bytes) {
+        final ProcessDataRequest request = prepareAddDataRequest(ACCOUNT, CIRCLE_ID, name, bytes);
+        withSession(request, sessionKey);
+        final ProcessDataResponse response = commit(() -> prepareShareBean().processData(request));
+
+        return response.getDataId();
+    }
+
+    protected <T extends Authentication> T prepareRequest(final Class<T> clazz, final String account, final String sessionKey) {
+        final T request = prepareRequest(clazz, account);
+        if (sessionKey != null) {
+            withSession(request, sessionKey);
+        }
+
+        return request;
+    }
+
+    private <T extends Authentication> void withSession(final T request, final String sessionKey) {
+        request.setAccountName(null);
+        request.setCredential(crypto.stringToBytes(sessionKey));
+        request.setCredentialType(CredentialType.SESSION);
+    }
+
+    private static <R extends EDSResponse> R throwIfFailed(final R response) {
+        // A failing request is typically much faster than a successful, so
+        // if not stopped, the Benchmark will report misleading numbers.
+        if (!response.isOk()) {
+            throw new EDSException(ReturnCode.ERROR, "Benchmark request failed: " + response.getReturnMessage());
+        }
+
+        return response;
+    }
+}
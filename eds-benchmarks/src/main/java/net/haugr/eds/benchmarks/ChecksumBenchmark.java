@@ -0,0 +1,78 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.model.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the Checksum generation, which is made for all stored Data,
+ * when it is saved, read and sanitized, and for the Session lookup. The
+ * Hash Algorithm is given by the setting eds.crypto.hash.algorithm.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ChecksumBenchmark {
+
+    @Param({ "SHA_256", "SHA_512" })
+    private String hashAlgorithm;
+
+    @Param({ "64", "1024", "65536", "1048576", "16777216", "67108864" })
+    private int payloadSize;
+
+    private Crypto crypto;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        // Each combination of Parameters is running in its own fork, so
+        // the Settings Singleton can safely be altered.
+        final Settings settings = Settings.getInstance();
+        settings.set(StandardSetting.HASH_ALGORITHM, hashAlgorithm);
+
+        crypto = new Crypto(settings);
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+    }
+
+    @Benchmark
+    public String generateChecksum() {
+        return crypto.generateChecksum(payload);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.EDSKeyPair;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Compares the reused JCA engines in {@link Crypto}, with the previous
+ * approach, where every operation was looking the engine up via the JCA
+ * Providers. The payloads are deliberately small, as this is where the
+ * lookup is most noticeable.</p>
+ *
+ * <p>The "lookup" benchmarks are re-creating the previous Crypto logic, so
+ * both variants are performing the same Cryptographic Operation.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineReuseBenchmark {
+
+    @Param({ "16", "256", "4096" })
+    private int payloadSize;
+
+    private Settings settings;
+    private Crypto crypto;
+    private SecretEDSKey key;
+    private IVSalt[] salts;
+    private int counter;
+    private byte[] payload;
+    private byte[] encrypted;
+    private EDSKeyPair keyPair;
+    private String armoredPublicKey;
+    private byte[] signature;
+
+    @Setup
+    public void setup() {
+        settings = Settings.getInstance();
+        crypto = new Crypto(settings);
+        key = Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256);
+        // The GCM Cipher rejects encryption with the same Key and IV twice
+        // in a row, so the benchmark alternates between two IV's.
+        salts = new IVSalt[] { new IVSalt(), new IVSalt() };
+        key.setSalt(salts[0]);
+
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+        encrypted = Crypto.encrypt(key, payload);
+
+        keyPair = Crypto.generateAsymmetricKey(KeyAlgorithm.RSA_2048);
+        armoredPublicKey = Crypto.armoringPublicKey(keyPair.getPublic().getKey());
+        signature = crypto.sign(keyPair.getPrivate().getKey(), payload);
+    }
+
+    @Benchmark
+    public byte[] encryptReused() {
+        key.setSalt(salts[++counter & 1]);
+        return Crypto.encrypt(key, payload);
+    }
+
+    @Benchmark
+    public byte[] encryptLookup() throws GeneralSecurityException {
+        key.setSalt(salts[++counter & 1]);
+        final Cipher cipher = Cipher.getInstance(key.getAlgorithm().getTransformationValue());
+        cipher.init(Cipher.ENCRYPT_MODE, key.getKey(), new GCMParameterSpec(Constants.GCM_IV_LENGTH, key.getSalt().getBytes()));
+        return cipher.doFinal(payload);
+    }
+
+    @Benchmark
+    public byte[] decryptReused() {
+        key.setSalt(salts[0]);
+        return Crypto.decrypt(key, encrypted);
+    }
+
+    @Benchmark
+    public byte[] decryptLookup() throws GeneralSecurityException {
+        key.setSalt(salts[0]);
+        final Cipher cipher = Cipher.getInstance(key.getAlgorithm().getTransformationValue());
+        cipher.init(Cipher.DECRYPT_MODE, key.getKey(), new GCMParameterSpec(Constants.GCM_IV_LENGTH, key.getSalt().getBytes()));
+        return cipher.doFinal(encrypted);
+    }
+
+    @Benchmark
+    public String checksumReused() {
+        return crypto.generateChecksum(payload);
+    }
+
+    @Benchmark
+    public String checksumLookup() throws GeneralSecurityException {
+        final MessageDigest digest = MessageDigest.getInstance(settings.getHashAlgorithm().getAlgorithm());
+        return Base64.getEncoder().encodeToString(digest.digest(payload));
+    }
+
+    @Benchmark
+    public boolean verifyReused() {
+        return crypto.verify(keyPair.getPublic().getKey(), payload, signature);
+    }
+
+    @Benchmark
+    public boolean verifyLookup() throws GeneralSecurityException {
+        final Signature verifier = Signature.getInstance(settings.getSignatureAlgorithm().getTransformationValue());
+        verifier.initVerify(keyPair.getPublic().getKey());
+        verifier.update(payload);
+        return verifier.verify(signature);
+    }
+
+    @Benchmark
+    public PublicKey dearmorPublicKeyReused() {
+        return crypto.dearmoringPublicKey(armoredPublicKey);
+    }
+
+    @Benchmark
+    public PublicKey dearmorPublicKeyLookup() throws GeneralSecurityException {
+        final KeyFactory keyFactory = KeyFactory.getInstance(settings.getAsymmetricAlgorithm().getName());
+        return keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(armoredPublicKey)));
+    }
+}
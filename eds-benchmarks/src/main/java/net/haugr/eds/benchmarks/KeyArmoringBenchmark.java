@@ -0,0 +1,106 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.EDSKeyPair;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the creation of IVSalts and the armoring &amp; de-armoring of
+ * the Member Keys, which is made when a Member Account is created or
+ * updated, and whenever the Member's KeyPair is unlocked.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyArmoringBenchmark {
+
+    @Param({ "RSA_2048", "RSA_4096", "RSA_8192" })
+    private KeyAlgorithm algorithm;
+
+    private Crypto crypto;
+    private EDSKeyPair keyPair;
+    private SecretEDSKey encryptionKey;
+    private IVSalt[] salts;
+    private int counter;
+    private String armoredPublicKey;
+    private String armoredPrivateKey;
+
+    @Setup
+    public void setup() {
+        crypto = new Crypto(Settings.getInstance());
+        keyPair = Crypto.generateAsymmetricKey(algorithm);
+        encryptionKey = Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256);
+        // The GCM Cipher rejects encryption with the same Key and IV twice
+        // in a row, so the benchmark alternates between two IV's.
+        salts = new IVSalt[] { new IVSalt(), new IVSalt() };
+        encryptionKey.setSalt(salts[0]);
+        armoredPublicKey = Crypto.armoringPublicKey(keyPair.getPublic().getKey());
+        armoredPrivateKey = Crypto.encryptAndArmorPrivateKey(encryptionKey, keyPair.getPrivate().getKey());
+    }
+
+    @Benchmark
+    public IVSalt createIVSalt() {
+        return new IVSalt();
+    }
+
+    @Benchmark
+    public String armorPublicKey() {
+        return Crypto.armoringPublicKey(keyPair.getPublic().getKey());
+    }
+
+    @Benchmark
+    public PublicKey dearmorPublicKey() {
+        return crypto.dearmoringPublicKey(algorithm, armoredPublicKey);
+    }
+
+    @Benchmark
+    public String armorPrivateKey() {
+        encryptionKey.setSalt(salts[++counter & 1]);
+        return Crypto.encryptAndArmorPrivateKey(encryptionKey, keyPair.getPrivate().getKey());
+    }
+
+    @Benchmark
+    public PrivateKey dearmorPrivateKey() {
+        encryptionKey.setSalt(salts[0]);
+        return crypto.dearmoringPrivateKey(algorithm, encryptionKey, armoredPrivateKey);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.ProcessMemberRequest;
+import net.haugr.eds.api.responses.AuthenticateResponse;
+import net.haugr.eds.api.responses.ProcessMemberResponse;
+import net.haugr.eds.core.ManagementBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>End-to-end Benchmarks of the Management Bean, comparing the Login with
+ * the two ways a Member can authenticate, via the Passphrase or via the
+ * Session created by the Login. The Throughput is reported as operations
+ * per second, and the Sample Time gives the latency percentiles.</p>
+ *
+ * <p>Each Thread is logging in with its own Account, so the Threads are
+ * not competing for the same Member row, the number of Threads is controlled
+ * with the JMH thread option, i.e.:
+ * {@code java -jar eds-benchmarks.jar ManagementBeanBenchmark -t 8}.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class ManagementBeanBenchmark {
+
+    @State(Scope.Thread)
+    public static class Client extends BeanSetup {
+
+        private ManagementBean bean;
+        private String account;
+        private String sessionKey;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            prepareDatabase();
+            bean = prepareManagementBean();
+            account = "Benchmark " + UUID.randomUUID();
+            createMember(account);
+            sessionKey = login(account);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            closeDatabase();
+        }
+
+        private ProcessMemberRequest prepareLoginRequest() {
+            final ProcessMemberRequest request = prepareRequest(ProcessMemberRequest.class, account, null);
+            request.setAction(Action.LOGIN);
+            request.setNewCredential(crypto.stringToBytes(UUID.randomUUID().toString()));
+
+            return request;
+        }
+    }
+
+    @Benchmark
+    public ProcessMemberResponse login(final Client client) {
+        final ProcessMemberRequest request = client.prepareLoginRequest();
+
+        return client.rollback(() -> client.bean.processMember(request));
+    }
+
+    @Benchmark
+    public AuthenticateResponse authenticateWithPassphrase(final Client client) {
+        final Authentication request = client.prepareRequest(Authentication.class, client.account, null);
+
+        return client.commit(() -> client.bean.authenticated(request));
+    }
+
+    @Benchmark
+    public AuthenticateResponse authenticateWithSession(final Client client) {
+        final Authentication request = client.prepareRequest(Authentication.class, client.account, client.sessionKey);
+
+        return client.commit(() -> client.bean.authenticated(request));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the PBKDF2 based Password Key generation, which is made for
+ * every request with Account Credentials, and whenever a Session is
+ * verified without a cached KeyPair. The cost grows linearly with the
+ * number of iterations, given by the setting eds.crypto.pbe.iterations,
+ * so this benchmark helps choosing the iterations for a given hardware.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordKeyBenchmark {
+
+    @Param({ "1024", "10000", "100000", "600000" })
+    private String iterations;
+
+    @Param({ "PBE_GCM_128", "PBE_GCM_256" })
+    private KeyAlgorithm algorithm;
+
+    private Crypto crypto;
+    private byte[] secret;
+    private String salt;
+
+    @Setup
+    public void setup() {
+        // Each combination of Parameters is running in its own fork, so
+        // the Settings Singleton can safely be altered.
+        final Settings settings = Settings.getInstance();
+        settings.set(StandardSetting.PBE_ITERATIONS, iterations);
+
+        crypto = new Crypto(settings);
+        secret = "Benchmark Passphrase".getBytes(StandardCharsets.UTF_8);
+        salt = new IVSalt().getArmored();
+    }
+
+    @Benchmark
+    public SecretEDSKey generatePasswordKey() {
+        return crypto.generatePasswordKey(algorithm, secret, salt);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.dtos.DataEntry;
+import net.haugr.eds.api.requests.BatchDataRequest;
+import net.haugr.eds.api.requests.FetchDataRequest;
+import net.haugr.eds.api.requests.ProcessDataRequest;
+import net.haugr.eds.api.requests.SignRequest;
+import net.haugr.eds.api.requests.VerifyRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
+import net.haugr.eds.api.responses.FetchDataResponse;
+import net.haugr.eds.api.responses.ProcessDataResponse;
+import net.haugr.eds.api.responses.SignResponse;
+import net.haugr.eds.api.responses.VerifyResponse;
+import net.haugr.eds.core.ShareBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>End-to-end Benchmarks of the Share Bean, from the Request Object to the
+ * in-memory H2 Database and back, i.e. authentication, authorization, the
+ * Cryptographic operations and the Database access. The Throughput is
+ * reported as operations per second, and the Sample Time gives the latency
+ * percentiles.</p>
+ *
+ * <p>The number of Data Objects in the Circle is controlled with the
+ * datasetSize parameter, and the number of concurrent Members with the
+ * JMH thread option, i.e.:
+ * {@code java -jar eds-benchmarks.jar ShareBeanBenchmark -p datasetSize=10000 -t 8}.
+ * All Threads are using the same Account, each with its own EntityManager.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class ShareBeanBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * The Dataset is prepared once, before the Benchmark is started, and is
+     * shared by all Threads. The Data is added via a Session, as the
+     * Passphrase is otherwise dominating the time it takes to prepare it.
+     */
+    @State(Scope.Benchmark)
+    public static class Dataset extends BeanSetup {
+
+        @Param({ "100", "1000" })
+        public int datasetSize;
+
+        @Param({ "1024" })
+        public int payloadSize;
+
+        public String sessionKey;
+        public String[] dataIds;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            prepareDatabase();
+            sessionKey = login(ACCOUNT);
+            dataIds = new String[datasetSize];
+            for (int i = 0; i < datasetSize; i++) {
+                dataIds[i] = addData(sessionKey, "Dataset " + i, payloadSize);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            closeDatabase();
+        }
+    }
+
+    /**
+     * Each Thread has its own EntityManager and Bean, and its own Data
+     * Object to update, so the Threads are not waiting for each other's
+     * row locks.
+     */
+    @State(Scope.Thread)
+    public static class Client extends BeanSetup {
+
+        private ShareBean bean;
+        private Dataset dataset;
+        private String dataId;
+        private byte[] payload;
+        private String signature;
+
+        @Setup(Level.Trial)
+        public void prepare(final Dataset dataset) {
+            this.dataset = dataset;
+            prepareDatabase();
+            bean = prepareShareBean();
+            payload = generateData(dataset.payloadSize);
+            dataId = addData(dataset.sessionKey, "Client " + UUID.randomUUID(), dataset.payloadSize);
+
+            final SignRequest request = prepareRequest(SignRequest.class, ACCOUNT, dataset.sessionKey);
+            request.setData(payload);
+            signature = commit(() -> bean.sign(request)).getSignature();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            closeDatabase();
+        }
+
+        private String randomDataId() {
+            return dataset.dataIds[ThreadLocalRandom.current().nextInt(dataset.dataIds.length)];
+        }
+
+        private FetchDataResponse fetchObject(final String sessionKey) {
+            final FetchDataRequest request = prepareRequest(FetchDataRequest.class, ACCOUNT, sessionKey);
+            request.setDataId(randomDataId());
+
+            return commit(() -> bean.fetchData(request));
+        }
+    }
+
+    @Benchmark
+    public ProcessDataResponse addData(final Client client) {
+        final ProcessDataRequest request = client.prepareRequest(ProcessDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setAction(Action.ADD);
+        request.setCircleId(BeanSetup.CIRCLE_ID);
+        request.setDataName(UUID.randomUUID().toString());
+        request.setTypeName(Constants.DATA_TYPENAME);
+        request.setData(client.payload);
+
+        return client.rollback(() -> client.bean.processData(request));
+    }
+
+    /**
+     * Adds {@link #BATCH_SIZE} Data Objects with a single request. The score
+     * is reported per Data Object, so it can be compared directly with
+     * {@link #addData(Client)}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchDataResponse batchData(final Client client) {
+        final List<DataEntry> entries = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final DataEntry entry = new DataEntry();
+            entry.setDataName(UUID.randomUUID().toString());
+            entry.setData(Arrays.copyOf(client.payload, client.payload.length));
+            entries.add(entry);
+        }
+        final BatchDataRequest request = client.prepareRequest(BatchDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setCircleId(BeanSetup.CIRCLE_ID);
+        request.setEntries(entries);
+
+        return client.rollback(() -> client.bean.batchData(request));
+    }
+
+    @Benchmark
+    public ProcessDataResponse updateData(final Client client) {
+        final ProcessDataRequest request = client.prepareRequest(ProcessDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setAction(Action.UPDATE);
+        request.setDataId(client.dataId);
+        request.setData(client.payload);
+
+        return client.rollback(() -> client.bean.processData(request));
+    }
+
+    @Benchmark
+    public FetchDataResponse fetchObject(final Client client) {
+        return client.fetchObject(client.dataset.sessionKey);
+    }
+
+    /**
+     * Same as {@link #fetchObject(Client)}, but with the Passphrase rather
+     * than the Session, so the difference is the cost of the Password Based
+     * Key derivation.
+     */
+    @Benchmark
+    public FetchDataResponse fetchObjectWithPassphrase(final Client client) {
+        return client.fetchObject(null);
+    }
+
+    @Benchmark
+    public FetchDataResponse fetchFolder(final Client client) {
+        final FetchDataRequest request = client.prepareRequest(FetchDataRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setCircleId(BeanSetup.CIRCLE_ID);
+        request.setPageSize(Constants.MAX_PAGE_SIZE);
+
+        return client.commit(() -> client.bean.fetchData(request));
+    }
+
+    @Benchmark
+    public SignResponse sign(final Client client) {
+        final SignRequest request = client.prepareRequest(SignRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setData(client.payload);
+
+        return client.rollback(() -> client.bean.sign(request));
+    }
+
+    @Benchmark
+    public VerifyResponse verify(final Client client) {
+        final VerifyRequest request = client.prepareRequest(VerifyRequest.class, BeanSetup.ACCOUNT, client.dataset.sessionKey);
+        request.setSignature(client.signature);
+        request.setData(client.payload);
+
+        return client.commit(() -> client.bean.verify(request));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.EDSKeyPair;
+import net.haugr.eds.core.model.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the creation and verification of Signatures, for the supported
+ * Signature Algorithms, given by the setting eds.crypto.signature.algorithm,
+ * and the sizes of the Member KeyPairs.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+    @Param({ "SHA_256", "SHA_512" })
+    private String signatureAlgorithm;
+
+    @Param({ "RSA_2048", "RSA_4096", "RSA_8192" })
+    private KeyAlgorithm keyAlgorithm;
+
+    @Param({ "1024" })
+    private int payloadSize;
+
+    private Crypto crypto;
+    private EDSKeyPair keyPair;
+    private byte[] payload;
+    private byte[] signature;
+
+    @Setup
+    public void setup() {
+        // Each combination of Parameters is running in its own fork, so
+        // the Settings Singleton can safely be altered.
+        final Settings settings = Settings.getInstance();
+        settings.set(StandardSetting.SIGNATURE_ALGORITHM, signatureAlgorithm);
+
+        crypto = new Crypto(settings);
+        keyPair = Crypto.generateAsymmetricKey(keyAlgorithm);
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+        signature = crypto.sign(keyPair.getPrivate().getKey(), payload);
+    }
+
+    @Benchmark
+    public byte[] sign() {
+        return crypto.sign(keyPair.getPrivate().getKey(), payload);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return crypto.verify(keyPair.getPublic().getKey(), payload, signature);
+    }
+}
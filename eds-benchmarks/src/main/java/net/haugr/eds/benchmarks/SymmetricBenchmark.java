@@ -0,0 +1,91 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures the Symmetric encryption &amp; decryption of Data, for the
+ * supported AES modes, from the smallest Data Objects up to the largest,
+ * which EDS is expected to store. The results are given per operation, so
+ * the throughput is the payload size divided by the average time.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SymmetricBenchmark {
+
+    @Param({ "AES_GCM_128", "AES_GCM_256", "AES_CBC_128", "AES_CBC_256" })
+    private KeyAlgorithm algorithm;
+
+    @Param({ "64", "1024", "65536", "1048576", "16777216", "67108864" })
+    private int payloadSize;
+
+    private SecretEDSKey key;
+    private IVSalt[] salts;
+    private int counter;
+    private byte[] payload;
+    private byte[] encrypted;
+
+    @Setup
+    public void setup() {
+        key = Crypto.generateSymmetricKey(algorithm);
+        // The GCM Cipher rejects encryption with the same Key and IV twice
+        // in a row, so the benchmark alternates between two IV's.
+        salts = new IVSalt[] { new IVSalt(), new IVSalt() };
+        key.setSalt(salts[0]);
+
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) i;
+        }
+        encrypted = Crypto.encrypt(key, payload);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        key.setSalt(salts[++counter & 1]);
+        return Crypto.encrypt(key, payload);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        key.setSalt(salts[0]);
+        return Crypto.decrypt(key, encrypted);
+    }
+}
@@ -20,6 +20,7 @@ import net.haugr.eds.api.Management;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.requests.ActionRequest;
 import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.CacheRequest;
 import net.haugr.eds.api.requests.FetchCircleRequest;
 import net.haugr.eds.api.requests.FetchMemberRequest;
 import net.haugr.eds.api.requests.FetchTrusteeRequest;
@@ -31,6 +32,7 @@ import net.haugr.eds.api.requests.ProcessTrusteeRequest;
 import net.haugr.eds.api.requests.SanityRequest;
 import net.haugr.eds.api.requests.SettingRequest;
 import net.haugr.eds.api.responses.AuthenticateResponse;
+import net.haugr.eds.api.responses.CacheResponse;
 import net.haugr.eds.api.responses.FetchCircleResponse;
 import net.haugr.eds.api.responses.FetchMemberResponse;
 import net.haugr.eds.api.responses.FetchTrusteeResponse;
@@ -109,6 +111,14 @@ public final class ManagementRestClient extends GsonRestClient implements Manage
         return runRequest(InventoryResponse.class, Constants.REST_INVENTORY, request);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheResponse caches(final CacheRequest request) {
+        return runRequest(CacheResponse.class, Constants.REST_CACHES, request);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -170,6 +180,7 @@ public final class ManagementRestClient extends GsonRestClient implements Manage
             case CREATE -> runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_CREATE, request);
             case UPDATE -> runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_UPDATE, request);
             case DELETE -> runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_DELETE, request);
+            case ROTATE -> runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_ROTATE, request);
             default -> throw new RESTClientException(UNSUPPORTED_OPERATION + request.getAction());
         };
 
@@ -18,6 +18,7 @@ package net.haugr.eds.client.rest;
 
 import net.haugr.eds.api.Share;
 import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.requests.BatchDataRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.FetchDataTypeRequest;
 import net.haugr.eds.api.requests.FetchSignatureRequest;
@@ -25,6 +26,7 @@ import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.requests.ProcessDataTypeRequest;
 import net.haugr.eds.api.requests.SignRequest;
 import net.haugr.eds.api.requests.VerifyRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
 import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.FetchDataTypeResponse;
 import net.haugr.eds.api.responses.FetchSignatureResponse;
@@ -110,6 +112,14 @@ public final class ShareRestClient extends GsonRestClient implements Share {
         return response;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchDataResponse batchData(final BatchDataRequest request) {
+        return runRequest(BatchDataResponse.class, Constants.REST_DATA_BASE + Constants.REST_DATA_BATCH, request);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -28,8 +28,12 @@ import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.CredentialType;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.TrustLevel;
+import net.haugr.eds.api.dtos.DataEntry;
+import net.haugr.eds.api.dtos.DataResult;
 import net.haugr.eds.api.dtos.Trustee;
 import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.BatchDataRequest;
+import net.haugr.eds.api.requests.CacheRequest;
 import net.haugr.eds.api.requests.FetchCircleRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.FetchDataTypeRequest;
@@ -47,6 +51,8 @@ import net.haugr.eds.api.requests.SanityRequest;
 import net.haugr.eds.api.requests.SettingRequest;
 import net.haugr.eds.api.requests.SignRequest;
 import net.haugr.eds.api.requests.VerifyRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
+import net.haugr.eds.api.responses.CacheResponse;
 import net.haugr.eds.api.responses.EDSResponse;
 import net.haugr.eds.api.responses.FetchCircleResponse;
 import net.haugr.eds.api.responses.FetchDataResponse;
@@ -253,6 +259,34 @@ final class RestClientTest {
         assertEquals(updateContent, toString(read));
     }
 
+    @Test
+    void testBatchData() {
+        final String accountName = UUID.randomUUID().toString();
+        createAccount(accountName);
+        final String circleId = createCircle(accountName, accountName);
+
+        // Step 1; Add 3 Data Objects in a single Request
+        final String data1 = toString(generateData());
+        final String data2 = toString(generateData());
+        final BatchDataRequest request = prepareRequest(BatchDataRequest.class, accountName);
+        request.setCircleId(circleId);
+        request.setEntries(List.of(prepareEntry("data1", toBytes(data1)), prepareEntry("data2", toBytes(data2)), prepareEntry("data1", toBytes(data2))));
+        final BatchDataResponse response = restShare.batchData(request);
+        throwIfFailed(response);
+
+        // Step 2; The last Data Object is rejected, as the name is in use
+        final List<DataResult> results = response.getResults();
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isOk());
+        assertTrue(results.get(1).isOk());
+        assertFalse(results.get(2).isOk());
+
+        // Step 3; Check the stored content of the Circle
+        assertEquals(2L, readFolderContent(accountName, circleId).getRecords());
+        assertEquals(data1, toString(readData(accountName, results.get(0).getDataId())));
+        assertEquals(data2, toString(readData(accountName, results.get(1).getDataId())));
+    }
+
     @Test
     void testSignatures() {
         // 1. Generate a Signature
@@ -288,6 +322,13 @@ final class RestClientTest {
         assertTrue(response.isOk());
     }
 
+    @Test
+    void testCaches() {
+        final CacheRequest request = prepareRequest(CacheRequest.class, Constants.ADMIN_ACCOUNT);
+        final CacheResponse response = restManagement.caches(request);
+        assertTrue(response.isOk());
+    }
+
     // =========================================================================
     // Internal functionality to help with the test setup
     // =========================================================================
@@ -362,6 +403,14 @@ final class RestClientTest {
         return response.getDataId();
     }
 
+    private static DataEntry prepareEntry(final String dataName, final byte[] data) {
+        final DataEntry entry = new DataEntry();
+        entry.setDataName(dataName);
+        entry.setData(data);
+
+        return entry;
+    }
+
     private void updateData(final String accountName, final String circleId, final String dataId, final byte[] data) {
         final ProcessDataRequest request = prepareRequest(ProcessDataRequest.class, accountName);
         request.setAction(Action.UPDATE);
@@ -0,0 +1,136 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jakarta.ejb.Stateless;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import net.haugr.eds.core.enums.Generation;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.Generations;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.DataTypeEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.SettingEntity;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>The Settings are loaded when EDS is started, and the Circles and Data
+ * Types are kept in the Second-level Cache. When running several EDS
+ * instances in a cluster, changes made via one instance, must also be seen
+ * by the others. Every change therefore increases a Generation in the
+ * Database, and this Bean is invoked by the Timer of the Startup Bean, to
+ * check if any of the Generations have been increased.</p>
+ *
+ * <p>If the Settings Generation has been increased, only the Settings,
+ * which were changed since the known Generation, are reloaded, and
+ * published as a new Snapshot. For the Circles and Data Types, the Entities
+ * and the cached Queries are evicted from the Second-level Cache. Finally,
+ * the Subscribers of the {@link Generations} are notified.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Stateless
+public class GenerationBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationBean.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final Settings settings = Settings.getInstance();
+    private final Generations generations = Generations.getInstance();
+
+    /**
+     * Reads the current Generations from the Database, and refreshes the
+     * information covered by those, which have been increased.
+     */
+    public void poll() {
+        final CommonDao dao = new CommonDao(entityManager);
+
+        for (final Map.Entry<Generation, Long> entry : dao.findGenerations().entrySet()) {
+            final Generation generation = entry.getKey();
+            final long known = generations.get(generation);
+
+            if (entry.getValue() > known) {
+                LOGGER.info("The {} Generation was increased from {} to {}.", generation, known, entry.getValue());
+                evict(generation);
+                if (generation == Generation.SETTINGS) {
+                    reloadSettings(dao, known);
+                }
+                generations.publish(generation, entry.getValue());
+            }
+        }
+    }
+
+    private void reloadSettings(final CommonDao dao, final long known) {
+        final Map<String, String> changes = new HashMap<>();
+        for (final SettingEntity entity : dao.findChangedSettings(known)) {
+            changes.put(entity.getName(), entity.getSetting());
+        }
+
+        // Deleted Settings are not changed rows, so they are found by
+        // comparing the names with those in the Database. The Standard
+        // Settings cannot be deleted, and if not persisted, their default
+        // value is used.
+        final List<String> names = dao.findSettingNames();
+        final Set<String> persisted = new HashSet<>(names);
+        for (final String key : settings.keys()) {
+            if (!persisted.contains(key) && (StandardSetting.find(key) == null)) {
+                changes.put(key, null);
+            }
+        }
+
+        settings.update(changes);
+    }
+
+    private void evict(final Generation generation) {
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+
+        switch (generation) {
+            case SETTINGS:
+                cache.evict(SettingEntity.class);
+                break;
+            case CIRCLES:
+                cache.evict(CircleEntity.class);
+                cache.evict(KeyEntity.class);
+                break;
+            case DATATYPES:
+                cache.evict(DataTypeEntity.class);
+                break;
+            default:
+                break;
+        }
+
+        // The Query Cache is only invalidated by the changes made via this
+        // EDS instance, so the cached Queries must also be evicted.
+        entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictDefaultQueryRegion();
+    }
+}
@@ -23,6 +23,7 @@ import jakarta.transaction.Transactional;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.requests.Authentication;
+import net.haugr.eds.api.requests.CacheRequest;
 import net.haugr.eds.api.requests.FetchCircleRequest;
 import net.haugr.eds.api.requests.FetchMemberRequest;
 import net.haugr.eds.api.requests.FetchTrusteeRequest;
@@ -34,6 +35,7 @@ import net.haugr.eds.api.requests.ProcessTrusteeRequest;
 import net.haugr.eds.api.requests.SanityRequest;
 import net.haugr.eds.api.requests.SettingRequest;
 import net.haugr.eds.api.responses.AuthenticateResponse;
+import net.haugr.eds.api.responses.CacheResponse;
 import net.haugr.eds.api.responses.FetchCircleResponse;
 import net.haugr.eds.api.responses.FetchMemberResponse;
 import net.haugr.eds.api.responses.FetchTrusteeResponse;
@@ -47,6 +49,7 @@ import net.haugr.eds.api.responses.SettingResponse;
 import net.haugr.eds.api.responses.VersionResponse;
 import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.managers.AuthenticatedManager;
+import net.haugr.eds.core.managers.CacheManager;
 import net.haugr.eds.core.managers.FetchCircleManager;
 import net.haugr.eds.core.managers.FetchMemberManager;
 import net.haugr.eds.core.managers.FetchTrusteeManager;
@@ -169,6 +172,25 @@ public class ManagementBean {
         return response;
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CacheResponse caches(final CacheRequest request) {
+        CacheResponse response;
+
+        try {
+            final CacheManager manager = new CacheManager(settings, entityManager);
+            response = manager.perform(request);
+        } catch (EDSException e) {
+            // Any Warning or Error thrown by the EDS contain enough
+            // information, so it can be dealt with by the requesting
+            // System. Logging the error is thus not needed, as all
+            // information is provided in the response.
+            LOGGER.debug(e.getMessage(), e);
+            response = new CacheResponse(e.getReturnCode(), e.getMessage());
+        }
+
+        return response;
+    }
+
     @Transactional(Transactional.TxType.SUPPORTS)
     public AuthenticateResponse authenticated(final Authentication request) {
         AuthenticateResponse response;
@@ -0,0 +1,328 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.exceptions.CryptoException;
+import net.haugr.eds.core.jce.CircleKeyCache;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.MasterKey;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MasterKeyRotationEntity;
+import net.haugr.eds.core.model.entities.RotationEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>When a Circle Key is replaced, the Trustees are given the new Key right
+ * away, but the existing Data is still protected by the previous Key. This
+ * Bean migrates the Data to the new Key in small batches, so large Circles
+ * can be migrated without blocking other requests.</p>
+ *
+ * <p>As every Data Object is encrypted with its own Data Key, the migration
+ * only has to unwrap the Data Key with the previous Circle Key and wrap it
+ * with the new Circle Key. Data without a Data Key, was encrypted directly
+ * with the previous Circle Key, for these, the previous Circle Key simply
+ * becomes the Data Key, wrapped with the new Circle Key. So the encrypted
+ * Data itself is never read or re-encrypted.</p>
+ *
+ * <p>The new Circle Key is only available to the Trustees of the Circle, it
+ * is never stored where it can be read with the MasterKey alone. Instead, it
+ * is handed to this Bean via the {@link CircleKeyCache}, when a Trustee is
+ * accessing the Circle, i.e. by the Circle Administrator who replaced the
+ * Key. Rotations, for which the new Circle Key is not available on this
+ * instance, are skipped until a Trustee accesses the Circle.</p>
+ *
+ * <p>Each batch is processed in its own transaction, and the Id of the last
+ * migrated Data is stored with the Rotation, so the migration is resumed
+ * from there, if it is interrupted. The Data is updated with a conditional
+ * update, so if a Member has updated the Data in the meantime, it is simply
+ * skipped, as it is then already protected by the new Key.</p>
+ *
+ * <p>The same approach is used, when the MasterKey is replaced. First the
+ * Salts of the Members are migrated, then the Initial Vectors of the Data.
+ * Values, which can already be decrypted with the new MasterKey, are
+ * skipped. If several EDS instances share the database, the migration waits
+ * until all of them are using the new MasterKey, see
+ * {@link MasterKey#applyRotation(MasterKeyRotationEntity, SecretEDSKey)}.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@Stateless
+public class RotationBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RotationBean.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final Settings settings = Settings.getInstance();
+    private final MasterKey masterKey = MasterKey.getInstance(settings);
+    private final CircleKeyCache circleKeyCache = CircleKeyCache.getInstance(settings);
+
+    /**
+     * Migrates the next batch of Data for the oldest pending Rotation, for
+     * which the new Circle Key is available. If there is no more Data to
+     * migrate for the Rotation, it is completed, meaning that the Rotation
+     * and the previous Key are removed.
+     *
+     * @return True if there may be more Data to migrate, otherwise false
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean migrateBatch() {
+        final List<RotationEntity> rotations = CommonDao.findList(entityManager.createNamedQuery("rotation.findAll"));
+        final Set<Long> newKeyIds = rotations.stream()
+                .map(rotation -> rotation.getNewKey().getId())
+                .collect(Collectors.toSet());
+        circleKeyCache.retainRotationKeys(newKeyIds);
+        boolean pending = false;
+
+        for (final RotationEntity rotation : rotations) {
+            final SecretEDSKey newKey = circleKeyCache.findRotationKey(rotation.getNewKey());
+            if (newKey != null) {
+                final List<Object[]> batch = findNextBatch(rotation, settings.getRotationBatchSize());
+                if (batch.isEmpty()) {
+                    completeRotation(rotation);
+                } else {
+                    migrate(rotation, newKey, batch);
+                }
+                pending = true;
+                break;
+            }
+            LOGGER.debug("The Circle Key Rotation for the Circle '{}' is waiting for a Trustee to access the Circle.", rotation.getCircle().getName());
+        }
+
+        return pending;
+    }
+
+    /**
+     * Migrates the next batch of Member Salts or Data Initial Vectors to the
+     * new MasterKey. If everything has been migrated, the MasterKey Rotation
+     * is completed, and the previous MasterKey is removed. Nothing is
+     * migrated, before all EDS instances are using the new MasterKey.
+     *
+     * @return True if there may be more to migrate, otherwise false
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean migrateMasterKeyBatch() {
+        final CommonDao dao = new CommonDao(entityManager);
+        final MasterKeyRotationEntity rotation = dao.findMasterKeyRotation();
+        boolean pending = false;
+
+        if (rotation == null) {
+            // The Rotation may have been completed by another instance.
+            masterKey.setPreviousKey(null);
+        } else if (applyRotation(dao, rotation)) {
+            final int batchSize = settings.getRotationBatchSize();
+            final List<Object[]> members = findNextBatch("member.findForMasterKey", rotation.getLastMemberId(), batchSize);
+
+            if (members.isEmpty()) {
+                final List<Object[]> data = findNextBatch("data.findForMasterKey", rotation.getLastDataId(), batchSize);
+                if (data.isEmpty()) {
+                    completeMasterKeyRotation(dao, rotation);
+                } else {
+                    rotation.setLastDataId(migrate(rotation, data, "data.updateInitialVector", "newVector", "oldVector"));
+                    dao.save(rotation);
+                }
+            } else {
+                rotation.setLastMemberId(migrate(rotation, members, "member.updateSalt", "newSalt", "oldSalt"));
+                dao.save(rotation);
+            }
+            pending = true;
+        }
+
+        return pending;
+    }
+
+    /**
+     * Registers this EDS instance with the Rotation, if it has the new
+     * MasterKey. After a restart, this will also restore the previous
+     * MasterKey. The Rotation is locked, so the EDS instances are not
+     * registering themselves at the same time.
+     */
+    private boolean applyRotation(final CommonDao dao, final MasterKeyRotationEntity rotation) {
+        final SecretEDSKey newKey = masterKey.findNewKey(rotation);
+        boolean active = false;
+
+        if (newKey == null) {
+            LOGGER.warn("The MasterKey is being replaced, but the migration cannot continue before the new MasterKey has been set.");
+        } else {
+            dao.lock(rotation);
+            active = masterKey.applyRotation(rotation, newKey);
+            dao.save(rotation);
+
+            if (!active) {
+                LOGGER.info("The MasterKey is being replaced, the migration is waiting for all {} EDS instances to be given the new MasterKey, ready: {}, active: {}.",
+                        settings.getClusterInstances(), rotation.getReadyInstances(), rotation.getActiveInstances());
+            }
+        }
+
+        return active;
+    }
+
+    private long migrate(final MasterKeyRotationEntity rotation, final List<Object[]> batch, final String queryName, final String newParameter, final String oldParameter) {
+        long lastId = 0L;
+        long migrated = 0L;
+
+        for (final Object[] row : batch) {
+            lastId = (Long) row[0];
+            final String value = (String) row[1];
+            final String newValue = reencrypt(value);
+
+            if (newValue != null) {
+                migrated += entityManager
+                        .createNamedQuery(queryName)
+                        .setParameter(newParameter, newValue)
+                        .setParameter("id", lastId)
+                        .setParameter(oldParameter, value)
+                        .executeUpdate();
+            }
+        }
+
+        rotation.setProcessed(rotation.getProcessed() + migrated);
+        LOGGER.info("Migrated {} records to the new MasterKey.", rotation.getProcessed());
+
+        return lastId;
+    }
+
+    private void completeMasterKeyRotation(final CommonDao dao, final MasterKeyRotationEntity rotation) {
+        dao.delete(rotation);
+        masterKey.setPreviousKey(null);
+        LOGGER.info("Completed the MasterKey Rotation, {} records were migrated.", rotation.getProcessed());
+    }
+
+    /**
+     * Re-encrypts the given MasterKey encrypted value with the new MasterKey.
+     * If the value is already encrypted with the new MasterKey, or cannot be
+     * decrypted with the previous MasterKey, null is returned.
+     *
+     * @param value Base64 encoded value, encrypted with the MasterKey
+     * @return Value encrypted with the new MasterKey, or null
+     */
+    private String reencrypt(final String value) {
+        final byte[] encrypted = Base64.getDecoder().decode(value);
+        final MasterKey.Keys keys = masterKey.getKeys();
+        String reencrypted = null;
+
+        try {
+            Crypto.decrypt(keys.key(), encrypted);
+        } catch (CryptoException e) {
+            LOGGER.trace("Value is not yet migrated: {}", e.getMessage());
+            try {
+                final byte[] decrypted = Crypto.decrypt(keys.previousKey(), encrypted);
+                reencrypted = Base64.getEncoder().encodeToString(Crypto.encrypt(keys.key(), decrypted));
+            } catch (CryptoException ce) {
+                LOGGER.warn("Value could not be decrypted with either the new or the previous MasterKey: {}", ce.getMessage());
+            }
+        }
+
+        return reencrypted;
+    }
+
+    private void migrate(final RotationEntity rotation, final SecretEDSKey newKey, final List<Object[]> batch) {
+        final KeyEntity oldKeyEntity = rotation.getOldKey();
+        final KeyAlgorithm algorithm = oldKeyEntity.getAlgorithm();
+        final SecretEDSKey oldKey = Crypto.unwrapDataKey(newKey, algorithm, rotation.getWrappedKey());
+        long migrated = 0;
+        Long lastId = rotation.getLastDataId();
+
+        for (final Object[] row : batch) {
+            lastId = (Long) row[0];
+            final String dataKey = (String) row[1];
+
+            // Data without a Data Key, was encrypted directly with the
+            // previous Circle Key, which then becomes the Data Key.
+            final String newDataKey = (dataKey != null)
+                    ? Crypto.wrapDataKey(newKey, Crypto.unwrapDataKey(oldKey, algorithm, dataKey))
+                    : rotation.getWrappedKey();
+
+            migrated += entityManager
+                    .createNamedQuery("data.rotateKey")
+                    .setParameter("newKey", rotation.getNewKey())
+                    .setParameter("dataKey", newDataKey)
+                    .setParameter("id", lastId)
+                    .setParameter("oldKey", oldKeyEntity)
+                    .setParameter("checksum", row[2])
+                    .executeUpdate();
+        }
+
+        rotation.setLastDataId(lastId);
+        rotation.setProcessed(rotation.getProcessed() + migrated);
+        new CommonDao(entityManager).save(rotation);
+
+        LOGGER.info("Migrated {} of {} Data Objects of the Circle '{}' to the new Circle Key.", rotation.getProcessed(), rotation.getTotal(), rotation.getCircle().getName());
+        if (Utilities.newDate().isAfter(oldKeyEntity.getExpires())) {
+            LOGGER.warn("The previous Circle Key of the Circle '{}' has expired, but is still in use.", rotation.getCircle().getName());
+        }
+    }
+
+    private void completeRotation(final RotationEntity rotation) {
+        final CommonDao dao = new CommonDao(entityManager);
+        final KeyEntity oldKey = rotation.getOldKey();
+
+        if (dao.countDataByKey(oldKey) > 0) {
+            // Data written with the previous Key after the Rotation began,
+            // i.e. by a request which started before the Key was replaced,
+            // is found by starting over.
+            rotation.setLastDataId(0L);
+            dao.save(rotation);
+        } else {
+            dao.delete(rotation);
+            circleKeyCache.removeRotationKey(rotation.getNewKey());
+            entityManager.flush();
+            entityManager
+                    .createNamedQuery("key.deleteUnused")
+                    .setParameter("id", oldKey.getId())
+                    .executeUpdate();
+
+            LOGGER.info("Completed the Circle Key Rotation for the Circle '{}', {} Data Objects were migrated.", rotation.getCircle().getName(), rotation.getProcessed());
+        }
+    }
+
+    private List<Object[]> findNextBatch(final String queryName, final Long lastId, final int maxResults) {
+        final Query query = entityManager
+                .createNamedQuery(queryName)
+                .setParameter("lastId", lastId)
+                .setMaxResults(maxResults);
+
+        return CommonDao.findList(query);
+    }
+
+    private List<Object[]> findNextBatch(final RotationEntity rotation, final int maxResults) {
+        final Query query = entityManager
+                .createNamedQuery("data.findForRotation")
+                .setParameter("key", rotation.getOldKey())
+                .setParameter("lastId", rotation.getLastDataId())
+                .setMaxResults(maxResults);
+
+        return CommonDao.findList(query);
+    }
+}
@@ -16,22 +16,51 @@
  */
 package net.haugr.eds.core;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJBException;
+import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Query;
-import jakarta.transaction.Transactional;
+import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.Utilities;
 import net.haugr.eds.core.enums.SanityStatus;
+import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.Workers;
+import net.haugr.eds.core.model.BlobStore;
 import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.SanityDao;
+import net.haugr.eds.core.model.SanityMetrics;
+import net.haugr.eds.core.model.SanityThrottle;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.MetadataEntity;
+import net.haugr.eds.core.model.entities.SanityLeaseEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,54 +81,216 @@ import org.slf4j.LoggerFactory;
  * @since EDS 1.0
  */
 @Stateless
-@Transactional
 public class SanitizerBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SanitizerBean.class);
-    private static final int BLOCK = 100;
+    // Blobs are written before the Data referencing them is committed, so
+    // only Blobs which have not been written for a while are removed.
+    private static final Duration BLOB_GRACE_PERIOD = Duration.ofDays(1);
+    // Identifies this EDS instance, as the owner of the Sanity Leases.
+    private static final String INSTANCE = ManagementFactory.getRuntimeMXBean().getName();
 
     @PersistenceContext
     private EntityManager entityManager;
+    @Resource
+    private SessionContext context;
     private final Settings settings = Settings.getInstance();
     private final Crypto crypto = new Crypto(settings);
+    private final SanityMetrics metrics = SanityMetrics.getInstance();
 
-    @Transactional(Transactional.TxType.REQUIRED)
+    /**
+     * <p>The Sanity check is made as a pipeline, so a full check of a large
+     * Database is not limited by a single Thread, nor made in a single
+     * transaction. The Data is read in batches of the setting
+     * 'eds.sanity.batch.size', ordered by Id, and each batch is read in its
+     * own short transaction, starting after the last Id of the previous
+     * batch. Only the encrypted bytes and the stored Checksum are read, so
+     * the Data is never added to the Persistence Context.</p>
+     *
+     * <p>The Checksums are generated in parallel by the {@link Workers} of
+     * the container, limited by the setting 'eds.sanity.workers', while the
+     * next batch is read, so at most two batches are held in memory. The
+     * results are then written with two bulk updates in a short transaction.
+     * Data stored in chunks is streamed from the Database, which can only be
+     * done by the reading Thread, so it is checked one at the time, while
+     * the Workers are processing the rest of the batch.</p>
+     *
+     * <p>All EDS instances in a cluster are running the Sanity check, so the
+     * Data is partitioned into ranges of Ids, given by the setting
+     * 'eds.sanity.range.size'. A range is only checked by the instance
+     * holding the Lease for it, and the other instances simply skip it. The
+     * Lease is renewed after each batch, and released when the range has
+     * been checked, if it is not renewed in time, i.e. as the instance has
+     * stopped, it expires and the range is checked by the next instance.
+     * Each check starts at a random range, so the instances are spread out
+     * over the ranges, rather than competing for the same. The Lease also
+     * holds the last checked Id of the range, so if the check is stopped,
+     * the next check of the range resumes from there.</p>
+     *
+     * <p>To leave room for the requests, the speed of the Sanity check is
+     * limited by the {@link SanityThrottle}, which also makes it back off,
+     * if the Database is busy.</p>
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public void sanitize() {
-        clearExpireSessions();
-        List<Long> ids = findNextBatch(BLOCK);
-        long count = 0;
-        long flawed = 0;
-
-        while (!ids.isEmpty()) {
-            for (final Long id : ids) {
-                final SanityStatus status = processEntity(id);
-                if (status == SanityStatus.FAILED) {
-                    flawed++;
+        final SanitizerBean transactional = self();
+        transactional.cleanup();
+        transactional.repairFolders();
+        metrics.started(transactional.countDueRecords());
+
+        final long started = System.nanoTime();
+        final String owner = INSTANCE + '/' + UUID.randomUUID();
+        final long rangeSize = settings.getSanityRangeSize();
+        final long ranges = (transactional.findLastDataId() / rangeSize) + 1;
+        final long offset = ThreadLocalRandom.current().nextLong(ranges);
+        final Pass pass = new Pass(transactional, owner, new SanityThrottle(settings));
+
+        try {
+            for (long i = 0; i < ranges; i++) {
+                final long rangeStart = ((offset + i) % ranges) * rangeSize;
+                final Long resumeAfter = claimLease(transactional, rangeStart, owner);
+                if (resumeAfter != null) {
+                    boolean completed = false;
+                    try {
+                        completed = sanitizeRange(pass, rangeStart, rangeStart + rangeSize, resumeAfter);
+                    } finally {
+                        transactional.releaseLease(rangeStart, owner, completed);
+                    }
                 }
-                count++;
             }
+        } catch (InterruptedException e) {
+            LOGGER.warn("The Sanity check was interrupted.", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            metrics.completed(System.nanoTime() - started);
+        }
+
+        LOGGER.info("Completed Sanity check, found {} flaws out of {} checked Data Objects.", pass.flawed, pass.checked);
+    }
+
+    /**
+     * Removes the expired Sessions and unused Blobs, before the Data is
+     * checked.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void cleanup() {
+        clearExpireSessions();
+        removeUnusedBlobs();
+        new SanityDao(entityManager).removeExpiredLeases(Utilities.newDate().minusDays(settings.getSanityInterval()));
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public long countDueRecords() {
+        return new SanityDao(entityManager).countDueRecords(Utilities.newDate().minusDays(settings.getSanityInterval()));
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public long findLastDataId() {
+        return new SanityDao(entityManager).findLastDataId();
+    }
+
+    /**
+     * Claims the Lease for the range of Data starting with the given Id,
+     * if no other EDS instance is holding it.
+     *
+     * @param rangeStart The first Data Id of the range
+     * @param owner      The Sanity check claiming the Lease
+     * @return The Id to resume the check after, or null if not claimed
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Long claimLease(final long rangeStart, final String owner) {
+        final SanityLeaseEntity lease = new SanityDao(entityManager).claimLease(rangeStart, owner, leaseExpiration());
+        Long resumeAfter = null;
 
-            ids = findNextBatch(BLOCK);
+        if (lease != null) {
+            resumeAfter = (lease.getCheckpoint() != null) ? lease.getCheckpoint() : (rangeStart - 1);
         }
 
-        LOGGER.info("Completed Sanity check, found {} flaws out of {} checked Data Objects.", flawed, count);
+        return resumeAfter;
     }
 
+    /**
+     * Extends the Lease for the range of Data starting with the given Id,
+     * and saves the checkpoint, i.e. the last checked Id of the range.
+     *
+     * @param rangeStart The first Data Id of the range
+     * @param owner      The Sanity check holding the Lease
+     * @param checkpoint The last checked Id of the range
+     * @return True if the Lease is still held, false if it has expired and
+     *         has been claimed by another EDS instance
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean renewLease(final long rangeStart, final String owner, final Long checkpoint) {
+        return new SanityDao(entityManager).renewLease(rangeStart, owner, leaseExpiration(), checkpoint);
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void releaseLease(final long rangeStart, final String owner, final boolean completed) {
+        new SanityDao(entityManager).releaseLease(rangeStart, owner, completed);
+    }
+
+    /**
+     * Reads the next batch of Data to check, i.e. the Id, stored Checksum,
+     * the encrypted bytes, the Blob reference and the number of chunks.
+     *
+     * @param lastId The Id of the last Data of the previous batch
+     * @param endId  The first Id after the range being checked
+     * @return List with the next batch, empty if the range is checked
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<Object[]> findNextRecords(final Long lastId, final Long endId) {
+        final Query query = entityManager
+                .createNamedQuery("data.findForSanityCheck")
+                .setParameter("status", SanityStatus.OK)
+                .setParameter("date", Utilities.newDate().minusDays(settings.getSanityInterval()))
+                .setParameter("lastId", lastId)
+                .setParameter("endId", endId)
+                .setMaxResults(settings.getSanityBatchSize());
+
+        return CommonDao.findList(query);
+    }
+
+    /**
+     * Writes the results of a batch. The flawed Data is only marked as such,
+     * if the Checksum is unchanged, as the Data may otherwise have been
+     * updated, after it was read.
+     *
+     * @param ids    The Ids of all checked Data
+     * @param flawed The Ids &amp; stored Checksums of the flawed Data
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void updateSanity(final List<Long> ids, final Map<Long, String> flawed) {
+        final LocalDateTime checked = Utilities.newDate();
+
+        if (!ids.isEmpty()) {
+            entityManager
+                    .createNamedQuery("data.updateSanityChecked")
+                    .setParameter("checked", checked)
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        }
+
+        final Query query = entityManager
+                .createNamedQuery("data.updateSanityFailed")
+                .setParameter("status", SanityStatus.FAILED)
+                .setParameter("checked", checked);
+        for (final Map.Entry<Long, String> entry : flawed.entrySet()) {
+            query.setParameter("id", entry.getKey())
+                 .setParameter("checksum", entry.getValue())
+                 .executeUpdate();
+        }
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
     public SanityStatus processEntity(final Long id) {
         SanityStatus status;
 
         try {
-            // When trying to run the updates, it would be good if it could be
-            // done using a Pessimistic locking, to prevent that other processes
-            // accidentally also perform the update, as the Pessimistic locking
-            // is made at the DB level, whereas the Optimistic locking is handled
-            // by the ORM Vendor. However, due to problems with the stability of
-            // the Travis-CI builds, the locking has been removed.
-            //   Even if two different EDS instances perform the same update on
-            // an Object, it should not have any other consequences than wasted
-            // CPU and DB updates.
+            // The Data is not locked, as the Sanity check only processes
+            // Data within a range, for which it holds the Lease, so other
+            // EDS instances are not checking the same Data.
             final DataEntity entity = entityManager.find(DataEntity.class, id, LockModeType.NONE);
-            final String checksum = crypto.generateChecksum(entity.getData());
+            final String checksum = generateChecksum(entity);
 
             if (!Objects.equals(checksum, entity.getChecksum())) {
                 // Let's update the DB with the information that the data is
@@ -129,23 +320,319 @@ public class SanitizerBean {
         return status;
     }
 
+    /**
+     * Checks the Data in the range, starting after the given Id, until
+     * all Data in the range is checked, or the Lease is lost.
+     *
+     * @return True if the range was completed, otherwise false
+     */
+    private boolean sanitizeRange(final Pass pass, final long rangeStart, final long rangeEnd, final long resumeAfter) throws InterruptedException {
+        final SanitizerBean transactional = pass.transactional;
+        List<Object[]> batch = pass.read(rangeEnd, resumeAfter);
+        boolean completed = true;
+
+        while (!batch.isEmpty()) {
+            metrics.read(batch.size());
+            final List<Object[]> rows = new ArrayList<>(batch.size());
+            final List<Long> chunked = new ArrayList<>(0);
+            final AtomicLong bytes = new AtomicLong(0);
+
+            for (final Object[] row : batch) {
+                if (((Integer) row[4] > 0) && (row[3] == null)) {
+                    chunked.add((Long) row[0]);
+                    // The chunks are streamed, so the size is the upper
+                    // bound, given by the number of chunks.
+                    bytes.addAndGet((long) (Integer) row[4] * settings.getDataChunkSize());
+                } else {
+                    rows.add(row);
+                }
+            }
+
+            // The Workers are only given the bytes and the Blob Store, so
+            // they never access the Database or the Settings.
+            final BlobStore store = settings.getBlobDirectory().isEmpty() ? null : CommonDao.findBlobStore(settings);
+            final String[] checksums = new String[rows.size()];
+            final boolean[] generated = new boolean[rows.size()];
+            final Workers.Fork fork = Workers.fork(rows.size(), settings.getSanityWorkers(), i -> {
+                final Long id = (Long) rows.get(i)[0];
+                try {
+                    checksums[i] = generateChecksum(id, (byte[]) rows.get(i)[2], (String) rows.get(i)[3], store, bytes);
+                    generated[i] = true;
+                } catch (RuntimeException e) {
+                    // The Data is not marked as checked, so it is simply
+                    // checked again by the next Sanity check.
+                    LOGGER.error("The Checksum for the Data with Id {} could not be generated: {}", id, e.getMessage(), e);
+                }
+            });
+
+            for (final Long id : chunked) {
+                final SanityStatus status = transactional.processEntity(id);
+                final int flaws = (status == SanityStatus.FAILED) ? 1 : 0;
+                metrics.written(1, flaws);
+                pass.add(1, flaws);
+            }
+
+            final int size = batch.size();
+            final Long lastId = (Long) batch.get(size - 1)[0];
+            batch = pass.read(rangeEnd, lastId);
+
+            fork.join();
+            final List<Long> checked = new ArrayList<>(rows.size());
+            final Map<Long, String> flaws = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (generated[i]) {
+                    final Long id = (Long) rows.get(i)[0];
+                    final String stored = (String) rows.get(i)[1];
+                    if (!Objects.equals(checksums[i], stored)) {
+                        flaws.put(id, stored);
+                    }
+                    checked.add(id);
+                }
+            }
+            pass.write(checked, flaws);
+            metrics.written(checked.size(), flaws.size());
+            pass.add(checked.size(), flaws.size());
+
+            if (!transactional.renewLease(rangeStart, pass.owner, lastId)) {
+                LOGGER.warn("The Lease for the Data from Id {} has expired, the remaining Data is left for the next instance.", rangeStart);
+                batch = List.of();
+                completed = false;
+            }
+            pass.throttle.acquire(size, bytes.get());
+        }
+
+        return completed;
+    }
+
+    /**
+     * Claims the Lease, if it fails, i.e. as another EDS instance created
+     * the Lease at the same time, the range is simply skipped.
+     */
+    private static Long claimLease(final SanitizerBean transactional, final long rangeStart, final String owner) {
+        Long resumeAfter = null;
+
+        try {
+            resumeAfter = transactional.claimLease(rangeStart, owner);
+        } catch (EJBException | PersistenceException e) {
+            LOGGER.debug("The Lease for the Data from Id {} was claimed by another instance: {}", rangeStart, e.getMessage(), e);
+        }
+
+        return resumeAfter;
+    }
+
+    private LocalDateTime leaseExpiration() {
+        return Utilities.newDate().plusMinutes(settings.getSanityLeaseTimeout());
+    }
+
+    /**
+     * <p>Generates the Checksum of the encrypted Data, which is streamed, so
+     * Data stored in chunks is read one chunk at a time. If a chunk is
+     * missing, the Data is incomplete, and no Checksum is returned.</p>
+     *
+     * @param entity The Data Entity to generate the Checksum for
+     * @return The Checksum or null if the Data is incomplete
+     */
+    private String generateChecksum(final DataEntity entity) {
+        return generateChecksum(entity.getId(), () -> new CommonDao(entityManager).streamData(entity, settings));
+    }
+
+    /**
+     * Generates the Checksum of Data, which is either stored directly in
+     * the Database, or in the Blob Store. This is invoked by the Workers,
+     * hence the Database is not accessed.
+     *
+     * @param id            The Id of the Data, for the logging
+     * @param data          The encrypted Data, if stored in the Database
+     * @param blobReference The Blob reference, if stored in the Blob Store
+     * @param store         The Blob Store, null if not configured
+     * @param bytes         Counter for the number of bytes read
+     * @return The Checksum or null if the Data is incomplete
+     */
+    private String generateChecksum(final Long id, final byte[] data, final String blobReference, final BlobStore store, final AtomicLong bytes) {
+        if (data != null) {
+            bytes.addAndGet(data.length);
+        }
+
+        return generateChecksum(id, () -> (blobReference != null)
+                ? new CountingInputStream(((store != null) ? store : CommonDao.findBlobStore(settings)).open(blobReference), bytes)
+                : new ByteArrayInputStream(data));
+    }
+
+    private String generateChecksum(final Long id, final Supplier<InputStream> stream) {
+        String checksum = null;
+
+        try {
+            checksum = crypto.generateChecksum(stream.get());
+        } catch (EDSException e) {
+            if (e.getReturnCode() != ReturnCode.INTEGRITY_ERROR) {
+                throw e;
+            }
+            LOGGER.warn("The Data with Id {} is incomplete: {}", id, e.getMessage());
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Calls to the Bean itself must be made via the container, otherwise
+     * the Transaction Attributes are ignored. Outside the container, i.e.
+     * in the tests, there is no Session Context.
+     *
+     * @return The Bean to invoke the transactional methods on
+     */
+    private SanitizerBean self() {
+        return (context != null) ? context.getBusinessObject(SanitizerBean.class) : this;
+    }
+
+    /**
+     * <p>The number of records in a folder is kept with the folder, and
+     * updated whenever records are added, moved or deleted. If it differs
+     * from the actual number, i.e. after manual corrections in the database,
+     * it is corrected here.</p>
+     *
+     * <p>Records may be added to a folder, while it is being corrected, so
+     * each folder is first locked, the same way as when the number of
+     * records is updated, and then counted. As the counting is made after
+     * the lock is acquired, it includes all records of the transactions,
+     * which updated the folder before, and the transactions which are
+     * waiting for the lock, will update the corrected number. Only the
+     * folders, which differ, are locked.</p>
+     *
+     * @return Number of corrected folders
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int repairFolders() {
+        final List<Long> ids = CommonDao.findList(entityManager.createNamedQuery("metadata.findFoldersToRepair"));
+        final Query query = entityManager.createNamedQuery("metadata.repairChildren");
+        int repaired = 0;
+
+        for (final Long id : ids) {
+            final MetadataEntity folder = entityManager.find(MetadataEntity.class, id, LockModeType.PESSIMISTIC_WRITE);
+            if (folder != null) {
+                repaired += query.setParameter("id", id).executeUpdate();
+            }
+        }
+        if (repaired > 0) {
+            LOGGER.warn("Corrected the number of records for {} folders.", repaired);
+        }
+
+        return repaired;
+    }
+
+    /**
+     * <p>Blobs are shared by all Data with the same encrypted content, so
+     * they are not deleted together with the Data. Instead, Blobs which are
+     * no longer referenced by any Data, i.e. as the Data was updated, deleted
+     * or its transaction rolled back, are removed here.</p>
+     *
+     * @return Number of removed Blobs
+     */
+    public long removeUnusedBlobs() {
+        long removed = 0;
+
+        if (!settings.getBlobDirectory().isEmpty()) {
+            final BlobStore store = CommonDao.findBlobStore(settings);
+            final Query query = entityManager.createNamedQuery("data.countByBlobReference");
+            try (Stream<String> references = store.references(Instant.now().minus(BLOB_GRACE_PERIOD))) {
+                final Iterator<String> iterator = references.iterator();
+                while (iterator.hasNext()) {
+                    final String reference = iterator.next();
+                    if ((Long) query.setParameter("reference", reference).getSingleResult() == 0) {
+                        store.delete(reference);
+                        removed++;
+                    }
+                }
+            }
+            if (removed > 0) {
+                LOGGER.info("Removed {} Blobs, which are no longer used.", removed);
+            }
+        }
+
+        return removed;
+    }
+
     private void clearExpireSessions() {
-        final Query query = entityManager.createNamedQuery("member.removeExpiredSessions");
+        final Query query = entityManager
+                .createNamedQuery("session.removeExpired")
+                .setParameter("now", Utilities.newDate());
         LOGGER.debug("expired {} sessions.", query.executeUpdate());
     }
 
-    public List<Long> findNextBatch(final int maxResults) {
-        // JPA support for Java 8 Date/Time API is not supported
-        // before JavaEE8, which is still very early in adoption.
-        final int days = settings.getSanityInterval();
-        final LocalDateTime date = Utilities.newDate().minusDays(days);
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
 
-        final Query query = entityManager
-                .createNamedQuery("data.findIdsForSanityCheck")
-                .setParameter("status", SanityStatus.OK)
-                .setParameter("date", date)
-                .setMaxResults(maxResults);
+    /**
+     * The state of a Sanity check, i.e. the Workers and Throttle, and the
+     * number of checked &amp; flawed Data Objects. The time it takes to read
+     * and write the batches is given to the Throttle, so it can back off, if
+     * the Database is busy.
+     */
+    private static final class Pass {
 
-        return CommonDao.findList(query);
+        private final SanitizerBean transactional;
+        private final String owner;
+        private final SanityThrottle throttle;
+        private long checked = 0;
+        private long flawed = 0;
+
+        private Pass(final SanitizerBean transactional, final String owner, final SanityThrottle throttle) {
+            this.transactional = transactional;
+            this.owner = owner;
+            this.throttle = throttle;
+        }
+
+        private List<Object[]> read(final long rangeEnd, final long lastId) {
+            final long start = System.nanoTime();
+            final List<Object[]> batch = transactional.findNextRecords(lastId, rangeEnd);
+            throttle.measured(System.nanoTime() - start);
+
+            return batch;
+        }
+
+        private void write(final List<Long> ids, final Map<Long, String> flaws) {
+            final long start = System.nanoTime();
+            transactional.updateSanity(ids, flaws);
+            throttle.measured(System.nanoTime() - start);
+        }
+
+        private void add(final long count, final long flaws) {
+            checked += count;
+            flawed += flaws;
+        }
+    }
+
+    /**
+     * Counts the bytes read from a Blob, so the Throttle is given the
+     * actual number of bytes read by the Workers.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong bytes;
+
+        private CountingInputStream(final InputStream stream, final AtomicLong bytes) {
+            super(stream);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                bytes.incrementAndGet();
+            }
+
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                bytes.addAndGet(read);
+            }
+
+            return read;
+        }
     }
 }
@@ -20,6 +20,7 @@ import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import net.haugr.eds.api.requests.BatchDataRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.FetchDataTypeRequest;
 import net.haugr.eds.api.requests.FetchSignatureRequest;
@@ -27,6 +28,7 @@ import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.requests.ProcessDataTypeRequest;
 import net.haugr.eds.api.requests.SignRequest;
 import net.haugr.eds.api.requests.VerifyRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
 import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.FetchDataTypeResponse;
 import net.haugr.eds.api.responses.FetchSignatureResponse;
@@ -35,6 +37,7 @@ import net.haugr.eds.api.responses.ProcessDataTypeResponse;
 import net.haugr.eds.api.responses.SignResponse;
 import net.haugr.eds.api.responses.VerifyResponse;
 import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.managers.BatchDataManager;
 import net.haugr.eds.core.managers.FetchDataManager;
 import net.haugr.eds.core.managers.FetchDataTypeManager;
 import net.haugr.eds.core.managers.FetchSignatureManager;
@@ -119,6 +122,25 @@ public class ShareBean {
         return response;
     }
 
+    @Transactional(Transactional.TxType.REQUIRED)
+    public BatchDataResponse batchData(final BatchDataRequest request) {
+        BatchDataResponse response;
+
+        try {
+            final BatchDataManager manager = new BatchDataManager(settings, entityManager);
+            response = manager.perform(request);
+        } catch (EDSException e) {
+            // Any Warning or Error thrown by the EDS contain enough
+            // information, so it can be dealt with by the requesting
+            // System. Logging the error is thus not needed, as all
+            // information is provided in the response.
+            LOGGER.debug(e.getMessage(), e);
+            response = new BatchDataResponse(e.getReturnCode(), e.getMessage());
+        }
+
+        return response;
+    }
+
     @Transactional(Transactional.TxType.REQUIRED)
     public FetchDataResponse fetchData(final FetchDataRequest request) {
         FetchDataResponse response;
@@ -16,10 +16,14 @@
  */
 package net.haugr.eds.core;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import jakarta.ejb.Asynchronous;
+import jakarta.ejb.EJBException;
 import jakarta.ejb.ScheduleExpression;
 import jakarta.ejb.Singleton;
 import jakarta.ejb.Startup;
@@ -29,13 +33,22 @@ import jakarta.ejb.TimerConfig;
 import jakarta.ejb.TimerService;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import net.haugr.eds.core.enums.Generation;
 import net.haugr.eds.core.enums.StandardSetting;
 import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.jce.CircleKeyCache;
+import net.haugr.eds.core.jce.KeyPairPool;
+import net.haugr.eds.core.jce.SessionCache;
+import net.haugr.eds.core.jce.Workers;
 import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.Generations;
+import net.haugr.eds.core.model.SanityMetrics;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.SettingEntity;
 import net.haugr.eds.core.model.entities.VersionEntity;
@@ -44,7 +57,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * <p>Startup Bean for EDS, it is a singleton, which handles loading of the
- * settings. It also runs the EDS Sanity checks.</p>
+ * settings. It also runs the EDS Sanity checks, the Key Rotation and polls
+ * the Generations, to see changes made by other EDS instances.</p>
  *
  * @author Kim Jensen
  * @since EDS 1.0
@@ -56,24 +70,59 @@ import org.slf4j.LoggerFactory;
 public class StartupBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StartupBean.class);
-    private static final int DB_VERSION = 4;
+    private static final int DB_VERSION = 5;
+    private static final String SANITIZER = "EDS Sanitizer";
+    private static final String ROTATION = "EDS Key Rotation";
+    private static final String GENERATIONS = "EDS Generations";
 
     @PersistenceContext
     private EntityManager entityManager;
     @Inject
     private SanitizerBean sanitizerBean;
+    @Inject
+    private RotationBean rotationBean;
+    @Inject
+    private GenerationBean generationBean;
     @Resource
     private TimerService timerService;
+    @Resource
+    private ManagedExecutorService executorService;
+    @Resource
+    private ManagedThreadFactory threadFactory;
     private final Settings settings = Settings.getInstance();
+    private final Generations generations = Generations.getInstance();
+    private final Runnable trimCaches = () -> {
+        SessionCache.getInstance(settings).trim();
+        CircleKeyCache.getInstance(settings).trim();
+    };
+    private final Runnable clearCircleKeys = () -> CircleKeyCache.getInstance(settings).clearCircleKeys();
 
     @PostConstruct
     public void startup() {
+        // The parallel work is made by the Threads of the container, so the
+        // size of the Thread Pool is configured in the container.
+        Workers.register(executorService);
+
         LOGGER.info("Check if Database is up-to-date.");
         if (checkDatabase()) {
 
             LOGGER.info("Initialize the Settings.");
             initializeSettings();
 
+            // The in-process Caches are refreshed, when the Settings or the
+            // Circles are changed by other EDS instances in the cluster.
+            generations.subscribe(Generation.SETTINGS, trimCaches);
+            generations.subscribe(Generation.CIRCLES, clearCircleKeys);
+
+            // Pre-generating KeyPairs for the configured Algorithm in the
+            // background, so the first Accounts don't have to wait. The
+            // background Thread is created by the container, and stopped
+            // again when EDS is undeployed.
+            LOGGER.info("Initializing the KeyPair Pool.");
+            final KeyPairPool keyPairPool = KeyPairPool.getInstance(settings);
+            keyPairPool.start(threadFactory);
+            keyPairPool.fill(settings.getAsymmetricAlgorithm());
+
             LOGGER.info("Initializing the EDS Sanitizer Service.");
 
             // If requested, then simply start sanitize as a background job
@@ -85,7 +134,7 @@ public class StartupBean {
             // Registering the Timer Service. This will ensure that the
             // Scheduler is invoked at frequent intervals.
             final TimerConfig timerConfig = new TimerConfig();
-            timerConfig.setInfo("EDS Sanitizer");
+            timerConfig.setInfo(SANITIZER);
 
             // To prevent starting multiple Timers, it is started in
             // a non-persisted way, meaning that it will be cancelled once
@@ -96,9 +145,32 @@ public class StartupBean {
             final ScheduleExpression expression = new ScheduleExpression();
             expression.hour("*");
             timerService.createCalendarTimer(expression, timerConfig);
+
+            // Replaced Circle Keys are migrated in the background, the Timer
+            // is started every 5 minutes, and runs until all are migrated.
+            final TimerConfig rotationConfig = new TimerConfig(ROTATION, false);
+            final ScheduleExpression rotationExpression = new ScheduleExpression();
+            rotationExpression.hour("*").minute("*/5");
+            timerService.createCalendarTimer(rotationExpression, rotationConfig);
+
+            // Changes made via other EDS instances in the cluster, are picked
+            // up by polling the Generations every 30 seconds.
+            final TimerConfig generationConfig = new TimerConfig(GENERATIONS, false);
+            final ScheduleExpression generationExpression = new ScheduleExpression();
+            generationExpression.hour("*").minute("*").second("*/30");
+            timerService.createCalendarTimer(generationExpression, generationConfig);
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        generations.unsubscribe(Generation.SETTINGS, trimCaches);
+        generations.unsubscribe(Generation.CIRCLES, clearCircleKeys);
+        Workers.unregister();
+        LOGGER.info("Stopping the KeyPair Pool.");
+        KeyPairPool.shutdown();
+    }
+
     private boolean checkDatabase() {
         boolean ready = false;
 
@@ -122,11 +194,21 @@ public class StartupBean {
 
     private void initializeSettings() {
         final CommonDao dao = new CommonDao(entityManager);
+
+        // The Generations are read before the Settings, so if the Settings
+        // are changed by another EDS instance in the meantime, the changes
+        // are reloaded by the first poll.
+        generations.initialize(dao.findGenerations());
         final List<SettingEntity> found = dao.findAllAscending(SettingEntity.class, "id");
+        final Map<String, String> values = new HashMap<>(found.size());
 
         for (final SettingEntity entity : found) {
-            settings.set(entity.getName(), entity.getSetting());
+            values.put(entity.getName(), entity.getSetting());
         }
+
+        // All Settings are replaced at once, so no request sees a mix of
+        // the default and the persisted Settings.
+        settings.update(values);
     }
 
     @Asynchronous
@@ -137,8 +219,55 @@ public class StartupBean {
 
     @Timeout
     public void runSanitizing(final Timer timer) {
+        if (ROTATION.equals(timer.getInfo())) {
+            runRotation();
+            return;
+        }
+        if (GENERATIONS.equals(timer.getInfo())) {
+            runGenerations();
+            return;
+        }
+
         LOGGER.info("Starting Timed Sanitizing check.");
         sanitizerBean.sanitize();
+        LOGGER.info("Sanity statistics: {}", SanityMetrics.getInstance().getStatistics());
+        LOGGER.info("KeyPair Pool statistics: {}", KeyPairPool.getInstance(settings).getStatistics());
         LOGGER.info("Next Sanitizing check will begin at: {}", timer.getNextTimeout());
     }
+
+    private void runGenerations() {
+        try {
+            generationBean.poll();
+        } catch (EDSException | EJBException e) {
+            // The Generations are polled again by the next Timer.
+            LOGGER.error("Polling the Generations failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Migrates the information protected by a replaced MasterKey, and the
+     * Data of replaced Circle Keys, one batch at the time, with a pause
+     * between each batch, so the migration will not take over the database.
+     * Each batch is committed separately, so if the migration is interrupted,
+     * it is resumed from the last batch. The MasterKey is migrated first, as
+     * the Circle Key Rotations are protected by it.
+     */
+    private void runRotation() {
+        final long pause = settings.getRotationBatchPause();
+
+        try {
+            while (rotationBean.migrateMasterKeyBatch()) {
+                Thread.sleep(pause);
+            }
+            while (rotationBean.migrateBatch()) {
+                Thread.sleep(pause);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.warn("The Key Rotation was interrupted.", e);
+            Thread.currentThread().interrupt();
+        } catch (EDSException | EJBException e) {
+            // The Rotation is resumed by the next Timer.
+            LOGGER.error("The Key Rotation failed: {}", e.getMessage(), e);
+        }
+    }
 }
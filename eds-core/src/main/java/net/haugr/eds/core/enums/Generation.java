@@ -0,0 +1,61 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.enums;
+
+/**
+ * <p>The Generations, which are increased in the Database whenever the
+ * information they cover is changed. Each EDS instance compares them with
+ * the Generations it already knows, to detect changes made by other
+ * instances in the cluster.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public enum Generation {
+
+    /** The Settings, only the changed Settings are reloaded. */
+    SETTINGS("settings"),
+
+    /** The Circles and their Keys. */
+    CIRCLES("circles"),
+
+    /** The Data Types. */
+    DATATYPES("datatypes");
+
+    private final String name;
+
+    Generation(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static Generation find(final String name) {
+        Generation found = null;
+
+        for (final Generation generation : values()) {
+            if (generation.name.equals(name)) {
+                found = generation;
+                break;
+            }
+        }
+
+        return found;
+    }
+}
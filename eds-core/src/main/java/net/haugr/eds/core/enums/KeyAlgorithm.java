@@ -16,7 +16,6 @@
  */
 package net.haugr.eds.core.enums;
 
-import static net.haugr.eds.api.common.Constants.SUN_EC;
 import static net.haugr.eds.api.common.Constants.SUN_JCE;
 
 /**
@@ -101,10 +100,7 @@ public enum KeyAlgorithm {
     // Asymmetric Algorithms
     RSA_2048(Type.ASYMMETRIC, "RSA", Transformation.RSA, 2048, SUN_JCE, null),
     RSA_4096(Type.ASYMMETRIC, "RSA", Transformation.RSA, 4096, SUN_JCE, null),
-    RSA_8192(Type.ASYMMETRIC, "RSA", Transformation.RSA, 8192, SUN_JCE, null),
-    // Elliptic Curves (See: https://openjdk.java.net/jeps/324)
-    X25519(Type.ASYMMETRIC, "", Transformation.RSA, 123, SUN_EC, null),
-    X448(Type.ASYMMETRIC, "", Transformation.RSA, 123, SUN_EC, null);
+    RSA_8192(Type.ASYMMETRIC, "RSA", Transformation.RSA, 8192, SUN_JCE, null);
 
     /**
      * The Algorithm Type, i.e. how it should be used.
@@ -84,6 +84,12 @@ public enum Permission {
      */
     PROCESS_DATA(TrustLevel.WRITE, "Process Data."),
 
+    /**
+     * Adding several Data Objects at once, requires the same permissions as
+     * adding them one at the time.
+     */
+    BATCH_DATA(TrustLevel.WRITE, "Batch Add Data."),
+
     /**
      * DataTypes is used, if the Clients wishes to have more control over what
      * an Object represents, which may be needed if multiple clients is
@@ -122,6 +128,12 @@ public enum Permission {
      */
     INVENTORY(TrustLevel.SYSOP, "System Inventory."),
 
+    /**
+     * The Cache statistics is only for the System Administrator, who is
+     * also the only one allowed to evict the Cache.
+     */
+    CACHES(TrustLevel.SYSOP, "Cache Statistics."),
+
     /**
      * The Sanity checks is something, which is limited to the System or Circle
      * Administrators, the System Administrator may read the information for all
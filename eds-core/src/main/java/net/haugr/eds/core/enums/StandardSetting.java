@@ -32,6 +32,11 @@ public enum StandardSetting {
     PBE_ALGORITHM("eds.crypto.pbe.algorithm", "PBE_GCM_256"),
     PBE_ITERATIONS("eds.crypto.pbe.iterations", "1024"),
     HASH_ALGORITHM("eds.crypto.hash.algorithm", "SHA_512"),
+    SEGMENT_SIZE("eds.crypto.segment.size", "1048576"),
+    CRYPTO_PARALLELISM("eds.crypto.parallelism", "4"),
+    DATA_CHUNK_SIZE("eds.data.chunk.size", "1048576"),
+    BLOB_DIRECTORY("eds.data.blob.directory", ""),
+    KEYPAIR_POOL_SIZE("eds.crypto.keypair.pool.size", "4"),
     EDS_SALT("eds.system.salt", "Default salt, also used as kill switch. Must be set in DB."),
     EDS_LOCALE("eds.system.locale", "EN"),
     EDS_CHARSET("eds.system.charset", "UTF-8"),
@@ -39,7 +44,22 @@ public enum StandardSetting {
     SHOW_TRUSTEES("eds.show.trustees", "true"),
     SANITY_STARTUP("eds.sanity.check.startup", "true"),
     SANITY_INTERVAL("eds.sanity.check.interval.days", "180"),
+    SANITY_BATCH_SIZE("eds.sanity.batch.size", "100"),
+    SANITY_WORKERS("eds.sanity.workers", "0"),
+    SANITY_RANGE_SIZE("eds.sanity.range.size", "100000"),
+    SANITY_LEASE_TIMEOUT("eds.sanity.lease.timeout.minutes", "10"),
+    SANITY_ROWS_PER_SECOND("eds.sanity.rows.per.second", "0"),
+    SANITY_BYTES_PER_SECOND("eds.sanity.bytes.per.second", "0"),
+    SANITY_BACKOFF_LATENCY("eds.sanity.backoff.latency.millis", "1000"),
     SESSION_TIMEOUT("eds.session.timeout.minutes", "480"),
+    SESSION_CACHE_SIZE("eds.session.cache.size", "1024"),
+    SESSION_MAX_PER_MEMBER("eds.session.max.per.member", "10"),
+    CIRCLE_KEY_CACHE_SIZE("eds.circle.key.cache.size", "1024"),
+    CIRCLE_KEY_CACHE_TIMEOUT("eds.circle.key.cache.timeout.minutes", "15"),
+    ROTATION_BATCH_SIZE("eds.rotation.batch.size", "100"),
+    ROTATION_BATCH_PAUSE("eds.rotation.batch.pause.millis", "250"),
+    ROTATION_GRACE_PERIOD("eds.rotation.grace.period.days", "30"),
+    CLUSTER_INSTANCES("eds.cluster.instances", "1"),
     MASTERKEY_URL("eds.masterkey.url", ""),
     CORS("eds.cors.value", "http://localhost"),
     // The isReady setting is set by the StartUp bean, and thus not persisted.
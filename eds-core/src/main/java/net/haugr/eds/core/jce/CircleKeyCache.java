@@ -0,0 +1,373 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.crypto.spec.SecretKeySpec;
+import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
+
+/**
+ * <p>Before any Data can be encrypted or decrypted, the Circle Key must be
+ * extracted, meaning that the Trustee's armored Circle Key is decrypted with
+ * the Member's Private Key. For the larger RSA keys, this is far more
+ * expensive than the Symmetric encryption of a typical Data Object.</p>
+ *
+ * <p>This Singleton keeps the decrypted Circle Keys in memory, identified by
+ * the Member, Trustee and Key. The armored Circle Key of the Trustee must
+ * still match the cached information, so a Trustee which has had the Circle
+ * Key re-encrypted, i.e. if the Member Credentials were changed, by any EDS
+ * instance, will never be served from the cache.</p>
+ *
+ * <p>The number of entries is bounded by the setting
+ * 'eds.circle.key.cache.size', and entries expire after the amount of minutes
+ * given by the setting 'eds.circle.key.cache.timeout.minutes'. The raw key
+ * bytes of removed entries are overwritten.</p>
+ *
+ * <p>When a Circle Key is replaced, the existing Data is migrated to the new
+ * Circle Key in the background. As the new Circle Key is only available to
+ * the Trustees, it is kept here as a Rotation Key, when a Trustee is
+ * accessing the Circle, until the migration has completed. The Rotation Keys
+ * are never persisted, so after a restart, the migration continues once a
+ * Trustee is again accessing the Circle. There is at most one Rotation Key
+ * per pending Rotation, so they are not bound by the settings.</p>
+ *
+ * <p>As the {@link SecretEDSKey} is mutable, every lookup will return a new
+ * instance, so it is safe for the caller to update the Salt.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+public final class CircleKeyCache {
+
+    private static final Object LOCK = new Object();
+    private static CircleKeyCache instance = null;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final Map<Long, RotationKey> rotationKeys = new HashMap<>(0);
+    private final Settings settings;
+
+    private CircleKeyCache(final Settings settings) {
+        this.settings = settings;
+    }
+
+    public static CircleKeyCache getInstance(final Settings settings) {
+        synchronized (LOCK) {
+            if (instance == null) {
+                instance = new CircleKeyCache(settings);
+            }
+
+            return instance;
+        }
+    }
+
+    /**
+     * <p>Finds the Circle Key for the given Trustee and Key. If no entry
+     * exists, or if the entry no longer matches the Trustee, then a null is
+     * returned, and the caller must extract the Circle Key the traditional
+     * way.</p>
+     *
+     * @param trustee Trustee Entity with the armored Circle Key
+     * @param key     Key Entity, which the Circle Key is used for
+     * @return New Circle Key instance or null
+     */
+    public SecretEDSKey find(final TrusteeEntity trustee, final KeyEntity key) {
+        final String cacheKey = cacheKey(trustee, key);
+
+        synchronized (entries) {
+            final Entry entry = entries.get(cacheKey);
+            SecretEDSKey circleKey = null;
+
+            if (entry != null) {
+                if (entry.matches(trustee)) {
+                    circleKey = entry.toKey();
+                } else {
+                    remove(entries.remove(cacheKey));
+                }
+            }
+
+            return circleKey;
+        }
+    }
+
+    /**
+     * Adds a newly extracted Circle Key for the given Trustee and Key.
+     *
+     * @param trustee   Trustee Entity with the armored Circle Key
+     * @param key       Key Entity, which the Circle Key is used for
+     * @param circleKey The extracted Circle Key
+     */
+    public void add(final TrusteeEntity trustee, final KeyEntity key, final SecretEDSKey circleKey) {
+        final int maxEntries = settings.getCircleKeyCacheSize();
+
+        if (maxEntries > 0) {
+            final LocalDateTime expires = Utilities.newDate().plusMinutes(settings.getCircleKeyCacheTimeout());
+
+            synchronized (entries) {
+                remove(entries.put(cacheKey(trustee, key), new Entry(trustee, circleKey, expires)));
+                trim(maxEntries);
+            }
+        }
+    }
+
+    /**
+     * Removes the expired entries, and the least recently used entries,
+     * which exceed the setting 'eds.circle.key.cache.size'. This must be
+     * invoked when the Settings have been changed by another EDS instance.
+     */
+    public void trim() {
+        synchronized (entries) {
+            trim(settings.getCircleKeyCacheSize());
+        }
+    }
+
+    /**
+     * Removes all entries belonging to the given Member. This must be invoked
+     * if the Member Credentials are altered or the Member is removed.
+     *
+     * @param member The Member to remove all cached entries for
+     */
+    public void remove(final MemberEntity member) {
+        synchronized (entries) {
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+                if (Objects.equals(entry.memberId, member.getId())) {
+                    iterator.remove();
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries belonging to the given Trustee. This must be
+     * invoked when the Trustee is removed from the Circle.
+     *
+     * @param trustee The Trustee to remove all cached entries for
+     */
+    public void remove(final TrusteeEntity trustee) {
+        synchronized (entries) {
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+                if (Objects.equals(entry.trusteeId, trustee.getId())) {
+                    iterator.remove();
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all entries belonging to the given Circle. This must be invoked
+     * when the Circle is deleted.
+     *
+     * @param circle The Circle to remove all cached entries for
+     */
+    public void remove(final CircleEntity circle) {
+        synchronized (entries) {
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+                if (Objects.equals(entry.circleId, circle.getId())) {
+                    iterator.remove();
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the new Circle Key of a pending Rotation, so the Data of the
+     * Circle can be migrated to it in the background.
+     *
+     * @param key       The new Key Entity of the Rotation
+     * @param circleKey The new Circle Key
+     */
+    public void addRotationKey(final KeyEntity key, final SecretEDSKey circleKey) {
+        synchronized (entries) {
+            rotationKeys.computeIfAbsent(key.getId(), id -> new RotationKey(circleKey.getAlgorithm(), circleKey.getEncoded()));
+        }
+    }
+
+    /**
+     * Finds the new Circle Key of a pending Rotation. If no Trustee has
+     * accessed the Circle, since the Rotation began or this instance was
+     * started, then a null is returned.
+     *
+     * @param key The new Key Entity of the Rotation
+     * @return New Circle Key instance or null
+     */
+    public SecretEDSKey findRotationKey(final KeyEntity key) {
+        synchronized (entries) {
+            final RotationKey rotationKey = rotationKeys.get(key.getId());
+            return (rotationKey != null) ? rotationKey.toKey() : null;
+        }
+    }
+
+    /**
+     * Removes the new Circle Key of a Rotation, which has completed.
+     *
+     * @param key The new Key Entity of the Rotation
+     */
+    public void removeRotationKey(final KeyEntity key) {
+        synchronized (entries) {
+            final RotationKey rotationKey = rotationKeys.remove(key.getId());
+            if (rotationKey != null) {
+                Arrays.fill(rotationKey.rawKey(), (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Removes the Rotation Keys, which no longer belong to a pending
+     * Rotation, i.e. if the Rotation was completed by another instance.
+     *
+     * @param keyIds The Ids of the new Key Entities of the pending Rotations
+     */
+    public void retainRotationKeys(final Set<Long> keyIds) {
+        synchronized (entries) {
+            final Iterator<Map.Entry<Long, RotationKey>> iterator = rotationKeys.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Long, RotationKey> entry = iterator.next();
+                if (!keyIds.contains(entry.getKey())) {
+                    iterator.remove();
+                    Arrays.fill(entry.getValue().rawKey(), (byte) 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all Circle Keys, but keeps the Rotation Keys. This must be
+     * invoked when the Circles have been changed by another EDS instance, as
+     * it is not known which Circles were changed, and a deleted Circle will
+     * never be looked up again, so its Circle Keys would otherwise remain in
+     * memory until they expire.
+     */
+    public void clearCircleKeys() {
+        synchronized (entries) {
+            entries.values().forEach(CircleKeyCache::remove);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Removes all entries from the Cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.values().forEach(CircleKeyCache::remove);
+            entries.clear();
+            rotationKeys.values().forEach(rotationKey -> Arrays.fill(rotationKey.rawKey(), (byte) 0));
+            rotationKeys.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void trim(final int maxEntries) {
+        final LocalDateTime now = Utilities.newDate();
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (!now.isBefore(entry.expires)) {
+                iterator.remove();
+                remove(entry);
+            }
+        }
+
+        iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries) && iterator.hasNext()) {
+            final Entry eldest = iterator.next();
+            iterator.remove();
+            remove(eldest);
+        }
+    }
+
+    private static void remove(final Entry entry) {
+        if (entry != null) {
+            Arrays.fill(entry.rawKey, (byte) 0);
+        }
+    }
+
+    private static String cacheKey(final TrusteeEntity trustee, final KeyEntity key) {
+        return trustee.getMember().getId() + ":" + trustee.getId() + ":" + key.getId();
+    }
+
+    /**
+     * Internal Cache Entry, holding the raw Circle Key, together with the
+     * information needed to verify that it still belongs to the Trustee.
+     */
+    private static final class Entry {
+
+        private final Long memberId;
+        private final Long trusteeId;
+        private final Long circleId;
+        private final String armoredCircleKey;
+        private final KeyAlgorithm algorithm;
+        private final byte[] rawKey;
+        private final LocalDateTime expires;
+
+        private Entry(final TrusteeEntity trustee, final SecretEDSKey circleKey, final LocalDateTime expires) {
+            this.memberId = trustee.getMember().getId();
+            this.trusteeId = trustee.getId();
+            this.circleId = trustee.getCircle().getId();
+            this.armoredCircleKey = trustee.getCircleKey();
+            this.algorithm = circleKey.getAlgorithm();
+            this.rawKey = circleKey.getEncoded();
+            this.expires = expires;
+        }
+
+        private boolean matches(final TrusteeEntity trustee) {
+            return Objects.equals(armoredCircleKey, trustee.getCircleKey())
+                    && Utilities.newDate().isBefore(expires);
+        }
+
+        private SecretEDSKey toKey() {
+            return new SecretEDSKey(algorithm, new SecretKeySpec(rawKey, algorithm.getName()));
+        }
+    }
+
+    /**
+     * The raw new Circle Key of a pending Rotation.
+     */
+    private record RotationKey(KeyAlgorithm algorithm, byte[] rawKey) {
+
+        private SecretEDSKey toKey() {
+            return new SecretEDSKey(algorithm, new SecretKeySpec(rawKey, algorithm.getName()));
+        }
+    }
+}
@@ -16,6 +16,11 @@
  */
 package net.haugr.eds.core.jce;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.Key;
@@ -34,11 +39,13 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
@@ -50,6 +57,8 @@ import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.exceptions.CryptoException;
 import net.haugr.eds.core.model.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * <p>This library contain all the Cryptographic Operations, needed for EDS, to
@@ -79,6 +88,11 @@ import net.haugr.eds.core.model.Settings;
  */
 public final class Crypto {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Crypto.class);
+    private static final String KEY_WRAP = "AESWrap";
+    private static final String HMAC = "HmacSHA256";
+    private static final byte[] SESSION_LOOKUP = "EDS Session Lookup".getBytes(StandardCharsets.UTF_8);
+
     private final MasterKey masterKey;
     private final Settings settings;
 
@@ -110,7 +124,7 @@ public final class Crypto {
             final char[] extendedSecret = convertSecret(secret);
             final byte[] secretSalt = stringToBytes(salt);
 
-            final SecretKeyFactory factory = SecretKeyFactory.getInstance(algorithm.getTransformationValue());
+            final SecretKeyFactory factory = EngineCache.secretKeyFactory(algorithm.getTransformationValue());
             final KeySpec spec = new PBEKeySpec(extendedSecret, secretSalt, settings.getPasswordIterations(), algorithm.getLength());
             final SecretKey tmpKey = factory.generateSecret(spec);
             final SecretKey secretKey = new SecretKeySpec(tmpKey.getEncoded(), algorithm.getName());
@@ -173,7 +187,7 @@ public final class Crypto {
 
     public String generateChecksum(final byte[] bytes) {
         try {
-            final MessageDigest digest = MessageDigest.getInstance(settings.getHashAlgorithm().getAlgorithm());
+            final MessageDigest digest = EngineCache.digest(settings.getHashAlgorithm().getAlgorithm());
             final byte[] hashed = digest.digest(bytes);
 
             return Base64.getEncoder().encodeToString(hashed);
@@ -182,13 +196,76 @@ public final class Crypto {
         }
     }
 
+    /**
+     * Generates the Checksum of the content of the given Stream, which is
+     * read to the end, so the content is never held in memory as a whole.
+     *
+     * @param stream Stream to generate the Checksum for
+     * @return Base64 encoded Checksum
+     */
+    public String generateChecksum(final InputStream stream) {
+        try (InputStream in = stream) {
+            final MessageDigest digest = EngineCache.digest(settings.getHashAlgorithm().getAlgorithm());
+            in.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (IllegalArgumentException | IOException | NoSuchAlgorithmException e) {
+            throw new CryptoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generates the lookup key for the given Session Key, which is a keyed
+     * HMAC, where the HMAC key is derived from the Master Key. Unlike the
+     * Checksum, it cannot be generated without the Master Key, and it is
+     * cheaper than encrypting the Session Key before it is hashed.
+     *
+     * @param sessionKey Session Key to generate the lookup key for
+     * @return Base64 encoded lookup key
+     */
+    public String generateSessionLookup(final byte[] sessionKey) {
+        return generateSessionLookup(masterKey.getKey(), sessionKey);
+    }
+
+    /**
+     * Generates the lookup key for the given Session Key with the previous
+     * Master Key, if the Master Key is currently being replaced. Sessions are
+     * not migrated, so they remain valid with the previous Master Key, until
+     * they expire.
+     *
+     * @param sessionKey Session Key to generate the lookup key for
+     * @return Base64 encoded lookup key, or null if there is no previous Master Key
+     */
+    public String generatePreviousSessionLookup(final byte[] sessionKey) {
+        final SecretEDSKey previousKey = masterKey.getPreviousKey();
+        return (previousKey != null) ? generateSessionLookup(previousKey, sessionKey) : null;
+    }
+
+    private static String generateSessionLookup(final SecretEDSKey key, final byte[] sessionKey) {
+        try {
+            // The Master Key is not used directly as HMAC key, instead a
+            // dedicated key is derived from it, HMAC(MasterKey, label).
+            final Mac mac = EngineCache.mac(HMAC);
+            mac.init(new SecretKeySpec(key.getEncoded(), HMAC));
+            final byte[] lookupKey = mac.doFinal(SESSION_LOOKUP);
+
+            mac.init(new SecretKeySpec(lookupKey, HMAC));
+            Arrays.fill(lookupKey, (byte) 0);
+            final byte[] lookup = mac.doFinal(sessionKey);
+
+            return Base64.getEncoder().encodeToString(lookup);
+        } catch (IllegalArgumentException | IllegalStateException | NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new CryptoException(e.getMessage(), e);
+        }
+    }
+
     // =========================================================================
     // Standard Cryptographic Operations; Sign, Verify, Encrypt & Decrypt
     // =========================================================================
 
     public byte[] sign(final PrivateKey key, final byte[] message) {
         try {
-            final Signature signer = Signature.getInstance(settings.getSignatureAlgorithm().getTransformationValue());
+            final Signature signer = EngineCache.signature(settings.getSignatureAlgorithm().getTransformationValue());
             signer.initSign(key);
             signer.update(message);
 
@@ -200,7 +277,7 @@ public final class Crypto {
 
     public boolean verify(final PublicKey key, final byte[] message, final byte[] signature) {
         try {
-            final Signature verifier = Signature.getInstance(settings.getSignatureAlgorithm().getTransformationValue());
+            final Signature verifier = EngineCache.signature(settings.getSignatureAlgorithm().getTransformationValue());
             verifier.initVerify(key);
             verifier.update(message);
 
@@ -220,9 +297,42 @@ public final class Crypto {
         return Base64.getEncoder().encodeToString(encrypted);
     }
 
+    /**
+     * Encrypts the given bytes with the previous Master Key, if the Master
+     * Key is currently being replaced. This is needed for information, which
+     * was encrypted before the Master Key was replaced, such as Sessions.
+     *
+     * @param toEncrypt Bytes to encrypt
+     * @return Encrypted bytes, or null if there is no previous Master Key
+     */
+    public byte[] encryptWithPreviousMasterKey(final byte[] toEncrypt) {
+        final SecretEDSKey previousKey = masterKey.getPreviousKey();
+        return (previousKey != null) ? encrypt(previousKey, toEncrypt) : null;
+    }
+
+    /**
+     * Decrypts the given information with the Master Key. If the Master Key
+     * is currently being replaced, and the information has not yet been
+     * migrated, the previous Master Key is used.
+     *
+     * @param toDecrypt Base64 encoded information to decrypt
+     * @return Decrypted information
+     * @throws CryptoException if the information cannot be decrypted
+     */
     public String decryptWithMasterKey(final String toDecrypt) {
         final byte[] encrypted = Base64.getDecoder().decode(toDecrypt);
-        final byte[] decrypted = decrypt(masterKey.getKey(), encrypted);
+        final MasterKey.Keys keys = masterKey.getKeys();
+        byte[] decrypted;
+
+        try {
+            decrypted = decrypt(keys.key(), encrypted);
+        } catch (CryptoException e) {
+            if (keys.previousKey() == null) {
+                throw e;
+            }
+            decrypted = decrypt(keys.previousKey(), encrypted);
+        }
+
         return bytesToString(decrypted);
     }
 
@@ -262,6 +372,75 @@ public final class Crypto {
         }
     }
 
+    // =========================================================================
+    // Segmented Encryption & Decryption of larger Objects
+    // =========================================================================
+
+    /**
+     * <p>Encrypts the given bytes with the segmented AES-GCM format, where the
+     * segments are encrypted in parallel. The returned bytes can only be
+     * decrypted again, if the Segment Header is stored together with them,
+     * see {@link #createSegmentHeader(int)}.</p>
+     *
+     * @param key         Symmetric GCM Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param toEncrypt   Bytes to encrypt
+     * @return Encrypted bytes
+     * @throws CryptoException if an error occurred
+     */
+    public static byte[] encrypt(final SecretEDSKey key, final int segmentSize, final byte[] toEncrypt) {
+        return SegmentedCipher.encrypt(key, segmentSize, toEncrypt);
+    }
+
+    /**
+     * Decrypts the given bytes, encrypted with the segmented AES-GCM format,
+     * where the segments are decrypted in parallel.
+     *
+     * @param key         Symmetric GCM Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param toDecrypt   Bytes to decrypt
+     * @return Decrypted bytes
+     * @throws CryptoException if an error occurred
+     */
+    public static byte[] decrypt(final SecretEDSKey key, final int segmentSize, final byte[] toDecrypt) {
+        return SegmentedCipher.decrypt(key, segmentSize, toDecrypt);
+    }
+
+    /**
+     * Returns a Stream, which will encrypt all bytes written to it with the
+     * segmented AES-GCM format, and write them to the given Stream. The
+     * returned Stream must be closed, to complete the encryption.
+     *
+     * @param key         Symmetric GCM Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param out         Stream to write the encrypted bytes to
+     * @return Stream to write the bytes to encrypt to
+     */
+    public static OutputStream encryptingStream(final SecretEDSKey key, final int segmentSize, final OutputStream out) {
+        return SegmentedCipher.encryptingStream(key, segmentSize, out);
+    }
+
+    /**
+     * Returns a Stream, which will decrypt the segmented AES-GCM encrypted
+     * bytes from the given Stream.
+     *
+     * @param key         Symmetric GCM Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param in          Stream to read the encrypted bytes from
+     * @return Stream to read the decrypted bytes from
+     */
+    public static InputStream decryptingStream(final SecretEDSKey key, final int segmentSize, final InputStream in) {
+        return SegmentedCipher.decryptingStream(key, segmentSize, in);
+    }
+
+    public static String createSegmentHeader(final int segmentSize) {
+        return SegmentedCipher.createHeader(segmentSize);
+    }
+
+    public static int readSegmentSize(final String segmentHeader) {
+        return SegmentedCipher.readSegmentSize(segmentHeader);
+    }
+
     private static Cipher prepareCipher(final AbstractEDSKey<?> key, final int type) throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidAlgorithmParameterException, InvalidKeyException {
         AlgorithmParameterSpec iv = null;
         final String instanceName;
@@ -291,9 +470,20 @@ public final class Crypto {
             throw new CryptoException("Cannot prepare Cipher for this Algorithm Type " + key.getAlgorithm().getType() + '.');
         }
 
-        final Cipher cipher;
-        cipher = Cipher.getInstance(instanceName);
-        cipher.init(type, key.getKey(), iv);
+        Cipher cipher = EngineCache.cipher(instanceName);
+        try {
+            cipher.init(type, key.getKey(), iv);
+        } catch (InvalidAlgorithmParameterException | InvalidKeyException e) {
+            // A reused Cipher cannot always be initialized, where a new one
+            // can. The GCM Cipher refuses to be initialized for encryption
+            // with the same Key and IV as it was last used with, which is
+            // the case for the deterministic MasterKey encryption. And once
+            // initialized, the Cipher is bound to the Provider supporting
+            // the previous Key. For these cases, a new Cipher is used.
+            LOGGER.trace("Reused Cipher could not be initialized: {}", e.getMessage());
+            cipher = Cipher.getInstance(instanceName);
+            cipher.init(type, key.getKey(), iv);
+        }
 
         return cipher;
     }
@@ -316,10 +506,23 @@ public final class Crypto {
         return Base64.getEncoder().encodeToString(rawKey);
     }
 
+    /**
+     * De-armors the given Public Key, using the currently configured
+     * Asymmetric Algorithm. If the Key belongs to a Member, the Member's
+     * Algorithm should be used instead, see
+     * {@link #dearmoringPublicKey(KeyAlgorithm, String)}.
+     *
+     * @param armoredKey Armored Public Key
+     * @return Public Key
+     * @throws CryptoException if an error occurred
+     */
     public PublicKey dearmoringPublicKey(final String armoredKey) {
+        return dearmoringPublicKey(settings.getAsymmetricAlgorithm(), armoredKey);
+    }
+
+    public PublicKey dearmoringPublicKey(final KeyAlgorithm algorithm, final String armoredKey) {
         try {
-            final KeyAlgorithm algorithm = settings.getAsymmetricAlgorithm();
-            final KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getName());
+            final KeyFactory keyFactory = EngineCache.keyFactory(algorithm.getName());
             final byte[] rawKey = Base64.getDecoder().decode(armoredKey);
             final KeySpec x509KeySpec = new X509EncodedKeySpec(rawKey);
 
@@ -349,13 +552,14 @@ public final class Crypto {
     }
 
     public PrivateKey dearmoringPrivateKey(final SecretEDSKey decryptionKey, final String armoredKey) {
+        return dearmoringPrivateKey(settings.getAsymmetricAlgorithm(), decryptionKey, armoredKey);
+    }
+
+    public PrivateKey dearmoringPrivateKey(final KeyAlgorithm algorithm, final SecretEDSKey decryptionKey, final String armoredKey) {
         try {
             // We only need the name of the Asymmetric Algorithm here, not the
-            // keySize. As all Asymmetric Algorithms share the same basic
-            // algorithm and thus name, we can use the Asymmetric Algorithm
-            // from the Settings.
-            final KeyAlgorithm algorithm = settings.getAsymmetricAlgorithm();
-            final KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getName());
+            // keySize, which is the Algorithm of the Member Key.
+            final KeyFactory keyFactory = EngineCache.keyFactory(algorithm.getName());
             final byte[] dearmored = Base64.getDecoder().decode(armoredKey);
             final byte[] rawKey = decrypt(decryptionKey, dearmored);
             final KeySpec keySpec = new PKCS8EncodedKeySpec(rawKey);
@@ -381,7 +585,46 @@ public final class Crypto {
     }
 
     /**
-     * <p>The RSA KeyPair for each Member Account, is stored with an encrypted
+     * <p>Every Data Object is encrypted with its own Data Key, which is
+     * protected with the Circle Key. This way, copying or moving Data between
+     * Circles, or replacing the Circle Key, only requires that the Data Key
+     * is wrapped again, not that the Data is re-encrypted.</p>
+     *
+     * <p>The Data Key is wrapped using AES Key Wrap (RFC 3394), which does
+     * not need an Initial Vector, so the Salt of the Circle Key is not
+     * used.</p>
+     *
+     * @param circleKey Circle Key to protect the Data Key with
+     * @param dataKey   Data Key to protect
+     * @return Armored (Base64 encoded) wrapped Data Key
+     * @throws CryptoException if an error occurred
+     */
+    public static String wrapDataKey(final SecretEDSKey circleKey, final SecretEDSKey dataKey) {
+        try {
+            final Cipher cipher = EngineCache.cipher(KEY_WRAP);
+            cipher.init(Cipher.WRAP_MODE, circleKey.getKey());
+            final byte[] wrapped = cipher.wrap(dataKey.getKey());
+
+            return Base64.getEncoder().encodeToString(wrapped);
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException | IllegalBlockSizeException | IllegalStateException e) {
+            throw new CryptoException(e.getMessage(), e);
+        }
+    }
+
+    public static SecretEDSKey unwrapDataKey(final SecretEDSKey circleKey, final KeyAlgorithm algorithm, final String armoredDataKey) {
+        try {
+            final Cipher cipher = EngineCache.cipher(KEY_WRAP);
+            cipher.init(Cipher.UNWRAP_MODE, circleKey.getKey());
+            final Key key = cipher.unwrap(Base64.getDecoder().decode(armoredDataKey), algorithm.getName(), Cipher.SECRET_KEY);
+
+            return new SecretEDSKey(algorithm, (SecretKey) key);
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException | IllegalArgumentException | IllegalStateException e) {
+            throw new CryptoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>The Asymmetric KeyPair for each Member Account, is stored with an encrypted
      * Private Key and armored and the Public Key armored. This way, it is easy
      * to verify that the Key's are correctly stored as they are stored purely
      * as text and nothing else.</p>
@@ -389,20 +632,20 @@ public final class Crypto {
      * <p>To recreate the Key Pair the Private Key has to be decrypted and then
      * both the Public and Private Keys must be converted.</p>
      *
-     * @param algorithm         EDS Key Algorithm
+     * @param algorithm         Asymmetric Algorithm of the Member
      * @param key               Symmetric Key to decrypt the Private Key with
      * @param salt              Base for the Initial Vector, used for decrypting
      * @param armoredPublicKey  Armored unencrypted Public Key
      * @param armoredPrivateKey Armored and encrypted Private Key
-     * @return RSA KeyPair with the Public and Private Keys
+     * @return KeyPair with the Public and Private Keys
      * @throws CryptoException if an error occurred
      */
     public EDSKeyPair extractAsymmetricKey(final KeyAlgorithm algorithm, final SecretEDSKey key, final String salt, final String armoredPublicKey, final String armoredPrivateKey) {
         key.setSalt(new IVSalt(salt));
 
         // Extracting the Public & Private Keys
-        final PublicKey publicKey = dearmoringPublicKey(armoredPublicKey);
-        final PrivateKey privateKey = dearmoringPrivateKey(key, armoredPrivateKey);
+        final PublicKey publicKey = dearmoringPublicKey(algorithm, armoredPublicKey);
+        final PrivateKey privateKey = dearmoringPrivateKey(algorithm, key, armoredPrivateKey);
 
         // Build the EDSKeyPair
         final KeyPair keyPair = new KeyPair(publicKey, privateKey);
@@ -0,0 +1,159 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKeyFactory;
+
+/**
+ * <p>Looking up a JCA engine, i.e. a Cipher, Signature, KeyFactory, Mac or
+ * MessageDigest, requires walking through the list of registered Providers
+ * and allocating a new engine instance. For small payloads, this is more
+ * expensive than the actual Cryptographic Operation.</p>
+ *
+ * <p>The JCA engines are not thread safe, but they can be re-initialized and
+ * used again. This class keeps the engines per Thread, identified by the
+ * transformation or algorithm name, so each Thread only has to look them up
+ * once.</p>
+ *
+ * <p>An engine returned from here, must be initialized and completely used,
+ * before any other engine with the same name is requested by the same Thread.
+ * Operations which spans multiple invocations, such as Cipher Streams, must
+ * use their own instances.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class EngineCache {
+
+    private static final ThreadLocal<Map<String, Cipher>> CIPHERS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, KeyFactory>> KEY_FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> SECRET_KEY_FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
+    private EngineCache() {
+        // Private Constructor, this is a utility Class.
+    }
+
+    static Cipher cipher(final String transformation) throws NoSuchPaddingException, NoSuchAlgorithmException {
+        final Map<String, Cipher> ciphers = CIPHERS.get();
+        Cipher cipher = ciphers.get(transformation);
+
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            ciphers.put(transformation, cipher);
+        }
+
+        return cipher;
+    }
+
+    static Signature signature(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Signature> signatures = SIGNATURES.get();
+        Signature signature = signatures.get(algorithm);
+
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm);
+            signatures.put(algorithm, signature);
+        }
+
+        return signature;
+    }
+
+    static KeyFactory keyFactory(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, KeyFactory> factories = KEY_FACTORIES.get();
+        KeyFactory factory = factories.get(algorithm);
+
+        if (factory == null) {
+            factory = KeyFactory.getInstance(algorithm);
+            factories.put(algorithm, factory);
+        }
+
+        return factory;
+    }
+
+    static SecretKeyFactory secretKeyFactory(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, SecretKeyFactory> factories = SECRET_KEY_FACTORIES.get();
+        SecretKeyFactory factory = factories.get(algorithm);
+
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(algorithm);
+            factories.put(algorithm, factory);
+        }
+
+        return factory;
+    }
+
+    static Mac mac(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Mac> macs = MACS.get();
+        Mac mac = macs.get(algorithm);
+
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            macs.put(algorithm, mac);
+        }
+
+        return mac;
+    }
+
+    /**
+     * Releases all engines cached by the current Thread. This is invoked by
+     * the {@link Workers}, as they are running on Threads shared with the
+     * rest of the container.
+     */
+    static void clear() {
+        CIPHERS.remove();
+        SIGNATURES.remove();
+        KEY_FACTORIES.remove();
+        SECRET_KEY_FACTORIES.remove();
+        DIGESTS.remove();
+        MACS.remove();
+    }
+
+    /**
+     * Returns the MessageDigest for the given algorithm. As a MessageDigest
+     * is not re-initialized like the other engines, it is reset before it
+     * is returned, so a previously failed operation cannot leave any data
+     * behind.
+     *
+     * @param algorithm Digest algorithm name
+     * @return Reset MessageDigest instance for the current Thread
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     */
+    static MessageDigest digest(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, MessageDigest> digests = DIGESTS.get();
+        MessageDigest digest = digests.get(algorithm);
+
+        if (digest == null) {
+            digest = MessageDigest.getInstance(algorithm);
+            digests.put(algorithm, digest);
+        } else {
+            digest.reset();
+        }
+
+        return digest;
+    }
+}
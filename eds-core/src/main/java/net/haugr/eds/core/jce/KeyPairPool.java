@@ -0,0 +1,296 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Generating a new Asymmetric KeyPair is the most expensive operation in
+ * EDS. For RSA 2048 it takes a noticeable amount of time, and for RSA 4096
+ * or RSA 8192 it may take seconds. As the KeyPairs are needed when Accounts
+ * are created, invitations processed or Member Credentials changed, the
+ * caller would otherwise have to wait for the generation to complete.</p>
+ *
+ * <p>This Singleton keeps a small number of pre-generated KeyPairs per
+ * {@link KeyAlgorithm}, which is refilled by a single low-priority background
+ * Thread, whenever a KeyPair is taken from the Pool. If the Pool is empty,
+ * the KeyPair is generated by the caller, so the Pool never blocks.</p>
+ *
+ * <p>The background Thread is created by the ManagedThreadFactory of the
+ * container, given when the Pool is started by the StartupBean, which also
+ * stops it again, when EDS is undeployed. Until the Pool is started, i.e.
+ * outside the container, all KeyPairs are generated by the callers.</p>
+ *
+ * <p>The size of each Pool is given by the setting
+ * 'eds.crypto.keypair.pool.size', if set to 0, the Pool is disabled. Every
+ * KeyPair is only handed out once, and as the Pool is purely held in memory,
+ * no unused KeyPair will ever leave the EDS instance.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+public final class KeyPairPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyPairPool.class);
+    private static final Object LOCK = new Object();
+    private static KeyPairPool instance = null;
+
+    private final Map<KeyAlgorithm, BlockingQueue<EDSKeyPair>> pools = new ConcurrentHashMap<>();
+    private final Set<KeyAlgorithm> scheduled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generated = new AtomicLong(0);
+    private final AtomicLong generationNanos = new AtomicLong(0);
+    private final AtomicLong served = new AtomicLong(0);
+    private final AtomicLong missed = new AtomicLong(0);
+    private final long started = System.nanoTime();
+    private final Settings settings;
+    private volatile ExecutorService worker = null;
+
+    private KeyPairPool(final Settings settings) {
+        this.settings = settings;
+    }
+
+    public static KeyPairPool getInstance(final Settings settings) {
+        synchronized (LOCK) {
+            if (instance == null) {
+                instance = new KeyPairPool(settings);
+            }
+
+            return instance;
+        }
+    }
+
+    /**
+     * Starts the background Thread, which is refilling the Pool. If no
+     * ThreadFactory is given, or the Pool is already started, nothing is
+     * done.
+     *
+     * @param threadFactory The ManagedThreadFactory of the container
+     */
+    public void start(final ThreadFactory threadFactory) {
+        synchronized (LOCK) {
+            if ((worker == null) && (threadFactory != null)) {
+                worker = Executors.newSingleThreadExecutor(runnable -> {
+                    final Thread thread = threadFactory.newThread(runnable);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            }
+        }
+    }
+
+    /**
+     * Stops the background Thread of the current instance, so it is not left
+     * running when EDS is undeployed. A new instance is created, if the Pool
+     * is requested again.
+     */
+    public static void shutdown() {
+        synchronized (LOCK) {
+            if (instance != null) {
+                instance.stop();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * <p>Returns a KeyPair for the given Algorithm. If the Pool has a
+     * pre-generated KeyPair, it is returned and the Pool is refilled in the
+     * background, otherwise a new KeyPair is generated by the caller.</p>
+     *
+     * @param algorithm The Asymmetric Algorithm to get a KeyPair for
+     * @return New KeyPair, which has not been handed out before
+     */
+    public EDSKeyPair take(final KeyAlgorithm algorithm) {
+        EDSKeyPair keyPair = null;
+
+        if (settings.getKeyPairPoolSize() > 0) {
+            keyPair = queue(algorithm).poll();
+            refill(algorithm);
+        }
+
+        if (keyPair == null) {
+            missed.incrementAndGet();
+            keyPair = Crypto.generateAsymmetricKey(algorithm);
+        } else {
+            served.incrementAndGet();
+        }
+
+        return keyPair;
+    }
+
+    /**
+     * Requests that the Pool for the given Algorithm is filled in the
+     * background, i.e. during startup for the configured Algorithm.
+     *
+     * @param algorithm The Asymmetric Algorithm to fill the Pool for
+     */
+    public void fill(final KeyAlgorithm algorithm) {
+        if (settings.getKeyPairPoolSize() > 0) {
+            refill(algorithm);
+        }
+    }
+
+    /**
+     * Returns the number of pre-generated KeyPairs currently in the Pool for
+     * the given Algorithm.
+     *
+     * @param algorithm The Asymmetric Algorithm to check
+     * @return Number of available KeyPairs
+     */
+    public int depth(final KeyAlgorithm algorithm) {
+        final BlockingQueue<EDSKeyPair> queue = pools.get(algorithm);
+        return (queue != null) ? queue.size() : 0;
+    }
+
+    public Statistics getStatistics() {
+        final Map<KeyAlgorithm, Integer> depths = new EnumMap<>(KeyAlgorithm.class);
+        pools.forEach((algorithm, queue) -> depths.put(algorithm, queue.size()));
+
+        return new Statistics(depths, generated.get(), generationNanos.get(), served.get(), missed.get(), System.nanoTime() - started);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private BlockingQueue<EDSKeyPair> queue(final KeyAlgorithm algorithm) {
+        return pools.computeIfAbsent(algorithm, key -> new LinkedBlockingQueue<>());
+    }
+
+    private void refill(final KeyAlgorithm algorithm) {
+        // Only a single refill task per Algorithm is permitted, as there is
+        // no gain in queueing more tasks for the single background Thread.
+        final ExecutorService current = worker;
+        if ((current != null) && scheduled.add(algorithm)) {
+            try {
+                current.execute(() -> generate(algorithm));
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("KeyPair Pool is stopped: {}", e.getMessage(), e);
+                scheduled.remove(algorithm);
+            }
+        }
+    }
+
+    private void generate(final KeyAlgorithm algorithm) {
+        final BlockingQueue<EDSKeyPair> queue = queue(algorithm);
+        boolean completed = false;
+
+        try {
+            // The background Thread is the only one adding KeyPairs to the
+            // Queue, so it can never exceed the configured size.
+            while (!Thread.currentThread().isInterrupted() && (queue.size() < settings.getKeyPairPoolSize())) {
+                final long start = System.nanoTime();
+                final EDSKeyPair keyPair = Crypto.generateAsymmetricKey(algorithm);
+                generationNanos.addAndGet(System.nanoTime() - start);
+                generated.incrementAndGet();
+                queue.offer(keyPair);
+            }
+            completed = true;
+        } catch (EDSException e) {
+            // If the Algorithm cannot be used, then the callers will get
+            // the error when generating the KeyPair themselves.
+            LOGGER.warn("Cannot pre-generate KeyPairs for {}: {}", algorithm, e.getMessage(), e);
+        } finally {
+            scheduled.remove(algorithm);
+        }
+
+        // A KeyPair may have been taken, between the last check of the size
+        // and the removal of the scheduled flag, so check again.
+        if (completed && !Thread.currentThread().isInterrupted() && (queue.size() < settings.getKeyPairPoolSize())) {
+            refill(algorithm);
+        }
+    }
+
+    void stop() {
+        final ExecutorService current = worker;
+        worker = null;
+
+        if (current != null) {
+            current.shutdownNow();
+            try {
+                if (!current.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOGGER.warn("The KeyPair Pool did not stop in time.");
+                }
+            } catch (InterruptedException e) {
+                LOGGER.debug(e.getMessage(), e);
+                Thread.currentThread().interrupt();
+            }
+        }
+        pools.clear();
+    }
+
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
+
+    /**
+     * Snapshot of the Pool metrics, i.e. the current depth per Algorithm and
+     * the rate at which the background Thread has refilled the Pools.
+     *
+     * @param depths          Available KeyPairs per Algorithm
+     * @param generated       Number of KeyPairs generated in the background
+     * @param generationNanos Total time spent generating in the background
+     * @param served          Number of KeyPairs taken from the Pool
+     * @param missed          Number of KeyPairs generated by the caller
+     * @param uptimeNanos     Time since the Pool was created
+     */
+    public record Statistics(Map<KeyAlgorithm, Integer> depths, long generated, long generationNanos, long served, long missed, long uptimeNanos) {
+
+        /**
+         * Returns the number of KeyPairs which the background Thread has
+         * generated per minute, since the Pool was created.
+         *
+         * @return Refill rate in KeyPairs per minute
+         */
+        public double refillRatePerMinute() {
+            final double minutes = uptimeNanos / (double) TimeUnit.MINUTES.toNanos(1);
+            return (minutes > 0) ? generated / minutes : 0;
+        }
+
+        /**
+         * Returns the average time it takes the background Thread to
+         * generate a single KeyPair.
+         *
+         * @return Average generation time in milliseconds
+         */
+        public double averageGenerationMillis() {
+            return (generated > 0) ? generationNanos / (generated * 1_000_000.0) : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("depths=%s, generated=%d, served=%d, missed=%d, refillRate=%.2f/min, averageGeneration=%.1f ms",
+                    depths, generated, served, missed, refillRatePerMinute(), averageGenerationMillis());
+        }
+    }
+}
@@ -28,6 +28,13 @@ import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
@@ -38,6 +45,7 @@ import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.exceptions.CryptoException;
 import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.MasterKeyRotationEntity;
 
 /**
  * <p>This Singleton holds the EDS Master Key, which is set upon instantiating
@@ -48,6 +56,15 @@ import net.haugr.eds.core.model.Settings;
  * persisted, and will remain in memory as long as the EDS instance is
  * running.</p>
  *
+ * <p>While the Master Key is being replaced, the previous Master Key is kept
+ * as well, so information which has not yet been migrated to the new Master
+ * Key, can still be read.</p>
+ *
+ * <p>If several EDS instances share the database, the new Master Key is not
+ * used for new information, before all instances have been given it, see
+ * {@link #applyRotation(MasterKeyRotationEntity, SecretEDSKey)}. Until then,
+ * the Master Key and the previous Master Key simply switch roles.</p>
+ *
  * @author Kim Jensen
  * @since EDS 1.0
  */
@@ -71,10 +88,22 @@ public final class MasterKey {
     private static final KeyAlgorithm ALGORITHM = KeyAlgorithm.PBE_GCM_256;
     private static final Object LOCK = new Object();
     private static final int BUFFER_SIZE = 512;
+    // Identifies this EDS instance, while the Master Key is being replaced.
+    // A random identity is used, so instances sharing a host are counted
+    // separately, and a restarted instance must register again.
+    private static final String INSTANCE = UUID.randomUUID().toString();
+    // The instances register every time the Rotation Timer runs, i.e. every
+    // 5 minutes, registrations which are not renewed, belong to instances
+    // which have stopped, and are no longer counted.
+    private static final long REGISTRATION_TIMEOUT = Duration.ofMinutes(15).toMillis();
+    private static final String SEPARATOR = ",";
+    private static final String TIMESTAMP = "=";
     private static MasterKey instance = null;
 
     private final Settings settings;
-    private SecretEDSKey key;
+    // Both Keys are replaced together, so a request never sees a mix of
+    // the Keys before and after a change.
+    private volatile Keys keys;
 
     private MasterKey(final Settings settings) {
         this.settings = settings;
@@ -86,7 +115,7 @@ public final class MasterKey {
         } else {
             secret = readMasterKeySecretFromUrl(url);
         }
-        key = generateMasterKey(secret);
+        keys = new Keys(generateMasterKey(secret), null);
     }
 
     public static MasterKey getInstance(final Settings settings) {
@@ -153,20 +182,201 @@ public final class MasterKey {
             final SecretKey tmp = keyFactory.generateSecret(keySpec);
             final SecretKey secretKey = new SecretKeySpec(tmp.getEncoded(), ALGORITHM.getName());
 
-            final SecretEDSKey newKey = new SecretEDSKey(ALGORITHM.getDerived(), secretKey);
-            newKey.setSalt(new IVSalt(salt));
-
-            return newKey;
+            return prepareKey(secretKey);
         } catch (IllegalArgumentException | NoSuchAlgorithmException | InvalidKeySpecException e) {
             throw new CryptoException(e.getMessage(), e);
         }
     }
 
-    public void setKey(final SecretEDSKey key) {
-        this.key = key;
+    /**
+     * Encrypts a Master Key with another Master Key, so it can be persisted
+     * while the Master Key is being replaced.
+     *
+     * @param key       The Master Key to encrypt with
+     * @param toProtect The Master Key to encrypt
+     * @return Base64 encoded encrypted Master Key
+     */
+    public static String protectKey(final SecretEDSKey key, final SecretEDSKey toProtect) {
+        return Base64.getEncoder().encodeToString(Crypto.encrypt(key, toProtect.getEncoded()));
+    }
+
+    /**
+     * Restores a Master Key, which was encrypted with another Master Key.
+     *
+     * @param key          The Master Key to decrypt with
+     * @param protectedKey Base64 encoded encrypted Master Key
+     * @return The restored Master Key
+     * @throws CryptoException if the Master Key cannot be decrypted
+     */
+    public SecretEDSKey restoreKey(final SecretEDSKey key, final String protectedKey) {
+        final byte[] encoded = Crypto.decrypt(key, Base64.getDecoder().decode(protectedKey));
+
+        return prepareKey(new SecretKeySpec(encoded, ALGORITHM.getName()));
+    }
+
+    private SecretEDSKey prepareKey(final SecretKey secretKey) {
+        final SecretEDSKey newKey = new SecretEDSKey(ALGORITHM.getDerived(), secretKey);
+        newKey.setSalt(new IVSalt(settings.getSalt()));
+
+        return newKey;
+    }
+
+    /**
+     * Sets both the Master Key and the previous Master Key at once.
+     *
+     * @param key         The Master Key
+     * @param previousKey The previous Master Key, or null
+     */
+    public synchronized void setKeys(final SecretEDSKey key, final SecretEDSKey previousKey) {
+        keys = new Keys(key, previousKey);
+    }
+
+    /**
+     * Returns both the Master Key and the previous Master Key, as they were
+     * set together. Callers using both Keys, must read them from here.
+     *
+     * @return The current Master Keys
+     */
+    public Keys getKeys() {
+        return keys;
+    }
+
+    public synchronized void setKey(final SecretEDSKey key) {
+        keys = new Keys(key, keys.previousKey());
     }
 
     public SecretEDSKey getKey() {
-        return key;
+        return keys.key();
+    }
+
+    /**
+     * Sets the previous Master Key, which is kept while the information
+     * protected by it, is migrated to the current Master Key. Once the
+     * migration has completed, it is cleared again.
+     *
+     * @param previousKey The previous Master Key, or null
+     */
+    public synchronized void setPreviousKey(final SecretEDSKey previousKey) {
+        keys = new Keys(keys.key(), previousKey);
+    }
+
+    public SecretEDSKey getPreviousKey() {
+        return keys.previousKey();
+    }
+
+    /**
+     * <p>Applies a pending Master Key Rotation, with the given new Master
+     * Key. This EDS instance is registered as ready, and if all EDS instances
+     * are ready, as per the setting 'eds.cluster.instances', it is also
+     * registered as active, meaning that the new Master Key is used for new
+     * information. Until then, the previous Master Key is used for new
+     * information, so the other EDS instances can still read it. Both Master
+     * Keys are always used for reading.</p>
+     *
+     * <p>The caller must lock and persist the Rotation, as the instances are
+     * registered in it. Each instance is registered with the time, and must
+     * renew its registration, otherwise it is removed, as it has stopped.
+     * Once an instance is using the new Master Key, it keeps using it.</p>
+     *
+     * @param rotation The pending Master Key Rotation
+     * @param newKey   The new Master Key
+     * @return True if all EDS instances are using the new Master Key, so the
+     *         migration may run, otherwise false
+     * @throws CryptoException if the given Key is not the new Master Key
+     */
+    public boolean applyRotation(final MasterKeyRotationEntity rotation, final SecretEDSKey newKey) {
+        final SecretEDSKey oldKey = restoreKey(newKey, rotation.getPreviousKey());
+        final int required = settings.getClusterInstances();
+        final long now = System.currentTimeMillis();
+        final Map<String, Long> ready = readInstances(rotation.getReadyInstances(), now);
+        final Map<String, Long> active = readInstances(rotation.getActiveInstances(), now);
+
+        ready.put(INSTANCE, now);
+        if (active.containsKey(INSTANCE) || (ready.size() >= required)) {
+            active.put(INSTANCE, now);
+        }
+        rotation.setReadyInstances(writeInstances(ready));
+        rotation.setActiveInstances(writeInstances(active));
+
+        final boolean activated = active.containsKey(INSTANCE);
+        setKeys(activated ? newKey : oldKey, activated ? oldKey : newKey);
+
+        return active.size() >= required;
+    }
+
+    /**
+     * Finds the new Master Key of a pending Rotation, among the Master Keys
+     * of this EDS instance, i.e. the Key which can restore the previous
+     * Master Key of the Rotation.
+     *
+     * @param rotation The pending Master Key Rotation
+     * @return The new Master Key, or null if this instance doesn't have it
+     */
+    public SecretEDSKey findNewKey(final MasterKeyRotationEntity rotation) {
+        final Keys current = keys;
+        SecretEDSKey newKey = null;
+
+        for (final SecretEDSKey candidate : Arrays.asList(current.key(), current.previousKey())) {
+            if ((newKey == null) && (candidate != null)) {
+                try {
+                    restoreKey(candidate, rotation.getPreviousKey());
+                    newKey = candidate;
+                } catch (CryptoException e) {
+                    // Not the new Master Key, so the next is tried.
+                }
+            }
+        }
+
+        return newKey;
+    }
+
+    /**
+     * Reads the registered instances, with the time they registered, the
+     * registrations which have timed out are skipped.
+     */
+    private static Map<String, Long> readInstances(final String instances, final long now) {
+        final Map<String, Long> registered = new LinkedHashMap<>();
+
+        if ((instances != null) && !instances.isEmpty()) {
+            for (final String registration : instances.split(SEPARATOR)) {
+                final int index = registration.lastIndexOf(TIMESTAMP);
+                final long registeredAt = (index > 0) ? parseTime(registration.substring(index + 1)) : 0L;
+                if (now - registeredAt < REGISTRATION_TIMEOUT) {
+                    registered.put(registration.substring(0, index), registeredAt);
+                }
+            }
+        }
+
+        return registered;
+    }
+
+    private static long parseTime(final String time) {
+        try {
+            return Long.parseLong(time);
+        } catch (NumberFormatException e) {
+            // An invalid registration is treated as timed out.
+            return 0L;
+        }
+    }
+
+    private static String writeInstances(final Map<String, Long> instances) {
+        final StringJoiner joiner = new StringJoiner(SEPARATOR);
+        instances.forEach((name, registeredAt) -> joiner.add(name + TIMESTAMP + registeredAt));
+
+        return joiner.toString();
+    }
+
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
+
+    /**
+     * The Master Key and the previous Master Key, which is only present,
+     * while the Master Key is being replaced.
+     *
+     * @param key         The Master Key
+     * @param previousKey The previous Master Key, or null
+     */
+    public record Keys(SecretEDSKey key, SecretEDSKey previousKey) {
     }
 }
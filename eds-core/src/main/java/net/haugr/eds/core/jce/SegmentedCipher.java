@@ -0,0 +1,446 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.exceptions.CryptoException;
+import net.haugr.eds.core.model.Settings;
+
+/**
+ * <p>Segmented AES-GCM encryption of larger Data Objects. Rather than
+ * encrypting the entire Object with a single Cipher operation, the Object is
+ * split into fixed size segments, which are each encrypted with their own
+ * nonce and authentication tag. This way, the Object can be processed as a
+ * stream, without holding the entire Object in memory, or the segments can be
+ * processed in parallel by the {@link Workers}, if the entire Object is
+ * available. The number of Threads used for a single Object is limited by the
+ * setting 'eds.crypto.parallelism'.</p>
+ *
+ * <p>The nonce for each segment is derived from the IV of the Key, where the
+ * last 5 bytes are replaced with the segment number and a flag, marking the
+ * last segment. The segments can thus neither be re-ordered, nor can the
+ * Object be truncated, without the decryption failing.</p>
+ *
+ * <p>Encrypted Objects consist of the encrypted segments, each followed by the
+ * authentication tag. All segments, except the last, have the same length,
+ * which is recorded in the header, which must be stored together with the
+ * Object, as it is needed to decrypt it again.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class SegmentedCipher {
+
+    private static final String HEADER_PREFIX = "AES_GCM_SEGMENTED:1:";
+    private static final int TAG_LENGTH = Constants.GCM_IV_LENGTH / 8;
+    private static final int COUNTER_OFFSET = 11;
+    private static final int LAST_SEGMENT_OFFSET = 15;
+
+    private SegmentedCipher() {
+        // Private Constructor, this is a utility Class.
+    }
+
+    // =========================================================================
+    // Segment Header
+    // =========================================================================
+
+    /**
+     * Creates the Header for Objects encrypted with the given segment size.
+     *
+     * @param segmentSize Size of the unencrypted segments
+     * @return Header to be stored together with the encrypted Object
+     */
+    static String createHeader(final int segmentSize) {
+        return HEADER_PREFIX + segmentSize;
+    }
+
+    /**
+     * Reads the segment size from the given Header.
+     *
+     * @param header Header stored together with the encrypted Object
+     * @return Size of the unencrypted segments
+     * @throws CryptoException if the Header is not valid
+     */
+    static int readSegmentSize(final String header) {
+        if ((header == null) || !header.startsWith(HEADER_PREFIX)) {
+            throw new CryptoException("The Segment Header '" + header + "' is not supported.");
+        }
+
+        try {
+            final int segmentSize = Integer.parseInt(header.substring(HEADER_PREFIX.length()));
+            checkSegmentSize(segmentSize);
+            return segmentSize;
+        } catch (NumberFormatException e) {
+            throw new CryptoException("The Segment Header '" + header + "' is not supported.", e);
+        }
+    }
+
+    // =========================================================================
+    // Parallel processing of complete Objects
+    // =========================================================================
+
+    /**
+     * Encrypts the given bytes in segments, processing the segments in
+     * parallel using the Workers.
+     *
+     * @param key         Symmetric Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param toEncrypt   Bytes to encrypt
+     * @return Encrypted bytes
+     */
+    static byte[] encrypt(final SecretEDSKey key, final int segmentSize, final byte[] toEncrypt) {
+        checkKey(key, segmentSize);
+        final int segments = countSegments(toEncrypt.length, segmentSize);
+        final byte[] encrypted = new byte[toEncrypt.length + (segments * TAG_LENGTH)];
+
+        Workers.forEach(segments, parallelism(), segment -> {
+            final int offset = segment * segmentSize;
+            final int length = Math.min(segmentSize, toEncrypt.length - offset);
+            final boolean last = segment == (segments - 1);
+
+            try {
+                final Cipher cipher = prepareCipher(key, Cipher.ENCRYPT_MODE, nonce(key, segment, last));
+                cipher.doFinal(toEncrypt, offset, length, encrypted, offset + (segment * TAG_LENGTH));
+            } catch (GeneralSecurityException e) {
+                throw new CryptoException(e.getMessage(), e);
+            }
+        });
+
+        return encrypted;
+    }
+
+    /**
+     * Decrypts the given segmented bytes, processing the segments in parallel
+     * using the Workers.
+     *
+     * @param key         Symmetric Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param toDecrypt   Bytes to decrypt
+     * @return Decrypted bytes
+     */
+    static byte[] decrypt(final SecretEDSKey key, final int segmentSize, final byte[] toDecrypt) {
+        checkKey(key, segmentSize);
+        final int encryptedSegmentSize = segmentSize + TAG_LENGTH;
+        final int segments = Math.max(1, (toDecrypt.length + encryptedSegmentSize - 1) / encryptedSegmentSize);
+        final int length = toDecrypt.length - (segments * TAG_LENGTH);
+        if (length < 0) {
+            throw new CryptoException("The encrypted data is truncated.");
+        }
+        final byte[] decrypted = new byte[length];
+
+        Workers.forEach(segments, parallelism(), segment -> {
+            final int offset = segment * encryptedSegmentSize;
+            final int segmentLength = Math.min(encryptedSegmentSize, toDecrypt.length - offset);
+            final boolean last = segment == (segments - 1);
+
+            try {
+                final Cipher cipher = prepareCipher(key, Cipher.DECRYPT_MODE, nonce(key, segment, last));
+                cipher.doFinal(toDecrypt, offset, segmentLength, decrypted, segment * segmentSize);
+            } catch (GeneralSecurityException e) {
+                throw new CryptoException(e.getMessage(), e);
+            }
+        });
+
+        return decrypted;
+    }
+
+    // =========================================================================
+    // Streaming processing of Objects
+    // =========================================================================
+
+    /**
+     * Wraps the given OutputStream, so all bytes written to the returned
+     * Stream will be encrypted in segments, before being written to the given
+     * Stream. The returned Stream must be closed, to write the final segment.
+     *
+     * @param key         Symmetric Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param out         Stream to write the encrypted bytes to
+     * @return Stream to write the unencrypted bytes to
+     */
+    static OutputStream encryptingStream(final SecretEDSKey key, final int segmentSize, final OutputStream out) {
+        checkKey(key, segmentSize);
+        return new EncryptingOutputStream(key, segmentSize, out);
+    }
+
+    /**
+     * Wraps the given InputStream with segmented encrypted bytes, so the
+     * returned Stream will return the decrypted bytes.
+     *
+     * @param key         Symmetric Key with IV
+     * @param segmentSize Size of the unencrypted segments
+     * @param in          Stream to read the encrypted bytes from
+     * @return Stream to read the decrypted bytes from
+     */
+    static InputStream decryptingStream(final SecretEDSKey key, final int segmentSize, final InputStream in) {
+        checkKey(key, segmentSize);
+        return new DecryptingInputStream(key, segmentSize, in);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static void checkKey(final SecretEDSKey key, final int segmentSize) {
+        final KeyAlgorithm.Transformation transformation = key.getAlgorithm().getTransformation();
+        if ((transformation != KeyAlgorithm.Transformation.AES_GCM_128) && (transformation != KeyAlgorithm.Transformation.AES_GCM_192) && (transformation != KeyAlgorithm.Transformation.AES_GCM_256)) {
+            throw new CryptoException("Segmented encryption is not supported for the Algorithm " + key.getAlgorithm() + '.');
+        }
+        checkSegmentSize(segmentSize);
+    }
+
+    private static void checkSegmentSize(final int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new CryptoException("The Segment size must be positive.");
+        }
+    }
+
+    private static int parallelism() {
+        return Settings.getInstance().getCryptoParallelism();
+    }
+
+    private static int countSegments(final int length, final int segmentSize) {
+        return Math.max(1, (length + segmentSize - 1) / segmentSize);
+    }
+
+    private static GCMParameterSpec nonce(final SecretEDSKey key, final int segment, final boolean last) {
+        final byte[] nonce = key.getSalt().getBytes();
+        nonce[COUNTER_OFFSET] = (byte) (segment >>> 24);
+        nonce[COUNTER_OFFSET + 1] = (byte) (segment >>> 16);
+        nonce[COUNTER_OFFSET + 2] = (byte) (segment >>> 8);
+        nonce[COUNTER_OFFSET + 3] = (byte) segment;
+        nonce[LAST_SEGMENT_OFFSET] = (byte) (last ? 1 : 0);
+
+        return new GCMParameterSpec(Constants.GCM_IV_LENGTH, nonce);
+    }
+
+    private static Cipher prepareCipher(final SecretEDSKey key, final int type, final GCMParameterSpec nonce) throws GeneralSecurityException {
+        Cipher cipher = EngineCache.cipher(key.getAlgorithm().getTransformationValue());
+        try {
+            cipher.init(type, key.getKey(), nonce);
+        } catch (InvalidAlgorithmParameterException e) {
+            // See Crypto#prepareCipher, the reused GCM Cipher may refuse to
+            // encrypt with the Key and IV it was last used with.
+            cipher = Cipher.getInstance(key.getAlgorithm().getTransformationValue());
+            cipher.init(type, key.getKey(), nonce);
+        }
+
+        return cipher;
+    }
+
+    /**
+     * The Streams are keeping their own Cipher instance, as the Stream is
+     * used across multiple invocations, see {@link EngineCache}.
+     */
+    private static Cipher newCipher(final SecretEDSKey key) {
+        try {
+            return Cipher.getInstance(key.getAlgorithm().getTransformationValue());
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Buffers a segment of unencrypted bytes, which is first encrypted when
+     * more bytes are written, or the Stream is closed, as only then it is
+     * known if it is the last segment.
+     */
+    private static final class EncryptingOutputStream extends FilterOutputStream {
+
+        private final SecretEDSKey key;
+        private final Cipher cipher;
+        private final byte[] buffer;
+        private int buffered = 0;
+        private int segment = 0;
+        private boolean closed = false;
+
+        private EncryptingOutputStream(final SecretEDSKey key, final int segmentSize, final OutputStream out) {
+            super(out);
+            this.key = key;
+            this.cipher = newCipher(key);
+            this.buffer = new byte[segmentSize];
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            int position = offset;
+            int remaining = length;
+
+            while (remaining > 0) {
+                if (buffered == buffer.length) {
+                    writeSegment(false);
+                }
+                final int toCopy = Math.min(remaining, buffer.length - buffered);
+                System.arraycopy(bytes, position, buffer, buffered, toCopy);
+                buffered += toCopy;
+                position += toCopy;
+                remaining -= toCopy;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Only complete segments can be written, so the buffered bytes
+            // are first written when the segment is full, or on close.
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    writeSegment(true);
+                } finally {
+                    out.close();
+                }
+            }
+        }
+
+        private void writeSegment(final boolean last) throws IOException {
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key.getKey(), nonce(key, segment, last));
+                out.write(cipher.doFinal(buffer, 0, buffered));
+                segment++;
+                buffered = 0;
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads and decrypts a full segment at the time. To determine if the
+     * segment is the last, a single byte is read ahead.
+     */
+    private static final class DecryptingInputStream extends FilterInputStream {
+
+        private final SecretEDSKey key;
+        private final Cipher cipher;
+        private final byte[] encrypted;
+        private byte[] decrypted = new byte[0];
+        private int position = 0;
+        private int readAhead = -1;
+        private int segment = 0;
+        private boolean done = false;
+
+        private DecryptingInputStream(final SecretEDSKey key, final int segmentSize, final InputStream in) {
+            super(in);
+            this.key = key;
+            this.cipher = newCipher(key);
+            this.encrypted = new byte[segmentSize + TAG_LENGTH];
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            final int read = read(single, 0, 1);
+
+            return (read == -1) ? -1 : (single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            int read = 0;
+
+            if (length > 0) {
+                while ((position == decrypted.length) && !done) {
+                    readSegment();
+                }
+                if (position == decrypted.length) {
+                    read = -1;
+                } else {
+                    read = Math.min(length, decrypted.length - position);
+                    System.arraycopy(decrypted, position, bytes, offset, read);
+                    position += read;
+                }
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = 0;
+            final byte[] ignored = new byte[4096];
+            while (skipped < n) {
+                final int read = read(ignored, 0, (int) Math.min(ignored.length, n - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return decrypted.length - position;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void readSegment() throws IOException {
+            int length = 0;
+            if (readAhead != -1) {
+                encrypted[length++] = (byte) readAhead;
+                readAhead = -1;
+            }
+            length += in.readNBytes(encrypted, length, encrypted.length - length);
+
+            final boolean last;
+            if (length < encrypted.length) {
+                last = true;
+            } else {
+                readAhead = in.read();
+                last = readAhead == -1;
+            }
+            if (length < TAG_LENGTH) {
+                throw new IOException("The encrypted data is truncated.");
+            }
+
+            try {
+                cipher.init(Cipher.DECRYPT_MODE, key.getKey(), nonce(key, segment, last));
+                decrypted = cipher.doFinal(encrypted, 0, length);
+                position = 0;
+                segment++;
+                done = last;
+            } catch (GeneralSecurityException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+}
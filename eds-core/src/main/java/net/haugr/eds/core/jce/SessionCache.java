@@ -0,0 +1,210 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.SessionEntity;
+
+/**
+ * <p>Session based requests are unlocking the Member KeyPair with a PBE key,
+ * derived from the MasterKey encrypted Session Key. Deriving the key and
+ * decrypting the Private Key is the most expensive part of the request, and
+ * as the result is the same for every request within the lifetime of the
+ * Session, this Singleton keeps the unlocked KeyPair in memory, identified by
+ * the Session lookup key.</p>
+ *
+ * <p>The cache is only an accelerator, the Session Entity found via the
+ * lookup key must still match the cached information, i.e. the Session Id,
+ * the Member Id, the Public Key and the Session expiration. This way, a
+ * Session which has been replaced, logged out or had the Credentials changed
+ * by a different EDS instance, will never be served from the cache.</p>
+ *
+ * <p>Entries expire together with the Session, and the number of entries is
+ * bounded by the setting 'eds.session.cache.size', if exceeded, the least
+ * recently used entry is removed. The Private Key of a removed entry is not
+ * destroyed, as the same KeyPair may still be used by a concurrent request,
+ * which found it before it was removed. It remains in memory, until it is
+ * removed by the Garbage Collector.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+public final class SessionCache {
+
+    private static final Object LOCK = new Object();
+    private static SessionCache instance = null;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final Settings settings;
+
+    private SessionCache(final Settings settings) {
+        this.settings = settings;
+    }
+
+    public static SessionCache getInstance(final Settings settings) {
+        synchronized (LOCK) {
+            if (instance == null) {
+                instance = new SessionCache(settings);
+            }
+
+            return instance;
+        }
+    }
+
+    /**
+     * <p>Finds the unlocked KeyPair for the given Session lookup key. If no
+     * entry exists, or if the entry no longer matches the given Session, then
+     * a null is returned, and the caller must unlock the KeyPair the
+     * traditional way.</p>
+     *
+     * @param lookupKey Session lookup key
+     * @param session   Session Entity found via the lookup key
+     * @return Unlocked KeyPair or null
+     */
+    public EDSKeyPair find(final String lookupKey, final SessionEntity session) {
+        synchronized (entries) {
+            final Entry entry = entries.get(lookupKey);
+            EDSKeyPair keyPair = null;
+
+            if (entry != null) {
+                if (entry.matches(session)) {
+                    keyPair = entry.keyPair;
+                } else {
+                    entries.remove(lookupKey);
+                }
+            }
+
+            return keyPair;
+        }
+    }
+
+    /**
+     * Adds a newly unlocked KeyPair for the given Session lookup key.
+     *
+     * @param lookupKey Session lookup key
+     * @param session   Session Entity, for which the KeyPair was unlocked
+     * @param keyPair   Unlocked Member KeyPair
+     */
+    public void add(final String lookupKey, final SessionEntity session, final EDSKeyPair keyPair) {
+        final int maxEntries = settings.getSessionCacheSize();
+
+        if (maxEntries > 0) {
+            synchronized (entries) {
+                entries.put(lookupKey, new Entry(session, keyPair));
+                trim(maxEntries);
+            }
+        }
+    }
+
+    /**
+     * Removes the expired entries, and the least recently used entries,
+     * which exceed the setting 'eds.session.cache.size'. This must be
+     * invoked when the Settings have been changed by another EDS instance.
+     */
+    public void trim() {
+        synchronized (entries) {
+            trim(settings.getSessionCacheSize());
+        }
+    }
+
+    /**
+     * Removes the entry for the given Session lookup key. This must be
+     * invoked whenever a single Session is removed or replaced.
+     *
+     * @param lookupKey Session lookup key
+     */
+    public void remove(final String lookupKey) {
+        synchronized (entries) {
+            entries.remove(lookupKey);
+        }
+    }
+
+    /**
+     * Removes all entries belonging to the given Member. This must be invoked
+     * whenever all Sessions for a Member are removed, or if the Member
+     * Credentials are altered.
+     *
+     * @param member The Member to remove all cached entries for
+     */
+    public void remove(final MemberEntity member) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> Objects.equals(entry.memberId, member.getId()));
+        }
+    }
+
+    /**
+     * Removes all entries from the Cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void trim(final int maxEntries) {
+        final LocalDateTime now = Utilities.newDate();
+        entries.values().removeIf(entry -> !now.isBefore(entry.expires));
+
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries) && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Internal Cache Entry, holding the information needed to verify that the
+     * cached KeyPair still belongs to the Session.
+     */
+    private static final class Entry {
+
+        private final Long sessionId;
+        private final Long memberId;
+        private final String publicKey;
+        private final LocalDateTime expires;
+        private final EDSKeyPair keyPair;
+
+        private Entry(final SessionEntity session, final EDSKeyPair keyPair) {
+            this.sessionId = session.getId();
+            this.memberId = session.getMember().getId();
+            this.publicKey = session.getMember().getPublicKey();
+            this.expires = session.getExpires();
+            this.keyPair = keyPair;
+        }
+
+        private boolean matches(final SessionEntity session) {
+            return Objects.equals(sessionId, session.getId())
+                    && Objects.equals(memberId, session.getMember().getId())
+                    && Objects.equals(publicKey, session.getMember().getPublicKey())
+                    && Objects.equals(expires, session.getExpires())
+                    && Utilities.newDate().isBefore(expires);
+        }
+    }
+}
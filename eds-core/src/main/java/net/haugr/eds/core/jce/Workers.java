@@ -0,0 +1,254 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntConsumer;
+import net.haugr.eds.core.exceptions.CryptoException;
+
+/**
+ * <p>The CPU bound parts of EDS, i.e. the segments of larger Data Objects,
+ * the Data Objects of a Batch or the Checksums of the Sanity check, can be
+ * processed in parallel. Rather than using the common ForkJoin Pool, which is
+ * shared by everything running in the JVM, the work is given to the
+ * ManagedExecutorService of the container, which is registered by the
+ * StartupBean. The number of Threads is thus configured in the container,
+ * and the number of Threads a single task may use is given by the
+ * caller.</p>
+ *
+ * <p>If no Executor is registered, i.e. outside the container, or if the work
+ * is requested by a Worker, it is made by the calling Thread. A Worker is
+ * thus never waiting for other Workers, so nested parallel work cannot
+ * exhaust the Pool. As the Threads of the container are shared with other
+ * applications, the JCA engines cached by a Worker are released, when its
+ * task is completed, see {@link EngineCache}.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class Workers {
+
+    private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<>();
+    private static volatile ExecutorService executor = null;
+
+    private Workers() {
+        // Private Constructor, this is a utility Class.
+    }
+
+    /**
+     * Registers the Executor of the container, which is used for all
+     * parallel work, until it is unregistered.
+     *
+     * @param executorService The ManagedExecutorService of the container
+     */
+    public static void register(final ExecutorService executorService) {
+        executor = executorService;
+    }
+
+    /**
+     * Unregisters the Executor, so EDS is not submitting any more tasks to
+     * the container, when it is undeployed.
+     */
+    public static void unregister() {
+        executor = null;
+    }
+
+    /**
+     * <p>Invokes the given task for each index from 0 (inclusive) to the
+     * given count (exclusive). The indexes are split into at most the given
+     * number of ranges, and the first range is processed by the calling
+     * Thread, while the others are processed by the Workers. The method
+     * returns, when all ranges are processed, also if one of them failed.</p>
+     *
+     * @param count       The number of indexes to process
+     * @param parallelism The maximum number of Threads to use
+     * @param task        The task to invoke for each index
+     * @throws CryptoException if interrupted, or if the task failed with a
+     *                         checked Exception, other Exceptions from the
+     *                         task are thrown as is
+     */
+    public static void forEach(final int count, final int parallelism, final IntConsumer task) {
+        final int ranges = countRanges(count, parallelism);
+        final Fork fork = new Fork();
+
+        for (int range = 1; range < ranges; range++) {
+            fork.submit(from(count, ranges, range), from(count, ranges, range + 1), task);
+        }
+
+        // The submitted ranges are always joined, also if the inline range
+        // failed, so no Worker is writing to the results of the caller,
+        // after the method has returned.
+        RuntimeException failure = null;
+        try {
+            runInline(0, from(count, ranges, 1), task);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        try {
+            fork.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CryptoException("Interrupted while waiting for the Workers.", e);
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * <p>As {@link #forEach(int, int, IntConsumer)}, but all ranges are
+     * processed by the Workers, so the caller can continue with other work,
+     * until it invokes {@link Fork#join()}. If no Workers are available, all
+     * indexes are processed before the method returns.</p>
+     *
+     * @param count       The number of indexes to process
+     * @param parallelism The maximum number of Threads to use
+     * @param task        The task to invoke for each index
+     * @return The Fork to join, before the results of the task are read
+     */
+    public static Fork fork(final int count, final int parallelism, final IntConsumer task) {
+        final int ranges = countRanges(count, parallelism);
+        final Fork fork = new Fork();
+
+        if (ranges > 1) {
+            for (int range = 0; range < ranges; range++) {
+                fork.submit(from(count, ranges, range), from(count, ranges, range + 1), task);
+            }
+        } else {
+            runInline(0, count, task);
+        }
+
+        return fork;
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static int countRanges(final int count, final int parallelism) {
+        final boolean available = (executor != null) && (WORKER.get() == null);
+        return available ? Math.max(1, Math.min(count, parallelism)) : 1;
+    }
+
+    private static int from(final int count, final int ranges, final int range) {
+        return (int) (((long) count * range) / ranges);
+    }
+
+    /**
+     * Processes a range by the calling Thread. It is marked as a Worker,
+     * while it is processing, so nested work is also made inline.
+     */
+    private static void runInline(final int from, final int to, final IntConsumer task) {
+        final boolean nested = WORKER.get() != null;
+        WORKER.set(Boolean.TRUE);
+        try {
+            for (int i = from; i < to; i++) {
+                task.accept(i);
+            }
+        } finally {
+            if (!nested) {
+                WORKER.remove();
+            }
+        }
+    }
+
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
+
+    /**
+     * The ranges submitted to the Workers, which must be joined before the
+     * results are read.
+     */
+    public static final class Fork {
+
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private Fork() {
+            // Only created by the Workers.
+        }
+
+        private void submit(final int from, final int to, final IntConsumer task) {
+            final ExecutorService current = executor;
+
+            try {
+                if (current == null) {
+                    throw new RejectedExecutionException("The Workers are not available.");
+                }
+                futures.add(current.submit(() -> {
+                    WORKER.set(Boolean.TRUE);
+                    try {
+                        for (int i = from; i < to; i++) {
+                            task.accept(i);
+                        }
+                    } finally {
+                        WORKER.remove();
+                        EngineCache.clear();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // If the container is not accepting more tasks, i.e. as it
+                // is stopping, the range is simply processed by the caller.
+                runInline(from, to, task);
+            }
+        }
+
+        /**
+         * Waits for all ranges to be processed. If a range failed, the first
+         * failure is thrown, after all ranges have completed.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         * @throws CryptoException      if a task failed with a checked Exception
+         */
+        public void join() throws InterruptedException {
+            RuntimeException failure = null;
+
+            try {
+                for (final Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof Error error) {
+                            throw error;
+                        }
+                        if (failure == null) {
+                            failure = (e.getCause() instanceof RuntimeException cause) ? cause : new CryptoException(e.getMessage(), e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -16,7 +16,8 @@
  */
 package net.haugr.eds.core.managers;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,15 +41,21 @@ import net.haugr.eds.core.exceptions.AuthorizationException;
 import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.exceptions.CryptoException;
 import net.haugr.eds.core.exceptions.VerificationException;
+import net.haugr.eds.core.jce.CircleKeyCache;
 import net.haugr.eds.core.jce.EDSKeyPair;
 import net.haugr.eds.core.jce.Crypto;
 import net.haugr.eds.core.jce.IVSalt;
 import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.jce.KeyPairPool;
+import net.haugr.eds.core.jce.SessionCache;
 import net.haugr.eds.core.model.CommonDao;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.CircleEntity;
 import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.RotationEntity;
+import net.haugr.eds.core.model.entities.SessionEntity;
 import net.haugr.eds.core.model.entities.TrusteeEntity;
 
 /**
@@ -63,12 +70,24 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
     protected final Settings settings;
     /** The Crypto Library. */
     protected final Crypto crypto;
+    /** Cache of unlocked Session KeyPairs. */
+    protected final SessionCache sessionCache;
+    /** Cache of extracted Circle Keys. */
+    protected final CircleKeyCache circleKeyCache;
+    /** Pool of pre-generated Asymmetric KeyPairs. */
+    protected final KeyPairPool keyPairPool;
     /** The DAO Library. */
     protected final D dao;
-    /** List of Trustees. */
-    protected List<TrusteeEntity> trustees = new ArrayList<>(0);
+    /** The Trust Levels, the Member must have for the requested Action. */
+    private Set<TrustLevel> permissions = EnumSet.noneOf(TrustLevel.class);
+    /** List of Trustees, only loaded when needed. */
+    private List<TrusteeEntity> trustees = null;
+    /** The Trustees found so far, indexed by the external CircleId. */
+    private final Map<String, TrusteeEntity> circleTrustees = new HashMap<>();
     /** The Member. */
     protected MemberEntity member = null;
+    /** The Session, if the Member was authenticated via a Session. */
+    protected SessionEntity session = null;
     /** The Member's internal KeyPair. */
     protected EDSKeyPair keyPair = null;
 
@@ -80,6 +99,9 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
      */
     protected AbstractManager(final Settings settings, final D dao) {
         this.crypto = new Crypto(settings);
+        this.sessionCache = SessionCache.getInstance(settings);
+        this.circleKeyCache = CircleKeyCache.getInstance(settings);
+        this.keyPairPool = KeyPairPool.getInstance(settings);
         this.settings = settings;
         this.dao = dao;
     }
@@ -226,22 +248,42 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
      * @param circleId       Optional Circle ID
      */
     private void verifySession(final A authentication, final String circleId) {
-        final byte[] masterEncrypted = crypto.encryptWithMasterKey(authentication.getCredential());
-        final String checksum = crypto.generateChecksum(masterEncrypted);
-        final MemberEntity memberEntity = dao.findMemberByChecksum(checksum);
+        final byte[] sessionKey = authentication.getCredential();
+        String lookupKey = crypto.generateSessionLookup(sessionKey);
+        SessionEntity sessionEntity = dao.findSession(lookupKey);
+        boolean previous = false;
+
+        // Sessions are not migrated when the Master Key is replaced, instead
+        // they remain valid with the previous Master Key until they expire.
+        final String previousLookupKey = (sessionEntity == null) ? crypto.generatePreviousSessionLookup(sessionKey) : null;
+        if (previousLookupKey != null) {
+            lookupKey = previousLookupKey;
+            sessionEntity = dao.findSession(lookupKey);
+            previous = true;
+        }
 
-        if (memberEntity != null) {
-            if (Utilities.newDate().isBefore(memberEntity.getSessionExpire())) {
-                checkCredentials(memberEntity, masterEncrypted, memberEntity.getSessionCrypto());
+        if (sessionEntity != null) {
+            if (Utilities.newDate().isBefore(sessionEntity.getExpires())) {
+                // Unlocking the KeyPair is the expensive part of the Session
+                // check, so if it has already been unlocked for this Session,
+                // the cached KeyPair is used instead.
+                keyPair = sessionCache.find(lookupKey, sessionEntity);
+                if (keyPair == null) {
+                    final byte[] masterEncrypted = previous ? crypto.encryptWithPreviousMasterKey(sessionKey) : crypto.encryptWithMasterKey(sessionKey);
+                    checkCredentials(sessionEntity.getMember(), masterEncrypted, sessionEntity.getCrypto());
+                    sessionCache.add(lookupKey, sessionEntity, keyPair);
+                }
             } else {
-                dao.removeSession(memberEntity);
+                dao.delete(sessionEntity);
+                sessionCache.remove(lookupKey);
                 throw new AuthenticationException("The Session has expired.");
             }
         } else {
             throw new AuthenticationException("No Session could be found.");
         }
 
-        checkMemberAccount(memberEntity, circleId);
+        session = sessionEntity;
+        checkMemberAccount(sessionEntity.getMember(), circleId);
     }
 
     /**
@@ -310,7 +352,7 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
         final SecretEDSKey key = crypto.generatePasswordKey(pbeAlgorithm, password, salt.getArmored());
         key.setSalt(salt);
 
-        final EDSKeyPair pair = Crypto.generateAsymmetricKey(rsaAlgorithm);
+        final EDSKeyPair pair = keyPairPool.take(rsaAlgorithm);
         final String publicKey = Crypto.armoringPublicKey(pair.getPublic().getKey());
         final String privateKey = Crypto.encryptAndArmorPrivateKey(key, pair.getPrivate().getKey());
 
@@ -321,6 +363,11 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
         member.setPublicKey(publicKey);
         dao.save(member);
 
+        // The KeyPair has been replaced, so any Session KeyPair kept in the
+        // cache is no longer valid.
+        sessionCache.remove(member);
+        circleKeyCache.remove(member);
+
         return pair;
     }
 
@@ -356,29 +403,170 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
             throw new AuthorizationException("Cannot complete this request, as it is only allowed for the System Administrator.");
         }
 
-        trustees = findTrustees(member, circleId, TrustLevel.getLevels(action.getTrustLevel()));
+        permissions = TrustLevel.getLevels(action.getTrustLevel());
+        if (circleId != null) {
+            trustees = dao.findTrusteesByMemberAndCircle(member, circleId, permissions);
+            index(trustees);
+        }
 
         // The System Admin is automatically permitted to perform a number of
         // Actions, without being part of a Circle. So these checks must be
-        // made separately based on the actual Request.
-        if ((member.getMemberRole() != MemberRole.ADMIN) && (action.getTrustLevel() != TrustLevel.ALL) && trustees.isEmpty()) {
-            throw new AuthorizationException("The requesting Account is not permitted to " + action.getDescription());
+        // made separately based on the actual Request. Without a CircleId,
+        // it is sufficient to know, that the Member has access to a Circle,
+        // the Trustees are first loaded, when they are needed.
+        if ((member.getMemberRole() != MemberRole.ADMIN) && (action.getTrustLevel() != TrustLevel.ALL)) {
+            final boolean permitted = (trustees != null) ? !trustees.isEmpty() : dao.hasTrustees(member, permissions);
+            if (!permitted) {
+                throw new AuthorizationException("The requesting Account is not permitted to " + action.getDescription());
+            }
         }
     }
 
-    private SecretEDSKey extractCircleKey(final DataEntity entity) {
-        final TrusteeEntity trustee = findTrustee(entity.getMetadata().getCircle().getExternalId());
+    /**
+     * Extracts the Circle Key for the given Trustee, i.e. decrypts the
+     * Trustee's armored Circle Key with the Member's Private Key.
+     *
+     * @param trustee Trustee of the current Member
+     * @return New Circle Key instance
+     */
+    protected final SecretEDSKey extractCircleKey(final TrusteeEntity trustee) {
+        return extractCircleKey(trustee, trustee.getKey());
+    }
+
+    /**
+     * <p>Extracts the Circle Key for the given Trustee and Key. As this
+     * requires an Asymmetric decryption, the extracted Circle Key is kept in
+     * the Circle Key Cache, so subsequent requests can skip it.</p>
+     *
+     * <p>If the Circle Key has been replaced, and the Data is not yet
+     * migrated, the requested Key is the previous Circle Key. It is stored
+     * wrapped with the new Circle Key, which the Trustee holds. As the new
+     * Circle Key is only available to the Trustees, it is handed to the
+     * Rotation, when a Trustee is accessing the Circle, so the remaining Data
+     * can be migrated in the background.</p>
+     *
+     * @param trustee   Trustee of the current Member
+     * @param keyEntity The Key Entity, which the Circle Key belongs to
+     * @return New Circle Key instance
+     */
+    protected final SecretEDSKey extractCircleKey(final TrusteeEntity trustee, final KeyEntity keyEntity) {
+        SecretEDSKey circleKey = circleKeyCache.find(trustee, keyEntity);
+
+        if (circleKey == null) {
+            final RotationEntity rotation = Objects.equals(keyEntity.getId(), trustee.getKey().getId()) ? null : dao.findRotationByOldKey(keyEntity);
+            if (rotation != null) {
+                final SecretEDSKey newKey = extractCircleKey(trustee, trustee.getKey());
+                circleKey = Crypto.unwrapDataKey(newKey, keyEntity.getAlgorithm(), rotation.getWrappedKey());
+            } else {
+                circleKey = Crypto.extractCircleKey(keyEntity.getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+                addRotationKey(trustee, keyEntity, circleKey);
+            }
+            circleKeyCache.add(trustee, keyEntity, circleKey);
+        }
+
+        return circleKey;
+    }
+
+    private void addRotationKey(final TrusteeEntity trustee, final KeyEntity keyEntity, final SecretEDSKey circleKey) {
+        final RotationEntity rotation = dao.findRotationByCircle(trustee.getCircle());
+
+        if ((rotation != null) && Objects.equals(rotation.getNewKey().getId(), keyEntity.getId())) {
+            circleKeyCache.addRotationKey(keyEntity, circleKey);
+        }
+    }
+
+    /**
+     * <p>Encrypts the given bytes with a new Data Key, and stores the result
+     * together with the Data Key wrapped by the Circle Key in the given
+     * Entity, which is then persisted. Any other changes to the Entity should
+     * therefore be made before invoking this method.</p>
+     *
+     * <p>Larger Objects are encrypted in segments, which are processed in
+     * parallel, this is only supported by the GCM Algorithms. Objects larger
+     * than the chunk size, are stored in chunks.</p>
+     *
+     * @param entity    The Data Entity to update
+     * @param keyEntity The Key Entity of the Circle Key
+     * @param circleKey The Circle Key to wrap the Data Key with
+     * @param bytes     The bytes to encrypt
+     */
+    protected final void encryptData(final DataEntity entity, final KeyEntity keyEntity, final SecretEDSKey circleKey, final byte[] bytes) {
+        saveEncryptedData(entity, encryptData(keyEntity, circleKey, bytes));
+    }
 
-        return Crypto.extractCircleKey(entity.getKey().getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+    /**
+     * <p>Encrypts the given bytes with a new Data Key, without touching the
+     * Database, so several Data Objects can be encrypted in parallel. The
+     * result must be saved with
+     * {@link #saveEncryptedData(DataEntity, EncryptedData)}.</p>
+     *
+     * @param keyEntity The Key Entity of the Circle Key
+     * @param circleKey The Circle Key to wrap the Data Key with
+     * @param bytes     The bytes to encrypt
+     * @return The encrypted Data together with the armored Keys
+     */
+    protected final EncryptedData encryptData(final KeyEntity keyEntity, final SecretEDSKey circleKey, final byte[] bytes) {
+        final SecretEDSKey dataKey = Crypto.generateSymmetricKey(keyEntity.getAlgorithm());
+        dataKey.setSalt(new IVSalt());
+
+        final int segmentSize = settings.getSegmentSize();
+        final boolean segmented = (segmentSize > 0) && (bytes.length > segmentSize) && (keyEntity.getAlgorithm().getTransformation() != KeyAlgorithm.Transformation.AES_CBC);
+        final byte[] encrypted = segmented ? Crypto.encrypt(dataKey, segmentSize, bytes) : Crypto.encrypt(dataKey, bytes);
+
+        return new EncryptedData(
+                keyEntity,
+                Crypto.wrapDataKey(circleKey, dataKey),
+                crypto.encryptWithMasterKey(dataKey.getSalt().getArmored()),
+                segmented ? Crypto.createSegmentHeader(segmentSize) : null,
+                crypto.generateChecksum(encrypted),
+                encrypted);
+    }
+
+    protected final void saveEncryptedData(final DataEntity entity, final EncryptedData data) {
+        entity.setKey(data.key());
+        entity.setDataKey(data.dataKey());
+        entity.setInitialVector(data.initialVector());
+        entity.setSegmentHeader(data.segmentHeader());
+        entity.setChecksum(data.checksum());
+        dao.saveData(entity, data.encrypted(), settings);
     }
 
     protected byte[] decryptData(final DataEntity entity) {
+        return decryptData(entity, dao.readData(entity, settings));
+    }
+
+    /**
+     * <p>Decrypts the given encrypted Data of the Data Entity. The encrypted
+     * Data is given separately, so it only has to be read once, if it is
+     * also needed for other purposes, i.e. verifying the Checksum.</p>
+     *
+     * @param entity    The Data Entity with the Keys to decrypt the Data
+     * @param encrypted The encrypted Data of the Data Entity
+     * @return The decrypted Data
+     */
+    protected byte[] decryptData(final DataEntity entity, final byte[] encrypted) {
         final String armoredSalt = crypto.decryptWithMasterKey(entity.getInitialVector());
-        final SecretEDSKey key = extractCircleKey(entity);
-        final IVSalt salt = new IVSalt(armoredSalt);
-        key.setSalt(salt);
+        final TrusteeEntity trustee = findTrustee(entity.getMetadata().getCircle().getExternalId());
+        final SecretEDSKey circleKey = extractCircleKey(trustee, entity.getKey());
+
+        // Data without a Data Key, was encrypted directly with the Circle Key
+        final String dataKey = entity.getDataKey();
+        final SecretEDSKey key = (dataKey != null) ? Crypto.unwrapDataKey(circleKey, entity.getKey().getAlgorithm(), dataKey) : circleKey;
+        key.setSalt(new IVSalt(armoredSalt));
+
+        // Data without a Segment Header, was encrypted in a single operation
+        final String segmentHeader = entity.getSegmentHeader();
+        final byte[] bytes = (segmentHeader != null)
+                ? Crypto.decrypt(key, Crypto.readSegmentSize(segmentHeader), encrypted)
+                : Crypto.decrypt(key, encrypted);
+
+        if (dataKey == null) {
+            // As the Circle Key is only available, when a Member is accessing
+            // the Circle, the Data is migrated to use a Data Key, when read.
+            encryptData(entity, trustee.getKey(), extractCircleKey(trustee), bytes);
+        }
 
-        return Crypto.decrypt(key, entity.getData());
+        return bytes;
     }
 
     protected final byte[] encryptExternalKey(final SecretEDSKey circleKey, final String externalKey) {
@@ -397,7 +585,7 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
         String externalKey = null;
 
         if (encryptedKey != null) {
-            final SecretEDSKey circleKey = Crypto.extractCircleKey(trustee.getKey().getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+            final SecretEDSKey circleKey = extractCircleKey(trustee);
             circleKey.setSalt(new IVSalt(settings.getSalt()));
             externalKey = crypto.bytesToString(Crypto.decrypt(circleKey, encryptedKey));
         }
@@ -425,32 +613,52 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
 
     /**
      * Finds a Trustee Entity for the current Member, based on the external
-     * CircleId.
+     * CircleId. If the Trustees of the Member are not yet loaded, only the
+     * Trustee for the given Circle is read from the database, and kept for
+     * the remainder of the request.
      *
      * @param externalCircleId External CircleId to find Trustee Entity for
      * @return Trustee Entity
      * @throws EDSException if no Trustee Entity was found
      */
     protected final TrusteeEntity findTrustee(final String externalCircleId) {
-        for (final TrusteeEntity trustee : trustees) {
-            if (Objects.equals(trustee.getCircle().getExternalId(), externalCircleId)) {
-                return trustee;
-            }
+        TrusteeEntity trustee = circleTrustees.get(externalCircleId);
+
+        if ((trustee == null) && (trustees == null) && !circleTrustees.containsKey(externalCircleId)) {
+            final List<TrusteeEntity> found = dao.findTrusteesByMemberAndCircle(member, externalCircleId, permissions);
+            trustee = found.isEmpty() ? null : found.getFirst();
+            circleTrustees.put(externalCircleId, trustee);
         }
 
-        throw new EDSException(ReturnCode.AUTHORIZATION_WARNING, "The current Account is not allowed to perform the given action.");
-    }
+        if (trustee == null) {
+            throw new EDSException(ReturnCode.AUTHORIZATION_WARNING, "The current Account is not allowed to perform the given action.");
+        }
 
-    private List<TrusteeEntity> findTrustees(final MemberEntity member, final String circleId, final Set<TrustLevel> permissions) {
-        final List<TrusteeEntity> found;
+        return trustee;
+    }
 
-        if (circleId != null) {
-            found = dao.findTrusteesByMemberAndCircle(member, circleId, permissions);
-        } else {
-            found = dao.findTrusteesByMember(member, permissions);
+    /**
+     * Finds the Trustees of the current Member, with the Trust Level needed
+     * for the requested Action. If a CircleId was given with the request,
+     * only the Trustees for this Circle is returned, otherwise the Trustees
+     * for all Circles of the Member is loaded, sorted by their Id.
+     *
+     * @return List of Trustees for the current Member
+     */
+    protected final List<TrusteeEntity> findTrustees() {
+        if (trustees == null) {
+            trustees = dao.findTrusteesByMember(member, permissions);
+            circleTrustees.clear();
+            index(trustees);
         }
 
-        return found;
+        return trustees;
+    }
+
+    private void index(final List<TrusteeEntity> found) {
+        for (final TrusteeEntity trustee : found) {
+            circleTrustees.putIfAbsent(trustee.getCircle().getExternalId(), trustee);
+        }
     }
 
     protected static String trim(final String value) {
@@ -493,4 +701,17 @@ public abstract class AbstractManager<D extends CommonDao, R extends EDSResponse
             throw new EDSException(returnCode, message);
         }
     }
+
+    /**
+     * The result of encrypting a Data Object, before it is saved.
+     *
+     * @param key           The Key Entity of the Circle Key
+     * @param dataKey       The Data Key, wrapped with the Circle Key
+     * @param initialVector The Initial Vector, encrypted with the MasterKey
+     * @param segmentHeader The Segment Header, or null if not segmented
+     * @param checksum      The Checksum of the encrypted Data
+     * @param encrypted     The encrypted Data
+     */
+    protected record EncryptedData(KeyEntity key, String dataKey, String initialVector, String segmentHeader, String checksum, byte[] encrypted) {
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.managers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import jakarta.persistence.EntityManager;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.api.dtos.DataEntry;
+import net.haugr.eds.api.dtos.DataResult;
+import net.haugr.eds.api.requests.BatchDataRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
+import net.haugr.eds.core.enums.Permission;
+import net.haugr.eds.core.enums.SanityStatus;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.jce.Workers;
+import net.haugr.eds.core.model.DataDao;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.DataTypeEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MetadataEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
+
+/**
+ * <p>Business Logic implementation for the EDS Batch Data request.</p>
+ *
+ * <p>The Member is authenticated, and the Circle Key is extracted, once for
+ * the entire Batch. The Entries are then processed in three steps. First,
+ * each Entry is checked, and the Folders and Data Types are looked up once
+ * for all Entries using them. The names are checked against the names
+ * already used in the Folders with a single query per Folder, so the unique
+ * constraint is not violated, as this would otherwise fail the entire
+ * transaction. Second, the accepted Entries are encrypted in parallel by the
+ * {@link Workers}.
+ * Finally, the Entries are saved, and the number of children of each Folder
+ * is updated once.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class BatchDataManager extends AbstractManager<DataDao, BatchDataResponse, BatchDataRequest> {
+
+    private final Map<String, MetadataEntity> folders = new HashMap<>();
+    private final Map<String, DataTypeEntity> dataTypes = new HashMap<>();
+
+    public BatchDataManager(final Settings settings, final EntityManager entityManager) {
+        super(settings, new DataDao(entityManager));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchDataResponse perform(final BatchDataRequest request) {
+        // Pre-checks, & destruction of credentials
+        verifyRequest(request, Permission.BATCH_DATA);
+        Arrays.fill(request.getCredential(), (byte) 0);
+
+        final TrusteeEntity trustee = findTrustee(request.getCircleId());
+        final List<DataEntry> entries = request.getEntries();
+        final DataResult[] results = new DataResult[entries.size()];
+        final Item[] items = new Item[entries.size()];
+
+        for (int i = 0; i < entries.size(); i++) {
+            results[i] = new DataResult();
+            results[i].setDataName(entries.get(i).getDataName());
+            try {
+                items[i] = prepareItem(trustee, entries.get(i));
+            } catch (EDSException e) {
+                results[i].setReturnCode(e.getReturnCode());
+                results[i].setReturnMessage(e.getMessage());
+            }
+        }
+        rejectUsedNames(items, results);
+
+        final KeyEntity keyEntity = trustee.getKey();
+        final SecretEDSKey circleKey = extractCircleKey(trustee, keyEntity);
+        final EncryptedData[] encrypted = new EncryptedData[items.length];
+        // The Key Entity is eagerly loaded with the Trustee, so the Workers
+        // are only reading its Algorithm, and never access the Database.
+        Workers.forEach(items.length, settings.getCryptoParallelism(), i -> {
+            if ((items[i] != null) && (items[i].bytes() != null)) {
+                encrypted[i] = encryptData(keyEntity, circleKey, items[i].bytes());
+                // Actively overwrite the raw Object bytes, so it no
+                // longer can be read unencrypted.
+                Arrays.fill(items[i].bytes(), (byte) 0);
+            }
+        });
+
+        final Map<Long, Long> children = new HashMap<>();
+        int added = 0;
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] != null) {
+                final MetadataEntity metadata = saveItem(trustee, items[i], encrypted[i]);
+                children.merge(metadata.getParentId(), 1L, Long::sum);
+                results[i].setDataId(metadata.getExternalId());
+                results[i].setReturnMessage("The Data Object '" + metadata.getName() + "' was successfully added.");
+                added++;
+            }
+        }
+        for (final Map.Entry<Long, Long> folder : children.entrySet()) {
+            dao.updateFolderContent(folder.getKey(), folder.getValue());
+        }
+
+        final BatchDataResponse response = new BatchDataResponse(added + " of " + items.length + " Data Objects were successfully added to the Circle '" + trustee.getCircle().getName() + "'.");
+        response.setResults(List.of(results));
+
+        return response;
+    }
+
+    private Item prepareItem(final TrusteeEntity trustee, final DataEntry entry) {
+        final String name = trim(entry.getDataName());
+        throwConditionalException(isEmpty(name) || (name.length() > Constants.MAX_NAME_LENGTH),
+                ReturnCode.VERIFICATION_WARNING, "The name of the new Data Object is invalid.");
+
+        final MetadataEntity parent = findFolder(trustee, entry.getFolderId());
+        final DataTypeEntity type = findDataType(entry.getTypeName());
+        final boolean folder = Objects.equals(Constants.FOLDER_TYPENAME, type.getName());
+
+        return new Item(name, parent, type, folder ? null : entry.getData());
+    }
+
+    /**
+     * Rejects the Entries with a name, which is already used in the Folder,
+     * either by an existing Data Object or by a previous Entry.
+     *
+     * @param items   The prepared Items, rejected Items are set to null
+     * @param results The Results to update for the rejected Items
+     */
+    private void rejectUsedNames(final Item[] items, final DataResult[] results) {
+        final Map<Long, Set<String>> names = new HashMap<>();
+        for (final Item item : items) {
+            if (item != null) {
+                names.computeIfAbsent(item.parent().getId(), id -> new HashSet<>()).add(item.nameKey());
+            }
+        }
+
+        final Map<Long, Set<String>> used = new HashMap<>();
+        for (final Map.Entry<Long, Set<String>> folder : names.entrySet()) {
+            used.put(folder.getKey(), new HashSet<>(dao.findNamesInFolder(folder.getKey(), folder.getValue())));
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            if ((items[i] != null) && !used.get(items[i].parent().getId()).add(items[i].nameKey())) {
+                results[i].setReturnCode(ReturnCode.IDENTIFICATION_WARNING);
+                results[i].setReturnMessage("The name '" + items[i].name() + "' provided is already being used in the given folder.");
+                items[i] = null;
+            }
+        }
+    }
+
+    private MetadataEntity saveItem(final TrusteeEntity trustee, final Item item, final EncryptedData encrypted) {
+        final MetadataEntity metadata = new MetadataEntity();
+        metadata.setCircle(trustee.getCircle());
+        metadata.setName(item.name());
+        metadata.setParentId(item.parent().getId());
+        metadata.setType(item.type());
+        dao.save(metadata);
+
+        if (encrypted != null) {
+            final DataEntity data = new DataEntity();
+            data.setMetadata(metadata);
+            data.setSanityStatus(SanityStatus.OK);
+            data.setSanityChecked(Utilities.newDate());
+            saveEncryptedData(data, encrypted);
+        }
+
+        return metadata;
+    }
+
+    private MetadataEntity findFolder(final TrusteeEntity trustee, final String folderId) {
+        final String key = (folderId != null) ? folderId : "";
+        MetadataEntity folder = folders.get(key);
+
+        if (folder == null) {
+            if (folderId != null) {
+                folder = dao.findMetadataByMemberAndExternalId(member.getId(), folderId);
+                if ((folder == null) || !Objects.equals(Constants.FOLDER_TYPENAME, folder.getType().getName()) || !Objects.equals(folder.getCircle().getId(), trustee.getCircle().getId())) {
+                    throw new EDSException(ReturnCode.IDENTIFICATION_WARNING, "Provided FolderId '" + folderId + "' is not a folder in the Circle.");
+                }
+            } else {
+                folder = dao.findRootByMemberCircle(member.getId(), trustee.getCircle().getExternalId());
+                throwConditionalNullException(folder,
+                        ReturnCode.INTEGRITY_ERROR, "No Parent could be found for the Circle '" + trustee.getCircle().getExternalId() + "', please contact the administrators.");
+            }
+            folders.put(key, folder);
+        }
+
+        return folder;
+    }
+
+    private DataTypeEntity findDataType(final String typeName) {
+        final String name = (typeName != null) ? typeName : Constants.DATA_TYPENAME;
+
+        return dataTypes.computeIfAbsent(name.toLowerCase(Locale.ROOT), key -> {
+            final DataTypeEntity entity = dao.findDataTypeByName(name);
+            throwConditionalNullException(entity,
+                    ReturnCode.INTEGRITY_WARNING, "Cannot find a matching DataType for the Object.");
+
+            return entity;
+        });
+    }
+
+    /**
+     * An accepted Entry, with the Folder and Data Type looked up.
+     */
+    private record Item(String name, MetadataEntity parent, DataTypeEntity type, byte[] bytes) {
+
+        private String nameKey() {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
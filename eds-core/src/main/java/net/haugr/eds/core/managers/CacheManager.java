@@ -0,0 +1,122 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.persistence.EntityManager;
+import net.haugr.eds.api.dtos.CacheRegion;
+import net.haugr.eds.api.dtos.KeyPairPoolStatistics;
+import net.haugr.eds.api.requests.CacheRequest;
+import net.haugr.eds.api.responses.CacheResponse;
+import net.haugr.eds.core.enums.Permission;
+import net.haugr.eds.core.jce.KeyPairPool;
+import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.Settings;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * <p>Business Logic implementation for the EDS Cache request.</p>
+ *
+ * <p>The statistics are only available via the Hibernate API, which is
+ * provided by the Application Server. The Second-level Cache itself is
+ * maintained by Hibernate, as all writes to the cached Entities are made
+ * via the EntityManager, including the bulk deletion of unused Keys. The
+ * Cache must only be evicted, if the Database is altered directly.</p>
+ *
+ * <p>The statistics of the KeyPair Pool are also returned, as it is a Cache
+ * of pre-generated KeyPairs, which is only held by the EDS instance.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class CacheManager extends AbstractManager<CommonDao, CacheResponse, CacheRequest> {
+
+    private final EntityManager entityManager;
+
+    public CacheManager(final Settings settings, final EntityManager entityManager) {
+        super(settings, new CommonDao(entityManager));
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheResponse perform(final CacheRequest request) {
+        // Pre-checks, & destruction of credentials
+        verifyRequest(request, Permission.CACHES);
+        Arrays.fill(request.getCredential(), (byte) 0);
+
+        final SessionFactory factory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        final Statistics statistics = factory.getStatistics();
+        final List<CacheRegion> regions = new ArrayList<>();
+        for (final String name : statistics.getSecondLevelCacheRegionNames()) {
+            final CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(convert(name, region));
+            }
+        }
+
+        if (Boolean.TRUE.equals(request.getEvict())) {
+            final Cache cache = factory.getCache();
+            cache.evictAllRegions();
+            statistics.clear();
+        }
+
+        final CacheResponse response = new CacheResponse();
+        response.setRegions(regions);
+        response.setKeyPairPool(convert(keyPairPool.getStatistics()));
+
+        return response;
+    }
+
+    private static CacheRegion convert(final String name, final CacheRegionStatistics statistics) {
+        final long hits = statistics.getHitCount();
+        final long misses = statistics.getMissCount();
+
+        final CacheRegion region = new CacheRegion();
+        region.setRegion(name);
+        region.setHits(hits);
+        region.setMisses(misses);
+        region.setPuts(statistics.getPutCount());
+        region.setHitRatio((hits + misses) > 0 ? (double) hits / (hits + misses) : 0);
+
+        return region;
+    }
+
+    private static KeyPairPoolStatistics convert(final KeyPairPool.Statistics statistics) {
+        final Map<String, Integer> depths = new HashMap<>(statistics.depths().size());
+        statistics.depths().forEach((algorithm, depth) -> depths.put(algorithm.name(), depth));
+
+        final KeyPairPoolStatistics pool = new KeyPairPoolStatistics();
+        pool.setDepths(depths);
+        pool.setGenerated(statistics.generated());
+        pool.setServed(statistics.served());
+        pool.setMissed(statistics.missed());
+        pool.setRefillRate(statistics.refillRatePerMinute());
+        pool.setAverageGeneration(statistics.averageGenerationMillis());
+
+        return pool;
+    }
+}
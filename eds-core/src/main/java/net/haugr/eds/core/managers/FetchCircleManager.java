@@ -18,8 +18,9 @@ package net.haugr.eds.core.managers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import jakarta.persistence.EntityManager;
 import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.api.dtos.Circle;
@@ -67,14 +68,23 @@ public final class FetchCircleManager extends AbstractManager<CommonDao, FetchCi
         final List<CircleEntity> entities = dao.findAllAscending(CircleEntity.class, "name");
         final List<Circle> circles = new ArrayList<>(entities.size());
 
+        // The External Circle Key can only be decrypted for the Circles,
+        // where the Member is a Trustee.
+        final Map<Long, TrusteeEntity> trustees = new HashMap<>();
+        for (final TrusteeEntity trustee : findTrustees()) {
+            trustees.put(trustee.getCircle().getId(), trustee);
+        }
+
         for (final CircleEntity entity : entities) {
-            circles.add(convert(entity, extractExternalCircleKey(entity)));
+            final TrusteeEntity trustee = trustees.get(entity.getId());
+            circles.add(convert(entity, (trustee != null) ? decryptExternalKey(trustee) : null));
         }
 
         return circles;
     }
 
     private List<Circle> fetchMemberCircles() {
+        final List<TrusteeEntity> trustees = findTrustees();
         final List<Circle> circles = new ArrayList<>(trustees.size());
 
         for (final TrusteeEntity trustee : trustees) {
@@ -83,16 +93,4 @@ public final class FetchCircleManager extends AbstractManager<CommonDao, FetchCi
 
         return circles;
     }
-
-    private String extractExternalCircleKey(final CircleEntity entity) {
-        String externalKey = null;
-
-        for (final TrusteeEntity trustee : trustees) {
-            if (Objects.equals(trustee.getCircle().getId(), entity.getId())) {
-                externalKey = decryptExternalKey(trustee);
-            }
-        }
-
-        return externalKey;
-    }
 }
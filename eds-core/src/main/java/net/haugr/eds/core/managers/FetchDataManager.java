@@ -76,9 +76,10 @@ public final class FetchDataManager extends AbstractManager<DataDao, FetchDataRe
         if (Objects.equals(folder, root.getType())) {
             final int pageNumber = request.getPageNumber();
             final int pageSize = request.getPageSize();
-            final List<MetadataEntity> found = dao.findMetadataByMemberAndFolder(member, root.getId(), pageNumber, pageSize);
+            final List<MetadataEntity> found = dao.findMetadataByMemberAndFolder(member, root.getId(), request.getCursor(), pageNumber, pageSize);
             final long count = dao.countFolderContent(root.getId());
             response = prepareResponse(root.getExternalId(), found, count);
+            response.setNextCursor(DataDao.nextCursor(found, pageSize));
         } else {
             response = readCompleteDataObject(root);
         }
@@ -129,9 +130,10 @@ public final class FetchDataManager extends AbstractManager<DataDao, FetchDataRe
         metadataList.add(metaData);
 
         if (entity != null) {
-            final String checksum = crypto.generateChecksum(entity.getData());
+            final byte[] encrypted = dao.readData(entity, settings);
+            final String checksum = crypto.generateChecksum(encrypted);
             if (Objects.equals(checksum, entity.getChecksum())) {
-                final byte[] bytes = decryptData(entity);
+                final byte[] bytes = decryptData(entity, encrypted);
 
                 // The Object may have the Status Failed, but was corrected. But
                 // as we're going to update the Object anyway, let's just update
@@ -66,7 +66,7 @@ public final class FetchMemberManager extends AbstractManager<MemberDao, FetchMe
                 // the information already retrieved as part of the
                 // Authentication/Authorization logic.
                 addMemberToResponse(response, member);
-                response.setCircles(convertCircles(trustees));
+                response.setCircles(convertCircles(findTrustees()));
             } else {
                 final MemberEntity requestedMember = dao.find(MemberEntity.class, request.getMemberId());
                 // No such Account exist, will simply return with an error.
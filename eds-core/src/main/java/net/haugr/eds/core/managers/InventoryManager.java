@@ -51,7 +51,7 @@ public class InventoryManager extends AbstractManager<DataDao, InventoryResponse
 
         final int pageNumber = request.getPageNumber();
         final int pageSize = request.getPageSize();
-        final List<MetadataEntity> records = dao.readInventoryRecords(pageNumber, pageSize);
+        final List<MetadataEntity> records = dao.readInventoryRecords(request.getCursor(), pageNumber, pageSize);
         final List<Metadata> inventory = new ArrayList<>(records.size());
         for (final MetadataEntity metadata : records) {
             final Metadata data = DataDao.convert(metadata, "-");
@@ -61,6 +61,7 @@ public class InventoryManager extends AbstractManager<DataDao, InventoryResponse
         final InventoryResponse response = new InventoryResponse();
         response.setRecords(dao.countInventoryRecords());
         response.setInventory(inventory);
+        response.setNextCursor(DataDao.nextCursor(records, pageSize));
 
         return response;
     }
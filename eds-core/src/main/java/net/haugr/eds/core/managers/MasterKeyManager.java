@@ -34,6 +34,7 @@ import net.haugr.eds.core.jce.MasterKey;
 import net.haugr.eds.core.jce.SecretEDSKey;
 import net.haugr.eds.core.model.CommonDao;
 import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.MasterKeyRotationEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
 import net.haugr.eds.core.model.entities.SettingEntity;
 import org.slf4j.Logger;
@@ -82,21 +83,44 @@ public final class MasterKeyManager extends AbstractManager<CommonDao, MasterKey
         final MemberEntity admin = findAdmin(request);
         final MasterKeyResponse response;
 
+        // If the MasterKey is currently being replaced, the previous MasterKey
+        // is persisted, encrypted with the new. So if the system is unlocked
+        // with the new MasterKey, i.e. after a restart, the previous MasterKey
+        // is restored, so the information, which has not yet been migrated,
+        // can still be read.
+        final MasterKeyRotationEntity rotation = dao.findMasterKeyRotation();
+        final SecretEDSKey previousKey = restorePreviousKey(newMasterKey, rotation);
+
         // First check is with the new Key, as it is assumed that the primary
         // invocation of this request is to unlock a system, rather than update
         // the Master Key. If this fails, then try with the old Key, and if that
         // works, the Key should be updated. If both fails ... tough!
-        if (checkCredentials(newMasterKey, admin, request.getCredential())) {
+        if (checkCredentials(admin, request.getCredential(), newMasterKey, previousKey)) {
             // Default check, new MasterKey is correct, updating the Key to
-            // reflect this.
-            masterKey.setKey(newMasterKey);
+            // reflect this. If the MasterKey is being replaced, this EDS
+            // instance is registered with the Rotation, which decides which
+            // of the two MasterKeys is used for new information.
+            if (previousKey != null) {
+                dao.lock(rotation);
+                masterKey.applyRotation(rotation, newMasterKey);
+                dao.save(rotation);
+            } else {
+                masterKey.setKeys(newMasterKey, null);
+            }
+            sessionCache.clear();
             response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey unlocked.");
-        } else if (checkCredentials(oldMasterKey, admin, request.getCredential())) {
-            throwConditionalException(dao.countMembers() != 1,
-                    ReturnCode.ILLEGAL_ACTION, "Cannot alter the MasterKey, as Member Accounts exists.");
-            masterKey.setKey(newMasterKey);
-            updateMemberPassword(admin, request.getCredential());
-            response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey updated.");
+        } else if (checkCredentials(admin, request.getCredential(), oldMasterKey, masterKey.getPreviousKey())) {
+            throwConditionalException(rotation != null,
+                    ReturnCode.ILLEGAL_ACTION, "Cannot alter the MasterKey, as it is still being replaced.");
+
+            if (dao.countMembers() == 1) {
+                masterKey.setKey(newMasterKey);
+                sessionCache.clear();
+                updateMemberPassword(admin, request.getCredential());
+                response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey updated.");
+            } else {
+                response = startRotation(oldMasterKey, newMasterKey);
+            }
         } else {
             // Neither keys worked, throw Authentication Exception
             throw new AuthenticationException("Invalid credentials.");
@@ -105,6 +129,51 @@ public final class MasterKeyManager extends AbstractManager<CommonDao, MasterKey
         return response;
     }
 
+    /**
+     * <p>When Member Accounts exists, the Salts of the Members and the
+     * Initial Vectors of the Data are protected by the current MasterKey. So
+     * both MasterKeys are kept, while these are migrated to the new MasterKey
+     * by the background job, see {@link net.haugr.eds.core.RotationBean}.</p>
+     *
+     * <p>If more EDS instances share the database, the new MasterKey is
+     * first used for new information, when all of them have been given it,
+     * see {@link MasterKey#applyRotation(MasterKeyRotationEntity, SecretEDSKey)}.</p>
+     *
+     * @param oldMasterKey The current MasterKey, which is being replaced
+     * @param newMasterKey The new MasterKey
+     * @return Response Object
+     */
+    private MasterKeyResponse startRotation(final SecretEDSKey oldMasterKey, final SecretEDSKey newMasterKey) {
+        final MasterKeyRotationEntity rotation = new MasterKeyRotationEntity();
+        rotation.setPreviousKey(MasterKey.protectKey(newMasterKey, oldMasterKey));
+        final boolean active = masterKey.applyRotation(rotation, newMasterKey);
+        dao.save(rotation);
+        sessionCache.clear();
+
+        String message = "MasterKey updated, existing Accounts and Data will be migrated in the background";
+        if (!active) {
+            message += ", once all " + settings.getClusterInstances() + " EDS instances have been given the new MasterKey";
+        }
+
+        return new MasterKeyResponse(ReturnCode.SUCCESS, message + '.');
+    }
+
+    private SecretEDSKey restorePreviousKey(final SecretEDSKey newMasterKey, final MasterKeyRotationEntity rotation) {
+        SecretEDSKey previousKey = null;
+
+        if (rotation != null) {
+            try {
+                previousKey = masterKey.restoreKey(newMasterKey, rotation.getPreviousKey());
+            } catch (CryptoException e) {
+                // The given MasterKey is not the one, which the MasterKey is
+                // being replaced with.
+                LOGGER.debug("The previous MasterKey could not be restored: {}", e.getMessage(), e);
+            }
+        }
+
+        return previousKey;
+    }
+
     private SecretEDSKey prepareNewMasterKey(final MasterKey masterKey, final MasterKeyRequest request) {
         byte[] rawSecret = request.getSecret();
 
@@ -132,6 +201,21 @@ public final class MasterKeyManager extends AbstractManager<CommonDao, MasterKey
         dao.save(entity);
     }
 
+    /**
+     * Checks the Credentials of the Administrator with the given MasterKeys,
+     * where the second MasterKey is the previous MasterKey, which is only set
+     * while the MasterKey is being replaced.
+     *
+     * @param admin       The System Administrator
+     * @param secret      The Credentials of the System Administrator
+     * @param masterKey   The MasterKey to check with
+     * @param previousKey The previous MasterKey to check with, or null
+     * @return True if either MasterKey can unlock the Administrator Account
+     */
+    private boolean checkCredentials(final MemberEntity admin, final byte[] secret, final SecretEDSKey masterKey, final SecretEDSKey previousKey) {
+        return checkCredentials(masterKey, admin, secret) || ((previousKey != null) && checkCredentials(previousKey, admin, secret));
+    }
+
     private boolean checkCredentials(final SecretEDSKey masterKey, final MemberEntity admin, final byte[] secret) {
         boolean result = false;
 
@@ -18,14 +18,17 @@ package net.haugr.eds.core.managers;
 
 import java.security.PublicKey;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import jakarta.persistence.EntityManager;
 import net.haugr.eds.api.common.Action;
 import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.TrustLevel;
+import net.haugr.eds.api.common.Utilities;
 import net.haugr.eds.api.requests.ProcessCircleRequest;
 import net.haugr.eds.api.responses.ProcessCircleResponse;
+import net.haugr.eds.core.enums.Generation;
 import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.enums.Permission;
 import net.haugr.eds.core.enums.Status;
@@ -34,6 +37,7 @@ import net.haugr.eds.core.exceptions.IllegalActionException;
 import net.haugr.eds.core.jce.Crypto;
 import net.haugr.eds.core.jce.PublicEDSKey;
 import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.jce.Workers;
 import net.haugr.eds.core.model.CommonDao;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.CircleEntity;
@@ -41,6 +45,7 @@ import net.haugr.eds.core.model.entities.DataTypeEntity;
 import net.haugr.eds.core.model.entities.KeyEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
 import net.haugr.eds.core.model.entities.MetadataEntity;
+import net.haugr.eds.core.model.entities.RotationEntity;
 import net.haugr.eds.core.model.entities.TrusteeEntity;
 
 /**
@@ -76,6 +81,10 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
             throw new AuthorizationException("Only a Circle Administrator may perform this action.");
         }
 
+        // The Circles are kept in the Second-level Cache, so the other EDS
+        // instances in the cluster must be told that they have changed.
+        dao.nextGeneration(Generation.CIRCLES);
+
         return response;
     }
 
@@ -88,7 +97,7 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
      * @return True if requesting user has administrative permissions
      */
     private boolean hasAdminRights() {
-        return (member.getMemberRole() == MemberRole.ADMIN) || (trustees.getFirst().getTrustLevel() == TrustLevel.ADMIN);
+        return (member.getMemberRole() == MemberRole.ADMIN) || (findTrustees().getFirst().getTrustLevel() == TrustLevel.ADMIN);
     }
 
     /**
@@ -138,7 +147,7 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
     private ProcessCircleResponse createCircle(final MemberEntity circleAdmin, final String name, final String externalCircleKey) {
         final KeyAlgorithm algorithm = settings.getSymmetricAlgorithm();
         final SecretEDSKey key = Crypto.generateSymmetricKey(algorithm);
-        final PublicKey publicKey = crypto.dearmoringPublicKey(circleAdmin.getPublicKey());
+        final PublicKey publicKey = crypto.dearmoringPublicKey(circleAdmin.getRsaAlgorithm(), circleAdmin.getPublicKey());
         final PublicEDSKey edsPublicKey = new PublicEDSKey(circleAdmin.getRsaAlgorithm(), publicKey);
         final String circleKey = Crypto.encryptAndArmorCircleKey(edsPublicKey, key);
         final byte[] externalKey = encryptExternalKey(key, externalCircleKey);
@@ -182,6 +191,7 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
         return switch (request.getAction()) {
             case UPDATE -> updateCircle(request);
             case DELETE -> deleteCircle(request);
+            case ROTATE -> rotateCircleKey(request);
             // Unreachable Code by design.
             default -> throw new IllegalActionException("Unsupported Action.");
         };
@@ -218,8 +228,8 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
         byte[] encryptedKey = null;
 
         if (externalKey != null) {
-            final TrusteeEntity trustee = trustees.getFirst();
-            final SecretEDSKey circleKey = Crypto.extractCircleKey(trustee.getKey().getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+            final TrusteeEntity trustee = findTrustees().getFirst();
+            final SecretEDSKey circleKey = extractCircleKey(trustee);
             encryptedKey = encryptExternalKey(circleKey, externalKey);
         }
 
@@ -253,11 +263,105 @@ public final class ProcessCircleManager extends AbstractManager<CommonDao, Proce
         final CircleEntity entity = dao.find(CircleEntity.class, externalId);
         throwConditionalException(entity == null,
                 ReturnCode.IDENTIFICATION_WARNING, "No Circle could be found with the given Id.");
+        circleKeyCache.remove(entity);
         dao.delete(entity);
 
         return new ProcessCircleResponse(theCircle(entity) + " has successfully been removed from EDS.");
     }
 
+    /**
+     * <p>Replaces the Circle Key with a new Key. The new Key is encrypted
+     * with the Public Key of every Trustee, which is done in parallel by the
+     * managed Workers, as it is the most expensive part for larger
+     * Circles. The previous Key is
+     * marked as Deprecated, and expires after the configured grace
+     * period. The new Key uses the same Algorithm as the previous Key.</p>
+     *
+     * <p>The existing Data is not touched, it is migrated to the new Key by
+     * the Rotation Bean in the background. Until then, the previous Key is
+     * kept wrapped with the new Key, so the Trustees can still read the
+     * Data. New and updated Data is always stored with the new Key. The new
+     * Key is only kept in memory for the migration, it is never stored
+     * anywhere, where it can be read without the Credentials of a
+     * Trustee.</p>
+     *
+     * @param request Request Object with the ID of the Circle
+     * @return Response Object with error information
+     */
+    private ProcessCircleResponse rotateCircleKey(final ProcessCircleRequest request) {
+        final CircleEntity circle = dao.find(CircleEntity.class, request.getCircleId());
+        throwConditionalException(circle == null,
+                ReturnCode.IDENTIFICATION_WARNING, "No Circle could be found with the given Id.");
+        throwConditionalException(findTrustees().isEmpty(),
+                ReturnCode.AUTHORIZATION_WARNING, "Only a Circle Administrator may replace the Circle Key.");
+        throwConditionalException(dao.findRotationByCircle(circle) != null,
+                ReturnCode.ILLEGAL_ACTION, "The Circle Key is still being replaced, please try again later.");
+
+        final TrusteeEntity admin = findTrustees().getFirst();
+        final KeyEntity oldKeyEntity = admin.getKey();
+        final SecretEDSKey oldKey = extractCircleKey(admin);
+        final String externalKey = decryptExternalKey(admin);
+
+        // The Algorithm of the Data Keys is given by the Circle Key, so the
+        // new Key must use the same Algorithm as the previous Key.
+        final KeyAlgorithm algorithm = oldKeyEntity.getAlgorithm();
+        final SecretEDSKey newKey = Crypto.generateSymmetricKey(algorithm);
+        final KeyEntity newKeyEntity = new KeyEntity();
+        newKeyEntity.setAlgorithm(algorithm);
+        newKeyEntity.setStatus(Status.ACTIVE);
+        dao.save(newKeyEntity);
+
+        // The Public Keys are read from the Entities by the request Thread,
+        // so the Workers only have to encrypt the new Key.
+        final List<TrusteeEntity> circleTrustees = dao.findTrusteesByCircle(circle);
+        final PublicEDSKey[] publicKeys = new PublicEDSKey[circleTrustees.size()];
+        for (int i = 0; i < publicKeys.length; i++) {
+            publicKeys[i] = readPublicKey(circleTrustees.get(i).getMember());
+        }
+        final String[] armoredKeys = new String[publicKeys.length];
+        Workers.forEach(publicKeys.length, settings.getCryptoParallelism(),
+                i -> armoredKeys[i] = Crypto.encryptAndArmorCircleKey(publicKeys[i], newKey));
+        for (int i = 0; i < armoredKeys.length; i++) {
+            final TrusteeEntity trustee = circleTrustees.get(i);
+            trustee.setKey(newKeyEntity);
+            trustee.setCircleKey(armoredKeys[i]);
+            dao.save(trustee);
+        }
+
+        circle.setCircleKey(encryptExternalKey(newKey, externalKey));
+        dao.save(circle);
+
+        final int gracePeriod = settings.getRotationGracePeriod();
+        oldKeyEntity.setStatus(Status.DEPRECATED);
+        oldKeyEntity.setExpires(Utilities.newDate().plusDays(gracePeriod));
+        oldKeyEntity.setGracePeriod(gracePeriod);
+        dao.save(oldKeyEntity);
+
+        final long total = dao.countDataByKey(oldKeyEntity);
+        if (total > 0) {
+            final RotationEntity rotation = new RotationEntity();
+            rotation.setCircle(circle);
+            rotation.setOldKey(oldKeyEntity);
+            rotation.setNewKey(newKeyEntity);
+            rotation.setWrappedKey(Crypto.wrapDataKey(newKey, oldKey));
+            rotation.setTotal(total);
+            dao.save(rotation);
+            circleKeyCache.addRotationKey(newKeyEntity, newKey);
+        } else {
+            dao.delete(oldKeyEntity);
+        }
+        circleKeyCache.remove(circle);
+
+        return new ProcessCircleResponse(theCircle(circle) + " has been given a new Circle Key, " + total + " Data Objects will be migrated in the background.");
+    }
+
+    private PublicEDSKey readPublicKey(final MemberEntity trusteeMember) {
+        final KeyAlgorithm rsaAlgorithm = trusteeMember.getRsaAlgorithm();
+        final PublicKey publicKey = crypto.dearmoringPublicKey(rsaAlgorithm, trusteeMember.getPublicKey());
+
+        return new PublicEDSKey(rsaAlgorithm, publicKey);
+    }
+
     /**
      * <p>Wrapper method to ensure that the circle is always presented the
      * same way. The method simply returns the Circle + circle name.</p>
@@ -27,13 +27,11 @@ import net.haugr.eds.api.common.TrustLevel;
 import net.haugr.eds.api.common.Utilities;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.responses.ProcessDataResponse;
-import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.enums.Permission;
 import net.haugr.eds.core.enums.SanityStatus;
 import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.exceptions.IllegalActionException;
 import net.haugr.eds.core.jce.Crypto;
-import net.haugr.eds.core.jce.IVSalt;
 import net.haugr.eds.core.jce.SecretEDSKey;
 import net.haugr.eds.core.model.DataDao;
 import net.haugr.eds.core.model.Settings;
@@ -80,12 +78,6 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
 
     private ProcessDataResponse processAddData(final ProcessDataRequest request) {
         final MetadataEntity parent = findParent(request.getCircleId(), request.getFolderId());
-        final MetadataEntity existingName = dao.findInFolder(member, parent.getId(), request.getDataName());
-
-        if (existingName != null) {
-            throw new EDSException(ReturnCode.IDENTIFICATION_WARNING, "Another record with the same name already exists.");
-        }
-
         final TrusteeEntity trustee = findTrustee(request.getCircleId());
         final DataTypeEntity type = findDataType(request.getTypeName());
         final byte[] bytes = request.getData();
@@ -105,18 +97,25 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
     private ProcessDataResponse processUpdateData(final ProcessDataRequest request) {
         final MetadataEntity entity = findMetadataAndTrustee(request);
 
-        // First, let's identify the folder, we're not updating it yet, only
-        // after the name has also been checked.
+        // First, let's identify the folder. The name is checked when the
+        // Metadata is saved, as both the name and folder may be changed.
         Long folderId = entity.getParentId();
         if (request.getFolderId() != null) {
             final MetadataEntity folder = checkFolder(entity, request.getFolderId());
             folderId = folder.getId();
         }
 
-        entity.setName(checkName(entity, request.getDataName(), folderId));
-        checkData(entity, request.getData());
+        final Long previousFolderId = entity.getParentId();
+        if (request.getDataName() != null) {
+            entity.setName(request.getDataName().trim());
+        }
         entity.setParentId(folderId);
-        dao.save(entity);
+        dao.saveMetadata(entity);
+        if (!Objects.equals(folderId, previousFolderId)) {
+            dao.updateFolderContent(previousFolderId, -1);
+            dao.updateFolderContent(folderId, 1);
+        }
+        checkData(entity, request.getData());
 
         return buildProcessDataResponse(entity.getExternalId(), theDataObject(entity) + " was successfully updated.");
     }
@@ -133,7 +132,7 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
         final TrusteeEntity targetTrustee = findTargetTrustee(request.getTargetCircleId());
         final MetadataEntity metadataEntity = findMetadataEntity(request.getDataId());
         final String externalDataId = copyDataToTargetCircle(targetTrustee, metadataEntity, request);
-        dao.delete(metadataEntity);
+        deleteMetadata(metadataEntity);
 
         return buildProcessDataResponse(externalDataId, theDataObject(metadataEntity) + " was successfully moved from '" + metadataEntity.getCircle().getName() + "' to '" + targetTrustee.getCircle().getName() + "'.");
     }
@@ -171,7 +170,7 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
             }
         }
 
-        dao.delete(entity);
+        deleteMetadata(entity);
         return new ProcessDataResponse(theDataObject(entity) + " has been removed from the Circle '" + entity.getCircle().getName() + "'.");
     }
 
@@ -207,13 +206,46 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
         final MetadataEntity metadataEntity = createMetadata(trustee, oldMetadataEntity.getName(), folder.getId(), oldMetadataEntity.getType());
         final DataEntity dataEntity = dao.findDataByMemberAndExternalId(member, oldMetadataEntity.getExternalId());
         if (dataEntity != null) {
-            final byte[] bytes = decryptData(dataEntity);
-            encryptAndSaveData(trustee, metadataEntity, null, bytes);
+            final KeyEntity targetKey = trustee.getKey();
+            if ((dataEntity.getDataKey() != null) && (dataEntity.getKey().getAlgorithm() == targetKey.getAlgorithm())) {
+                copyEncryptedData(trustee, metadataEntity, dataEntity);
+            } else {
+                final byte[] bytes = decryptData(dataEntity);
+                encryptAndSaveData(trustee, metadataEntity, null, bytes);
+            }
         }
 
         return metadataEntity.getExternalId();
     }
 
+    /**
+     * The encrypted Data is copied as is, only the Data Key is unwrapped with
+     * the Circle Key of the source Circle and wrapped with the Circle Key of
+     * the target Circle. As the Algorithm of the Data Key is given by the
+     * Circle Key, this requires that both Circle Keys use the same Algorithm.
+     *
+     * @param trustee        Trustee of the target Circle
+     * @param metadataEntity Metadata of the new Data Object
+     * @param source         The Data to copy
+     */
+    private void copyEncryptedData(final TrusteeEntity trustee, final MetadataEntity metadataEntity, final DataEntity source) {
+        final TrusteeEntity sourceTrustee = findTrustee(source.getMetadata().getCircle().getExternalId());
+        final SecretEDSKey sourceKey = extractCircleKey(sourceTrustee, source.getKey());
+        final SecretEDSKey dataKey = Crypto.unwrapDataKey(sourceKey, source.getKey().getAlgorithm(), source.getDataKey());
+        final SecretEDSKey targetKey = extractCircleKey(trustee, trustee.getKey());
+
+        final DataEntity toSave = new DataEntity();
+        toSave.setMetadata(metadataEntity);
+        toSave.setKey(trustee.getKey());
+        toSave.setDataKey(Crypto.wrapDataKey(targetKey, dataKey));
+        toSave.setInitialVector(source.getInitialVector());
+        toSave.setSegmentHeader(source.getSegmentHeader());
+        toSave.setChecksum(source.getChecksum());
+        toSave.setSanityStatus(source.getSanityStatus());
+        toSave.setSanityChecked(source.getSanityChecked());
+        dao.copyData(toSave, source, settings);
+    }
+
     private void checkData(final MetadataEntity metadata, final byte[] bytes) {
         if (bytes != null) {
             final TrusteeEntity trustee = findTrustee(metadata.getCircle().getExternalId());
@@ -225,20 +257,13 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
     private void encryptAndSaveData(final TrusteeEntity trustee, final MetadataEntity metadataEntity, final DataEntity oldDataEntity, final byte[] bytes) {
         if (bytes != null) {
             final KeyEntity keyEntity = trustee.getKey();
-            final KeyAlgorithm algorithm = keyEntity.getAlgorithm();
-            final SecretEDSKey key = Crypto.extractCircleKey(algorithm, keyPair.getPrivate(), trustee.getCircleKey());
-            key.setSalt(new IVSalt());
-            final String armored = key.getSalt().getArmored();
+            final SecretEDSKey circleKey = extractCircleKey(trustee, keyEntity);
 
             final DataEntity toSave = (oldDataEntity != null) ? oldDataEntity : new DataEntity();
             toSave.setMetadata(metadataEntity);
-            toSave.setKey(keyEntity);
-            toSave.setData(Crypto.encrypt(key, bytes));
-            toSave.setInitialVector(crypto.encryptWithMasterKey(armored));
-            toSave.setChecksum(crypto.generateChecksum(toSave.getData()));
             toSave.setSanityStatus(SanityStatus.OK);
             toSave.setSanityChecked(Utilities.newDate());
-            dao.save(toSave);
+            encryptData(toSave, keyEntity, circleKey, bytes);
 
             // Actively overwrite the raw Object bytes, so it no longer
             // can be read unencrypted.
@@ -302,11 +327,17 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
         entity.setName(name);
         entity.setParentId(parentId);
         entity.setType(dataType);
-        dao.save(entity);
+        dao.saveMetadata(entity);
+        dao.updateFolderContent(parentId, 1);
 
         return entity;
     }
 
+    private void deleteMetadata(final MetadataEntity entity) {
+        dao.delete(entity);
+        dao.updateFolderContent(entity.getParentId(), -1);
+    }
+
     /**
      * <p>It is possible to move Data from one Folder to another, but it is not
      * permitted to move a Folder, as this is fairly problematic due to the
@@ -337,16 +368,6 @@ public final class ProcessDataManager extends AbstractManager<DataDao, ProcessDa
         return folder;
     }
 
-    private String checkName(final MetadataEntity entity, final String name, final Long folderId) {
-        final String theName = (name != null) ? name.trim() : entity.getName();
-
-        if (dao.checkIfNameIsUsed(entity.getId(), theName, folderId)) {
-            throw new EDSException(ReturnCode.IDENTIFICATION_WARNING, "The name '" + theName + "' provided is already being used in the given folder.");
-        }
-
-        return theName;
-    }
-
     /**
      * <p>Wrapper method to ensure that the data object is always presented the
      * same way. The method simply returns the Data Object + data name.</p>
@@ -24,6 +24,7 @@ import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.dtos.DataType;
 import net.haugr.eds.api.requests.ProcessDataTypeRequest;
 import net.haugr.eds.api.responses.ProcessDataTypeResponse;
+import net.haugr.eds.core.enums.Generation;
 import net.haugr.eds.core.enums.Permission;
 import net.haugr.eds.core.exceptions.IllegalActionException;
 import net.haugr.eds.core.model.CommonDao;
@@ -78,6 +79,7 @@ public final class ProcessDataTypeManager extends AbstractManager<CommonDao, Pro
             entity.setName(name);
             entity.setType(type);
             dao.save(entity);
+            dao.nextGeneration(Generation.DATATYPES);
         } else {
             entity = found;
             throwConditionalException(Objects.equals(Constants.FOLDER_TYPENAME, entity.getName()) || Objects.equals(Constants.DATA_TYPENAME, entity.getName()),
@@ -86,6 +88,7 @@ public final class ProcessDataTypeManager extends AbstractManager<CommonDao, Pro
             if (!Objects.equals(type, entity.getType())) {
                 entity.setType(type);
                 dao.save(entity);
+                dao.nextGeneration(Generation.DATATYPES);
             }
         }
 
@@ -112,6 +115,7 @@ public final class ProcessDataTypeManager extends AbstractManager<CommonDao, Pro
         throwConditionalException(records > 0,
                 ReturnCode.ILLEGAL_ACTION, theDataType(entity) + " cannot be deleted, as it is being actively used.");
         dao.delete(entity);
+        dao.nextGeneration(Generation.DATATYPES);
 
         return new ProcessDataTypeResponse(theDataType(entity) + " was successfully deleted.");
     }
@@ -47,6 +47,7 @@ import net.haugr.eds.core.jce.SecretEDSKey;
 import net.haugr.eds.core.model.MemberDao;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.SessionEntity;
 import net.haugr.eds.core.model.entities.TrusteeEntity;
 
 /**
@@ -161,10 +162,12 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
 
     private ProcessMemberResponse loginMember(final ProcessMemberRequest request) {
         // Step 1; Based on the Session Key, we're building an encrypted file,
-        // which again will be used as the base for both the check sums and the
-        // PBE based key to encrypt the Member's private key.
+        // which again will be used as the base for the PBE based key to
+        // encrypt the Member's private key. The Session is found via a keyed
+        // HMAC of the Session Key, the lookup key.
         final byte[] rawSessionKey = request.getNewCredential();
         final byte[] masterEncrypted = crypto.encryptWithMasterKey(rawSessionKey);
+        final String lookupKey = crypto.generateSessionLookup(rawSessionKey);
         // Done with the sessionKey, destroy in memory, so the Garbage Collector
         // can later clean it up, this way, it should be harder for a hacker to
         // extract it from memory.
@@ -178,18 +181,58 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
         final String salt = crypto.decryptWithMasterKey(member.getSalt());
         final SecretEDSKey key = crypto.generatePasswordKey(member.getPbeAlgorithm(), masterEncrypted, salt);
         final String privateKey = Crypto.encryptAndArmorPrivateKey(key, keyPair.getPrivate().getKey());
-        final String checksum = crypto.generateChecksum(masterEncrypted);
 
-        member.setSessionChecksum(checksum);
-        member.setSessionCrypto(privateKey);
-        member.setSessionExpire(Utilities.newDate().plusMinutes(settings.getSessionTimeout()));
-        dao.save(member);
+        // A Member may have multiple Sessions, so only a Session with the same
+        // Session Key is replaced, other Sessions remain untouched.
+        SessionEntity entity = dao.findSession(lookupKey);
+        if (entity == null) {
+            removeOldestSessions();
+            entity = new SessionEntity();
+            entity.setMember(member);
+            entity.setLookupKey(lookupKey);
+        } else if (!Objects.equals(entity.getMember().getId(), member.getId())) {
+            throw new EDSException(ReturnCode.CONSTRAINT_ERROR, "The Session Key cannot be used.");
+        }
+        entity.setCrypto(privateKey);
+        entity.setExpires(Utilities.newDate().plusMinutes(settings.getSessionTimeout()));
+        dao.save(entity);
+        sessionCache.remove(lookupKey);
 
         return new ProcessMemberResponse(theMember(member) + " has successfully logged in.");
     }
 
+    /**
+     * A Member may only have a limited number of Sessions, given by the
+     * setting 'eds.session.max.per.member', so before a new Session is
+     * created, the oldest Sessions are ended, to make room for it.
+     */
+    private void removeOldestSessions() {
+        final int maxSessions = settings.getSessionMaxPerMember();
+
+        if (maxSessions > 0) {
+            final List<SessionEntity> sessions = dao.findSessions(member);
+            for (int i = 0; i <= sessions.size() - maxSessions; i++) {
+                sessionCache.remove(sessions.get(i).getLookupKey());
+                dao.delete(sessions.get(i));
+            }
+        }
+    }
+
+    /**
+     * Logging out with a Session, will only end the given Session, whereas
+     * logging out with other Credentials will end all Sessions of the Member.
+     *
+     * @return New Response Object
+     */
     private ProcessMemberResponse logoutMember() {
-        dao.removeSession(member);
+        if (session != null) {
+            sessionCache.remove(session.getLookupKey());
+            dao.delete(session);
+        } else {
+            dao.removeSessions(member);
+            sessionCache.remove(member);
+        }
+
         return new ProcessMemberResponse();
     }
 
@@ -282,7 +325,7 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
             throw new IllegalActionException("The System Administrator Account may not be invalidated.");
         }
 
-        dao.removeSession(member);
+        dao.removeSessions(member);
         updateMemberPassword(member, request.getCredential());
 
         final ProcessMemberResponse response = new ProcessMemberResponse();
@@ -302,6 +345,8 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
             response = processDeleteAsAdmin(request);
         } else {
             // Deleting self
+            sessionCache.remove(member);
+            circleKeyCache.remove(member);
             dao.delete(member);
             response = new ProcessMemberResponse(ReturnCode.SUCCESS, theMember(member) + " has been successfully deleted.");
         }
@@ -319,6 +364,8 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
             throw new IllegalActionException("It is not permitted to delete yourself.");
         }
 
+        sessionCache.remove(found);
+        circleKeyCache.remove(found);
         dao.delete(found);
         return new ProcessMemberResponse(ReturnCode.SUCCESS, theMember(found) + " has successfully been deleted.");
     }
@@ -338,7 +385,7 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
         // make everything very cumbersome if all their keys have to be
         // checked. Hence, it is limited to the first.
         final MemberEntity admin = dao.findMemberByName(Constants.ADMIN_ACCOUNT);
-        final PublicKey publicKey = crypto.dearmoringPublicKey(admin.getPublicKey());
+        final PublicKey publicKey = crypto.dearmoringPublicKey(admin.getRsaAlgorithm(), admin.getPublicKey());
 
         if (!crypto.verify(publicKey, crypto.stringToBytes(secret), request.getCredential())) {
             throw new AuthenticationException("The given signature is invalid.");
@@ -347,7 +394,7 @@ public final class ProcessMemberManager extends AbstractManager<MemberDao, Proce
         final KeyAlgorithm pbeAlgorithm = settings.getPasswordAlgorithm();
         final IVSalt salt = new IVSalt();
         final byte[] newSecret = request.getNewCredential();
-        final EDSKeyPair pair = Crypto.generateAsymmetricKey(settings.getAsymmetricAlgorithm());
+        final EDSKeyPair pair = keyPairPool.take(settings.getAsymmetricAlgorithm());
         final SecretEDSKey key = crypto.generatePasswordKey(pbeAlgorithm, newSecret, salt.getArmored());
         key.setSalt(salt);
 
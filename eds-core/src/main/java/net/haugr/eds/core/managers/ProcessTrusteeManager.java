@@ -75,7 +75,7 @@ public final class ProcessTrusteeManager extends AbstractManager<CommonDao, Proc
      * @return Response with error information.
      */
     private ProcessTrusteeResponse addTrustee(final ProcessTrusteeRequest request) {
-        if (trustees.isEmpty()) {
+        if (findTrustees().isEmpty()) {
             throw new EDSException(ReturnCode.ILLEGAL_ACTION, "It is not possible to add a member to a circle, without membership.");
         }
 
@@ -98,7 +98,7 @@ public final class ProcessTrusteeManager extends AbstractManager<CommonDao, Proc
         // during this - the logic should also reflect it. However, as
         // re-key is not supported in version 1.0, support for multiple
         // Keys can wait until this is also supported.
-        final TrusteeEntity admin = trustees.getFirst();
+        final TrusteeEntity admin = findTrustees().getFirst();
         final TrustLevel trustLevel = request.getTrustLevel();
         final TrusteeEntity trustee = new TrusteeEntity();
         trustee.setMember(newTrusteeMember);
@@ -106,8 +106,8 @@ public final class ProcessTrusteeManager extends AbstractManager<CommonDao, Proc
         trustee.setKey(admin.getKey());
         trustee.setTrustLevel(trustLevel);
 
-        final SecretEDSKey circleKey = Crypto.extractCircleKey(admin.getKey().getAlgorithm(), keyPair.getPrivate(), admin.getCircleKey());
-        final PublicKey publicKey = crypto.dearmoringPublicKey(newTrusteeMember.getPublicKey());
+        final SecretEDSKey circleKey = extractCircleKey(admin);
+        final PublicKey publicKey = crypto.dearmoringPublicKey(newTrusteeMember.getRsaAlgorithm(), newTrusteeMember.getPublicKey());
         final PublicEDSKey edsPublicKey = new PublicEDSKey(newTrusteeMember.getRsaAlgorithm(), publicKey);
         trustee.setCircleKey(Crypto.encryptAndArmorCircleKey(edsPublicKey, circleKey));
 
@@ -125,6 +125,7 @@ public final class ProcessTrusteeManager extends AbstractManager<CommonDao, Proc
 
     private ProcessTrusteeResponse removeTrustee(final ProcessTrusteeRequest request) {
         final TrusteeEntity trustee = findTrusteeForCircleAndMember(request);
+        circleKeyCache.remove(trustee);
         dao.delete(trustee);
 
         return new ProcessTrusteeResponse("The Trustee '" + trustee.getMember().getName() + "' was successfully removed from the Circle '" + trustee.getCircle().getName() + "'.");
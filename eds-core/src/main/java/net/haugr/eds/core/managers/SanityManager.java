@@ -19,13 +19,16 @@ package net.haugr.eds.core.managers;
 import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.api.common.Utilities;
 import net.haugr.eds.api.dtos.Sanity;
+import net.haugr.eds.api.dtos.SanityProgress;
 import net.haugr.eds.api.requests.SanityRequest;
 import net.haugr.eds.api.responses.SanityResponse;
 import net.haugr.eds.core.enums.Permission;
 import net.haugr.eds.core.model.SanityDao;
+import net.haugr.eds.core.model.SanityMetrics;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.DataEntity;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -58,6 +61,9 @@ public final class SanityManager extends AbstractManager<SanityDao, SanityRespon
         final List<Sanity> sanities = convertRecords(found);
         final SanityResponse response = new SanityResponse();
         response.setSanities(sanities);
+        if (member.getMemberRole() == MemberRole.ADMIN) {
+            response.setProgress(prepareProgress());
+        }
 
         return response;
     }
@@ -82,6 +88,40 @@ public final class SanityManager extends AbstractManager<SanityDao, SanityRespon
         return found;
     }
 
+    /**
+     * <p>Prepares the progress of the current, or last, Sanity check. The
+     * Data Objects remaining are counted in the Database, so the progress is
+     * for all EDS instances, and the throughput is given by the number of
+     * Data Objects checked, since the Sanity check was started.</p>
+     *
+     * @return The Sanity Progress
+     */
+    private SanityProgress prepareProgress() {
+        final SanityMetrics.Sweep sweep = SanityMetrics.getInstance().getSweep();
+        final LocalDateTime now = Utilities.newDate();
+        final long remaining = dao.countDueRecords(now.minusDays(settings.getSanityInterval()));
+        final long due = Math.max(sweep.due(), remaining);
+        final long checked = due - remaining;
+
+        final SanityProgress progress = new SanityProgress();
+        progress.setRunning(sweep.running());
+        progress.setDue(due);
+        progress.setRemaining(remaining);
+        progress.setCompletion((due > 0) ? (checked / (double) due) : 1.0);
+
+        if (sweep.started() != null) {
+            final LocalDateTime until = sweep.running() ? now : sweep.ended();
+            final double seconds = Duration.between(sweep.started(), until).toMillis() / 1000.0;
+            final double throughput = (seconds > 0) ? (checked / seconds) : 0;
+            progress.setThroughput(throughput);
+            if (sweep.running() && (throughput > 0)) {
+                progress.setEstimatedCompletion(now.plusSeconds((long) Math.ceil(remaining / throughput)));
+            }
+        }
+
+        return progress;
+    }
+
     private static List<Sanity> convertRecords(final Collection<DataEntity> found) {
         final List<Sanity> sanities = new ArrayList<>(found.size());
 
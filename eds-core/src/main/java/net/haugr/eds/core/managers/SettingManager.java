@@ -20,6 +20,7 @@ import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -29,6 +30,7 @@ import jakarta.persistence.EntityManager;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.requests.SettingRequest;
 import net.haugr.eds.api.responses.SettingResponse;
+import net.haugr.eds.core.enums.Generation;
 import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.enums.Permission;
 import net.haugr.eds.core.enums.StandardSetting;
@@ -119,25 +121,49 @@ public final class SettingManager extends AbstractManager<CommonDao, SettingResp
 
     private void processCheckedSettings(final SettingRequest request, final Map<String, String> changedEntries) {
         final Map<String, SettingEntity> existing = convertSettings(dao.findAllAscending(SettingEntity.class, "id"));
+        final Map<String, String> updates = new HashMap<>(changedEntries.size());
+
+        // The changed Settings are given a new Generation, so the other EDS
+        // instances in the cluster only have to reload these.
+        final long generation = changedEntries.isEmpty() ? 0 : dao.nextGeneration(Generation.SETTINGS);
         for (final Map.Entry<String, String> entry : changedEntries.entrySet()) {
-            processSettingRecord(request, existing, entry);
+            processSettingRecord(existing, entry, updates, generation);
+        }
+
+        // The changes are made visible for all requests at the same time,
+        // so no request is using a partially updated set of Settings.
+        settings.update(updates);
+
+        // Now the tricky part - if we have a critical setting (Salt or PBE
+        // Iterations), which can only be updated when no members exist, we
+        // also have to update the System Administrator account, otherwise
+        // the new change will not work correctly.
+        if ((updates.get(StandardSetting.EDS_SALT.getKey()) != null) ||
+                (updates.get(StandardSetting.PBE_ITERATIONS.getKey()) != null)) {
+            // As the System Administrator is not having any Circles, the
+            // newly generated Asymmetric Key for the updated account can be
+            // ignored.
+            updateMemberPassword(member, request.getCredential());
         }
     }
 
-    private void processSettingRecord(final SettingRequest request, final Map<String, SettingEntity> existing, final Map.Entry<String, String> entry) {
+    private void processSettingRecord(final Map<String, SettingEntity> existing, final Map.Entry<String, String> entry, final Map<String, String> updates, final long generation) {
         final String key = trim(entry.getKey());
         final SettingEntity existingSetting = existing.get(key);
         final String value = trim(entry.getValue());
 
         if (existingSetting != null) {
             if (isEmpty(value)) {
-                deleteSetting(existingSetting);
+                dao.delete(existingSetting);
+                updates.put(key, null);
             } else {
-                persistAndUpdateSetting(request, existingSetting, key, value);
+                persistSetting(existingSetting, key, value, generation);
+                updates.put(key, value);
             }
         } else {
             final SettingEntity entity = new SettingEntity();
-            persistAndUpdateSetting(request, entity, key, value);
+            persistSetting(entity, key, value, generation);
+            updates.put(key, value);
         }
     }
 
@@ -175,7 +201,7 @@ public final class SettingManager extends AbstractManager<CommonDao, SettingResp
             case EDS_CHARSET:
                 checkCharset(setting, value);
                 break;
-            case SANITY_INTERVAL:
+            case SEGMENT_SIZE, CRYPTO_PARALLELISM, DATA_CHUNK_SIZE, KEYPAIR_POOL_SIZE, SANITY_INTERVAL, SESSION_CACHE_SIZE, SESSION_MAX_PER_MEMBER, CIRCLE_KEY_CACHE_SIZE, CIRCLE_KEY_CACHE_TIMEOUT, ROTATION_BATCH_SIZE, ROTATION_BATCH_PAUSE, ROTATION_GRACE_PERIOD, CLUSTER_INSTANCES:
                 checkNumber(setting, value);
                 break;
             case EDS_SALT:
@@ -241,38 +267,22 @@ public final class SettingManager extends AbstractManager<CommonDao, SettingResp
     }
 
     private static void checkOtherSettings(final StandardSetting setting) {
-        // Currently, the only setting which have not been checked otherwise,
-        // and which is not allowed to be updated - is the MasterKey URL, since
-        // doing so may have harmful consequences. The setting may only be
-        // updated by the MasterKey request.
-        if (setting == StandardSetting.MASTERKEY_URL) {
-            throw new EDSException(ReturnCode.SETTING_WARNING, "The setting " + StandardSetting.MASTERKEY_URL.getKey() + " may not be changed with this request.");
+        // Currently, the only settings which have not been checked otherwise,
+        // and which are not allowed to be updated - is the MasterKey URL and
+        // the Blob Directory, since doing so may have harmful consequences.
+        // The MasterKey URL may only be updated by the MasterKey request, and
+        // the Blob Directory only directly in the database, when the Blobs
+        // have been moved.
+        if ((setting == StandardSetting.MASTERKEY_URL) || (setting == StandardSetting.BLOB_DIRECTORY)) {
+            throw new EDSException(ReturnCode.SETTING_WARNING, "The setting " + setting.getKey() + " may not be changed with this request.");
         }
     }
 
-    private void deleteSetting(final SettingEntity entity) {
-        settings.remove(entity.getName());
-        dao.delete(entity);
-    }
-
-    private void persistAndUpdateSetting(final SettingRequest request, final SettingEntity entity, final String key, final String value) {
-        // First, just update the setting.
+    private void persistSetting(final SettingEntity entity, final String key, final String value, final long generation) {
         entity.setName(key);
         entity.setSetting(value);
+        entity.setGeneration(generation);
         dao.save(entity);
-        settings.set(key, value);
-
-        // Now the tricky part - if we have a critical setting (Salt or PBE
-        // Iterations), which can only be updated when no members exist, we
-        // also have to update the System Administrator account, otherwise
-        // the new change will not work correctly.
-        if (Objects.equals(key, StandardSetting.EDS_SALT.getKey()) ||
-                Objects.equals(key, StandardSetting.PBE_ITERATIONS.getKey())) {
-            // As the System Administrator is not having any Circles, the
-            // newly generated Asymmetric Key for the updated account can be
-            // ignored.
-            updateMemberPassword(member, request.getCredential());
-        }
     }
 
     private static Map<String, SettingEntity> convertSettings(final Collection<SettingEntity> list) {
@@ -0,0 +1,80 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * <p>Storage of larger encrypted Data outside of the Database, so the
+ * Database only holds the Metadata and a reference to the Blob. The Blobs
+ * are content-addressed via the Checksum of the encrypted Data, meaning
+ * that the same encrypted Data, i.e. a copy, is only stored once.</p>
+ *
+ * <p>As the Blobs are shared, they are never deleted together with the
+ * Data. Instead, the Sanitizer is removing the Blobs which are no longer
+ * referenced by any Data.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public interface BlobStore {
+
+    /**
+     * Writes the encrypted Data as a Blob, addressed by the given Checksum.
+     * If the Blob already exists, it is not written again.
+     *
+     * @param checksum The Checksum of the encrypted Data
+     * @param blob     The encrypted Data
+     * @return Reference to the Blob
+     */
+    String write(String checksum, byte[] blob);
+
+    /**
+     * Reads the complete Blob.
+     *
+     * @param reference Reference to the Blob
+     * @return The encrypted Data
+     */
+    byte[] read(String reference);
+
+    /**
+     * Opens a Stream to read the Blob, without reading it into memory as a
+     * whole. The Stream must be closed by the caller.
+     *
+     * @param reference Reference to the Blob
+     * @return Stream with the encrypted Data
+     */
+    InputStream open(String reference);
+
+    /**
+     * Lists the references of all Blobs, which were last written before the
+     * given time. The Stream must be closed by the caller.
+     *
+     * @param before Only Blobs written before this time are listed
+     * @return Stream of Blob references
+     */
+    Stream<String> references(Instant before);
+
+    /**
+     * Deletes the Blob, if it exists.
+     *
+     * @param reference Reference to the Blob
+     */
+    void delete(String reference);
+}
@@ -16,11 +16,24 @@
  */
 package net.haugr.eds.core.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -30,13 +43,20 @@ import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.TrustLevel;
 import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.core.enums.Generation;
 import net.haugr.eds.core.enums.StandardSetting;
 import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.model.entities.EDSEntity;
 import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.DataChunkEntity;
+import net.haugr.eds.core.model.entities.DataEntity;
 import net.haugr.eds.core.model.entities.DataTypeEntity;
 import net.haugr.eds.core.model.entities.Externable;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MasterKeyRotationEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.RotationEntity;
+import net.haugr.eds.core.model.entities.SessionEntity;
 import net.haugr.eds.core.model.entities.SettingEntity;
 import net.haugr.eds.core.model.entities.TrusteeEntity;
 
@@ -54,6 +74,8 @@ public class CommonDao {
     protected static final String STATUS = "status";
     protected static final String SINCE = "since";
     protected static final String NAME = "name";
+    private static final String DATA = "data";
+    private static final String ORDINAL = "ordinal";
     protected final EntityManager entityManager;
 
     /**
@@ -106,7 +128,11 @@ public class CommonDao {
         final Root<E> entity = query.from(edsEntity);
         query.select(entity).where(builder.equal(entity.get(EXTERNAL_ID), externalId));
 
-        return findSingleRecord(entityManager.createQuery(query));
+        // The lookup of the read-mostly Entities, i.e. the Circles, is kept
+        // in the Query Cache, alongside their Named Queries.
+        return findSingleRecord(entityManager
+                .createQuery(query)
+                .setHint(EDSEntity.CACHEABLE, edsEntity.isAnnotationPresent(Cacheable.class)));
     }
 
     /**
@@ -136,12 +162,32 @@ public class CommonDao {
         entityManager.remove(entity);
     }
 
-    public void removeSession(final MemberEntity member) {
-        member.setSessionChecksum(null);
-        member.setSessionCrypto(null);
-        member.setSessionExpire(null);
+    /**
+     * Removes all Sessions of the given Member, i.e. when the Member is
+     * logging out without a Session, or the Account is invalidated.
+     *
+     * @param member The Member to remove the Sessions for
+     */
+    public void removeSessions(final MemberEntity member) {
+        entityManager
+                .createNamedQuery("session.removeForMember")
+                .setParameter(MEMBER, member)
+                .executeUpdate();
+    }
+
+    /**
+     * Finds the Sessions of the given Member, the oldest first, i.e. the
+     * Session which will expire first.
+     *
+     * @param member The Member to find the Sessions for
+     * @return List of the Sessions of the Member
+     */
+    public List<SessionEntity> findSessions(final MemberEntity member) {
+        final Query query = entityManager
+                .createNamedQuery("session.findByMember")
+                .setParameter(MEMBER, member);
 
-        save(member);
+        return findList(query);
     }
 
     public MemberEntity findMemberByName(final String name) {
@@ -161,18 +207,17 @@ public class CommonDao {
     }
 
     /**
-     * The checksums are not having any uniqueness assigned to them, meaning
-     * that their may exist multiple checksums with the same value - but as
-     * all checksums are fairly short-lived (hours), the problem is ignored
-     * and only if there is an actual problem with it, will it be addressed.
+     * Finds the Session with the given lookup key, together with the Member
+     * it belongs to. The lookup key is unique, so there is at most a single
+     * Session for it.
      *
-     * @param checksum Checksum of a Member SessionKey
-     * @return MemberEntity with a matching SessionKey checksum
+     * @param lookupKey Lookup key of a Member SessionKey
+     * @return SessionEntity with a matching lookup key, or null
      */
-    public MemberEntity findMemberByChecksum(final String checksum) {
+    public SessionEntity findSession(final String lookupKey) {
         final Query query = entityManager
-                .createNamedQuery("member.findByChecksum")
-                .setParameter("checksum", checksum);
+                .createNamedQuery("session.findByLookupKey")
+                .setParameter("lookupKey", lookupKey);
 
         return findSingleRecord(query);
     }
@@ -201,6 +246,25 @@ public class CommonDao {
         return findList(query);
     }
 
+    /**
+     * Checks if the Member is Trustee of any Circle, with one of the given
+     * Trust Levels. Only the first matching Trustee Id is read, so the check
+     * is equally fast, regardless of how many Circles the Member belongs to.
+     *
+     * @param member      The Member to check
+     * @param permissions The permitted Trust Levels
+     * @return True if the Member is Trustee of at least one Circle
+     */
+    public boolean hasTrustees(final MemberEntity member, final Set<TrustLevel> permissions) {
+        final Query query = entityManager
+                .createNamedQuery("trust.findIdByMember")
+                .setParameter(MEMBER, member)
+                .setParameter("permissions", permissions)
+                .setMaxResults(1);
+
+        return !query.getResultList().isEmpty();
+    }
+
     public List<TrusteeEntity> findTrusteesByMemberAndCircle(final MemberEntity member, final String externalCircleId, final Set<TrustLevel> permissions) {
         final Query query = entityManager
                 .createNamedQuery("trust.findByMemberAndExternalCircleId")
@@ -258,6 +322,56 @@ public class CommonDao {
         return findSingleRecord(query);
     }
 
+    public List<TrusteeEntity> findTrusteesByCircle(final CircleEntity circle) {
+        final Query query = entityManager
+                .createNamedQuery("trustee.findByCircle")
+                .setParameter("circle", circle);
+
+        return findList(query);
+    }
+
+    public RotationEntity findRotationByOldKey(final KeyEntity key) {
+        final Query query = entityManager
+                .createNamedQuery("rotation.findByOldKey")
+                .setParameter("key", key);
+
+        return findSingleRecord(query);
+    }
+
+    public RotationEntity findRotationByCircle(final CircleEntity circle) {
+        final Query query = entityManager
+                .createNamedQuery("rotation.findByCircle")
+                .setParameter("circle", circle);
+
+        return findSingleRecord(query);
+    }
+
+    public MasterKeyRotationEntity findMasterKeyRotation() {
+        final Query query = entityManager
+                .createNamedQuery("masterkey.findAll")
+                .setMaxResults(1);
+
+        return findSingleRecord(query);
+    }
+
+    /**
+     * Locks the given Entity for the remainder of the transaction, and
+     * refreshes it, so changes made by other EDS instances are seen.
+     *
+     * @param entity The Entity to lock
+     */
+    public void lock(final EDSEntity entity) {
+        entityManager.refresh(entity, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    public long countDataByKey(final KeyEntity key) {
+        final Query query = entityManager
+                .createNamedQuery("data.countByKey")
+                .setParameter("key", key);
+
+        return (long) query.getSingleResult();
+    }
+
     public SettingEntity findSettingByKey(final StandardSetting setting) {
         final Query query = entityManager
                 .createNamedQuery("setting.findByName")
@@ -266,6 +380,57 @@ public class CommonDao {
         return findSingleRecord(query);
     }
 
+    /**
+     * <p>Increases the given Generation, and returns the new value. The
+     * Generation row is locked until the transaction is completed, so
+     * concurrent changes are given different Generations.</p>
+     *
+     * @param generation The Generation to increase
+     * @return The increased Generation
+     */
+    public long nextGeneration(final Generation generation) {
+        entityManager
+                .createNamedQuery("generation.increment")
+                .setParameter(NAME, generation.getName())
+                .setParameter("altered", Utilities.newDate())
+                .executeUpdate();
+
+        final Query query = entityManager
+                .createNamedQuery("generation.findByName")
+                .setParameter(NAME, generation.getName());
+
+        return (long) query.getSingleResult();
+    }
+
+    public Map<Generation, Long> findGenerations() {
+        final Query query = entityManager.createNamedQuery("generation.findAll");
+        final List<Object[]> list = findList(query);
+        final Map<Generation, Long> generations = new EnumMap<>(Generation.class);
+
+        for (final Object[] row : list) {
+            final Generation generation = Generation.find((String) row[0]);
+            if (generation != null) {
+                generations.put(generation, (Long) row[1]);
+            }
+        }
+
+        return generations;
+    }
+
+    public List<SettingEntity> findChangedSettings(final long generation) {
+        final Query query = entityManager
+                .createNamedQuery("setting.findChanged")
+                .setParameter("generation", generation);
+
+        return findList(query);
+    }
+
+    public List<String> findSettingNames() {
+        final Query query = entityManager.createNamedQuery("setting.findNames");
+
+        return findList(query);
+    }
+
     public Long countMembers() {
         final Query query = entityManager.createNamedQuery("member.countMembers");
         final Object obj = findSingleRecord(query);
@@ -273,6 +438,194 @@ public class CommonDao {
         return (Long) obj;
     }
 
+    /**
+     * <p>Saves the Data Entity together with the encrypted Data. If the
+     * encrypted Data is larger than the chunk size, it is either stored in
+     * the Blob Store, if one is configured, or in chunks of this size. In
+     * both cases, the Data Entity itself is saved with an empty value, so the
+     * Data is not read, whenever the Entity is. Existing chunks are updated
+     * in place, and chunks from a previous, larger, version of the Data are
+     * removed.</p>
+     *
+     * <p>The Checksum of the Data Entity must be set, as the Blobs are
+     * addressed by it.</p>
+     *
+     * @param entity    The Data Entity to save
+     * @param encrypted The encrypted Data
+     * @param settings  The Settings with the chunk size and Blob Store
+     * @return The saved Data Entity
+     */
+    public DataEntity saveData(final DataEntity entity, final byte[] encrypted, final Settings settings) {
+        final int chunkSize = settings.getDataChunkSize();
+        final boolean large = (chunkSize > 0) && (encrypted.length > chunkSize);
+        final boolean blob = large && !settings.getBlobDirectory().isEmpty();
+        final int chunks = (large && !blob) ? ((encrypted.length - 1) / chunkSize) + 1 : 0;
+        final int previous = (entity.getId() != null) ? entity.getChunks() : 0;
+
+        entity.setBlobReference(blob ? findBlobStore(settings).write(entity.getChecksum(), encrypted) : null);
+        entity.setData(large ? new byte[0] : encrypted);
+        entity.setChunks(chunks);
+        final DataEntity saved = (DataEntity) save(entity);
+
+        for (int ordinal = 0; ordinal < chunks; ordinal++) {
+            final int offset = ordinal * chunkSize;
+            final byte[] chunk = Arrays.copyOfRange(encrypted, offset, Math.min(encrypted.length, offset + chunkSize));
+            if (ordinal < previous) {
+                updateChunk(saved, ordinal, chunk);
+            } else {
+                insertChunk(saved, ordinal, chunk);
+            }
+        }
+        if (previous > chunks) {
+            entityManager
+                    .createNamedQuery("chunk.deleteFrom")
+                    .setParameter(DATA, saved)
+                    .setParameter(ORDINAL, chunks)
+                    .executeUpdate();
+        }
+
+        return saved;
+    }
+
+    /**
+     * <p>Reads the complete encrypted Data of the given Data Entity, either
+     * directly from the Entity, from the Blob Store or from its chunks.</p>
+     *
+     * @param entity   The Data Entity to read the encrypted Data for
+     * @param settings The Settings with the Blob Store
+     * @return The encrypted Data
+     */
+    public byte[] readData(final DataEntity entity, final Settings settings) {
+        final byte[] data;
+
+        if (entity.getBlobReference() != null) {
+            data = findBlobStore(settings).read(entity.getBlobReference());
+        } else if (entity.getChunks() > 0) {
+            final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            for (int ordinal = 0; ordinal < entity.getChunks(); ordinal++) {
+                stream.writeBytes(readChunk(entity, ordinal));
+            }
+            data = stream.toByteArray();
+        } else {
+            data = entity.getData();
+        }
+
+        return data;
+    }
+
+    /**
+     * <p>Opens a Stream with the encrypted Data of the given Data Entity. If
+     * the Data is stored in the Blob Store, it is streamed from there, and if
+     * it is stored in chunks, they are read one at a time, when the Stream
+     * reaches them, so the Data is never held in memory as a whole.</p>
+     *
+     * @param entity   The Data Entity to read the encrypted Data for
+     * @param settings The Settings with the Blob Store
+     * @return Stream with the encrypted Data
+     */
+    public InputStream streamData(final DataEntity entity, final Settings settings) {
+        final InputStream stream;
+
+        if (entity.getBlobReference() != null) {
+            stream = findBlobStore(settings).open(entity.getBlobReference());
+        } else if (entity.getChunks() > 0) {
+            final Iterator<Integer> ordinals = IntStream.range(0, entity.getChunks()).iterator();
+            stream = new SequenceInputStream(new Enumeration<>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return ordinals.hasNext();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    return new ByteArrayInputStream(readChunk(entity, ordinals.next()));
+                }
+            });
+        } else {
+            stream = new ByteArrayInputStream(entity.getData());
+        }
+
+        return stream;
+    }
+
+    /**
+     * <p>Saves the Data Entity with a copy of the encrypted Data of the
+     * source Data Entity. If the source is stored in the Blob Store, the
+     * Blob is simply shared, otherwise the encrypted Data is copied.</p>
+     *
+     * @param entity   The Data Entity to save
+     * @param source   The Data Entity with the encrypted Data to copy
+     * @param settings The Settings with the chunk size and Blob Store
+     * @return The saved Data Entity
+     */
+    public DataEntity copyData(final DataEntity entity, final DataEntity source, final Settings settings) {
+        final DataEntity saved;
+
+        if (source.getBlobReference() != null) {
+            entity.setBlobReference(source.getBlobReference());
+            entity.setData(new byte[0]);
+            entity.setChunks(0);
+            saved = (DataEntity) save(entity);
+        } else {
+            saved = saveData(entity, readData(source, settings), settings);
+        }
+
+        return saved;
+    }
+
+    /**
+     * <p>Finds the Blob Store, configured in the Settings.</p>
+     *
+     * @param settings The Settings with the Blob Store
+     * @return The Blob Store
+     * @throws EDSException if no Blob Store is configured
+     */
+    public static BlobStore findBlobStore(final Settings settings) {
+        final String directory = settings.getBlobDirectory();
+        if (directory.isEmpty()) {
+            throw new EDSException(ReturnCode.SETTING_ERROR, "The Data is stored in a Blob, but no Blob Store is configured.");
+        }
+
+        return new FileBlobStore(Path.of(directory));
+    }
+
+    private byte[] readChunk(final DataEntity entity, final int ordinal) {
+        final Query query = entityManager
+                .createNamedQuery("chunk.read")
+                .setParameter(DATA, entity)
+                .setParameter(ORDINAL, ordinal);
+        final byte[] chunk = findSingleRecord(query);
+
+        if (chunk == null) {
+            throw new EDSException(ReturnCode.INTEGRITY_ERROR, "The Data is missing the chunk " + ordinal + '.');
+        }
+
+        return chunk;
+    }
+
+    private void updateChunk(final DataEntity entity, final int ordinal, final byte[] chunk) {
+        entityManager
+                .createNamedQuery("chunk.update")
+                .setParameter(DATA, entity)
+                .setParameter(ORDINAL, ordinal)
+                .setParameter("chunk", chunk)
+                .setParameter("altered", Utilities.newDate())
+                .executeUpdate();
+    }
+
+    private void insertChunk(final DataEntity entity, final int ordinal, final byte[] chunk) {
+        final DataChunkEntity chunkEntity = new DataChunkEntity();
+        chunkEntity.setData(entity);
+        chunkEntity.setOrdinal(ordinal);
+        chunkEntity.setChunk(chunk);
+        save(chunkEntity);
+
+        // The chunks are only read via queries, so there is no reason to
+        // keep the bytes in the Persistence Context.
+        entityManager.flush();
+        entityManager.detach(chunkEntity);
+    }
+
     // =========================================================================
     // Internal Methods, handling the actual lookup to simplify error handling
     // =========================================================================
@@ -16,12 +16,19 @@
  */
 package net.haugr.eds.core.model;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.Query;
+import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.TrustLevel;
 import net.haugr.eds.api.dtos.Metadata;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.exceptions.VerificationException;
 import net.haugr.eds.core.model.entities.DataEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
 import net.haugr.eds.core.model.entities.MetadataEntity;
@@ -35,6 +42,10 @@ import net.haugr.eds.core.model.entities.MetadataEntity;
  */
 public final class DataDao extends CommonDao {
 
+    private static final String LAST_ID = "lastId";
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
     public DataDao(final EntityManager entityManager) {
         super(entityManager);
     }
@@ -84,17 +95,35 @@ public final class DataDao extends CommonDao {
         return findSingleRecord(query);
     }
 
-    public List<MetadataEntity> findMetadataByMemberAndFolder(final MemberEntity member, final Long parentId, final int pageNumber, final int pageSize) {
+    /**
+     * <p>Reads a page of the content of a folder, newest first. If the Cursor
+     * from the previous page is given, the page is read from the Id it holds,
+     * so the cost is the same for all pages. Otherwise, the page number is
+     * used, which means that all previous pages must be read and skipped.</p>
+     *
+     * @param member     The Member, who must be Trustee of the Circle
+     * @param parentId   Id of the folder
+     * @param cursor     Cursor from the previous page, or null
+     * @param pageNumber Page Number, used if no Cursor is given
+     * @param pageSize   Page Size
+     * @return Page of the folder content
+     */
+    public List<MetadataEntity> findMetadataByMemberAndFolder(final MemberEntity member, final Long parentId, final String cursor, final int pageNumber, final int pageSize) {
         final Query query = entityManager
                 .createNamedQuery("metadata.findByMemberAndFolder")
                 .setParameter(MEMBER, member)
-                .setParameter(PARENT_ID, parentId)
-                .setMaxResults(pageSize)
-                .setFirstResult((pageNumber - 1) * pageSize);
+                .setParameter(PARENT_ID, parentId);
 
-        return findList(query);
+        return findPage(query, cursor, pageNumber, pageSize);
     }
 
+    /**
+     * <p>Reads the number of records in the given folder. The number is kept
+     * with the folder, so it is not counted.</p>
+     *
+     * @param parentId Id of the folder
+     * @return Number of records in the folder
+     */
     public long countFolderContent(final Long parentId) {
         final Query query = entityManager
                 .createNamedQuery("metadata.countFolderContent")
@@ -103,24 +132,86 @@ public final class DataDao extends CommonDao {
         return (long) query.getSingleResult();
     }
 
-    public boolean checkIfNameIsUsed(final Long metadataId, final String name, final Long parentId) {
+    /**
+     * <p>Finds which of the given names are already used in the folder. As
+     * the names are unique regardless of their case, both the given and the
+     * returned names are in lowercase.</p>
+     *
+     * @param parentId The Id of the folder
+     * @param names    The lowercase names to look for
+     * @return The lowercase names, which are already used
+     */
+    public List<String> findNamesInFolder(final Long parentId, final Collection<String> names) {
         final Query query = entityManager
-                .createNamedQuery("metadata.findByNameAndFolder")
-                .setParameter("id", metadataId)
-                .setParameter(NAME, name)
-                .setParameter(PARENT_ID, parentId);
+                .createNamedQuery("metadata.findNamesInFolder")
+                .setParameter(PARENT_ID, parentId)
+                .setParameter("names", names);
+
+        return findList(query);
+    }
 
-        return findSingleRecord(query) != null;
+    /**
+     * <p>Updates the number of records in the given folder, with the given
+     * delta. The update is made directly in the database, so the row is
+     * locked until the transaction completes.</p>
+     *
+     * @param parentId Id of the folder
+     * @param delta    The change in the number of records
+     */
+    public void updateFolderContent(final Long parentId, final long delta) {
+        entityManager
+                .createNamedQuery("metadata.updateChildren")
+                .setParameter("id", parentId)
+                .setParameter("delta", delta)
+                .executeUpdate();
     }
 
-    public MetadataEntity findInFolder(final MemberEntity member, final Long parentId, final String name) {
+    /**
+     * <p>Checks if the name of the given Metadata is used by another record
+     * in the same folder, regardless of case. The lookup is using the unique
+     * index for names within a folder.</p>
+     *
+     * <p>The Metadata may already have been given the new name or folder, so
+     * the pending changes are not flushed before the lookup, as that would
+     * make the database reject them, and the transaction would be aborted.</p>
+     *
+     * @param entity Metadata Entity to check
+     * @return True if another record in the folder has the same name
+     */
+    public boolean checkIfNameIsUsed(final MetadataEntity entity) {
         final Query query = entityManager
-                .createNamedQuery("metadata.findInFolder")
-                .setParameter(MEMBER, member)
-                .setParameter(PARENT_ID, parentId)
-                .setParameter(NAME, name);
+                .createNamedQuery("metadata.findIdsByNameInFolder")
+                .setParameter(PARENT_ID, entity.getParentId())
+                .setParameter(NAME, entity.getName())
+                .setParameter("circleId", entity.getCircle().getId())
+                .setFlushMode(FlushModeType.COMMIT)
+                .setMaxResults(2);
+        final List<Long> ids = findList(query);
 
-        return findSingleRecord(query);
+        return ids.stream().anyMatch(id -> !id.equals(entity.getId()));
+    }
+
+    /**
+     * <p>Saves the Metadata, if the name is not already used in the folder,
+     * otherwise an Identification Warning is thrown. The database also has a
+     * unique constraint for the names within a folder, but it is only there
+     * to catch concurrent requests, which will then fail.</p>
+     *
+     * @param entity Metadata Entity to save
+     * @return The saved Metadata Entity
+     * @throws EDSException if the name is already used in the folder
+     */
+    public MetadataEntity saveMetadata(final MetadataEntity entity) {
+        if (checkIfNameIsUsed(entity)) {
+            // The changes to an existing Metadata record must not be saved
+            // with the rest of the transaction.
+            if (entity.getId() != null) {
+                entityManager.detach(entity);
+            }
+            throw new EDSException(ReturnCode.IDENTIFICATION_WARNING, "The name '" + entity.getName() + "' provided is already being used in the given folder.");
+        }
+
+        return (MetadataEntity) save(entity);
     }
 
     public long countInventoryRecords() {
@@ -130,13 +221,30 @@ public final class DataDao extends CommonDao {
         return (long) query.getSingleResult();
     }
 
-    public List<MetadataEntity> readInventoryRecords(final int pageNumber, final int pageSize) {
+    public List<MetadataEntity> readInventoryRecords(final String cursor, final int pageNumber, final int pageSize) {
         final Query query = entityManager
-                .createNamedQuery("metadata.readInventoryRecords")
-                .setMaxResults(pageSize)
-                .setFirstResult((pageNumber - 1) * pageSize);
+                .createNamedQuery("metadata.readInventoryRecords");
 
-        return findList(query);
+        return findPage(query, cursor, pageNumber, pageSize);
+    }
+
+    /**
+     * <p>Returns the Cursor for the page following the given page, or null if
+     * the given page is not full, as there are then no more records.</p>
+     *
+     * @param page     The page just read
+     * @param pageSize The requested Page Size
+     * @return Cursor for the next page, or null
+     */
+    public static String nextCursor(final List<MetadataEntity> page, final int pageSize) {
+        String cursor = null;
+
+        if (!page.isEmpty() && (page.size() == pageSize)) {
+            final byte[] lastId = String.valueOf(page.get(page.size() - 1).getId()).getBytes(StandardCharsets.UTF_8);
+            cursor = CURSOR_ENCODER.encodeToString(lastId);
+        }
+
+        return cursor;
     }
 
     /**
@@ -160,4 +268,29 @@ public final class DataDao extends CommonDao {
 
         return metaData;
     }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private List<MetadataEntity> findPage(final Query query, final String cursor, final int pageNumber, final int pageSize) {
+        query.setMaxResults(pageSize);
+
+        if (cursor == null) {
+            query.setParameter(LAST_ID, Long.MAX_VALUE)
+                 .setFirstResult((pageNumber - 1) * pageSize);
+        } else {
+            query.setParameter(LAST_ID, readCursor(cursor));
+        }
+
+        return findList(query);
+    }
+
+    private static Long readCursor(final String cursor) {
+        try {
+            return Long.valueOf(new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new VerificationException("The Cursor is invalid.");
+        }
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.exceptions.EDSException;
+
+/**
+ * <p>Blob Store on the local filesystem, or any filesystem mounted as such.
+ * The reference of a Blob is the hexadecimal value of its Checksum, and the
+ * Blobs are spread over two levels of sub-directories, given by the first
+ * four characters of the reference, so no directory grows too large.</p>
+ *
+ * <p>Blobs are written to a temporary file, which is synchronized to the
+ * disk before it is atomically renamed, so a Blob is either complete or
+ * not present. Temporary files left behind, i.e. after a crash, are not
+ * referenced by any Data, and are thus removed by the Sanitizer. Blobs are
+ * read fully into memory, or streamed via the File Channel. They are not
+ * memory-mapped, as the mapping is only released, when the buffer is garbage
+ * collected, which keeps the files open, so the removal of a Blob would be
+ * delayed, and the copy into a byte array is required anyway.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class FileBlobStore implements BlobStore {
+
+    private static final Pattern REFERENCE = Pattern.compile("[0-9a-f]{4}[0-9a-z.]*");
+    private static final String TEMPORARY = ".tmp";
+
+    private final Path directory;
+
+    public FileBlobStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the Blob already exists, its modification time is updated, so
+     * the Sanitizer will not consider it for removal, before the Data
+     * referencing it is committed.</p>
+     */
+    @Override
+    public String write(final String checksum, final byte[] blob) {
+        final String reference = HexFormat.of().formatHex(Base64.getDecoder().decode(checksum));
+        final Path file = resolve(reference);
+
+        try {
+            if (Files.exists(file)) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            } else {
+                final Path folder = Files.createDirectories(file.getParent());
+                final Path temporary = Files.createTempFile(folder, reference + '.', TEMPORARY);
+                try {
+                    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                        final ByteBuffer buffer = ByteBuffer.wrap(blob);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        channel.force(true);
+                    }
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+                    synchronizeDirectory(folder);
+                } finally {
+                    Files.deleteIfExists(temporary);
+                }
+            }
+        } catch (IOException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot write the Blob " + reference + ": " + e.getMessage(), e);
+        }
+
+        return reference;
+    }
+
+    @Override
+    public byte[] read(final String reference) {
+        try {
+            return Files.readAllBytes(resolve(reference));
+        } catch (NoSuchFileException e) {
+            throw new EDSException(ReturnCode.INTEGRITY_ERROR, "The Blob " + reference + " is missing.", e);
+        } catch (IOException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot read the Blob " + reference + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(final String reference) {
+        try {
+            return Channels.newInputStream(FileChannel.open(resolve(reference), StandardOpenOption.READ));
+        } catch (NoSuchFileException e) {
+            throw new EDSException(ReturnCode.INTEGRITY_ERROR, "The Blob " + reference + " is missing.", e);
+        } catch (IOException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot read the Blob " + reference + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Stream<String> references(final Instant before) {
+        try {
+            return Files.find(directory, 3, (path, attributes) -> attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(before))
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> REFERENCE.matcher(name).matches());
+        } catch (NoSuchFileException e) {
+            // Nothing has been written yet
+            return Stream.empty();
+        } catch (IOException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot list the Blobs: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(final String reference) {
+        try {
+            Files.deleteIfExists(resolve(reference));
+        } catch (IOException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot delete the Blob " + reference + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Path resolve(final String reference) {
+        if (!REFERENCE.matcher(reference).matches()) {
+            throw new EDSException(ReturnCode.INTEGRITY_ERROR, "The Blob reference '" + reference + "' is invalid.");
+        }
+
+        return directory
+                .resolve(reference.substring(0, 2))
+                .resolve(reference.substring(2, 4))
+                .resolve(reference);
+    }
+
+    private static void synchronizeDirectory(final Path folder) {
+        // The rename is only durable, once the directory is synchronized as
+        // well. Not all platforms support this, in which case the rename is
+        // left for the filesystem to persist.
+        try (FileChannel channel = FileChannel.open(folder, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported by this platform
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.haugr.eds.core.enums.Generation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Holds the Generations, which this EDS instance has already seen, and
+ * the in-process Caches, which must be notified when a Generation is
+ * increased by another EDS instance in the cluster. The Generations are
+ * polled from the Database by the Generation Bean, so no external message
+ * bus is needed.</p>
+ *
+ * <p>Subscribers are invoked from the polling Timer, after the Settings have
+ * been reloaded and the Second-level Cache has been evicted. A failing
+ * Subscriber is logged, but will neither stop the other Subscribers, nor
+ * cause the Generation to be polled again.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class Generations {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Generations.class);
+
+    private final Map<Generation, Long> known = new EnumMap<>(Generation.class);
+    private final Map<Generation, List<Runnable>> subscribers = new EnumMap<>(Generation.class);
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private Generations() {
+        for (final Generation generation : Generation.values()) {
+            known.put(generation, 0L);
+            subscribers.put(generation, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    public static Generations getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers a Subscriber, which is invoked every time the given
+     * Generation has been increased.
+     *
+     * @param generation The Generation to subscribe to
+     * @param subscriber The Subscriber to invoke
+     */
+    public void subscribe(final Generation generation, final Runnable subscriber) {
+        subscribers.get(generation).add(subscriber);
+    }
+
+    public void unsubscribe(final Generation generation, final Runnable subscriber) {
+        subscribers.get(generation).remove(subscriber);
+    }
+
+    public long get(final Generation generation) {
+        synchronized (known) {
+            return known.get(generation);
+        }
+    }
+
+    /**
+     * Sets the Generations, which the current state was read with, without
+     * notifying the Subscribers. It is invoked when EDS is started, before
+     * the Settings are loaded, so changes made in the meantime, are picked
+     * up by the first poll.
+     *
+     * @param generations The current Generations from the Database
+     */
+    public void initialize(final Map<Generation, Long> generations) {
+        synchronized (known) {
+            known.putAll(generations);
+        }
+    }
+
+    /**
+     * Updates the known Generation, and notifies the Subscribers, if the
+     * Generation was newer than the already known.
+     *
+     * @param generation The changed Generation
+     * @param value      The new value of the Generation
+     */
+    public void publish(final Generation generation, final long value) {
+        final boolean changed;
+        synchronized (known) {
+            changed = value > known.get(generation);
+            if (changed) {
+                known.put(generation, value);
+            }
+        }
+
+        if (changed) {
+            for (final Runnable subscriber : subscribers.get(generation)) {
+                try {
+                    subscriber.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Subscriber for the {} Generation failed: {}", generation, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Holder {
+        private static final Generations INSTANCE = new Generations();
+    }
+}
@@ -20,9 +20,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import net.haugr.eds.api.common.Utilities;
 import net.haugr.eds.core.enums.SanityStatus;
 import net.haugr.eds.core.model.entities.DataEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.SanityLeaseEntity;
 
 /**
  * <p>Data Access Object functionality used explicitly for Sanity Checks.</p>
@@ -32,6 +34,11 @@ import net.haugr.eds.core.model.entities.MemberEntity;
  */
 public final class SanityDao extends CommonDao {
 
+    private static final String RANGE_START = "rangeStart";
+    private static final String OWNER = "owner";
+    private static final String EXPIRES = "expires";
+    private static final String NOW = "now";
+
     public SanityDao(final EntityManager entityManager) {
         super(entityManager);
     }
@@ -64,4 +71,134 @@ public final class SanityDao extends CommonDao {
 
         return findList(query);
     }
+
+    /**
+     * Finds the highest Data Id, so the Sanity check knows how many ranges
+     * of Data there are. If no Data exists, then 0 (zero) is returned.
+     *
+     * @return The highest Data Id
+     */
+    public long findLastDataId() {
+        final Query query = entityManager.createNamedQuery("data.findMaxId");
+        final Long lastId = (Long) query.getSingleResult();
+
+        return (lastId != null) ? lastId : 0L;
+    }
+
+    /**
+     * Counts the Data Objects, which are due for a Sanity check, i.e. which
+     * were last checked before the given date.
+     *
+     * @param date Data checked before this date is due
+     * @return Number of Data Objects due for a Sanity check
+     */
+    public long countDueRecords(final LocalDateTime date) {
+        final Query query = entityManager
+                .createNamedQuery("data.countForSanityCheck")
+                .setParameter(STATUS, SanityStatus.OK)
+                .setParameter("date", date);
+
+        return (long) query.getSingleResult();
+    }
+
+    /**
+     * <p>Claims the Lease for the range of Data starting with the given Id.
+     * An existing Lease is only taken over, if it has expired, which is done
+     * with a conditional update, so only one EDS instance can succeed.</p>
+     *
+     * <p>If no Lease exists for the range, a new one is created. If another
+     * EDS instance is creating the same Lease, the unique constraint will
+     * make one of them fail, when the Lease is flushed.</p>
+     *
+     * @param rangeStart The first Data Id of the range
+     * @param owner      The Sanity check claiming the Lease
+     * @param expires    When the Lease expires, if not renewed
+     * @return The claimed Lease, or null if it is held by another instance
+     */
+    public SanityLeaseEntity claimLease(final long rangeStart, final String owner, final LocalDateTime expires) {
+        final Query query = entityManager
+                .createNamedQuery("lease.findByRangeStart")
+                .setParameter(RANGE_START, rangeStart);
+        SanityLeaseEntity lease = findSingleRecord(query);
+
+        if (lease == null) {
+            lease = new SanityLeaseEntity();
+            lease.setRangeStart(rangeStart);
+            lease.setOwner(owner);
+            lease.setExpires(expires);
+            save(lease);
+            entityManager.flush();
+        } else {
+            // The checkpoint is read before the Lease is claimed, if it is
+            // changed in between, the Lease was renewed, so the claim fails.
+            final int updated = entityManager
+                    .createNamedQuery("lease.claim")
+                    .setParameter(RANGE_START, rangeStart)
+                    .setParameter(OWNER, owner)
+                    .setParameter(EXPIRES, expires)
+                    .setParameter(NOW, Utilities.newDate())
+                    .executeUpdate();
+            if (updated == 0) {
+                lease = null;
+            }
+        }
+
+        return lease;
+    }
+
+    /**
+     * Sets a new expiration and checkpoint for the Lease, if it is still
+     * held by the given owner.
+     *
+     * @param rangeStart The first Data Id of the range
+     * @param owner      The Sanity check holding the Lease
+     * @param expires    When the Lease expires
+     * @param checkpoint The last checked Data Id of the range
+     * @return True if the Lease was still held by the owner
+     */
+    public boolean renewLease(final long rangeStart, final String owner, final LocalDateTime expires, final Long checkpoint) {
+        final int updated = entityManager
+                .createNamedQuery("lease.renew")
+                .setParameter(RANGE_START, rangeStart)
+                .setParameter(OWNER, owner)
+                .setParameter(EXPIRES, expires)
+                .setParameter("checkpoint", checkpoint)
+                .setParameter(NOW, Utilities.newDate())
+                .executeUpdate();
+
+        return updated > 0;
+    }
+
+    /**
+     * Releases the Lease, so other EDS instances may claim it. If the range
+     * was completed, the checkpoint is removed, so the next Sanity check
+     * starts from the beginning of the range, otherwise it is kept, so the
+     * check is resumed from there.
+     *
+     * @param rangeStart The first Data Id of the range
+     * @param owner      The Sanity check holding the Lease
+     * @param completed  True if all Data in the range was checked
+     */
+    public void releaseLease(final long rangeStart, final String owner, final boolean completed) {
+        entityManager
+                .createNamedQuery(completed ? "lease.complete" : "lease.release")
+                .setParameter(RANGE_START, rangeStart)
+                .setParameter(OWNER, owner)
+                .setParameter(NOW, Utilities.newDate())
+                .executeUpdate();
+    }
+
+    /**
+     * Removes Leases, which expired before the given date, so Leases for
+     * ranges without Data are not kept forever.
+     *
+     * @param expires Remove Leases, which expired before this date
+     * @return Number of removed Leases
+     */
+    public int removeExpiredLeases(final LocalDateTime expires) {
+        return entityManager
+                .createNamedQuery("lease.removeExpired")
+                .setParameter(EXPIRES, expires)
+                .executeUpdate();
+    }
 }
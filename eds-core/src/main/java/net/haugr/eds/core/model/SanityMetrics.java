@@ -0,0 +1,150 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.haugr.eds.api.common.Utilities;
+
+/**
+ * <p>Counters for the Sanity checks made by this EDS instance, since it was
+ * started. The Sanity check is reading the Data in batches, generating the
+ * Checksums in parallel and writing the results in batches, so besides the
+ * number of checked and flawed Data Objects, the backlog is the number of
+ * Data Objects which have been read, but for which the result has not yet
+ * been written.</p>
+ *
+ * <p>The current, or last, Sanity check is kept as a Sweep, with the number
+ * of Data Objects which were due when it started, so the progress can be
+ * given to the System Administrator.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class SanityMetrics {
+
+    private final AtomicLong checked = new AtomicLong(0);
+    private final AtomicLong flawed = new AtomicLong(0);
+    private final AtomicLong backlog = new AtomicLong(0);
+    private final AtomicLong sweeps = new AtomicLong(0);
+    private final AtomicLong sweepNanos = new AtomicLong(0);
+    private volatile Sweep sweep = new Sweep(false, 0, null, null);
+
+    private SanityMetrics() {
+        // Private Constructor, this is a Singleton.
+    }
+
+    public static SanityMetrics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers that a Sanity check has started.
+     *
+     * @param due Number of Data Objects due to be checked
+     */
+    public void started(final long due) {
+        sweep = new Sweep(true, due, Utilities.newDate(), null);
+    }
+
+    public void read(final long count) {
+        backlog.addAndGet(count);
+    }
+
+    /**
+     * Registers the results, which have been written.
+     *
+     * @param count Number of checked Data Objects
+     * @param flaws Number of flawed Data Objects
+     */
+    public void written(final long count, final long flaws) {
+        backlog.addAndGet(-count);
+        checked.addAndGet(count);
+        flawed.addAndGet(flaws);
+    }
+
+    /**
+     * Registers that a Sanity check has ended, if it was stopped before all
+     * batches were written, the remaining backlog is discarded, as it will
+     * be read again by the next Sanity check.
+     *
+     * @param nanos The time the Sanity check took
+     */
+    public void completed(final long nanos) {
+        backlog.set(0);
+        sweeps.incrementAndGet();
+        sweepNanos.addAndGet(nanos);
+        sweep = new Sweep(false, sweep.due(), sweep.started(), Utilities.newDate());
+    }
+
+    public Sweep getSweep() {
+        return sweep;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(checked.get(), flawed.get(), backlog.get(), sweeps.get(), sweepNanos.get());
+    }
+
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
+
+    /**
+     * Snapshot of the Sanity metrics.
+     *
+     * @param checked    Number of checked Data Objects
+     * @param flawed     Number of Data Objects found to be flawed
+     * @param backlog    Data Objects read, but not yet written
+     * @param sweeps     Number of completed Sanity checks
+     * @param sweepNanos Total time spent on the Sanity checks
+     */
+    public record Statistics(long checked, long flawed, long backlog, long sweeps, long sweepNanos) {
+
+        /**
+         * Returns the average number of Data Objects checked per second,
+         * while the Sanity checks were running.
+         *
+         * @return Throughput in Data Objects per second
+         */
+        public double throughputPerSecond() {
+            final double seconds = sweepNanos / (double) TimeUnit.SECONDS.toNanos(1);
+            return (seconds > 0) ? checked / seconds : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("checked=%d, flawed=%d, backlog=%d, sweeps=%d, throughput=%.1f/s",
+                    checked, flawed, backlog, sweeps, throughputPerSecond());
+        }
+    }
+
+    /**
+     * The current, or last, Sanity check of this EDS instance.
+     *
+     * @param running True while the Sanity check is running
+     * @param due     Number of Data Objects due, when it started
+     * @param started When the Sanity check started, null if none has
+     * @param ended   When the Sanity check ended, null while running
+     */
+    public record Sweep(boolean running, long due, LocalDateTime started, LocalDateTime ended) {
+    }
+
+    private static final class Holder {
+        private static final SanityMetrics INSTANCE = new SanityMetrics();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Limits the speed of the Sanity check, so it does not compete with the
+ * requests for the Database, CPU and Storage. After each batch, the Sanity
+ * check pauses long enough, that the number of Data Objects and bytes
+ * checked per second is kept within the budget given by the settings
+ * 'eds.sanity.rows.per.second' and 'eds.sanity.bytes.per.second'.</p>
+ *
+ * <p>The Throttle also backs off, if the Database is busy. When reading or
+ * writing a batch takes longer than the setting
+ * 'eds.sanity.backoff.latency.millis', the speed is halved, down to 1/16,
+ * and for every batch read or written in time, it is increased by 1/16 of
+ * the full speed. Whilst backing off, the Sanity check also pauses for a
+ * share of the time it is working, so it backs off, even if no budget is
+ * given.</p>
+ *
+ * <p>The Throttle is used by the Thread running the Sanity check, and is
+ * not thread safe.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+public final class SanityThrottle {
+
+    private static final double MIN_FACTOR = 1.0 / 16;
+    private static final double RECOVERY = 1.0 / 16;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long rowsPerSecond;
+    private final long bytesPerSecond;
+    private final long latencyNanos;
+    private double factor = 1.0;
+    private long lastNanos = System.nanoTime();
+
+    public SanityThrottle(final Settings settings) {
+        this(settings.getSanityRowsPerSecond(), settings.getSanityBytesPerSecond(), settings.getSanityBackoffLatency());
+    }
+
+    SanityThrottle(final long rowsPerSecond, final long bytesPerSecond, final long latencyMillis) {
+        this.rowsPerSecond = rowsPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+    }
+
+    /**
+     * Registers the time the Database took to read or write a batch, and
+     * adjusts the speed accordingly.
+     *
+     * @param nanos Time the Database took
+     */
+    public void measured(final long nanos) {
+        if ((latencyNanos > 0) && (nanos > latencyNanos)) {
+            factor = Math.max(MIN_FACTOR, factor / 2);
+        } else {
+            factor = Math.min(1.0, factor + RECOVERY);
+        }
+    }
+
+    /**
+     * Returns the current share of the full speed, between 1/16 and 1.
+     *
+     * @return Current share of the full speed
+     */
+    public double getFactor() {
+        return factor;
+    }
+
+    /**
+     * Pauses the Sanity check, until the given number of Data Objects and
+     * bytes are within the budget, counted from the last time this method
+     * returned.
+     *
+     * @param rows  Number of Data Objects checked
+     * @param bytes Number of bytes read
+     * @throws InterruptedException if interrupted while pausing
+     */
+    public void acquire(final long rows, final long bytes) throws InterruptedException {
+        final long pause = calculatePause(rows, bytes, System.nanoTime() - lastNanos);
+        if (pause > 0) {
+            TimeUnit.NANOSECONDS.sleep(pause);
+        }
+        lastNanos = System.nanoTime();
+    }
+
+    long calculatePause(final long rows, final long bytes, final long elapsedNanos) {
+        long required = (long) (elapsedNanos / factor);
+        if (rowsPerSecond > 0) {
+            required = Math.max(required, (long) (rows * NANOS_PER_SECOND / (rowsPerSecond * factor)));
+        }
+        if (bytesPerSecond > 0) {
+            required = Math.max(required, (long) (bytes * NANOS_PER_SECOND / (bytesPerSecond * factor)));
+        }
+
+        return Math.max(0, required - elapsedNanos);
+    }
+}
@@ -17,11 +17,14 @@
 package net.haugr.eds.core.model;
 
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.core.enums.HashAlgorithm;
 import net.haugr.eds.core.enums.KeyAlgorithm;
@@ -41,36 +44,39 @@ import net.haugr.eds.core.exceptions.EDSException;
  *
  * <p>Once a EDS system is being actively used, i.e. there exist Member Accounts
  * other than the System Administrator, then the rules regarding the
- * non-updatable values will be enforced. Updatable fields may be changed, but
- * the EDS will only use them after a restart.</p>
+ * non-updatable values will be enforced. Updatable fields may be changed,
+ * and other EDS instances in the cluster will reload the changed Settings,
+ * when they poll the Settings Generation.</p>
+ *
+ * <p>The Settings are read with almost every request, but rarely changed. The
+ * values are therefore kept in an immutable Snapshot, where the Standard
+ * Settings are parsed when the Snapshot is made. Changes are made by
+ * replacing the Snapshot, so the readers never take a lock, and always see
+ * either all or none of the changes from an update.</p>
  *
  * @author Kim Jensen
  * @since EDS 1.0
  */
 public final class Settings {
 
-    private static Settings instance = null;
-    private static final Object LOCK = new Object();
+    private static final Map<StandardSetting, Function<String, Object>> PARSERS = prepareParsers();
+    private final Object lock = new Object();
 
-    private final Properties properties = new Properties();
+    private volatile Snapshot snapshot;
 
     /**
      * Private Constructor, this is a Singleton.
      */
     private Settings() {
+        final Map<String, String> defaults = new HashMap<>(StandardSetting.values().length);
         for (final StandardSetting setting : StandardSetting.values()) {
-            set(setting, setting.getValue());
+            defaults.put(setting.getKey(), setting.getValue());
         }
+        snapshot = new Snapshot(defaults);
     }
 
     public static Settings getInstance() {
-        synchronized (LOCK) {
-            if (instance == null) {
-                instance = new Settings();
-            }
-
-            return instance;
-        }
+        return Holder.INSTANCE;
     }
 
     // =========================================================================
@@ -82,29 +88,46 @@ public final class Settings {
     }
 
     public void set(final String key, final String value) {
-        properties.setProperty(key, value);
+        update(Map.of(key, value));
+    }
+
+    /**
+     * <p>Updates the given Settings, and replaces the Snapshot with a new,
+     * so all changes becomes visible at the same time. Settings with a null
+     * value are removed.</p>
+     *
+     * @param changes Map with the Settings to update or remove
+     */
+    public void update(final Map<String, String> changes) {
+        synchronized (lock) {
+            final Map<String, String> values = new HashMap<>(snapshot.values());
+            for (final Map.Entry<String, String> entry : changes.entrySet()) {
+                if (entry.getValue() == null) {
+                    values.remove(entry.getKey());
+                } else {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+            snapshot = new Snapshot(values);
+        }
     }
 
     public String get(final String key) {
-        return properties.getProperty(key);
+        return snapshot.values().get(key);
     }
 
     public Map<String, String> get() {
-        final Map<String, String> copy = new ConcurrentHashMap<>(16);
-
-        for (final String key : keys()) {
-            copy.put(key, get(key));
-        }
-
-        return copy;
+        return new ConcurrentHashMap<>(snapshot.values());
     }
 
     public Set<String> keys() {
-        return properties.stringPropertyNames();
+        return snapshot.values().keySet();
     }
 
     public void remove(final String key) {
-        properties.remove(key);
+        final Map<String, String> changes = new HashMap<>(1);
+        changes.put(key, null);
+        update(changes);
     }
 
     // =========================================================================
@@ -112,27 +135,54 @@ public final class Settings {
     // =========================================================================
 
     public KeyAlgorithm getSymmetricAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.SYMMETRIC_ALGORITHM.getKey()));
+        return parsed(StandardSetting.SYMMETRIC_ALGORITHM);
     }
 
     public KeyAlgorithm getAsymmetricAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.ASYMMETRIC_ALGORITHM.getKey()));
+        return parsed(StandardSetting.ASYMMETRIC_ALGORITHM);
     }
 
     public KeyAlgorithm getSignatureAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.SIGNATURE_ALGORITHM.getKey()));
+        return parsed(StandardSetting.SIGNATURE_ALGORITHM);
     }
 
     public KeyAlgorithm getPasswordAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.PBE_ALGORITHM.getKey()));
+        return parsed(StandardSetting.PBE_ALGORITHM);
     }
 
     public Integer getPasswordIterations() {
-        return Integer.valueOf(get(StandardSetting.PBE_ITERATIONS.getKey()).trim());
+        return parsed(StandardSetting.PBE_ITERATIONS);
     }
 
     public HashAlgorithm getHashAlgorithm() {
-        return HashAlgorithm.valueOf(get(StandardSetting.HASH_ALGORITHM.getKey()));
+        return parsed(StandardSetting.HASH_ALGORITHM);
+    }
+
+    public Integer getSegmentSize() {
+        return parsed(StandardSetting.SEGMENT_SIZE);
+    }
+
+    /**
+     * Returns the maximum number of Threads, which may be used to process a
+     * single larger Data Object, or a single Batch of Data Objects.
+     *
+     * @return Number of Threads, at least 1
+     */
+    public int getCryptoParallelism() {
+        final int parallelism = parsed(StandardSetting.CRYPTO_PARALLELISM);
+        return Math.max(1, parallelism);
+    }
+
+    public Integer getDataChunkSize() {
+        return parsed(StandardSetting.DATA_CHUNK_SIZE);
+    }
+
+    public String getBlobDirectory() {
+        return parsed(StandardSetting.BLOB_DIRECTORY);
+    }
+
+    public Integer getKeyPairPoolSize() {
+        return parsed(StandardSetting.KEYPAIR_POOL_SIZE);
     }
 
     public String getSalt() {
@@ -140,46 +190,210 @@ public final class Settings {
     }
 
     public Locale getLocale() {
-        return Locale.forLanguageTag(get(StandardSetting.EDS_LOCALE.getKey()));
+        return parsed(StandardSetting.EDS_LOCALE);
     }
 
     public Charset getCharset() {
-        try {
-            return Charset.forName(get(StandardSetting.EDS_CHARSET.getKey()));
-        } catch (IllegalArgumentException e) {
-            throw new EDSException(ReturnCode.SETTING_ERROR, e);
-        }
+        return parsed(StandardSetting.EDS_CHARSET);
     }
 
     public boolean hasShowAllCircles() {
-        return Boolean.parseBoolean(get(StandardSetting.SHOW_CIRCLES.getKey()).trim());
+        return parsed(StandardSetting.SHOW_CIRCLES);
     }
 
     public boolean hasShareTrustees() {
-        return Boolean.parseBoolean(get(StandardSetting.SHOW_TRUSTEES.getKey()).trim());
+        return parsed(StandardSetting.SHOW_TRUSTEES);
     }
 
     public boolean hasSanityStartup() {
-        return Boolean.parseBoolean(get(StandardSetting.SANITY_STARTUP.getKey()).trim());
+        return parsed(StandardSetting.SANITY_STARTUP);
     }
 
     public Integer getSanityInterval() {
-        return Integer.valueOf(get(StandardSetting.SANITY_INTERVAL.getKey()).trim());
+        return parsed(StandardSetting.SANITY_INTERVAL);
+    }
+
+    public Integer getSanityBatchSize() {
+        return parsed(StandardSetting.SANITY_BATCH_SIZE);
+    }
+
+    /**
+     * Returns the number of Threads, which are generating the Checksums of
+     * the Sanity check. If not set, one per available processor is used.
+     *
+     * @return Number of Sanity Workers
+     */
+    public int getSanityWorkers() {
+        final int workers = parsed(StandardSetting.SANITY_WORKERS);
+        return (workers > 0) ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public Integer getSanityRangeSize() {
+        return parsed(StandardSetting.SANITY_RANGE_SIZE);
+    }
+
+    public Integer getSanityLeaseTimeout() {
+        return parsed(StandardSetting.SANITY_LEASE_TIMEOUT);
+    }
+
+    public Integer getSanityRowsPerSecond() {
+        return parsed(StandardSetting.SANITY_ROWS_PER_SECOND);
+    }
+
+    public Integer getSanityBytesPerSecond() {
+        return parsed(StandardSetting.SANITY_BYTES_PER_SECOND);
+    }
+
+    public Integer getSanityBackoffLatency() {
+        return parsed(StandardSetting.SANITY_BACKOFF_LATENCY);
     }
 
     public Integer getSessionTimeout() {
-        return Integer.valueOf(get(StandardSetting.SESSION_TIMEOUT.getKey()).trim());
+        return parsed(StandardSetting.SESSION_TIMEOUT);
+    }
+
+    public Integer getSessionCacheSize() {
+        return parsed(StandardSetting.SESSION_CACHE_SIZE);
+    }
+
+    public Integer getSessionMaxPerMember() {
+        return parsed(StandardSetting.SESSION_MAX_PER_MEMBER);
+    }
+
+    public Integer getCircleKeyCacheSize() {
+        return parsed(StandardSetting.CIRCLE_KEY_CACHE_SIZE);
+    }
+
+    public Integer getCircleKeyCacheTimeout() {
+        return parsed(StandardSetting.CIRCLE_KEY_CACHE_TIMEOUT);
+    }
+
+    public Integer getRotationBatchSize() {
+        return parsed(StandardSetting.ROTATION_BATCH_SIZE);
+    }
+
+    public Integer getRotationBatchPause() {
+        return parsed(StandardSetting.ROTATION_BATCH_PAUSE);
+    }
+
+    public Integer getRotationGracePeriod() {
+        return parsed(StandardSetting.ROTATION_GRACE_PERIOD);
+    }
+
+    public int getClusterInstances() {
+        final int instances = parsed(StandardSetting.CLUSTER_INSTANCES);
+        return Math.max(1, instances);
     }
 
     public String getMasterKeyURL() {
-        return get(StandardSetting.MASTERKEY_URL.getKey()).trim();
+        return parsed(StandardSetting.MASTERKEY_URL);
     }
 
     public String getCORS() {
-        return get(StandardSetting.CORS.getKey()).trim();
+        return parsed(StandardSetting.CORS);
     }
 
     public boolean isReady() {
-        return Boolean.parseBoolean(get(StandardSetting.IS_READY.getKey()).trim());
+        return parsed(StandardSetting.IS_READY);
+    }
+
+    // =========================================================================
+    // Internal Functionality
+    // =========================================================================
+
+    /**
+     * <p>Returns the parsed value of the Standard Setting from the current
+     * Snapshot. If the value could not be parsed, it is parsed again, so the
+     * caller gets the same Exception, as if it was never pre-parsed.</p>
+     *
+     * @param setting The Standard Setting to read
+     * @param <T>     The type of the parsed value
+     * @return The parsed value
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T parsed(final StandardSetting setting) {
+        final Snapshot current = snapshot;
+        final Object value = current.parsed().get(setting);
+
+        return (T) ((value != null) ? value : PARSERS.get(setting).apply(current.values().get(setting.getKey())));
+    }
+
+    private static Map<StandardSetting, Function<String, Object>> prepareParsers() {
+        final Map<StandardSetting, Function<String, Object>> parsers = new EnumMap<>(StandardSetting.class);
+        for (final StandardSetting setting : StandardSetting.values()) {
+            parsers.put(setting, String::trim);
+        }
+
+        parsers.put(StandardSetting.SYMMETRIC_ALGORITHM, KeyAlgorithm::valueOf);
+        parsers.put(StandardSetting.ASYMMETRIC_ALGORITHM, KeyAlgorithm::valueOf);
+        parsers.put(StandardSetting.SIGNATURE_ALGORITHM, KeyAlgorithm::valueOf);
+        parsers.put(StandardSetting.PBE_ALGORITHM, KeyAlgorithm::valueOf);
+        parsers.put(StandardSetting.HASH_ALGORITHM, HashAlgorithm::valueOf);
+        parsers.put(StandardSetting.EDS_LOCALE, Locale::forLanguageTag);
+        parsers.put(StandardSetting.EDS_CHARSET, Settings::parseCharset);
+        for (final StandardSetting setting : Set.of(StandardSetting.PBE_ITERATIONS, StandardSetting.SEGMENT_SIZE,
+                StandardSetting.CRYPTO_PARALLELISM, StandardSetting.DATA_CHUNK_SIZE, StandardSetting.KEYPAIR_POOL_SIZE, StandardSetting.SANITY_INTERVAL,
+                StandardSetting.SANITY_BATCH_SIZE, StandardSetting.SANITY_WORKERS, StandardSetting.SANITY_RANGE_SIZE,
+                StandardSetting.SANITY_LEASE_TIMEOUT, StandardSetting.SANITY_ROWS_PER_SECOND,
+                StandardSetting.SANITY_BYTES_PER_SECOND, StandardSetting.SANITY_BACKOFF_LATENCY,
+                StandardSetting.SESSION_TIMEOUT, StandardSetting.SESSION_CACHE_SIZE, StandardSetting.SESSION_MAX_PER_MEMBER,
+                StandardSetting.CIRCLE_KEY_CACHE_SIZE, StandardSetting.CIRCLE_KEY_CACHE_TIMEOUT, StandardSetting.ROTATION_BATCH_SIZE,
+                StandardSetting.ROTATION_BATCH_PAUSE, StandardSetting.ROTATION_GRACE_PERIOD, StandardSetting.CLUSTER_INSTANCES)) {
+            parsers.put(setting, value -> Integer.valueOf(value.trim()));
+        }
+        for (final StandardSetting setting : Set.of(StandardSetting.SHOW_CIRCLES, StandardSetting.SHOW_TRUSTEES,
+                StandardSetting.SANITY_STARTUP, StandardSetting.IS_READY)) {
+            parsers.put(setting, value -> Boolean.parseBoolean(value.trim()));
+        }
+
+        return Collections.unmodifiableMap(parsers);
+    }
+
+    private static Charset parseCharset(final String value) {
+        try {
+            return Charset.forName(value);
+        } catch (IllegalArgumentException e) {
+            throw new EDSException(ReturnCode.SETTING_ERROR, e);
+        }
+    }
+
+    /**
+     * <p>Immutable Snapshot of the Settings, with the Standard Settings
+     * parsed. If a value cannot be parsed, it is left out of the parsed
+     * values.</p>
+     *
+     * @param values All Settings
+     * @param parsed The parsed Standard Settings
+     */
+    private record Snapshot(Map<String, String> values, Map<StandardSetting, Object> parsed) {
+
+        private Snapshot(final Map<String, String> values) {
+            this(Map.copyOf(values), parse(values));
+        }
+
+        private static Map<StandardSetting, Object> parse(final Map<String, String> values) {
+            final Map<StandardSetting, Object> parsed = new EnumMap<>(StandardSetting.class);
+            for (final Map.Entry<StandardSetting, Function<String, Object>> entry : PARSERS.entrySet()) {
+                final String value = values.get(entry.getKey().getKey());
+                if (value != null) {
+                    try {
+                        parsed.put(entry.getKey(), entry.getValue().apply(value));
+                    } catch (RuntimeException e) {
+                        // The value is parsed again when read, and the
+                        // Exception is then thrown to the caller.
+                    }
+                }
+            }
+
+            return Collections.unmodifiableMap(parsed);
+        }
+    }
+
+    /**
+     * Lazy holder of the Singleton instance, the JVM guarantees that it is
+     * created once, without locking when it is read.
+     */
+    private static final class Holder {
+        private static final Settings INSTANCE = new Settings();
     }
 }
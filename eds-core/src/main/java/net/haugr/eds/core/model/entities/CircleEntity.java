@@ -18,9 +18,11 @@ package net.haugr.eds.core.model.entities;
 
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.Utilities;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Table;
 
 /**
@@ -30,8 +32,10 @@ import jakarta.persistence.Table;
  * @since EDS 1.0
  */
 @Entity
+@Cacheable
 @Table(name = "eds_circles")
 @NamedQuery(name = "circle.findByName",
+        hints = @QueryHint(name = EDSEntity.CACHEABLE, value = "true"),
         query = "select c from CircleEntity c " +
                 "where lower(c.name) = lower(:name)")
 public class CircleEntity extends Externable {
@@ -0,0 +1,102 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import net.haugr.eds.api.common.Utilities;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Data Chunk Entity, maps the Data Chunks table from the Database.
+ * Larger encrypted Data Objects are stored in fixed size chunks, which are
+ * read one at a time, rather than as a single value with the Data.</p>
+ *
+ * <p>The chunks are only written via this Entity, they are read and updated
+ * via the Named Queries, so they are never held by the Persistence
+ * Context.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Entity
+@NamedQuery(name = "chunk.read",
+        query = "select c.chunk " +
+                "from DataChunkEntity c " +
+                "where c.data = :data" +
+                "  and c.ordinal = :ordinal")
+@NamedQuery(name = "chunk.update",
+        query = "update DataChunkEntity c set" +
+                "  c.chunk = :chunk," +
+                "  c.altered = :altered " +
+                "where c.data = :data" +
+                "  and c.ordinal = :ordinal")
+@NamedQuery(name = "chunk.deleteFrom",
+        query = "delete from DataChunkEntity c " +
+                "where c.data = :data" +
+                "  and c.ordinal >= :ordinal")
+@Table(name = "eds_data_chunks")
+public class DataChunkEntity extends EDSEntity {
+
+    @ManyToOne(targetEntity = DataEntity.class, fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "data_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private DataEntity data = null;
+
+    @Column(name = "ordinal", nullable = false, updatable = false)
+    private Integer ordinal = null;
+
+    @Column(name = "chunk", nullable = false)
+    private byte[] chunk = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setData(final DataEntity data) {
+        this.data = data;
+    }
+
+    public DataEntity getData() {
+        return data;
+    }
+
+    /**
+     * Sets the position of the chunk, the first chunk of a Data Object has
+     * the ordinal 0 (zero).
+     *
+     * @param ordinal Position of the chunk
+     */
+    public void setOrdinal(final Integer ordinal) {
+        this.ordinal = ordinal;
+    }
+
+    public Integer getOrdinal() {
+        return ordinal;
+    }
+
+    public void setChunk(final byte[] chunk) {
+        this.chunk = Utilities.copy(chunk);
+    }
+
+    public byte[] getChunk() {
+        return Utilities.copy(chunk);
+    }
+}
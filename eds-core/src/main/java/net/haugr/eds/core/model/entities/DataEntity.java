@@ -68,12 +68,63 @@ import jakarta.persistence.Table;
                 "  and d.metadata.externalId = :externalId" +
                 "  and t.member = :member" +
                 "  and t.trustLevel in :trustLevels")
-@NamedQuery(name = "data.findIdsForSanityCheck",
-        query = "select d.id " +
+@NamedQuery(name = "data.countForSanityCheck",
+        query = "select count(d.id) " +
                 "from DataEntity d " +
                 "where d.sanityStatus = :status" +
-                "  and d.sanityChecked <= :date " +
+                "  and d.sanityChecked <= :date")
+@NamedQuery(name = "data.findForSanityCheck",
+        query = "select d.id, d.checksum, d.data, d.blobReference, d.chunks " +
+                "from DataEntity d " +
+                "where d.sanityStatus = :status" +
+                "  and d.sanityChecked <= :date" +
+                "  and d.id > :lastId" +
+                "  and d.id < :endId " +
+                "order by d.id asc")
+@NamedQuery(name = "data.findMaxId",
+        query = "select max(d.id) from DataEntity d")
+@NamedQuery(name = "data.updateSanityChecked",
+        query = "update DataEntity d " +
+                "set d.sanityChecked = :checked " +
+                "where d.id in :ids")
+@NamedQuery(name = "data.updateSanityFailed",
+        query = "update DataEntity d " +
+                "set d.sanityStatus = :status," +
+                "    d.sanityChecked = :checked," +
+                "    d.altered = :checked " +
+                "where d.id = :id" +
+                "  and d.checksum = :checksum")
+@NamedQuery(name = "data.findForRotation",
+        query = "select d.id, d.dataKey, d.checksum " +
+                "from DataEntity d " +
+                "where d.key = :key" +
+                "  and d.id > :lastId " +
+                "order by d.id asc")
+@NamedQuery(name = "data.countByKey",
+        query = "select count(d.id) " +
+                "from DataEntity d " +
+                "where d.key = :key")
+@NamedQuery(name = "data.countByBlobReference",
+        query = "select count(d.id) " +
+                "from DataEntity d " +
+                "where d.blobReference = :reference")
+@NamedQuery(name = "data.rotateKey",
+        query = "update DataEntity d " +
+                "set d.key = :newKey," +
+                "    d.dataKey = :dataKey " +
+                "where d.id = :id" +
+                "  and d.key = :oldKey" +
+                "  and d.checksum = :checksum")
+@NamedQuery(name = "data.findForMasterKey",
+        query = "select d.id, d.initialVector " +
+                "from DataEntity d " +
+                "where d.id > :lastId " +
                 "order by d.id asc")
+@NamedQuery(name = "data.updateInitialVector",
+        query = "update DataEntity d " +
+                "set d.initialVector = :newVector " +
+                "where d.id = :id" +
+                "  and d.initialVector = :oldVector")
 @Table(name = "eds_data")
 public class DataEntity extends EDSEntity {
 
@@ -82,15 +133,27 @@ public class DataEntity extends EDSEntity {
     private MetadataEntity metadata = null;
 
     @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
-    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false)
     private KeyEntity key = null;
 
     @Column(name = "encrypted_data", nullable = false)
     private byte[] data = null;
 
+    @Column(name = "chunks", nullable = false)
+    private Integer chunks = 0;
+
+    @Column(name = "blob_reference", length = Constants.MAX_STRING_LENGTH)
+    private String blobReference = null;
+
     @Column(name = "initial_vector", nullable = false, length = Constants.MAX_STRING_LENGTH)
     private String initialVector = null;
 
+    @Column(name = "data_key", length = Constants.MAX_STRING_LENGTH)
+    private String dataKey = null;
+
+    @Column(name = "segment_header", length = Constants.MAX_STRING_LENGTH)
+    private String segmentHeader = null;
+
     @Column(name = "checksum", nullable = false, length = Constants.MAX_STRING_LENGTH)
     private String checksum = null;
 
@@ -129,6 +192,36 @@ public class DataEntity extends EDSEntity {
         return Utilities.copy(data);
     }
 
+    /**
+     * Sets the number of chunks, the encrypted Data is stored in. If 0
+     * (zero), the encrypted Data is stored with the Data Entity, otherwise
+     * it is stored in the Data Chunks, and the Data here is empty.
+     *
+     * @param chunks Number of chunks or 0 (zero)
+     */
+    public void setChunks(final Integer chunks) {
+        this.chunks = chunks;
+    }
+
+    public Integer getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Sets the reference to the Blob, which the encrypted Data is stored in.
+     * If set, the encrypted Data is stored in the Blob Store, and the Data
+     * here is empty.
+     *
+     * @param blobReference Reference to the Blob or null
+     */
+    public void setBlobReference(final String blobReference) {
+        this.blobReference = blobReference;
+    }
+
+    public String getBlobReference() {
+        return blobReference;
+    }
+
     public void setInitialVector(final String initialVector) {
         this.initialVector = initialVector;
     }
@@ -137,6 +230,34 @@ public class DataEntity extends EDSEntity {
         return initialVector;
     }
 
+    /**
+     * Sets the armored Data Key, which is wrapped with the Circle Key. If
+     * null, the Data is encrypted directly with the Circle Key.
+     *
+     * @param dataKey Wrapped and armored Data Key or null
+     */
+    public void setDataKey(final String dataKey) {
+        this.dataKey = dataKey;
+    }
+
+    public String getDataKey() {
+        return dataKey;
+    }
+
+    /**
+     * Sets the Segment Header, for Data encrypted with the segmented format.
+     * If null, the Data is encrypted in a single operation.
+     *
+     * @param segmentHeader Segment Header or null
+     */
+    public void setSegmentHeader(final String segmentHeader) {
+        this.segmentHeader = segmentHeader;
+    }
+
+    public String getSegmentHeader() {
+        return segmentHeader;
+    }
+
     public void setChecksum(final String checksum) {
         this.checksum = checksum;
     }
@@ -17,9 +17,11 @@
 package net.haugr.eds.core.model.entities;
 
 import net.haugr.eds.api.common.Constants;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Table;
 
 /**
@@ -29,11 +31,14 @@ import jakarta.persistence.Table;
  * @since EDS 1.0
  */
 @Entity
+@Cacheable
 @NamedQuery(name = "type.findAll",
+        hints = @QueryHint(name = EDSEntity.CACHEABLE, value = "true"),
         query = "select d " +
                 "from DataTypeEntity d " +
                 "order by d.id asc")
 @NamedQuery(name = "type.findByName",
+        hints = @QueryHint(name = EDSEntity.CACHEABLE, value = "true"),
         query = "select d from DataTypeEntity d " +
                 "where lower(d.name) = lower(:name)")
 @NamedQuery(name = "type.countUsage",
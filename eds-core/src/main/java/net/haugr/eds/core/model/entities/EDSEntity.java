@@ -33,6 +33,12 @@ import jakarta.persistence.MappedSuperclass;
 @MappedSuperclass
 public class EDSEntity {
 
+    /**
+     * Query Hint for the Named Queries of the read-mostly Entities, so the
+     * result is kept in the Query Cache, when it is enabled.
+     */
+    public static final String CACHEABLE = "org.hibernate.cacheable";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", unique = true, nullable = false, updatable = false)
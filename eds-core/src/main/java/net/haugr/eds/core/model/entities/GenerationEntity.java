@@ -0,0 +1,76 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Generation Entity, maps the Generation table from the Database.</p>
+ *
+ * <p>The Generations are only read as scalar values, so a Generation, which
+ * is increased in the current transaction, is never read from the
+ * Persistence Context.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Entity
+@NamedQuery(name = "generation.findAll",
+        query = "select g.name, g.generation " +
+                "from GenerationEntity g " +
+                "order by g.id asc")
+@NamedQuery(name = "generation.findByName",
+        query = "select g.generation " +
+                "from GenerationEntity g " +
+                "where g.name = :name")
+@NamedQuery(name = "generation.increment",
+        query = "update GenerationEntity g set " +
+                "  g.generation = g.generation + 1," +
+                "  g.altered = :altered " +
+                "where g.name = :name")
+@Table(name = "eds_generations")
+public class GenerationEntity extends EDSEntity {
+
+    @Column(name = "name", unique = true, nullable = false, updatable = false)
+    private String name = null;
+
+    @Column(name = "generation", nullable = false)
+    private Long generation = 0L;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setGeneration(final Long generation) {
+        this.generation = generation;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+}
@@ -19,10 +19,12 @@ package net.haugr.eds.core.model.entities;
 import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.enums.Status;
 import java.time.LocalDateTime;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 
 /**
@@ -32,6 +34,12 @@ import jakarta.persistence.Table;
  * @since EDS 1.0
  */
 @Entity
+@Cacheable
+@NamedQuery(name = "key.deleteUnused",
+        query = "delete from KeyEntity k " +
+                "where k.id = :id" +
+                "  and not exists (select d.id from DataEntity d where d.key = k)" +
+                "  and not exists (select t.id from TrusteeEntity t where t.key = k)")
 @Table(name = "eds_keys")
 public class KeyEntity extends EDSEntity {
 
@@ -43,10 +51,10 @@ public class KeyEntity extends EDSEntity {
     @Column(name = "status", nullable = false)
     private Status status = null;
 
-    @Column(name = "expires", updatable = false)
+    @Column(name = "expires")
     private LocalDateTime expires = null;
 
-    @Column(name = "grace_period", updatable = false)
+    @Column(name = "grace_period")
     private Integer gracePeriod = null;
 
     // =========================================================================
@@ -0,0 +1,144 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Master Key Rotation Entity, maps the Master Key Rotation table from
+ * the Database. A Master Key Rotation exists from the moment the Master Key
+ * is replaced on an installation with Member Accounts, until all Salts and
+ * Initial Vectors have been migrated to the new Master Key.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@Entity
+@NamedQuery(name = "masterkey.findAll",
+        query = "select r " +
+                "from MasterKeyRotationEntity r " +
+                "order by r.id asc")
+@Table(name = "eds_masterkey_rotations")
+public class MasterKeyRotationEntity extends EDSEntity {
+
+    private static final int INSTANCES_LENGTH = 1024;
+
+    @Column(name = "previous_key", nullable = false, updatable = false)
+    private String previousKey = null;
+
+    @Column(name = "last_member_id", nullable = false)
+    private Long lastMemberId = 0L;
+
+    @Column(name = "last_data_id", nullable = false)
+    private Long lastDataId = 0L;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed = 0L;
+
+    @Column(name = "ready_instances", length = INSTANCES_LENGTH)
+    private String readyInstances = null;
+
+    @Column(name = "active_instances", length = INSTANCES_LENGTH)
+    private String activeInstances = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    /**
+     * Sets the previous Master Key, encrypted with the new Master Key, so
+     * the migration can be resumed after a restart.
+     *
+     * @param previousKey Previous Master Key, encrypted with the new
+     */
+    public void setPreviousKey(final String previousKey) {
+        this.previousKey = previousKey;
+    }
+
+    public String getPreviousKey() {
+        return previousKey;
+    }
+
+    /**
+     * Sets the Id of the last migrated Member, the migration of the Member
+     * Salts is resumed from here.
+     *
+     * @param lastMemberId Id of the last migrated Member
+     */
+    public void setLastMemberId(final Long lastMemberId) {
+        this.lastMemberId = lastMemberId;
+    }
+
+    public Long getLastMemberId() {
+        return lastMemberId;
+    }
+
+    /**
+     * Sets the Id of the last migrated Data, the migration of the Initial
+     * Vectors is resumed from here.
+     *
+     * @param lastDataId Id of the last migrated Data
+     */
+    public void setLastDataId(final Long lastDataId) {
+        this.lastDataId = lastDataId;
+    }
+
+    public Long getLastDataId() {
+        return lastDataId;
+    }
+
+    public void setProcessed(final Long processed) {
+        this.processed = processed;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Sets the comma separated registrations of the EDS instances, which
+     * have been given the new Master Key. Each registration is the identity
+     * of the running instance, and the time it last registered.
+     *
+     * @param readyInstances EDS instances with the new Master Key
+     */
+    public void setReadyInstances(final String readyInstances) {
+        this.readyInstances = readyInstances;
+    }
+
+    public String getReadyInstances() {
+        return readyInstances;
+    }
+
+    /**
+     * Sets the comma separated registrations of the EDS instances, which are
+     * using the new Master Key for new information. The migration only runs,
+     * once all EDS instances are using it.
+     *
+     * @param activeInstances EDS instances using the new Master Key
+     */
+    public void setActiveInstances(final String activeInstances) {
+        this.activeInstances = activeInstances;
+    }
+
+    public String getActiveInstances() {
+        return activeInstances;
+    }
+}
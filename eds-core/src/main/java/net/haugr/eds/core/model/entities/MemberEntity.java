@@ -19,7 +19,6 @@ package net.haugr.eds.core.model.entities;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.core.enums.KeyAlgorithm;
-import java.time.LocalDateTime;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -41,10 +40,6 @@ import jakarta.persistence.Table;
         query = "select m " +
                 "from MemberEntity m " +
                 "where lower(m.name) = lower(:name)")
-@NamedQuery(name = "member.findByChecksum",
-        query = "select m " +
-                "from MemberEntity m " +
-                "where m.sessionChecksum = :checksum")
 @NamedQuery(name = "member.findByRole",
         query = "select m " +
                 "from MemberEntity m " +
@@ -55,12 +50,16 @@ import jakarta.persistence.Table;
                 "from TrusteeEntity e " +
                 "where lower(e.member.name) = lower(:name)" +
                 "  and e.circle.externalId = :externalCircleId")
-@NamedQuery(name = "member.removeExpiredSessions",
-        query = "update MemberEntity set" +
-                "  sessionChecksum = null," +
-                "  sessionCrypto = null," +
-                "  sessionExpire = null " +
-                "where sessionExpire > current_timestamp")
+@NamedQuery(name = "member.findForMasterKey",
+        query = "select m.id, m.salt " +
+                "from MemberEntity m " +
+                "where m.id > :lastId " +
+                "order by m.id asc")
+@NamedQuery(name = "member.updateSalt",
+        query = "update MemberEntity m " +
+                "set m.salt = :newSalt " +
+                "where m.id = :id" +
+                "  and m.salt = :oldSalt")
 @Table(name = "eds_members")
 public class MemberEntity extends Externable {
 
@@ -91,15 +90,6 @@ public class MemberEntity extends Externable {
     @Column(name = "member_role", nullable = false, length = 10)
     private MemberRole memberRole = null;
 
-    @Column(name = "session_checksum", length = 256)
-    private String sessionChecksum = null;
-
-    @Column(name = "session_crypto", length = 16384)
-    private String sessionCrypto = null;
-
-    @Column(name = "session_expire")
-    private LocalDateTime sessionExpire = null;
-
     // =========================================================================
     // Entity Setters & Getters
     // =========================================================================
@@ -167,28 +157,4 @@ public class MemberEntity extends Externable {
     public MemberRole getMemberRole() {
         return memberRole;
     }
-
-    public void setSessionChecksum(final String sessionChecksum) {
-        this.sessionChecksum = sessionChecksum;
-    }
-
-    public String getSessionChecksum() {
-        return sessionChecksum;
-    }
-
-    public void setSessionCrypto(final String sessionCrypto) {
-        this.sessionCrypto = sessionCrypto;
-    }
-
-    public String getSessionCrypto() {
-        return sessionCrypto;
-    }
-
-    public void setSessionExpire(final LocalDateTime sessionExpire) {
-        this.sessionExpire = sessionExpire;
-    }
-
-    public LocalDateTime getSessionExpire() {
-        return sessionExpire;
-    }
 }
@@ -54,7 +54,8 @@ import jakarta.persistence.Table;
                 "     TrusteeEntity t " +
                 "where m.circle.id = t.circle.id" +
                 "  and t.member = :member" +
-                "  and m.parentId = :parentId " +
+                "  and m.parentId = :parentId" +
+                "  and m.id < :lastId " +
                 "order by m.id desc")
 @NamedQuery(name = "metadata.findRootByMemberAndCircle",
         query = "select m " +
@@ -67,28 +68,41 @@ import jakarta.persistence.Table;
                 "  and m.name = '/'" +
                 "  and m.parentId = 0 " +
                 "order by m.id desc")
-@NamedQuery(name = "metadata.findInFolder",
-        query = "select m " +
-                "from MetadataEntity m," +
-                "     TrusteeEntity t " +
-                "where m.circle.id = t.circle.id" +
-                "  and t.member = :member" +
-                "  and m.parentId = :parentId" +
-                "  and lower(m.name) = lower(:name)")
-@NamedQuery(name = "metadata.findByNameAndFolder",
-        query = "select m " +
-                "from MetadataEntity m " +
-                "where m.id <> :id" +
-                "  and m.name = :name" +
-                "  and m.parentId = :parentId")
 @NamedQuery(name = "metadata.countFolderContent",
-        query = "select count(m.id) " +
+        query = "select m.children " +
+                "from MetadataEntity m " +
+                "where m.id = :parentId")
+@NamedQuery(name = "metadata.findNamesInFolder",
+        query = "select lower(m.name) " +
+                "from MetadataEntity m " +
+                "where m.parentId = :parentId" +
+                "  and lower(m.name) in :names")
+@NamedQuery(name = "metadata.findIdsByNameInFolder",
+        query = "select m.id " +
                 "from MetadataEntity m " +
-                "where m.parentId = :parentId")
+                "where m.parentId = :parentId" +
+                "  and lower(m.name) = lower(:name)" +
+                "  and m.circle.id = :circleId")
+@NamedQuery(name = "metadata.updateChildren",
+        query = "update MetadataEntity m set" +
+                "  m.children = m.children + :delta " +
+                "where m.id = :id")
+@NamedQuery(name = "metadata.findFoldersToRepair",
+        query = "select f.id " +
+                "from MetadataEntity f " +
+                "where f.type.name = 'folder'" +
+                "  and f.children <> (select count(c.id) from MetadataEntity c where c.parentId = f.id) " +
+                "order by f.id asc")
+@NamedQuery(name = "metadata.repairChildren",
+        query = "update MetadataEntity f set" +
+                "  f.children = (select count(c.id) from MetadataEntity c where c.parentId = f.id) " +
+                "where f.id = :id" +
+                "  and f.children <> (select count(c.id) from MetadataEntity c where c.parentId = f.id)")
 @NamedQuery(name = "metadata.readInventoryRecords",
         query = "select m " +
                 "from MetadataEntity m " +
-                "where m.type.name <> 'folder' " +
+                "where m.type.name <> 'folder'" +
+                "  and m.id < :lastId " +
                 "order by m.id desc")
 @NamedQuery(name = "metadata.countInventoryRecords",
         query = "select count(m.id) " +
@@ -111,6 +125,12 @@ public class MetadataEntity extends Externable {
     @Column(name = "name", length = Constants.MAX_NAME_LENGTH)
     private String name = null;
 
+    // The number of children is only maintained for folders, and is always
+    // updated directly in the database, so concurrent changes to the folder
+    // content are not lost.
+    @Column(name = "children", insertable = false, updatable = false)
+    private Long children = 0L;
+
     // =========================================================================
     // Entity Setters & Getters
     // =========================================================================
@@ -146,4 +166,8 @@ public class MetadataEntity extends Externable {
     public String getName() {
         return name;
     }
+
+    public Long getChildren() {
+        return children;
+    }
 }
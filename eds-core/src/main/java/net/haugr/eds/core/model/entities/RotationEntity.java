@@ -0,0 +1,147 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import net.haugr.eds.api.common.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Rotation Entity, maps the Rotation table from the Database. A
+ * Rotation exists from the moment a Circle Key is replaced, until all Data
+ * protected by the previous Key has been migrated to the new Key.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+@Entity
+@NamedQuery(name = "rotation.findByOldKey",
+        query = "select r " +
+                "from RotationEntity r " +
+                "where r.oldKey = :key")
+@NamedQuery(name = "rotation.findByCircle",
+        query = "select r " +
+                "from RotationEntity r " +
+                "where r.circle = :circle")
+@NamedQuery(name = "rotation.findAll",
+        query = "select r " +
+                "from RotationEntity r " +
+                "order by r.id asc")
+@Table(name = "eds_rotations")
+public class RotationEntity extends EDSEntity {
+
+    @ManyToOne(targetEntity = CircleEntity.class, fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "circle_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private CircleEntity circle = null;
+
+    @OneToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "old_key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private KeyEntity oldKey = null;
+
+    @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "new_key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private KeyEntity newKey = null;
+
+    @Column(name = "wrapped_key", nullable = false, updatable = false, length = Constants.MAX_STRING_LENGTH)
+    private String wrappedKey = null;
+
+    @Column(name = "last_data_id", nullable = false)
+    private Long lastDataId = 0L;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed = 0L;
+
+    @Column(name = "total", nullable = false)
+    private Long total = 0L;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setCircle(final CircleEntity circle) {
+        this.circle = circle;
+    }
+
+    public CircleEntity getCircle() {
+        return circle;
+    }
+
+    public void setOldKey(final KeyEntity oldKey) {
+        this.oldKey = oldKey;
+    }
+
+    public KeyEntity getOldKey() {
+        return oldKey;
+    }
+
+    public void setNewKey(final KeyEntity newKey) {
+        this.newKey = newKey;
+    }
+
+    public KeyEntity getNewKey() {
+        return newKey;
+    }
+
+    /**
+     * Sets the previous Circle Key, wrapped with the new Circle Key.
+     *
+     * @param wrappedKey Wrapped and armored previous Circle Key
+     */
+    public void setWrappedKey(final String wrappedKey) {
+        this.wrappedKey = wrappedKey;
+    }
+
+    public String getWrappedKey() {
+        return wrappedKey;
+    }
+
+    /**
+     * Sets the Id of the last migrated Data, the migration is resumed from
+     * here.
+     *
+     * @param lastDataId Id of the last migrated Data
+     */
+    public void setLastDataId(final Long lastDataId) {
+        this.lastDataId = lastDataId;
+    }
+
+    public Long getLastDataId() {
+        return lastDataId;
+    }
+
+    public void setProcessed(final Long processed) {
+        this.processed = processed;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public void setTotal(final Long total) {
+        this.total = total;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Sanity Lease Entity, maps the Sanity Leases table from the
+ * Database. A Lease gives an EDS instance the exclusive right to check the
+ * range of Data starting with the given Id, until it expires. The Lease also
+ * holds the checkpoint, the last Id checked, if the range was not completed,
+ * so the next instance can resume the check from there.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Entity
+@NamedQuery(name = "lease.findByRangeStart",
+        query = "select l from SanityLeaseEntity l " +
+                "where l.rangeStart = :rangeStart")
+@NamedQuery(name = "lease.claim",
+        query = "update SanityLeaseEntity l set" +
+                "  l.owner = :owner," +
+                "  l.expires = :expires," +
+                "  l.altered = :now " +
+                "where l.rangeStart = :rangeStart" +
+                "  and l.expires < :now")
+@NamedQuery(name = "lease.renew",
+        query = "update SanityLeaseEntity l set" +
+                "  l.expires = :expires," +
+                "  l.checkpoint = :checkpoint," +
+                "  l.altered = :now " +
+                "where l.rangeStart = :rangeStart" +
+                "  and l.owner = :owner")
+@NamedQuery(name = "lease.release",
+        query = "update SanityLeaseEntity l set" +
+                "  l.expires = :now," +
+                "  l.altered = :now " +
+                "where l.rangeStart = :rangeStart" +
+                "  and l.owner = :owner")
+@NamedQuery(name = "lease.complete",
+        query = "update SanityLeaseEntity l set" +
+                "  l.expires = :now," +
+                "  l.checkpoint = null," +
+                "  l.altered = :now " +
+                "where l.rangeStart = :rangeStart" +
+                "  and l.owner = :owner")
+@NamedQuery(name = "lease.removeExpired",
+        query = "delete from SanityLeaseEntity l " +
+                "where l.expires < :expires")
+@Table(name = "eds_sanity_leases")
+public class SanityLeaseEntity extends EDSEntity {
+
+    @Column(name = "range_start", nullable = false, updatable = false)
+    private Long rangeStart = null;
+
+    @Column(name = "owner", nullable = false, length = 256)
+    private String owner = null;
+
+    @Column(name = "checkpoint")
+    private Long checkpoint = null;
+
+    @Column(name = "expires", nullable = false)
+    private LocalDateTime expires = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setRangeStart(final Long rangeStart) {
+        this.rangeStart = rangeStart;
+    }
+
+    public Long getRangeStart() {
+        return rangeStart;
+    }
+
+    public void setOwner(final String owner) {
+        this.owner = owner;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setCheckpoint(final Long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public Long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setExpires(final LocalDateTime expires) {
+        this.expires = expires;
+    }
+
+    public LocalDateTime getExpires() {
+        return expires;
+    }
+}
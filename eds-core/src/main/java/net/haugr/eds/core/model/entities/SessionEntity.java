@@ -0,0 +1,106 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model.entities;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * <p>EDS Session Entity, maps the Sessions table from the Database. A Member
+ * may have multiple active Sessions, i.e. one per device or browser. The
+ * Session is found via the lookup key, which is a keyed HMAC of the Session
+ * Key, and holds the Member's Private Key, encrypted with both the Session
+ * Key and the MasterKey.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Entity
+@NamedQuery(name = "session.findByLookupKey",
+        query = "select s " +
+                "from SessionEntity s" +
+                "  join fetch s.member " +
+                "where s.lookupKey = :lookupKey")
+@NamedQuery(name = "session.findByMember",
+        query = "select s " +
+                "from SessionEntity s " +
+                "where s.member = :member " +
+                "order by s.expires asc, s.id asc")
+@NamedQuery(name = "session.removeForMember",
+        query = "delete from SessionEntity s " +
+                "where s.member = :member")
+@NamedQuery(name = "session.removeExpired",
+        query = "delete from SessionEntity s " +
+                "where s.expires <= :now")
+@Table(name = "eds_sessions")
+public class SessionEntity extends EDSEntity {
+
+    @ManyToOne(targetEntity = MemberEntity.class, fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private MemberEntity member = null;
+
+    @Column(name = "lookup_key", unique = true, nullable = false, updatable = false, length = 256)
+    private String lookupKey = null;
+
+    @Column(name = "crypto", nullable = false, length = 16384)
+    private String crypto = null;
+
+    @Column(name = "expires", nullable = false)
+    private LocalDateTime expires = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setMember(final MemberEntity member) {
+        this.member = member;
+    }
+
+    public MemberEntity getMember() {
+        return member;
+    }
+
+    public void setLookupKey(final String lookupKey) {
+        this.lookupKey = lookupKey;
+    }
+
+    public String getLookupKey() {
+        return lookupKey;
+    }
+
+    public void setCrypto(final String crypto) {
+        this.crypto = crypto;
+    }
+
+    public String getCrypto() {
+        return crypto;
+    }
+
+    public void setExpires(final LocalDateTime expires) {
+        this.expires = expires;
+    }
+
+    public LocalDateTime getExpires() {
+        return expires;
+    }
+}
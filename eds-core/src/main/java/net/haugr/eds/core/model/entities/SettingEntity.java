@@ -16,9 +16,11 @@
  */
 package net.haugr.eds.core.model.entities;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Table;
 
 /**
@@ -28,12 +30,20 @@ import jakarta.persistence.Table;
  * @since EDS 1.0
  */
 @Entity
+@Cacheable
 @NamedQuery(name = "setting.readAll",
         query = "select s from SettingEntity s " +
                 "order by s.name asc")
 @NamedQuery(name = "setting.findByName",
+        hints = @QueryHint(name = EDSEntity.CACHEABLE, value = "true"),
         query = "select s from SettingEntity s " +
                 "where s.name = :name")
+@NamedQuery(name = "setting.findChanged",
+        query = "select s from SettingEntity s " +
+                "where s.generation > :generation " +
+                "order by s.id asc")
+@NamedQuery(name = "setting.findNames",
+        query = "select s.name from SettingEntity s")
 @Table(name = "eds_settings")
 public class SettingEntity extends EDSEntity {
 
@@ -43,6 +53,9 @@ public class SettingEntity extends EDSEntity {
     @Column(name = "setting")
     private String setting = null;
 
+    @Column(name = "generation", nullable = false)
+    private Long generation = 0L;
+
     // =========================================================================
     // Entity Setters & Getters
     // =========================================================================
@@ -62,4 +75,12 @@ public class SettingEntity extends EDSEntity {
     public String getSetting() {
         return setting;
     }
+
+    public void setGeneration(final Long generation) {
+        this.generation = generation;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
 }
@@ -40,13 +40,18 @@ import jakarta.persistence.Table;
                 "where t.member = :member" +
                 "  and t.trustLevel in :permissions " +
                 "order by t.id asc")
+@NamedQuery(name = "trust.findIdByMember",
+        query = "select t.id " +
+                "from TrusteeEntity t " +
+                "where t.member = :member" +
+                "  and t.trustLevel in :permissions")
 @NamedQuery(name = "trust.findByMemberAndExternalCircleId",
         query = "select t " +
                 "from TrusteeEntity t " +
                 "where t.member = :member" +
                 "  and t.circle.externalId = :externalCircleId " +
                 "  and t.trustLevel in :permissions " +
-                "order by t.member.name asc")
+                "order by t.id asc")
 @NamedQuery(name = "trustee.findByCircleAndMember",
         query = "select t " +
                 "from TrusteeEntity t " +
@@ -92,7 +97,7 @@ public class TrusteeEntity extends EDSEntity {
     private CircleEntity circle = null;
 
     @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
-    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false)
     private KeyEntity key = null;
 
     @Column(name = "trust_level", nullable = false)
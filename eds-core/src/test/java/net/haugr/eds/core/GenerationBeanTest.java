@@ -0,0 +1,152 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.requests.ProcessCircleRequest;
+import net.haugr.eds.api.requests.SettingRequest;
+import net.haugr.eds.api.responses.ProcessCircleResponse;
+import net.haugr.eds.api.responses.SettingResponse;
+import net.haugr.eds.core.enums.Generation;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.model.Generations;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.SettingEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>The Generation Bean is tested as if it was running on another EDS
+ * instance, meaning that it has its own Settings, and the changes are made
+ * either directly in the Database or via a Management Bean with different
+ * Settings.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class GenerationBeanTest extends DatabaseSetup {
+
+    private final Generations generations = Generations.getInstance();
+    private final Settings otherSettings = newSettings();
+
+    @BeforeEach
+    void prepareGenerations() {
+        generations.initialize(dao.findGenerations());
+    }
+
+    @Test
+    void testPollWithoutChanges() {
+        final AtomicInteger notified = subscribe(Generation.SETTINGS);
+        final long known = generations.get(Generation.SETTINGS);
+
+        prepareGenerationBean().poll();
+        assertEquals(0, notified.get());
+        assertEquals(known, generations.get(Generation.SETTINGS));
+    }
+
+    @Test
+    void testReloadChangedSettings() {
+        final String key = "eds.generation.test";
+        final long generation = dao.nextGeneration(Generation.SETTINGS);
+        final SettingEntity entity = new SettingEntity();
+        entity.setName(key);
+        entity.setSetting("changed");
+        entity.setGeneration(generation);
+        save(entity);
+        final AtomicInteger notified = subscribe(Generation.SETTINGS);
+
+        final GenerationBean bean = prepareGenerationBean();
+        bean.poll();
+        assertEquals("changed", otherSettings.get(key));
+        assertEquals(generation, generations.get(Generation.SETTINGS));
+        assertEquals(1, notified.get());
+
+        // Polling again, without any changes, must not notify again.
+        bean.poll();
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    void testReloadDeletedSettings() {
+        final String key = "eds.generation.deleted";
+        otherSettings.set(key, "deleted");
+        dao.nextGeneration(Generation.SETTINGS);
+
+        prepareGenerationBean().poll();
+        assertNull(otherSettings.get(key));
+        assertEquals(StandardSetting.values().length, otherSettings.keys().size());
+    }
+
+    @Test
+    void testSettingsFromOtherInstance() {
+        final String key = "eds.generation.request";
+        final long before = generations.get(Generation.SETTINGS);
+        final ManagementBean bean = prepareManagementBean(newSettings());
+        final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
+        final Map<String, String> changes = new HashMap<>();
+        changes.put(key, "From another EDS instance");
+        request.setSettings(changes);
+        final SettingResponse response = bean.settings(request);
+        assertTrue(response.isOk());
+        assertNull(otherSettings.get(key));
+
+        prepareGenerationBean().poll();
+        assertEquals("From another EDS instance", otherSettings.get(key));
+        assertEquals(before + 1, generations.get(Generation.SETTINGS));
+    }
+
+    @Test
+    void testCircleChangesNotifiesSubscribers() {
+        final AtomicInteger circles = subscribe(Generation.CIRCLES);
+        final AtomicInteger dataTypes = subscribe(Generation.DATATYPES);
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.CREATE);
+        request.setMemberId(MEMBER_1_ID);
+        request.setCircleName("Generation Circle");
+        final ProcessCircleResponse response = bean.processCircle(request);
+        assertTrue(response.isOk());
+
+        prepareGenerationBean().poll();
+        assertEquals(1, circles.get());
+        assertEquals(0, dataTypes.get());
+    }
+
+    private AtomicInteger subscribe(final Generation generation) {
+        final AtomicInteger counter = new AtomicInteger(0);
+        generations.subscribe(generation, counter::incrementAndGet);
+
+        return counter;
+    }
+
+    private GenerationBean prepareGenerationBean() {
+        final GenerationBean bean = new GenerationBean();
+        inject(bean, entityManager);
+        inject(bean, otherSettings);
+
+        return bean;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.CacheRegion;
+import net.haugr.eds.api.requests.CacheRequest;
+import net.haugr.eds.api.responses.CacheResponse;
+import net.haugr.eds.core.model.entities.DataTypeEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Test class for the Cache Statistics of the Management Bean.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class ManagementBeanCacheTest extends DatabaseSetup {
+
+    @Test
+    void testEmptyRequest() {
+        final ManagementBean bean = prepareManagementBean();
+        final CacheRequest request = new CacheRequest();
+
+        final CacheResponse response = bean.caches(request);
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Request Object contained errors:" +
+                "\nKey: credential, Error: The Session (Credential) is missing.", response.getReturnMessage());
+    }
+
+    @Test
+    void testReadingCachesAsMember() {
+        final ManagementBean bean = prepareManagementBean();
+        final CacheRequest request = prepareRequest(CacheRequest.class, MEMBER_1);
+
+        final CacheResponse response = bean.caches(request);
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Cannot complete this request, as it is only allowed for the System Administrator.", response.getReturnMessage());
+    }
+
+    @Test
+    void testReadingCaches() {
+        final ManagementBean bean = prepareManagementBean();
+
+        // The DataType is first read from the Database, and then from the
+        // Caches, as it is no longer in the Persistence Context. Entities
+        // cached during a Session, are only read from the Cache by later
+        // Sessions.
+        final DataTypeEntity dataType = dao.findDataTypeByName(Constants.DATA_TYPENAME);
+        entityManager.clear();
+        assertEquals(dataType.getId(), dao.findDataTypeByName(Constants.DATA_TYPENAME).getId());
+        final EntityManager laterEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            assertEquals(dataType.getName(), laterEntityManager.find(DataTypeEntity.class, dataType.getId()).getName());
+        } finally {
+            laterEntityManager.close();
+        }
+
+        final CacheRequest request = prepareRequest(CacheRequest.class, Constants.ADMIN_ACCOUNT);
+        final CacheResponse response = bean.caches(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        final CacheRegion entityRegion = findRegion(response, DataTypeEntity.class.getName());
+        assertTrue(entityRegion.getHits() > 0);
+        assertTrue(entityRegion.getHitRatio() > 0);
+        assertTrue(entityRegion.getHitRatio() <= 1);
+        final CacheRegion queryRegion = findRegion(response, "default-query-results-region");
+        assertTrue(queryRegion.getHits() > 0);
+    }
+
+    @Test
+    void testEvictingCaches() {
+        final ManagementBean bean = prepareManagementBean();
+        final DataTypeEntity dataType = dao.findDataTypeByName(Constants.DATA_TYPENAME);
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        assertTrue(cache.contains(DataTypeEntity.class, dataType.getId()));
+
+        final CacheRequest request = prepareRequest(CacheRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setEvict(true);
+        final CacheResponse response = bean.caches(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertFalse(response.getRegions().isEmpty());
+        assertNotNull(response.getKeyPairPool());
+        assertFalse(cache.contains(DataTypeEntity.class, dataType.getId()));
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static CacheRegion findRegion(final CacheResponse response, final String name) {
+        return response.getRegions().stream()
+                .filter(region -> region.getRegion().endsWith(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
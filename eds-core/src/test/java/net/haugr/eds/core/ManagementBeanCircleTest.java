@@ -17,6 +17,7 @@
 package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -40,6 +41,8 @@ import net.haugr.eds.api.responses.ProcessTrusteeResponse;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import net.haugr.eds.core.enums.StandardSetting;
 import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -474,6 +477,74 @@ final class ManagementBeanCircleTest extends DatabaseSetup {
         assertEquals("No Circle could be found with the given Id.", response.getReturnMessage());
     }
 
+    @Test
+    void testRotateCircleKeyAsCircleMember() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, MEMBER_2);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(CIRCLE_1_ID);
+
+        final ProcessCircleResponse response = bean.processCircle(request);
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Only a Circle Administrator may perform this action.", response.getReturnMessage());
+    }
+
+    @Test
+    void testRotateCircleKeyAsAdmin() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(CIRCLE_1_ID);
+
+        final ProcessCircleResponse response = bean.processCircle(request);
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Only a Circle Administrator may replace the Circle Key.", response.getReturnMessage());
+    }
+
+    @Test
+    void testRotateCircleKeyOfEmptyCircle() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest createRequest = prepareRequest(ProcessCircleRequest.class, MEMBER_1);
+        createRequest.setAction(Action.CREATE);
+        createRequest.setCircleName("Empty Circle");
+        final ProcessCircleResponse createResponse = bean.processCircle(createRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), createResponse.getReturnCode());
+        final Long oldKeyId = dao.findTrusteeByCircleAndMember(createResponse.getCircleId(), MEMBER_1_ID).getKey().getId();
+
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, MEMBER_1);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(createResponse.getCircleId());
+        final ProcessCircleResponse response = bean.processCircle(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertEquals("The Circle 'Empty Circle' has been given a new Circle Key, 0 Data Objects will be migrated in the background.", response.getReturnMessage());
+
+        // Without any Data, there is nothing to migrate, so the previous Key
+        // is removed right away.
+        final TrusteeEntity trustee = dao.findTrusteeByCircleAndMember(createResponse.getCircleId(), MEMBER_1_ID);
+        assertNotEquals(oldKeyId, trustee.getKey().getId());
+        assertNull(find(KeyEntity.class, oldKeyId));
+    }
+
+    @Test
+    void testRotateCircleKeyTwice() {
+        final ProcessDataResponse dataResponse = prepareShareBean().processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Rotated Data", 512));
+        assertEquals(ReturnCode.SUCCESS.getCode(), dataResponse.getReturnCode());
+
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, MEMBER_1);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(CIRCLE_1_ID);
+        final ProcessCircleResponse response = bean.processCircle(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        final ProcessCircleRequest secondRequest = prepareRequest(ProcessCircleRequest.class, MEMBER_1);
+        secondRequest.setAction(Action.ROTATE);
+        secondRequest.setCircleId(CIRCLE_1_ID);
+        final ProcessCircleResponse secondResponse = bean.processCircle(secondRequest);
+        assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), secondResponse.getReturnCode());
+        assertEquals("The Circle Key is still being replaced, please try again later.", secondResponse.getReturnMessage());
+    }
+
     // =========================================================================
     // Internal Helper Methods
     // =========================================================================
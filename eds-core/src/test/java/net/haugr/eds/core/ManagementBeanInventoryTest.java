@@ -17,9 +17,15 @@
 package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.Metadata;
 import net.haugr.eds.api.requests.InventoryRequest;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.responses.InventoryResponse;
@@ -88,4 +94,62 @@ final class ManagementBeanInventoryTest extends DatabaseSetup {
         assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
         assertEquals(0, response.getInventory().size());
     }
+
+    @Test
+    void testReadingInventoryWithCursor() {
+        final ManagementBean bean = prepareManagementBean();
+        final ShareBean shareBean = prepareShareBean();
+        for (int i = 0; i < 10; i++) {
+            final ProcessDataRequest dataRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "DataObject" + i, 32);
+            assertEquals(ReturnCode.SUCCESS.getCode(), shareBean.processData(dataRequest).getReturnCode());
+        }
+
+        // Reading the Inventory with the Cursor, must give the same records
+        // as reading it with the Page Number.
+        final Set<String> dataIds = new HashSet<>();
+        String cursor = null;
+        for (int page = 1; page <= 3; page++) {
+            final InventoryRequest request = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
+            request.setPageSize(4);
+            request.setCursor(cursor);
+            final InventoryResponse response = bean.inventory(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals(10, response.getRecords());
+
+            final InventoryRequest pageRequest = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
+            pageRequest.setPageSize(4);
+            pageRequest.setPageNumber(page);
+            assertEquals(toDataIds(bean.inventory(pageRequest)), toDataIds(response));
+
+            dataIds.addAll(toDataIds(response));
+            cursor = response.getNextCursor();
+        }
+
+        assertEquals(10, dataIds.size());
+        assertNull(cursor);
+    }
+
+    @Test
+    void testReadingInventoryWithInvalidCursor() {
+        final ManagementBean bean = prepareManagementBean();
+        final InventoryRequest request = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setCursor("-");
+
+        final InventoryResponse response = bean.inventory(request);
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The Cursor is invalid.", response.getReturnMessage());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static List<String> toDataIds(final InventoryResponse response) {
+        final List<String> dataIds = new ArrayList<>(response.getInventory().size());
+        for (final Metadata metadata : response.getInventory()) {
+            dataIds.add(metadata.getDataId());
+        }
+
+        return dataIds;
+    }
 }
@@ -18,11 +18,14 @@ package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.FetchCircleRequest;
 import net.haugr.eds.api.requests.MasterKeyRequest;
+import net.haugr.eds.api.responses.FetchCircleResponse;
 import net.haugr.eds.api.responses.MasterKeyResponse;
 import net.haugr.eds.core.enums.StandardSetting;
 import net.haugr.eds.core.exceptions.EDSException;
@@ -215,9 +218,38 @@ final class ManagementBeanMasterKeyTest extends DatabaseSetup {
         final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
         request.setSecret("MasterKey".getBytes(Charset.defaultCharset()));
 
-        final MasterKeyResponse response = bean.masterKey(request);
-        assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), response.getReturnCode());
-        assertEquals("Cannot alter the MasterKey, as Member Accounts exists.", response.getReturnMessage());
+        try {
+            final MasterKeyResponse response = bean.masterKey(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals("MasterKey updated, existing Accounts and Data will be migrated in the background.", response.getReturnMessage());
+            assertNotNull(dao.findMasterKeyRotation());
+
+            // The Member Salts have not yet been migrated, but the Members
+            // can still access EDS, via the previous MasterKey.
+            final FetchCircleResponse fetchResponse = bean.fetchCircles(prepareRequest(FetchCircleRequest.class, MEMBER_1));
+            assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+
+            // Until the migration has completed, the MasterKey cannot be
+            // replaced again.
+            final MasterKeyRequest secondRequest = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+            secondRequest.setSecret("Another MasterKey".getBytes(Charset.defaultCharset()));
+            final MasterKeyResponse secondResponse = bean.masterKey(secondRequest);
+            assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), secondResponse.getReturnCode());
+            assertEquals("Cannot alter the MasterKey, as it is still being replaced.", secondResponse.getReturnMessage());
+
+            // Unlocking with the new MasterKey, i.e. after a restart, must
+            // also restore the previous MasterKey.
+            final MasterKey masterKey = MasterKey.getInstance(settings);
+            masterKey.setPreviousKey(null);
+            final MasterKeyRequest unlockRequest = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+            unlockRequest.setSecret("MasterKey".getBytes(Charset.defaultCharset()));
+            final MasterKeyResponse unlockResponse = bean.masterKey(unlockRequest);
+            assertEquals(ReturnCode.SUCCESS.getCode(), unlockResponse.getReturnCode());
+            assertEquals("MasterKey unlocked.", unlockResponse.getReturnMessage());
+            assertNotNull(masterKey.getPreviousKey());
+        } finally {
+            resetMasterKey();
+        }
     }
 
     @Test
@@ -26,11 +26,13 @@ import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.CredentialType;
 import net.haugr.eds.api.common.MemberRole;
 import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.Authentication;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.FetchMemberRequest;
 import net.haugr.eds.api.requests.ProcessCircleRequest;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.requests.ProcessMemberRequest;
+import net.haugr.eds.api.responses.AuthenticateResponse;
 import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.FetchMemberResponse;
 import net.haugr.eds.api.responses.ProcessCircleResponse;
@@ -454,6 +456,86 @@ final class ManagementBeanProcessMemberTest extends DatabaseSetup {
         assertEquals("The Session has expired.", logoutResponse.getReturnMessage());
     }
 
+    @Test
+    void testLoginWithMultipleSessions() {
+        final String sessionKey1 = UUID.randomUUID().toString();
+        final String sessionKey2 = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean();
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey2)).getReturnCode());
+
+        // Both Sessions must be usable, as a Member may be logged in from
+        // multiple devices at the same time.
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey2)).getReturnCode());
+
+        // Logging out of one Session, must leave the other untouched
+        final ProcessMemberResponse logoutResponse = bean.processMember(prepareLogoutRequest(sessionKey1));
+        assertEquals(ReturnCode.SUCCESS.getCode(), logoutResponse.getReturnCode());
+
+        final AuthenticateResponse response1 = bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey1));
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response1.getReturnCode());
+        assertEquals("No Session could be found.", response1.getReturnMessage());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey2)).getReturnCode());
+    }
+
+    @Test
+    void testLoginBeyondMaxSessionsEndsOldestSession() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SESSION_MAX_PER_MEMBER, "2");
+        final String sessionKey1 = UUID.randomUUID().toString();
+        final String sessionKey2 = UUID.randomUUID().toString();
+        final String sessionKey3 = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean(mySettings);
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey2)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey1)).getReturnCode());
+
+        // Logging in again with an existing Session Key replaces the
+        // Session, so no other Session is ended.
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey2)).getReturnCode());
+
+        // A third Session ends the oldest, which is now the second Session.
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey3)).getReturnCode());
+        final AuthenticateResponse response = bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey2));
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("No Session could be found.", response.getReturnMessage());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey3)).getReturnCode());
+    }
+
+    @Test
+    void testLogoutWithPassphraseRemovesAllSessions() {
+        final String sessionKey1 = UUID.randomUUID().toString();
+        final String sessionKey2 = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean();
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey2)).getReturnCode());
+
+        final ProcessMemberRequest logoutRequest = prepareRequest(ProcessMemberRequest.class, MEMBER_1);
+        logoutRequest.setAction(Action.LOGOUT);
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(logoutRequest).getReturnCode());
+
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey1)).getReturnCode());
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey2)).getReturnCode());
+    }
+
+    @Test
+    void testLoginWithSessionKeyOfOtherMember() {
+        final String sessionKey = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean();
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey)).getReturnCode());
+
+        final ProcessMemberResponse response = bean.processMember(prepareLoginRequest(MEMBER_2, sessionKey));
+        assertEquals(ReturnCode.CONSTRAINT_ERROR.getCode(), response.getReturnCode());
+        assertEquals("The Session Key cannot be used.", response.getReturnMessage());
+
+        final AuthenticateResponse authenticated = bean.authenticated(prepareSessionRequest(Authentication.class, sessionKey));
+        assertEquals(ReturnCode.SUCCESS.getCode(), authenticated.getReturnCode());
+        assertEquals(MEMBER_1_ID, authenticated.getMemberId());
+    }
+
     @Test
     void testProcessSelf() {
         final String newName = "Supreme Member";
@@ -17,11 +17,15 @@
 package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.api.dtos.SanityProgress;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.requests.SanityRequest;
@@ -29,6 +33,7 @@ import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.ProcessDataResponse;
 import net.haugr.eds.api.responses.SanityResponse;
 import net.haugr.eds.core.enums.SanityStatus;
+import net.haugr.eds.core.model.SanityMetrics;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import org.junit.jupiter.api.Test;
 
@@ -46,6 +51,33 @@ final class ManagementBeanSanityTest extends DatabaseSetup {
         final SanityResponse response = bean.sanity(request);
         assertTrue(response.isOk());
         assertEquals(6, response.getSanities().size());
+        assertNotNull(response.getProgress());
+    }
+
+    @Test
+    void testProgressAsSystemAdministrator() {
+        final SanitizerBean sanitizer = new SanitizerBean();
+        inject(sanitizer, entityManager);
+        SanityMetrics.getInstance().started(sanitizer.countDueRecords() + 4);
+
+        final SanityRequest request = prepareRequest(SanityRequest.class, Constants.ADMIN_ACCOUNT);
+        final SanityResponse response = prepareManagementBean().sanity(request);
+        assertTrue(response.isOk());
+
+        // The Sanity check is running, and 4 of the due Data Objects have
+        // been checked, so the remaining can be estimated.
+        final SanityProgress progress = response.getProgress();
+        assertTrue(progress.isRunning());
+        assertEquals(4L, progress.getDue() - progress.getRemaining());
+        assertTrue(progress.getCompletion() > 0);
+        sanitizer.sanitize();
+
+        final SanityRequest completedRequest = prepareRequest(SanityRequest.class, Constants.ADMIN_ACCOUNT);
+        final SanityProgress completed = prepareManagementBean().sanity(completedRequest).getProgress();
+        assertFalse(completed.isRunning());
+        assertEquals(0L, completed.getRemaining());
+        assertEquals(1.0, completed.getCompletion());
+        assertNull(completed.getEstimatedCompletion());
     }
 
     @Test
@@ -68,6 +100,7 @@ final class ManagementBeanSanityTest extends DatabaseSetup {
         final SanityResponse response = bean.sanity(request);
         assertTrue(response.isOk());
         assertEquals(4, response.getSanities().size());
+        assertNull(response.getProgress());
     }
 
     @Test
@@ -18,11 +18,15 @@ package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import net.haugr.eds.api.common.Action;
 import net.haugr.eds.api.common.Constants;
 import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.ProcessMemberRequest;
 import net.haugr.eds.api.requests.SettingRequest;
+import net.haugr.eds.api.responses.ProcessMemberResponse;
 import net.haugr.eds.api.responses.SettingResponse;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import net.haugr.eds.core.enums.KeyAlgorithm;
@@ -315,6 +319,29 @@ final class ManagementBeanSettingsTest extends DatabaseSetup {
         assertEquals("Unsupported Crypto Algorithm for 'eds.crypto.symmetric.algorithm'.", response2.getReturnMessage());
     }
 
+    @Test
+    void testSetEllipticCurveAsymmetricAlgorithm() {
+        final ManagementBean bean = prepareManagementBean(newSettings());
+        final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
+        final Map<String, String> newSettings = new HashMap<>();
+        newSettings.put(StandardSetting.ASYMMETRIC_ALGORITHM.getKey(), "X25519");
+        request.setSettings(newSettings);
+
+        final SettingResponse response = bean.settings(request);
+        assertEquals(ReturnCode.SETTING_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Unsupported Crypto Algorithm for 'eds.crypto.asymmetric.algorithm'.", response.getReturnMessage());
+
+        // The Member Keys are also used for Signatures, which the Elliptic
+        // Curves X25519 and X448 cannot create, so the System Administrator
+        // can still sign Invitations.
+        final ProcessMemberRequest inviteRequest = prepareRequest(ProcessMemberRequest.class, Constants.ADMIN_ACCOUNT);
+        inviteRequest.setAction(Action.INVITE);
+        inviteRequest.setNewAccountName("ellipticInvitee");
+        final ProcessMemberResponse inviteResponse = bean.processMember(inviteRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), inviteResponse.getReturnCode());
+        assertNotNull(inviteResponse.getSignature());
+    }
+
     @Test
     void testInvalidCharset() {
         final ManagementBean bean = prepareManagementBean(newSettings());
@@ -366,6 +393,19 @@ final class ManagementBeanSettingsTest extends DatabaseSetup {
         assertEquals("The setting eds.masterkey.url may not be changed with this request.", response.getReturnMessage());
     }
 
+    @Test
+    void testUpdateBlobDirectorySetting() {
+        final ManagementBean bean = prepareManagementBean(newSettings());
+        final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
+        final Map<String, String> newSettings = new HashMap<>();
+        newSettings.put(StandardSetting.BLOB_DIRECTORY.getKey(), "/var/lib/eds/blobs");
+        request.setSettings(newSettings);
+
+        final SettingResponse response = bean.settings(request);
+        assertEquals(ReturnCode.SETTING_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The setting eds.data.blob.directory may not be changed with this request.", response.getReturnMessage());
+    }
+
     private static Map<String, String> prepareSettingsMap(final SettingResponse response) {
         final Map<String, String> mySettings = response.getSettings();
         mySettings.put(StandardSetting.SYMMETRIC_ALGORITHM.getKey(), KeyAlgorithm.AES_CBC_192.name());
@@ -0,0 +1,315 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Base64;
+import net.haugr.eds.api.common.Action;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.FetchDataRequest;
+import net.haugr.eds.api.requests.MasterKeyRequest;
+import net.haugr.eds.api.requests.ProcessCircleRequest;
+import net.haugr.eds.api.requests.ProcessDataRequest;
+import net.haugr.eds.api.responses.FetchDataResponse;
+import net.haugr.eds.api.responses.MasterKeyResponse;
+import net.haugr.eds.api.responses.ProcessCircleResponse;
+import net.haugr.eds.api.responses.ProcessDataResponse;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.enums.Status;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.jce.CircleKeyCache;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.MasterKey;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MasterKeyRotationEntity;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.RotationEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class RotationBeanTest extends DatabaseSetup {
+
+    private static final int SIZE = 512;
+
+    @Test
+    void testNothingToMigrate() {
+        assertFalse(prepareRotationBean().migrateBatch());
+    }
+
+    @Test
+    void testRotateAndMigrateCircleKey() {
+        final String[] dataIds = new String[3];
+        final byte[][] stored = new byte[3][];
+        for (int i = 0; i < dataIds.length; i++) {
+            final ProcessDataRequest request = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Rotated Data " + i, SIZE);
+            stored[i] = Arrays.copyOf(request.getData(), SIZE);
+            final ProcessDataResponse response = prepareShareBean().processData(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            dataIds[i] = response.getDataId();
+        }
+        prepareLegacyData(dataIds[2], stored[2]);
+        final byte[] encrypted = findDataEntity(dataIds[0]).getData();
+
+        final KeyEntity oldKey = dao.findTrusteeByCircleAndMember(CIRCLE_1_ID, MEMBER_1_ID).getKey();
+        final long total = dao.countDataByKey(oldKey);
+        final ProcessCircleResponse rotateResponse = rotate(MEMBER_1, CIRCLE_1_ID);
+        assertEquals(ReturnCode.SUCCESS.getCode(), rotateResponse.getReturnCode());
+        assertEquals("The Circle '" + CIRCLE_1 + "' has been given a new Circle Key, " + total + " Data Objects will be migrated in the background.", rotateResponse.getReturnMessage());
+        assertEquals(Status.DEPRECATED, oldKey.getStatus());
+        assertNotNull(oldKey.getExpires());
+
+        // Before the Data is migrated, it must be readable via the new Key.
+        // The legacy Data is not read here, as reading it will migrate it.
+        for (int i = 0; i < 2; i++) {
+            assertReadable(MEMBER_2, dataIds[i], stored[i]);
+        }
+
+        // With a batch size of 1, the first batch only migrates 1 Data Object
+        final RotationBean bean = prepareRotationBean();
+        assertTrue(bean.migrateBatch());
+        entityManager.flush();
+        entityManager.clear();
+        final RotationEntity rotation = dao.findRotationByCircle(dao.find(CircleEntity.class, CIRCLE_1_ID));
+        assertEquals(1L, rotation.getProcessed());
+        assertEquals(total, rotation.getTotal());
+        assertTrue(rotation.getLastDataId() > 0L);
+
+        int batches = 1;
+        while (bean.migrateBatch() && (batches < (total + 3))) {
+            batches++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertFalse(bean.migrateBatch());
+        assertNull(dao.findRotationByCircle(dao.find(CircleEntity.class, CIRCLE_1_ID)));
+        assertNull(find(KeyEntity.class, oldKey.getId()));
+        assertEquals(0L, dao.countDataByKey(oldKey));
+
+        // Only the Data Keys were migrated, the encrypted Data is untouched.
+        assertArrayEquals(encrypted, findDataEntity(dataIds[0]).getData());
+        for (int i = 0; i < dataIds.length; i++) {
+            assertReadable(MEMBER_1, dataIds[i], stored[i]);
+            assertReadable(MEMBER_3, dataIds[i], stored[i]);
+        }
+    }
+
+    @Test
+    void testMigrationWaitsForTrustee() {
+        final ProcessDataRequest dataRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Waiting Data", SIZE);
+        final byte[] stored = Arrays.copyOf(dataRequest.getData(), SIZE);
+        final ProcessDataResponse dataResponse = prepareShareBean().processData(dataRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), dataResponse.getReturnCode());
+        assertEquals(ReturnCode.SUCCESS.getCode(), rotate(MEMBER_1, CIRCLE_1_ID).getReturnCode());
+
+        // The new Circle Key is only kept in memory, so after a restart, the
+        // Data cannot be migrated, before a Trustee accesses the Circle.
+        CircleKeyCache.getInstance(settings).clear();
+        final RotationBean bean = prepareRotationBean();
+        assertFalse(bean.migrateBatch());
+        assertEquals(0L, dao.findRotationByCircle(dao.find(CircleEntity.class, CIRCLE_1_ID)).getProcessed());
+
+        assertReadable(MEMBER_2, dataResponse.getDataId(), stored);
+        int batches = 0;
+        while (bean.migrateBatch() && (batches < 200)) {
+            batches++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(dao.findRotationByCircle(dao.find(CircleEntity.class, CIRCLE_1_ID)));
+        assertReadable(MEMBER_1, dataResponse.getDataId(), stored);
+    }
+
+    @Test
+    void testRotateAndMigrateMasterKey() {
+        final ProcessDataRequest dataRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "MasterKey Data", SIZE);
+        final byte[] stored = Arrays.copyOf(dataRequest.getData(), SIZE);
+        final ProcessDataResponse dataResponse = prepareShareBean().processData(dataRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), dataResponse.getReturnCode());
+
+        // A pending Circle Key Rotation is not affected by the MasterKey.
+        assertEquals(ReturnCode.SUCCESS.getCode(), rotate(MEMBER_1, CIRCLE_1_ID).getReturnCode());
+
+        final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setSecret("New MasterKey".getBytes(Charset.defaultCharset()));
+
+        try {
+            final MasterKeyResponse response = prepareManagementBean().masterKey(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertReadable(MEMBER_2, dataResponse.getDataId(), stored);
+
+            final RotationBean bean = prepareRotationBean();
+            int batches = 0;
+            while (bean.migrateMasterKeyBatch() && (batches < 100)) {
+                batches++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            final MasterKey masterKey = MasterKey.getInstance(settings);
+            assertNull(masterKey.getPreviousKey());
+            assertNull(dao.findMasterKeyRotation());
+            for (final MemberEntity member : dao.findAllAscending(MemberEntity.class, "id")) {
+                assertNotNull(Crypto.decrypt(masterKey.getKey(), Base64.getDecoder().decode(member.getSalt())));
+            }
+            assertNotNull(Crypto.decrypt(masterKey.getKey(), Base64.getDecoder().decode(findDataEntity(dataResponse.getDataId()).getInitialVector())));
+
+            // With the MasterKey migrated, the Circle Key Rotation can run.
+            while (bean.migrateBatch() && (batches < 200)) {
+                batches++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+            assertNull(dao.findRotationByCircle(dao.find(CircleEntity.class, CIRCLE_1_ID)));
+            assertReadable(MEMBER_1, dataResponse.getDataId(), stored);
+        } finally {
+            resetMasterKey();
+        }
+    }
+
+    @Test
+    void testMasterKeyMigrationWaitsForAllInstances() {
+        final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setSecret("New MasterKey".getBytes(Charset.defaultCharset()));
+        settings.set(StandardSetting.CLUSTER_INSTANCES.getKey(), "2");
+
+        try {
+            final MasterKeyResponse response = prepareManagementBean().masterKey(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals("MasterKey updated, existing Accounts and Data will be migrated in the background, once all 2 EDS instances have been given the new MasterKey.", response.getReturnMessage());
+
+            // Only this instance has the new MasterKey, so the previous is
+            // still used, and nothing is migrated.
+            final RotationBean bean = prepareRotationBean();
+            final MasterKey masterKey = MasterKey.getInstance(settings);
+            assertFalse(bean.migrateMasterKeyBatch());
+            final MasterKeyRotationEntity rotation = dao.findMasterKeyRotation();
+            assertTrue(rotation.getActiveInstances().isEmpty());
+            final MemberEntity admin = dao.findAllAscending(MemberEntity.class, "id").get(0);
+            assertNotNull(Crypto.decrypt(masterKey.getKey(), Base64.getDecoder().decode(admin.getSalt())));
+
+            // An instance, which has stopped without renewing its
+            // registration, is not counted.
+            rotation.setReadyInstances(rotation.getReadyInstances() + ",stopped=1");
+            dao.save(rotation);
+            assertFalse(bean.migrateMasterKeyBatch());
+            assertFalse(rotation.getReadyInstances().contains("stopped"));
+            assertTrue(rotation.getActiveInstances().isEmpty());
+
+            // When the other instance has also been given the new MasterKey,
+            // and is using it, the migration can run.
+            final long now = System.currentTimeMillis();
+            rotation.setReadyInstances(rotation.getReadyInstances() + ",other=" + now);
+            rotation.setActiveInstances("other=" + now);
+            dao.save(rotation);
+            int batches = 0;
+            while (bean.migrateMasterKeyBatch() && (batches < 100)) {
+                batches++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            assertTrue(batches > 0);
+            assertNull(masterKey.getPreviousKey());
+            assertNull(dao.findMasterKeyRotation());
+        } finally {
+            settings.set(StandardSetting.CLUSTER_INSTANCES.getKey(), "1");
+            resetMasterKey();
+        }
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private RotationBean prepareRotationBean() {
+        try {
+            final RotationBean bean = RotationBean.class.getConstructor().newInstance();
+            final Settings mySettings = newSettings();
+            mySettings.set(StandardSetting.ROTATION_BATCH_SIZE.getKey(), "1");
+            inject(bean, entityManager);
+            inject(bean, mySettings);
+
+            return bean;
+        } catch (InstantiationException | InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
+            throw new EDSException(ReturnCode.ERROR, "Cannot instantiate Service Object", e);
+        }
+    }
+
+    private ProcessCircleResponse rotate(final String account, final String circleId) {
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, account);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(circleId);
+
+        return prepareManagementBean().processCircle(request);
+    }
+
+    private void assertReadable(final String account, final String dataId, final byte[] expected) {
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, account);
+        request.setDataId(dataId);
+
+        final FetchDataResponse response = prepareShareBean().fetchData(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertArrayEquals(expected, response.getData());
+    }
+
+    /**
+     * Replaces the stored Data, with Data encrypted directly with the Circle
+     * Key, as it was done before Data Keys were introduced.
+     */
+    private void prepareLegacyData(final String dataId, final byte[] bytes) {
+        final SecretEDSKey circleKey = extractCircleKey(MEMBER_1, CIRCLE_1_ID);
+        final IVSalt iv = new IVSalt();
+        circleKey.setSalt(iv);
+
+        final DataEntity legacy = findDataEntity(dataId);
+        final byte[] encrypted = Crypto.encrypt(circleKey, Arrays.copyOf(bytes, bytes.length));
+        legacy.setData(encrypted);
+        legacy.setDataKey(null);
+        legacy.setSegmentHeader(null);
+        legacy.setInitialVector(crypto.encryptWithMasterKey(iv.getArmored()));
+        legacy.setChecksum(crypto.generateChecksum(encrypted));
+        dao.save(legacy);
+    }
+
+    private DataEntity findDataEntity(final String externalId) {
+        return entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid", DataEntity.class)
+                .setParameter("eid", externalId)
+                .getSingleResult();
+    }
+}
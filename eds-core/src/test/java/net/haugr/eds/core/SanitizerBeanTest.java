@@ -18,28 +18,46 @@ package net.haugr.eds.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.responses.ProcessDataResponse;
 import net.haugr.eds.core.enums.SanityStatus;
 import net.haugr.eds.core.enums.StandardSetting;
 import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.BlobStore;
+import net.haugr.eds.core.model.CommonDao;
+import net.haugr.eds.core.model.FileBlobStore;
+import net.haugr.eds.core.model.SanityMetrics;
 import net.haugr.eds.core.model.Settings;
 import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.SanityLeaseEntity;
 import net.haugr.eds.core.managers.ProcessDataManager;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import net.haugr.eds.core.setup.fakes.FakeEntityManager;
 import net.haugr.eds.core.setup.fakes.FakeTimer;
 import net.haugr.eds.core.setup.fakes.FakeTimerService;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * @author Kim Jensen
@@ -53,7 +71,7 @@ final class SanitizerBeanTest extends DatabaseSetup {
         prepareInvalidData();
         prepareStartupBean(runSanitizeAtStartup);
 
-        assertTrue(prepareSanitizeBean().findNextBatch(100).isEmpty());
+        assertEquals(0L, prepareSanitizeBean().countDueRecords());
     }
 
     @Test
@@ -62,7 +80,7 @@ final class SanitizerBeanTest extends DatabaseSetup {
         prepareInvalidData();
         prepareStartupBean(runSanitizeAtStartup);
 
-        assertEquals(6, prepareSanitizeBean().findNextBatch(100).size());
+        assertEquals(6L, prepareSanitizeBean().countDueRecords());
     }
 
     @Test
@@ -91,14 +109,13 @@ final class SanitizerBeanTest extends DatabaseSetup {
     void testStartupBeanTimerService() {
         prepareInvalidData();
         final SanitizerBean sanitizerBean = prepareSanitizeBean();
-        final List<Long> idsBefore = sanitizerBean.findNextBatch(100);
+        final long dueBefore = sanitizerBean.countDueRecords();
 
         final StartupBean bean = prepareStartupBean("false");
         bean.runSanitizing(new FakeTimer());
 
-        final List<Long> idsAfter = sanitizerBean.findNextBatch(100);
-        assertFalse(idsBefore.isEmpty());
-        assertTrue(idsAfter.isEmpty());
+        assertTrue(dueBefore > 0);
+        assertEquals(0L, sanitizerBean.countDueRecords());
     }
 
     @Test
@@ -120,15 +137,255 @@ final class SanitizerBeanTest extends DatabaseSetup {
         prepareInvalidData();
 
         // Check that there is nothing to scan/check at first
-        final List<Long> idsBefore = bean.findNextBatch(100);
-        assertEquals(6, idsBefore.size());
+        assertEquals(6L, bean.countDueRecords());
 
         // Run the actual sanitizing
         bean.sanitize();
 
         // Finally, verify that all records have been sanitized.
-        final List<Long> idsAfter = bean.findNextBatch(100);
-        assertTrue(idsAfter.isEmpty());
+        assertEquals(0L, bean.countDueRecords());
+    }
+
+    @Test
+    void testSanitizePipeline() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SANITY_BATCH_SIZE, "2");
+        mySettings.set(StandardSetting.SANITY_WORKERS, "3");
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, mySettings);
+        prepareInvalidData();
+        assertEquals(6L, bean.countDueRecords());
+
+        final SanityMetrics.Statistics before = SanityMetrics.getInstance().getStatistics();
+        bean.sanitize();
+        final SanityMetrics.Statistics after = SanityMetrics.getInstance().getStatistics();
+
+        // The 3 Data Objects with a falsified Checksum, which are due for
+        // a check, are marked as failed, and all 6 are marked as checked.
+        assertEquals(0L, bean.countDueRecords());
+        assertEquals(3L, countFailed());
+        assertEquals(6L, after.checked() - before.checked());
+        assertEquals(3L, after.flawed() - before.flawed());
+        assertEquals(0L, after.backlog());
+        assertEquals(1L, after.sweeps() - before.sweeps());
+    }
+
+    @Test
+    void testSanitizeRanges() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SANITY_BATCH_SIZE, "1");
+        mySettings.set(StandardSetting.SANITY_RANGE_SIZE, "2");
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, mySettings);
+        prepareInvalidData();
+
+        bean.sanitize();
+
+        // All ranges are checked, and the Leases are released afterwards.
+        assertEquals(0L, bean.countDueRecords());
+        assertEquals(3L, countFailed());
+        final LocalDateTime now = Utilities.newDate();
+        final List<SanityLeaseEntity> leases = findLeases();
+        assertFalse(leases.isEmpty());
+        leases.forEach(lease -> assertFalse(lease.getExpires().isAfter(now)));
+    }
+
+    @Test
+    void testSanitizeSkipsLeasedRange() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        prepareInvalidData();
+        prepareLease("another instance", Utilities.newDate().plusMinutes(10));
+
+        // The only range is held by another instance, so nothing is checked.
+        bean.sanitize();
+        assertEquals(6L, bean.countDueRecords());
+        assertEquals("another instance", findLeases().getFirst().getOwner());
+    }
+
+    @Test
+    void testSanitizeReclaimsExpiredLease() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        prepareInvalidData();
+        prepareLease("stopped instance", Utilities.newDate().minusMinutes(1));
+
+        // The Lease of the stopped instance has expired, so it is taken over.
+        bean.sanitize();
+        assertEquals(0L, bean.countDueRecords());
+        assertNotEquals("stopped instance", findLeases().getFirst().getOwner());
+    }
+
+    @Test
+    void testSanitizeResumesFromCheckpoint() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        prepareInvalidData();
+        final List<Long> due = findDueIds(bean);
+        final SanityLeaseEntity lease = prepareLease("stopped instance", Utilities.newDate().minusMinutes(1));
+        lease.setCheckpoint(due.get(2));
+
+        // The check resumes after the checkpoint, so the Data before it is
+        // left for the next check, and as the range is completed, the
+        // checkpoint is removed.
+        bean.sanitize();
+        assertEquals(due.subList(0, 3), findDueIds(bean));
+        assertNull(findLeases().getFirst().getCheckpoint());
+    }
+
+    @Test
+    void testSanitizeWithThrottle() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SANITY_BATCH_SIZE, "2");
+        mySettings.set(StandardSetting.SANITY_ROWS_PER_SECOND, "1000");
+        mySettings.set(StandardSetting.SANITY_BYTES_PER_SECOND, "100000000");
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, mySettings);
+        prepareInvalidData();
+
+        bean.sanitize();
+        assertEquals(0L, bean.countDueRecords());
+        assertEquals(3L, countFailed());
+        assertFalse(SanityMetrics.getInstance().getSweep().running());
+    }
+
+    @Test
+    void testClaimRenewAndReleaseLease() {
+        final SanitizerBean bean = prepareSanitizeBean();
+
+        assertEquals(-1L, bean.claimLease(0L, "first"));
+        assertNull(bean.claimLease(0L, "second"));
+        assertTrue(bean.renewLease(0L, "first", 5L));
+        assertFalse(bean.renewLease(0L, "second", 7L));
+
+        // An unfinished range is resumed from the checkpoint, whereas a
+        // completed range is checked from the beginning.
+        bean.releaseLease(0L, "first", false);
+        entityManager.clear();
+        assertEquals(5L, bean.claimLease(0L, "second"));
+        bean.releaseLease(0L, "second", true);
+        entityManager.clear();
+        assertEquals(-1L, bean.claimLease(0L, "third"));
+    }
+
+    @Test
+    void testUpdateSanityWithChangedChecksum() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        prepareInvalidData();
+        final List<Long> ids = findDueIds(bean);
+        final Long id = ids.getFirst();
+
+        // If the Data was updated after it was read, the stored Checksum
+        // differs, and the Data is not marked as failed.
+        bean.updateSanity(ids, Map.of(id, "outdated checksum"));
+        assertEquals(0L, countFailed());
+        assertEquals(0L, bean.countDueRecords());
+    }
+
+    @Test
+    void testRepairFolders() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        final ShareBean shareBean = prepareShareBean();
+        assertTrue(shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Folder Data", 32)).isOk());
+        assertEquals(0, bean.repairFolders());
+
+        // The number of records is only altered via the Share Bean, so to
+        // simulate drift, it is altered directly in the database.
+        entityManager.flush();
+        entityManager
+                .createNativeQuery("update eds_metadata set children = 42 where parent_id = 0")
+                .executeUpdate();
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+        assertEquals(42L, shareBean.fetchData(request).getRecords());
+
+        assertEquals(3, bean.repairFolders());
+        request.setCredential(crypto.stringToBytes(MEMBER_1));
+        assertEquals(1L, shareBean.fetchData(request).getRecords());
+    }
+
+    @Test
+    void testSanitizeChunkedData() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.DATA_CHUNK_SIZE, "1024");
+        final ShareBean shareBean = new ShareBean();
+        inject(shareBean, entityManager);
+        inject(shareBean, mySettings);
+        final ProcessDataResponse response = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Chunked Data", 4096));
+        assertTrue(response.isOk());
+
+        final DataEntity entity = entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid", DataEntity.class)
+                .setParameter("eid", response.getDataId())
+                .getSingleResult();
+        final SanitizerBean bean = prepareSanitizeBean();
+        assertEquals(SanityStatus.OK, bean.processEntity(entity.getId()));
+
+        // A chunk which has gone missing, makes the Data incomplete.
+        entityManager.flush();
+        entityManager
+                .createNativeQuery("delete from eds_data_chunks where data_id = " + entity.getId() + " and ordinal = 2")
+                .executeUpdate();
+        assertEquals(SanityStatus.FAILED, bean.processEntity(entity.getId()));
+    }
+
+    @Test
+    void testSanitizeBlobData(@TempDir final Path directory) throws IOException {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.DATA_CHUNK_SIZE, "1024");
+        mySettings.set(StandardSetting.BLOB_DIRECTORY, directory.toString());
+        final ShareBean shareBean = new ShareBean();
+        inject(shareBean, entityManager);
+        inject(shareBean, mySettings);
+        final ProcessDataResponse response = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Blob Data", 4096));
+        assertTrue(response.isOk());
+
+        final DataEntity entity = entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid", DataEntity.class)
+                .setParameter("eid", response.getDataId())
+                .getSingleResult();
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, mySettings);
+        assertEquals(SanityStatus.OK, bean.processEntity(entity.getId()));
+
+        // The Blob is verified directly against the stored Checksum.
+        final String reference = entity.getBlobReference();
+        final Path file = directory.resolve(reference.substring(0, 2)).resolve(reference.substring(2, 4)).resolve(reference);
+        final byte[] corrupted = Files.readAllBytes(file);
+        corrupted[42] ^= 1;
+        Files.write(file, corrupted);
+        assertEquals(SanityStatus.FAILED, bean.processEntity(entity.getId()));
+    }
+
+    @Test
+    void testRemoveUnusedBlobs(@TempDir final Path directory) throws IOException {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.DATA_CHUNK_SIZE, "1024");
+        mySettings.set(StandardSetting.BLOB_DIRECTORY, directory.toString());
+        final ShareBean shareBean = new ShareBean();
+        inject(shareBean, entityManager);
+        inject(shareBean, mySettings);
+        final ProcessDataResponse response = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Used Blob", 4096));
+        assertTrue(response.isOk());
+
+        // A Blob, which no Data is referencing, i.e. from a rolled back
+        // transaction. Only Blobs older than the grace period are removed.
+        final BlobStore store = new FileBlobStore(directory);
+        final byte[] unused = generateData(2048);
+        final String reference = store.write(crypto.generateChecksum(unused), unused);
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, mySettings);
+        assertEquals(0, bean.removeUnusedBlobs());
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+            }
+        }
+        assertEquals(1, bean.removeUnusedBlobs());
+        assertEquals(0, bean.removeUnusedBlobs());
+        assertThrows(EDSException.class, () -> store.read(reference));
+
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setDataId(response.getDataId());
+        assertTrue(shareBean.fetchData(request).isOk());
     }
 
     @Test
@@ -232,6 +489,40 @@ final class SanitizerBeanTest extends DatabaseSetup {
         }
     }
 
+    /**
+     * Finds the Ids of the Data, which is due for a Sanity check, via the
+     * same query as the Sanity check reads its batches with.
+     */
+    private static List<Long> findDueIds(final SanitizerBean bean) {
+        return bean.findNextRecords(-1L, Long.MAX_VALUE).stream()
+                .map(row -> (Long) row[0])
+                .toList();
+    }
+
+    private long countFailed() {
+        return entityManager
+                .createQuery("select count(d.id) from DataEntity d where d.sanityStatus = :status", Long.class)
+                .setParameter("status", SanityStatus.FAILED)
+                .getSingleResult();
+    }
+
+    private SanityLeaseEntity prepareLease(final String owner, final LocalDateTime expires) {
+        final SanityLeaseEntity lease = new SanityLeaseEntity();
+        lease.setRangeStart(0L);
+        lease.setOwner(owner);
+        lease.setExpires(expires);
+        new CommonDao(entityManager).save(lease);
+
+        return lease;
+    }
+
+    private List<SanityLeaseEntity> findLeases() {
+        entityManager.clear();
+        return entityManager
+                .createQuery("select l from SanityLeaseEntity l order by l.rangeStart", SanityLeaseEntity.class)
+                .getResultList();
+    }
+
     private void prepareInvalidData() {
         final ProcessDataManager service = new ProcessDataManager(settings, entityManager);
         timeWarpChecksum(service.perform(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Valid Data1", LARGE_SIZE_BYTES)), Utilities.newDate(1L));
@@ -0,0 +1,201 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.dtos.DataEntry;
+import net.haugr.eds.api.dtos.DataResult;
+import net.haugr.eds.api.requests.BatchDataRequest;
+import net.haugr.eds.api.requests.FetchDataRequest;
+import net.haugr.eds.api.requests.ProcessDataRequest;
+import net.haugr.eds.api.responses.BatchDataResponse;
+import net.haugr.eds.api.responses.FetchDataResponse;
+import net.haugr.eds.api.responses.ProcessDataResponse;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Test class for the Batch Data Service.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class ShareBeanBatchDataTest extends DatabaseSetup {
+
+    @Test
+    void testEmptyBatchRequest() {
+        final ShareBean bean = prepareShareBean();
+        final BatchDataRequest request = new BatchDataRequest();
+
+        final BatchDataResponse response = bean.batchData(request);
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("""
+                Request Object contained errors:
+                Key: entries, Error: The Entries must contain between 1 and 1000 Data Objects.
+                Key: credential, Error: The Session (Credential) is missing.
+                Key: circleId, Error: The Circle Id is missing or invalid.""", response.getReturnMessage());
+    }
+
+    @Test
+    void testBatchWithoutWriteAccess() {
+        final ShareBean bean = prepareShareBean();
+        final BatchDataRequest request = prepareBatchRequest(MEMBER_5, CIRCLE_3_ID, prepareEntry("The Data", 512));
+
+        final BatchDataResponse response = bean.batchData(request);
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The requesting Account is not permitted to Batch Add Data.", response.getReturnMessage());
+    }
+
+    @Test
+    void testAddingAndReadingBatch() {
+        final ShareBean bean = prepareShareBean();
+        final List<DataEntry> entries = new ArrayList<>();
+        final List<byte[]> copies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final DataEntry entry = prepareEntry("Batch Data " + i, 1024 + i);
+            copies.add(Arrays.copyOf(entry.getData(), entry.getData().length));
+            entries.add(entry);
+        }
+        final BatchDataRequest request = prepareBatchRequest(MEMBER_1, CIRCLE_1_ID, entries.toArray(new DataEntry[0]));
+
+        final BatchDataResponse response = bean.batchData(request);
+        assertTrue(response.isOk());
+        assertEquals("10 of 10 Data Objects were successfully added to the Circle '" + CIRCLE_1 + "'.", response.getReturnMessage());
+        assertEquals(10, response.getResults().size());
+
+        for (int i = 0; i < 10; i++) {
+            final DataResult result = response.getResults().get(i);
+            assertTrue(result.isOk());
+            assertEquals("Batch Data " + i, result.getDataName());
+            assertEquals("The Data Object 'Batch Data " + i + "' was successfully added.", result.getReturnMessage());
+            assertNotNull(result.getDataId());
+
+            // The raw bytes are overwritten once encrypted
+            assertArrayEquals(new byte[1024 + i], entries.get(i).getData());
+
+            final FetchDataRequest fetchRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+            fetchRequest.setDataId(result.getDataId());
+            final FetchDataResponse fetchResponse = bean.fetchData(fetchRequest);
+            assertTrue(fetchResponse.isOk());
+            assertArrayEquals(copies.get(i), fetchResponse.getData());
+        }
+    }
+
+    @Test
+    void testBatchWithUsedNames() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataRequest addRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Existing Data", 512);
+        assertTrue(bean.processData(addRequest).isOk());
+
+        final BatchDataRequest request = prepareBatchRequest(MEMBER_1, CIRCLE_1_ID,
+                prepareEntry("existing data", 512),
+                prepareEntry("New Data", 512),
+                prepareEntry("NEW DATA", 512));
+
+        final BatchDataResponse response = bean.batchData(request);
+        assertTrue(response.isOk());
+        assertEquals("1 of 3 Data Objects were successfully added to the Circle '" + CIRCLE_1 + "'.", response.getReturnMessage());
+
+        final List<DataResult> results = response.getResults();
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), results.get(0).getReturnCode());
+        assertEquals("The name 'existing data' provided is already being used in the given folder.", results.get(0).getReturnMessage());
+        assertNull(results.get(0).getDataId());
+        assertTrue(results.get(1).isOk());
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), results.get(2).getReturnCode());
+        assertEquals("The name 'NEW DATA' provided is already being used in the given folder.", results.get(2).getReturnMessage());
+    }
+
+    @Test
+    void testBatchWithInvalidEntries() {
+        final ShareBean bean = prepareShareBean();
+        final DataEntry noName = prepareEntry(" ", 512);
+        final DataEntry unknownType = prepareEntry("Unknown Type", 512);
+        unknownType.setTypeName("unknown");
+        final DataEntry unknownFolder = prepareEntry("Unknown Folder", 512);
+        unknownFolder.setFolderId(UUID.randomUUID().toString());
+
+        final BatchDataRequest request = prepareBatchRequest(MEMBER_1, CIRCLE_1_ID, noName, unknownType, unknownFolder, prepareEntry("Valid Data", 512));
+        final BatchDataResponse response = bean.batchData(request);
+        assertTrue(response.isOk());
+        assertEquals("1 of 4 Data Objects were successfully added to the Circle '" + CIRCLE_1 + "'.", response.getReturnMessage());
+
+        final List<DataResult> results = response.getResults();
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), results.get(0).getReturnCode());
+        assertEquals("The name of the new Data Object is invalid.", results.get(0).getReturnMessage());
+        assertEquals(ReturnCode.INTEGRITY_WARNING.getCode(), results.get(1).getReturnCode());
+        assertEquals("Cannot find a matching DataType for the Object.", results.get(1).getReturnMessage());
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), results.get(2).getReturnCode());
+        assertEquals("Provided FolderId '" + unknownFolder.getFolderId() + "' is not a folder in the Circle.", results.get(2).getReturnMessage());
+        assertTrue(results.get(3).isOk());
+        assertFalse(results.get(3).getDataId().isEmpty());
+    }
+
+    @Test
+    void testBatchIntoFolder() {
+        final ShareBean bean = prepareShareBean();
+        final BatchDataRequest folderRequest = prepareBatchRequest(MEMBER_1, CIRCLE_1_ID, prepareEntry("Batch Folder", 0));
+        folderRequest.getEntries().get(0).setTypeName(Constants.FOLDER_TYPENAME);
+        final BatchDataResponse folderResponse = bean.batchData(folderRequest);
+        assertTrue(folderResponse.getResults().get(0).isOk());
+        final String folderId = folderResponse.getResults().get(0).getDataId();
+
+        final DataEntry first = prepareEntry("First", 512);
+        first.setFolderId(folderId);
+        final DataEntry second = prepareEntry("Second", 512);
+        second.setFolderId(folderId);
+        final BatchDataResponse response = bean.batchData(prepareBatchRequest(MEMBER_1, CIRCLE_1_ID, first, second));
+        assertEquals("2 of 2 Data Objects were successfully added to the Circle '" + CIRCLE_1 + "'.", response.getReturnMessage());
+
+        final FetchDataRequest fetchRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        fetchRequest.setDataId(folderId);
+        final FetchDataResponse fetchResponse = bean.fetchData(fetchRequest);
+        assertTrue(fetchResponse.isOk());
+        assertEquals(2L, fetchResponse.getRecords());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static BatchDataRequest prepareBatchRequest(final String account, final String circleId, final DataEntry... entries) {
+        final BatchDataRequest request = prepareRequest(BatchDataRequest.class, account);
+        request.setCircleId(circleId);
+        request.setEntries(List.of(entries));
+
+        return request;
+    }
+
+    private static DataEntry prepareEntry(final String name, final int bytes) {
+        final DataEntry entry = new DataEntry();
+        entry.setDataName(name);
+        entry.setData(generateData(bytes));
+
+        return entry;
+    }
+}
@@ -33,10 +33,20 @@ import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.api.responses.FetchDataResponse;
 import net.haugr.eds.api.responses.ProcessDataResponse;
 import net.haugr.eds.core.enums.SanityStatus;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.jce.Crypto;
+import net.haugr.eds.core.jce.IVSalt;
+import net.haugr.eds.core.jce.SecretEDSKey;
+import net.haugr.eds.core.model.FileBlobStore;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.DataEntity;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * <p>Common test class for the Process & Fetch Data Services.</p>
@@ -92,6 +102,147 @@ final class ShareBeanDataTest extends DatabaseSetup {
         assertEquals(toSave, crypto.bytesToString(fetchResponse.getData()));
     }
 
+    @Test
+    void testSavingAndReadingSegmentedData() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SEGMENT_SIZE, "4096");
+        final ShareBean bean = new ShareBean();
+        inject(bean, entityManager);
+        inject(bean, mySettings);
+
+        final ProcessDataRequest saveRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "My Segmented Data", LARGE_SIZE_BYTES);
+        final byte[] toSave = Arrays.copyOf(saveRequest.getData(), LARGE_SIZE_BYTES);
+        final ProcessDataResponse saveResponse = bean.processData(saveRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), saveResponse.getReturnCode());
+
+        final DataEntity entity = entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid", DataEntity.class)
+                .setParameter("eid", saveResponse.getDataId())
+                .getSingleResult();
+        assertEquals(Crypto.createSegmentHeader(4096), entity.getSegmentHeader());
+
+        // Reading the Data must work, regardless of the current setting.
+        final FetchDataRequest fetchRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        fetchRequest.setDataId(saveResponse.getDataId());
+        final FetchDataResponse fetchResponse = prepareShareBean().fetchData(fetchRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+    }
+
+    @Test
+    void testSavingUpdatingAndReadingChunkedData() {
+        final ShareBean bean = prepareChunkedShareBean();
+
+        final ProcessDataRequest saveRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "My Chunked Data", MEDIUM_SIZE_BYTES);
+        final byte[] toSave = Arrays.copyOf(saveRequest.getData(), MEDIUM_SIZE_BYTES);
+        final ProcessDataResponse saveResponse = bean.processData(saveRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), saveResponse.getReturnCode());
+
+        // The encrypted Data is slightly larger than the raw Data, so it
+        // requires one more chunk, the Data column itself is left empty.
+        final DataEntity entity = findDataEntity(saveResponse.getDataId());
+        assertEquals(MEDIUM_SIZE_BYTES / 4096 + 1, entity.getChunks());
+        assertEquals(0, entity.getData().length);
+        assertEquals(entity.getChunks(), countChunks(entity));
+
+        final FetchDataResponse fetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, saveResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+
+        // Updating with less Data, must remove the chunks no longer used.
+        final byte[] toUpdate = generateData(10000);
+        final ProcessDataRequest updateRequest = prepareUpdateRequest(MEMBER_1, saveResponse.getDataId());
+        updateRequest.setData(Arrays.copyOf(toUpdate, toUpdate.length));
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processData(updateRequest).getReturnCode());
+        assertEquals(3, entity.getChunks());
+        assertEquals(3, countChunks(entity));
+
+        final FetchDataResponse updatedResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, saveResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), updatedResponse.getReturnCode());
+        assertArrayEquals(toUpdate, updatedResponse.getData());
+
+        // Data below the chunk size is stored directly with the Data record.
+        final ProcessDataRequest smallRequest = prepareUpdateRequest(MEMBER_1, saveResponse.getDataId());
+        smallRequest.setData(generateData(1024));
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processData(smallRequest).getReturnCode());
+        assertEquals(0, entity.getChunks());
+        assertEquals(0, countChunks(entity));
+        assertTrue(entity.getData().length > 1024);
+    }
+
+    @Test
+    void testCopyChunkedData() {
+        final ShareBean bean = prepareChunkedShareBean();
+
+        final ProcessDataRequest addRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Chunked Copy", MEDIUM_SIZE_BYTES);
+        final byte[] toSave = Arrays.copyOf(addRequest.getData(), MEDIUM_SIZE_BYTES);
+        final ProcessDataResponse addResponse = bean.processData(addRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), addResponse.getReturnCode());
+
+        final ProcessDataResponse copyResponse = bean.processData(prepareCopyDataRequest(MEMBER_1, addResponse.getDataId(), CIRCLE_2_ID, null));
+        assertEquals(ReturnCode.SUCCESS.getCode(), copyResponse.getReturnCode());
+
+        final DataEntity original = findDataEntity(addResponse.getDataId());
+        final DataEntity copy = findDataEntity(copyResponse.getDataId());
+        assertEquals(original.getChunks(), copy.getChunks());
+        assertEquals(copy.getChunks(), countChunks(copy));
+        assertEquals(original.getChecksum(), copy.getChecksum());
+
+        final FetchDataResponse fetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, copyResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+    }
+
+    @Test
+    void testSavingCopyingAndReadingBlobData(@TempDir final Path directory) {
+        final ShareBean bean = prepareBlobShareBean(directory);
+
+        final ProcessDataRequest saveRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "My Blob Data", MEDIUM_SIZE_BYTES);
+        final byte[] toSave = Arrays.copyOf(saveRequest.getData(), MEDIUM_SIZE_BYTES);
+        final ProcessDataResponse saveResponse = bean.processData(saveRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), saveResponse.getReturnCode());
+
+        // The encrypted Data is stored in the Blob Store, and the Data record
+        // only has the reference to it.
+        final DataEntity entity = findDataEntity(saveResponse.getDataId());
+        assertNotNull(entity.getBlobReference());
+        assertEquals(0, entity.getChunks());
+        assertEquals(0, entity.getData().length);
+        assertEquals(0, countChunks(entity));
+
+        final FetchDataResponse fetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, saveResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+
+        // A copy is sharing the Blob with the original.
+        final ProcessDataResponse copyResponse = bean.processData(prepareCopyDataRequest(MEMBER_1, saveResponse.getDataId(), CIRCLE_2_ID, null));
+        assertEquals(ReturnCode.SUCCESS.getCode(), copyResponse.getReturnCode());
+        assertEquals(entity.getBlobReference(), findDataEntity(copyResponse.getDataId()).getBlobReference());
+        final FetchDataResponse copyFetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, copyResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), copyFetchResponse.getReturnCode());
+        assertArrayEquals(toSave, copyFetchResponse.getData());
+
+        // Smaller Data is stored directly with the Data record.
+        final ProcessDataRequest smallRequest = prepareUpdateRequest(MEMBER_1, saveResponse.getDataId());
+        smallRequest.setData(generateData(1024));
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processData(smallRequest).getReturnCode());
+        assertNull(entity.getBlobReference());
+        assertTrue(entity.getData().length > 1024);
+    }
+
+    @Test
+    void testReadingBlobDataWithMissingBlob(@TempDir final Path directory) {
+        final ShareBean bean = prepareBlobShareBean(directory);
+
+        final ProcessDataResponse saveResponse = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Missing Blob", 8192));
+        assertEquals(ReturnCode.SUCCESS.getCode(), saveResponse.getReturnCode());
+        new FileBlobStore(directory).delete(findDataEntity(saveResponse.getDataId()).getBlobReference());
+
+        final FetchDataResponse fetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, saveResponse.getDataId()));
+        assertEquals(ReturnCode.INTEGRITY_ERROR.getCode(), fetchResponse.getReturnCode());
+        assertTrue(fetchResponse.getReturnMessage().endsWith(" is missing."));
+    }
+
     @Test
     void testSavingAndReadingDataByName() {
         final ShareBean bean = prepareShareBean();
@@ -192,6 +343,43 @@ final class ShareBeanDataTest extends DatabaseSetup {
         assertEquals(3L, fullResponse.getRecords());
     }
 
+    @Test
+    void testFetchingFolderWithCursor() {
+        final ShareBean bean = prepareShareBean();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Cursor Data " + i, 32)).isOk());
+        }
+
+        // The newest Data is listed first, and the last page is not full,
+        // so it has no Next Cursor.
+        final FetchDataResponse firstPage = fetchFolderPage(bean, null);
+        assertEquals(2, firstPage.getMetadata().size());
+        assertEquals(5L, firstPage.getRecords());
+        assertEquals("Cursor Data 4", firstPage.getMetadata().getFirst().getDataName());
+        assertNotNull(firstPage.getNextCursor());
+
+        final FetchDataResponse secondPage = fetchFolderPage(bean, firstPage.getNextCursor());
+        assertEquals(2, secondPage.getMetadata().size());
+        assertEquals("Cursor Data 2", secondPage.getMetadata().getFirst().getDataName());
+
+        final FetchDataResponse lastPage = fetchFolderPage(bean, secondPage.getNextCursor());
+        assertEquals(1, lastPage.getMetadata().size());
+        assertEquals("Cursor Data 0", lastPage.getMetadata().getFirst().getDataName());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void testFetchingFolderWithInvalidCursor() {
+        final ShareBean bean = prepareShareBean();
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+        request.setCursor("Not a Cursor");
+
+        final FetchDataResponse response = bean.fetchData(request);
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The Cursor is invalid.", response.getReturnMessage());
+    }
+
     @Test
     void testAddEmptyData() {
         final String dataName = "The Data";
@@ -459,7 +647,7 @@ final class ShareBeanDataTest extends DatabaseSetup {
 
         final ProcessDataResponse response = bean.processData(request);
         assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), response.getReturnCode());
-        assertEquals("Another record with the same name already exists.", response.getReturnMessage());
+        assertEquals("The name '" + folderName + "' provided is already being used in the given folder.", response.getReturnMessage());
     }
 
     @Test
@@ -500,6 +688,103 @@ final class ShareBeanDataTest extends DatabaseSetup {
         assertArrayEquals(copyFetchResponse1.getData(), copyFetchResponse2.getData());
     }
 
+    @Test
+    void testCopyDataToFolderWhereSameNameExists() {
+        final ShareBean bean = prepareShareBean();
+        final String dataName = "Copied Twice";
+
+        final ProcessDataResponse addResponse = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, dataName, 32));
+        assertTrue(addResponse.isOk());
+        assertTrue(bean.processData(prepareCopyDataRequest(MEMBER_1, addResponse.getDataId(), CIRCLE_2_ID, null)).isOk());
+
+        final ProcessDataResponse response = bean.processData(prepareCopyDataRequest(MEMBER_1, addResponse.getDataId(), CIRCLE_2_ID, null));
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The name '" + dataName + "' provided is already being used in the given folder.", response.getReturnMessage());
+    }
+
+    @Test
+    void testRenamingDataToNameUsedWithDifferentCase() {
+        final ShareBean bean = prepareShareBean();
+        assertTrue(bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Original Name", 32)).isOk());
+        final ProcessDataResponse addResponse = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Other Name", 32));
+        assertTrue(addResponse.isOk());
+
+        final ProcessDataRequest request = prepareUpdateRequest(MEMBER_1, addResponse.getDataId());
+        request.setDataName("ORIGINAL NAME");
+        final ProcessDataResponse response = bean.processData(request);
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("The name 'ORIGINAL NAME' provided is already being used in the given folder.", response.getReturnMessage());
+
+        // The failed update is not saved, so the Data Object keeps its name.
+        final FetchDataResponse fetchResponse = bean.fetchData(prepareReadRequest(MEMBER_1, null, addResponse.getDataId()));
+        assertEquals("Other Name", fetchResponse.getMetadata().getFirst().getDataName());
+    }
+
+    @Test
+    void testCopyDataOnlyRewrapsDataKey() {
+        final ShareBean bean = prepareShareBean();
+
+        final ProcessDataRequest addRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "toCopy", 524288);
+        final byte[] toSave = Arrays.copyOf(addRequest.getData(), 524288);
+        final ProcessDataResponse addResponse = bean.processData(addRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), addResponse.getReturnCode());
+
+        final ProcessDataRequest copyRequest = prepareCopyDataRequest(MEMBER_1, addResponse.getDataId(), CIRCLE_2_ID, null);
+        final ProcessDataResponse copyResponse = bean.processData(copyRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), copyResponse.getReturnCode());
+
+        // The encrypted Data is copied as is, only the Data Key is wrapped
+        // with the Circle Key of the target Circle.
+        final DataEntity original = findDataEntity(addResponse.getDataId());
+        final DataEntity copy = findDataEntity(copyResponse.getDataId());
+        assertNotNull(original.getDataKey());
+        assertNotNull(copy.getDataKey());
+        assertNotEquals(original.getDataKey(), copy.getDataKey());
+        assertNotEquals(original.getKey().getId(), copy.getKey().getId());
+        assertArrayEquals(original.getData(), copy.getData());
+        assertEquals(original.getChecksum(), copy.getChecksum());
+
+        final FetchDataResponse fetchResponse = prepareShareBean().fetchData(prepareReadRequest(MEMBER_1, null, copyResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+    }
+
+    @Test
+    void testLegacyDataIsMigratedWhenRead() {
+        final ShareBean bean = prepareShareBean();
+
+        final ProcessDataRequest addRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Legacy Data", 1024);
+        final byte[] toSave = Arrays.copyOf(addRequest.getData(), 1024);
+        final ProcessDataResponse addResponse = bean.processData(addRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), addResponse.getReturnCode());
+
+        // Replacing the stored Data, with Data encrypted directly with the
+        // Circle Key, as it was done before Data Keys were introduced.
+        final SecretEDSKey circleKey = extractCircleKey(MEMBER_1, CIRCLE_1_ID);
+        final IVSalt iv = new IVSalt();
+        circleKey.setSalt(iv);
+
+        final DataEntity legacy = findDataEntity(addResponse.getDataId());
+        final byte[] encrypted = Crypto.encrypt(circleKey, Arrays.copyOf(toSave, toSave.length));
+        legacy.setData(encrypted);
+        legacy.setDataKey(null);
+        legacy.setSegmentHeader(null);
+        legacy.setInitialVector(crypto.encryptWithMasterKey(iv.getArmored()));
+        legacy.setChecksum(crypto.generateChecksum(encrypted));
+        dao.save(legacy);
+
+        final FetchDataResponse fetchResponse = prepareShareBean().fetchData(prepareReadRequest(MEMBER_1, null, addResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+        assertArrayEquals(toSave, fetchResponse.getData());
+
+        // Reading the Data will migrate it to use a Data Key
+        final DataEntity migrated = findDataEntity(addResponse.getDataId());
+        assertNotNull(migrated.getDataKey());
+        final FetchDataResponse secondResponse = prepareShareBean().fetchData(prepareReadRequest(MEMBER_1, null, addResponse.getDataId()));
+        assertEquals(ReturnCode.SUCCESS.getCode(), secondResponse.getReturnCode());
+        assertArrayEquals(toSave, secondResponse.getData());
+    }
+
     @Test
     void testMoveData() {
         final ShareBean bean = prepareShareBean();
@@ -676,6 +961,47 @@ final class ShareBeanDataTest extends DatabaseSetup {
         assertEquals("The Folder cannot be removed as it is not empty.", response.getReturnMessage());
     }
 
+    @Test
+    void testFolderContentIsCounted() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataRequest addFolderRequest = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Counted Folder", 0);
+        addFolderRequest.setTypeName(Constants.FOLDER_TYPENAME);
+        final String folderId = bean.processData(addFolderRequest).getDataId();
+
+        final String[] dataIds = new String[3];
+        for (int i = 0; i < dataIds.length; i++) {
+            final ProcessDataRequest request = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Counted Data " + i, 32);
+            request.setFolderId(folderId);
+            dataIds[i] = bean.processData(request).getDataId();
+        }
+        assertEquals(3L, bean.fetchData(prepareReadRequest(MEMBER_1, null, folderId)).getRecords());
+        assertEquals(1L, bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_1_ID, null)).getRecords());
+
+        // Moving Data to the root folder, copying it to another Circle and
+        // deleting it, must all be reflected in the number of records.
+        final ProcessDataRequest moveRequest = prepareUpdateRequest(MEMBER_1, dataIds[0]);
+        moveRequest.setFolderId(bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_1_ID, null)).getMetadata().getFirst().getFolderId());
+        assertTrue(bean.processData(moveRequest).isOk());
+        final ProcessDataResponse copyResponse = bean.processData(prepareCopyDataRequest(MEMBER_1, dataIds[1], CIRCLE_2_ID, null));
+        assertTrue(copyResponse.isOk());
+        assertTrue(bean.processData(prepareDeleteRequest(MEMBER_1, dataIds[2])).isOk());
+
+        assertEquals(1L, bean.fetchData(prepareReadRequest(MEMBER_1, null, folderId)).getRecords());
+        assertEquals(2L, bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_1_ID, null)).getRecords());
+        assertEquals(1L, bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_2_ID, null)).getRecords());
+
+        // The last Data Object is moved out, so the folder can be deleted. As
+        // names are unique within a folder, the copy is removed first.
+        assertTrue(bean.processData(prepareDeleteRequest(MEMBER_1, copyResponse.getDataId())).isOk());
+        final ProcessDataRequest moveToCircleRequest = prepareCopyDataRequest(MEMBER_1, dataIds[1], CIRCLE_2_ID, null);
+        moveToCircleRequest.setAction(Action.MOVE);
+        assertTrue(bean.processData(moveToCircleRequest).isOk());
+        assertEquals(0L, bean.fetchData(prepareReadRequest(MEMBER_1, null, folderId)).getRecords());
+        assertEquals(1L, bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_2_ID, null)).getRecords());
+        assertTrue(bean.processData(prepareDeleteRequest(MEMBER_1, folderId)).isOk());
+        assertEquals(1L, bean.fetchData(prepareReadRequest(MEMBER_1, CIRCLE_1_ID, null)).getRecords());
+    }
+
     @Test
     void testMoveFolderWithAddRequest() {
         final ShareBean bean = prepareShareBean();
@@ -905,4 +1231,52 @@ final class ShareBeanDataTest extends DatabaseSetup {
 
         return request;
     }
+
+    private ShareBean prepareChunkedShareBean() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.DATA_CHUNK_SIZE, "4096");
+        final ShareBean bean = new ShareBean();
+        inject(bean, entityManager);
+        inject(bean, mySettings);
+
+        return bean;
+    }
+
+    private ShareBean prepareBlobShareBean(final Path directory) {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.DATA_CHUNK_SIZE, "4096");
+        mySettings.set(StandardSetting.BLOB_DIRECTORY, directory.toString());
+        final ShareBean bean = new ShareBean();
+        inject(bean, entityManager);
+        inject(bean, mySettings);
+
+        return bean;
+    }
+
+    private int countChunks(final DataEntity entity) {
+        return entityManager
+                .createQuery("select count(c.id) from DataChunkEntity c where c.data = :data", Long.class)
+                .setParameter("data", entity)
+                .getSingleResult()
+                .intValue();
+    }
+
+    private DataEntity findDataEntity(final String externalId) {
+        return entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid", DataEntity.class)
+                .setParameter("eid", externalId)
+                .getSingleResult();
+    }
+
+    private static FetchDataResponse fetchFolderPage(final ShareBean bean, final String cursor) {
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+        request.setPageSize(2);
+        request.setCursor(cursor);
+
+        final FetchDataResponse response = bean.fetchData(request);
+        assertTrue(response.isOk());
+
+        return response;
+    }
 }
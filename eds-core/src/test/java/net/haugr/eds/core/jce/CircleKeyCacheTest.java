@@ -0,0 +1,237 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
+import java.util.UUID;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class CircleKeyCacheTest extends DatabaseSetup {
+
+    @Test
+    void testAddAndFind() {
+        final CircleKeyCache cache = newCircleKeyCache(settings);
+        final TrusteeEntity trustee = prepareTrustee(1L, 1L, 1L);
+        final SecretEDSKey circleKey = Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256);
+
+        cache.add(trustee, trustee.getKey(), circleKey);
+        assertEquals(1, cache.size());
+
+        final SecretEDSKey found = cache.find(trustee, trustee.getKey());
+        assertNotNull(found);
+        assertEquals(circleKey.getAlgorithm(), found.getAlgorithm());
+        assertArrayEquals(circleKey.getEncoded(), found.getEncoded());
+
+        // As the Salt of the Key is altered by the callers, every lookup
+        // must return a new instance.
+        assertNotSame(found, cache.find(trustee, trustee.getKey()));
+    }
+
+    @Test
+    void testFindWithDifferentKey() {
+        final CircleKeyCache cache = newCircleKeyCache(settings);
+        final TrusteeEntity trustee = prepareTrustee(1L, 1L, 1L);
+        cache.add(trustee, trustee.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+
+        final KeyEntity otherKey = new KeyEntity();
+        otherKey.setId(2L);
+        otherKey.setAlgorithm(KeyAlgorithm.AES_GCM_256);
+        assertNull(cache.find(trustee, otherKey));
+    }
+
+    @Test
+    void testFindWithChangedCircleKey() {
+        final CircleKeyCache cache = newCircleKeyCache(settings);
+        final TrusteeEntity trustee = prepareTrustee(1L, 1L, 1L);
+        cache.add(trustee, trustee.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+
+        // Changing the Member Credentials will re-encrypt the Circle Key
+        trustee.setCircleKey(UUID.randomUUID().toString());
+        assertNull(cache.find(trustee, trustee.getKey()));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRotationKeys() {
+        final CircleKeyCache cache = newCircleKeyCache(settings);
+        final TrusteeEntity trustee1 = prepareTrustee(1L, 1L, 1L);
+        final TrusteeEntity trustee2 = prepareTrustee(2L, 1L, 2L);
+        final SecretEDSKey circleKey = Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256);
+        cache.addRotationKey(trustee1.getKey(), circleKey);
+        cache.addRotationKey(trustee2.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+
+        final SecretEDSKey found = cache.findRotationKey(trustee1.getKey());
+        assertNotNull(found);
+        assertArrayEquals(circleKey.getEncoded(), found.getEncoded());
+        assertNotSame(found, cache.findRotationKey(trustee1.getKey()));
+
+        // The Rotation Keys are not part of the regular entries
+        assertEquals(0, cache.size());
+
+        cache.retainRotationKeys(Set.of(trustee2.getKey().getId()));
+        assertNull(cache.findRotationKey(trustee1.getKey()));
+        assertNotNull(cache.findRotationKey(trustee2.getKey()));
+        cache.removeRotationKey(trustee2.getKey());
+        assertNull(cache.findRotationKey(trustee2.getKey()));
+
+        cache.addRotationKey(trustee1.getKey(), circleKey);
+        cache.clear();
+        assertNull(cache.findRotationKey(trustee1.getKey()));
+    }
+
+    @Test
+    void testRemove() {
+        final CircleKeyCache cache = newCircleKeyCache(settings);
+        final TrusteeEntity trustee1 = prepareTrustee(1L, 1L, 1L);
+        final TrusteeEntity trustee2 = prepareTrustee(2L, 2L, 1L);
+        final TrusteeEntity trustee3 = prepareTrustee(3L, 1L, 2L);
+        final TrusteeEntity trustee4 = prepareTrustee(4L, 3L, 3L);
+        cache.add(trustee1, trustee1.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee2, trustee2.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee3, trustee3.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee4, trustee4.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        assertEquals(4, cache.size());
+
+        cache.remove(trustee4);
+        assertEquals(3, cache.size());
+        cache.remove(trustee1.getCircle());
+        assertEquals(1, cache.size());
+        assertNull(cache.find(trustee2, trustee2.getKey()));
+        cache.remove(trustee3.getMember());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBoundedSize() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.CIRCLE_KEY_CACHE_SIZE, "2");
+        final CircleKeyCache cache = newCircleKeyCache(mySettings);
+        final TrusteeEntity trustee1 = prepareTrustee(1L, 1L, 1L);
+        final TrusteeEntity trustee2 = prepareTrustee(2L, 2L, 1L);
+        final TrusteeEntity trustee3 = prepareTrustee(3L, 3L, 1L);
+
+        cache.add(trustee1, trustee1.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee2, trustee2.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee3, trustee3.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.find(trustee1, trustee1.getKey()));
+    }
+
+    @Test
+    void testTrimAndClearCircleKeys() {
+        final Settings mySettings = newSettings();
+        final CircleKeyCache cache = newCircleKeyCache(mySettings);
+        final TrusteeEntity trustee1 = prepareTrustee(1L, 1L, 1L);
+        final TrusteeEntity trustee2 = prepareTrustee(2L, 2L, 1L);
+        cache.add(trustee1, trustee1.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.add(trustee2, trustee2.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        cache.addRotationKey(trustee1.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+
+        // The size was lowered by another EDS instance.
+        mySettings.set(StandardSetting.CIRCLE_KEY_CACHE_SIZE, "1");
+        cache.trim();
+        assertEquals(1, cache.size());
+        assertNull(cache.find(trustee1, trustee1.getKey()));
+
+        // The Circles were changed by another EDS instance, the Rotation
+        // Keys are still needed for the migration.
+        cache.clearCircleKeys();
+        assertEquals(0, cache.size());
+        assertNotNull(cache.findRotationKey(trustee1.getKey()));
+        cache.clear();
+    }
+
+    @Test
+    void testExpiredEntries() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.CIRCLE_KEY_CACHE_TIMEOUT, "0");
+        final CircleKeyCache cache = newCircleKeyCache(mySettings);
+        final TrusteeEntity trustee = prepareTrustee(1L, 1L, 1L);
+
+        cache.add(trustee, trustee.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        assertEquals(0, cache.size());
+        assertNull(cache.find(trustee, trustee.getKey()));
+    }
+
+    @Test
+    void testDisabledCache() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.CIRCLE_KEY_CACHE_SIZE, "0");
+        final CircleKeyCache cache = newCircleKeyCache(mySettings);
+        final TrusteeEntity trustee = prepareTrustee(1L, 1L, 1L);
+
+        cache.add(trustee, trustee.getKey(), Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256));
+        assertEquals(0, cache.size());
+        cache.clear();
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static TrusteeEntity prepareTrustee(final Long trusteeId, final Long memberId, final Long circleId) {
+        final MemberEntity member = new MemberEntity();
+        member.setId(memberId);
+        final CircleEntity circle = new CircleEntity();
+        circle.setId(circleId);
+        final KeyEntity key = new KeyEntity();
+        key.setId(circleId);
+        key.setAlgorithm(KeyAlgorithm.AES_GCM_256);
+
+        final TrusteeEntity trustee = new TrusteeEntity();
+        trustee.setId(trusteeId);
+        trustee.setMember(member);
+        trustee.setCircle(circle);
+        trustee.setKey(key);
+        trustee.setCircleKey(UUID.randomUUID().toString());
+
+        return trustee;
+    }
+
+    private static CircleKeyCache newCircleKeyCache(final Settings settings) {
+        try {
+            final Constructor<CircleKeyCache> constructor = CircleKeyCache.class.getDeclaredConstructor(Settings.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(settings);
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new EDSException(ReturnCode.ERROR, e.getMessage(), e);
+        }
+    }
+}
@@ -17,8 +17,12 @@
 package net.haugr.eds.core.jce;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -27,7 +31,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.util.UUID;
+import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import net.haugr.eds.api.common.ReturnCode;
 import net.haugr.eds.core.enums.KeyAlgorithm;
@@ -401,6 +407,68 @@ final class CryptoTest extends DatabaseSetup {
         assertEquals("AES KeyFactory not available", cause.getMessage());
     }
 
+    @Test
+    void testRepeatedEncryptionWithSameKeyAndIV() {
+        // The MasterKey encryption is deterministic, meaning that the same
+        // Key and IV is used repeatedly, which the reused GCM Cipher must
+        // be able to handle.
+        final String toEncrypt = UUID.randomUUID().toString();
+        final String first = crypto.encryptWithMasterKey(toEncrypt);
+        final String second = crypto.encryptWithMasterKey(toEncrypt);
+
+        assertEquals(first, second);
+        assertEquals(toEncrypt, crypto.decryptWithMasterKey(second));
+    }
+
+    @Test
+    void testSessionLookup() {
+        final byte[] sessionKey = crypto.stringToBytes(UUID.randomUUID().toString());
+        final String lookupKey = crypto.generateSessionLookup(sessionKey);
+
+        // The lookup key must be stable, so the Session can be found again,
+        // and must differ from the plain Checksum of the Session Key.
+        assertEquals(lookupKey, crypto.generateSessionLookup(sessionKey));
+        assertNotEquals(lookupKey, crypto.generateSessionLookup(crypto.stringToBytes(UUID.randomUUID().toString())));
+        assertNotEquals(lookupKey, crypto.generateChecksum(sessionKey));
+        assertEquals(44, lookupKey.length());
+    }
+
+    @Test
+    void testReusedEngines() throws NoSuchAlgorithmException, NoSuchPaddingException {
+        final String transformation = KeyAlgorithm.AES_GCM_256.getTransformationValue();
+        final String digestAlgorithm = settings.getHashAlgorithm().getAlgorithm();
+        final String signatureAlgorithm = settings.getSignatureAlgorithm().getTransformationValue();
+
+        assertSame(EngineCache.cipher(transformation), EngineCache.cipher(transformation));
+        assertSame(EngineCache.digest(digestAlgorithm), EngineCache.digest(digestAlgorithm));
+        assertSame(EngineCache.signature(signatureAlgorithm), EngineCache.signature(signatureAlgorithm));
+
+        // Engines are kept per Thread, so other Threads have their own.
+        final Cipher[] other = new Cipher[1];
+        final Thread thread = new Thread(() -> {
+            try {
+                other[0] = EngineCache.cipher(transformation);
+            } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        assertDoesNotThrow(() -> thread.join());
+        assertNotNull(other[0]);
+        assertNotSame(EngineCache.cipher(transformation), other[0]);
+    }
+
+    @Test
+    void testRepeatedChecksumAndSignature() {
+        final byte[] message = crypto.stringToBytes(UUID.randomUUID().toString());
+        final EDSKeyPair keyPair = Crypto.generateAsymmetricKey(KeyAlgorithm.RSA_2048);
+
+        assertEquals(crypto.generateChecksum(message), crypto.generateChecksum(message));
+        final byte[] signature = crypto.sign(keyPair.getPrivate().getKey(), message);
+        assertTrue(crypto.verify(keyPair.getPublic().getKey(), message, signature));
+        assertTrue(crypto.verify(keyPair.getPublic().getKey(), message, crypto.sign(keyPair.getPrivate().getKey(), message)));
+    }
+
     // =========================================================================
     // Internal helper methods
     // =========================================================================
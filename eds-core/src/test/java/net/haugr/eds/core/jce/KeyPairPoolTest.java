@@ -0,0 +1,177 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class KeyPairPoolTest extends DatabaseSetup {
+
+    private static final KeyAlgorithm ALGORITHM = KeyAlgorithm.RSA_2048;
+
+    @Test
+    void testDisabledPool() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.KEYPAIR_POOL_SIZE, "0");
+        final KeyPairPool pool = newKeyPairPool(mySettings);
+
+        try {
+            pool.fill(ALGORITHM);
+            final EDSKeyPair keyPair = pool.take(ALGORITHM);
+            assertNotNull(keyPair);
+            assertEquals(ALGORITHM, keyPair.getAlgorithm());
+            assertEquals(0, pool.depth(ALGORITHM));
+
+            final KeyPairPool.Statistics statistics = pool.getStatistics();
+            assertEquals(0, statistics.generated());
+            assertEquals(0, statistics.served());
+            assertEquals(1, statistics.missed());
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void testFillAndTake() throws InterruptedException {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.KEYPAIR_POOL_SIZE, "2");
+        final KeyPairPool pool = newKeyPairPool(mySettings);
+
+        try {
+            pool.fill(ALGORITHM);
+            awaitDepth(pool, 2);
+
+            final EDSKeyPair keyPair = pool.take(ALGORITHM);
+            assertEquals(ALGORITHM, keyPair.getAlgorithm());
+            assertEquals(1, pool.getStatistics().served());
+            assertEquals(0, pool.getStatistics().missed());
+
+            // Taking a KeyPair will trigger a refill in the background
+            awaitDepth(pool, 2);
+            final KeyPairPool.Statistics statistics = pool.getStatistics();
+            assertEquals(3, statistics.generated());
+            assertTrue(statistics.refillRatePerMinute() > 0);
+            assertTrue(statistics.averageGenerationMillis() > 0);
+            assertEquals(2, statistics.depths().get(ALGORITHM));
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void testKeyPairsAreOnlyHandedOutOnce() throws InterruptedException {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.KEYPAIR_POOL_SIZE, "2");
+        final KeyPairPool pool = newKeyPairPool(mySettings);
+
+        try {
+            pool.fill(ALGORITHM);
+            awaitDepth(pool, 2);
+
+            // Draining more than the Pool holds, will make the caller
+            // generate the missing KeyPairs.
+            final Set<String> publicKeys = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                final EDSKeyPair keyPair = pool.take(ALGORITHM);
+                assertTrue(publicKeys.add(Crypto.armoringPublicKey(keyPair.getPublic().getKey())));
+            }
+
+            final KeyPairPool.Statistics statistics = pool.getStatistics();
+            assertEquals(4, statistics.served() + statistics.missed());
+            assertFalse(statistics.toString().isEmpty());
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void testPoolNotStarted() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.KEYPAIR_POOL_SIZE, "2");
+        final KeyPairPool pool = newKeyPairPool(mySettings, false);
+
+        // Outside the container, the Pool is not started, so all KeyPairs
+        // are generated by the callers.
+        pool.fill(ALGORITHM);
+        assertNotNull(pool.take(ALGORITHM));
+        assertEquals(0, pool.depth(ALGORITHM));
+        assertEquals(0, pool.getStatistics().generated());
+    }
+
+    @Test
+    void testStoppedPool() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.KEYPAIR_POOL_SIZE, "2");
+        final KeyPairPool pool = newKeyPairPool(mySettings);
+        pool.stop();
+
+        // Even if the background Thread is stopped, KeyPairs must still
+        // be generated.
+        assertNotNull(pool.take(ALGORITHM));
+        assertEquals(0, pool.depth(ALGORITHM));
+        assertEquals(1, pool.getStatistics().missed());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static void awaitDepth(final KeyPairPool pool, final int depth) throws InterruptedException {
+        for (int i = 0; (i < 600) && (pool.depth(ALGORITHM) < depth); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(depth, pool.depth(ALGORITHM));
+    }
+
+    private static KeyPairPool newKeyPairPool(final Settings settings) {
+        return newKeyPairPool(settings, true);
+    }
+
+    private static KeyPairPool newKeyPairPool(final Settings settings, final boolean start) {
+        try {
+            final Constructor<KeyPairPool> constructor = KeyPairPool.class.getDeclaredConstructor(Settings.class);
+            constructor.setAccessible(true);
+            final KeyPairPool pool = constructor.newInstance(settings);
+            if (start) {
+                pool.start(Executors.defaultThreadFactory());
+            }
+
+            return pool;
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new EDSException(ReturnCode.ERROR, e.getMessage(), e);
+        }
+    }
+}
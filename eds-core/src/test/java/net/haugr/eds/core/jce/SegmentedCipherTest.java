@@ -0,0 +1,195 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class SegmentedCipherTest extends DatabaseSetup {
+
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int TAG_LENGTH = 16;
+    private static final int[] SIZES = { 0, 1, 1023, 1024, 1025, 4096, 10000 };
+
+    @Test
+    void testParallelEncryption() {
+        final SecretEDSKey key = prepareGcmKey();
+
+        for (final int size : SIZES) {
+            final byte[] data = (size > 0) ? generateData(size) : new byte[0];
+            final byte[] encrypted = Crypto.encrypt(key, SEGMENT_SIZE, data);
+            final int segments = Math.max(1, (size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            assertEquals(size + (segments * TAG_LENGTH), encrypted.length);
+            assertArrayEquals(data, Crypto.decrypt(key, SEGMENT_SIZE, encrypted));
+        }
+    }
+
+    @Test
+    void testParallelEncryptionWithWorkers() {
+        final SecretEDSKey key = prepareGcmKey();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final byte[] data = generateData(10 * SEGMENT_SIZE + 17);
+
+        try {
+            // The result must not depend on how the segments are processed.
+            final byte[] encrypted = Crypto.encrypt(key, SEGMENT_SIZE, data);
+            Workers.register(executor);
+            assertArrayEquals(encrypted, Crypto.encrypt(key, SEGMENT_SIZE, data));
+            assertArrayEquals(data, Crypto.decrypt(key, SEGMENT_SIZE, encrypted));
+        } finally {
+            Workers.unregister();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStreamingEncryption() throws IOException {
+        final SecretEDSKey key = prepareGcmKey();
+
+        for (final int size : SIZES) {
+            final byte[] data = (size > 0) ? generateData(size) : new byte[0];
+
+            // The Streams and the parallel processing must produce the same
+            // result, so they can be used interchangeably.
+            final byte[] encrypted = streamEncrypt(key, data);
+            assertArrayEquals(Crypto.encrypt(key, SEGMENT_SIZE, data), encrypted);
+            assertArrayEquals(data, streamDecrypt(key, encrypted));
+        }
+    }
+
+    @Test
+    void testStreamingWithSingleBytes() throws IOException {
+        final SecretEDSKey key = prepareGcmKey();
+        final byte[] data = generateData(2500);
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = Crypto.encryptingStream(key, SEGMENT_SIZE, buffer)) {
+            for (final byte b : data) {
+                out.write(b);
+            }
+        }
+
+        final ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        try (InputStream in = Crypto.decryptingStream(key, SEGMENT_SIZE, new ByteArrayInputStream(buffer.toByteArray()))) {
+            int read;
+            while ((read = in.read()) != -1) {
+                decrypted.write(read);
+            }
+        }
+
+        assertArrayEquals(data, decrypted.toByteArray());
+    }
+
+    @Test
+    void testTruncatedData() {
+        final SecretEDSKey key = prepareGcmKey();
+        final byte[] encrypted = Crypto.encrypt(key, SEGMENT_SIZE, generateData(3 * SEGMENT_SIZE));
+
+        // Removing the last segment, must be detected, as the new last
+        // segment was not encrypted as the last segment.
+        final byte[] truncated = Arrays.copyOf(encrypted, 2 * (SEGMENT_SIZE + TAG_LENGTH));
+        final EDSException cause = assertThrows(EDSException.class, () -> Crypto.decrypt(key, SEGMENT_SIZE, truncated));
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
+        assertThrows(IOException.class, () -> streamDecrypt(key, truncated));
+    }
+
+    @Test
+    void testReorderedSegments() {
+        final SecretEDSKey key = prepareGcmKey();
+        final byte[] encrypted = Crypto.encrypt(key, SEGMENT_SIZE, generateData(3 * SEGMENT_SIZE));
+        final int length = SEGMENT_SIZE + TAG_LENGTH;
+        final byte[] reordered = Arrays.copyOf(encrypted, encrypted.length);
+        System.arraycopy(encrypted, 0, reordered, length, length);
+        System.arraycopy(encrypted, length, reordered, 0, length);
+
+        final EDSException cause = assertThrows(EDSException.class, () -> Crypto.decrypt(key, SEGMENT_SIZE, reordered));
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
+    }
+
+    @Test
+    void testSegmentHeader() {
+        final String header = Crypto.createSegmentHeader(SEGMENT_SIZE);
+        assertEquals(SEGMENT_SIZE, Crypto.readSegmentSize(header));
+
+        final EDSException cause1 = assertThrows(EDSException.class, () -> Crypto.readSegmentSize("AES_GCM_SEGMENTED:2:1024"));
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause1.getReturnCode());
+        assertEquals("The Segment Header 'AES_GCM_SEGMENTED:2:1024' is not supported.", cause1.getMessage());
+        final EDSException cause2 = assertThrows(EDSException.class, () -> Crypto.readSegmentSize("AES_GCM_SEGMENTED:1:many"));
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause2.getReturnCode());
+        final EDSException cause3 = assertThrows(EDSException.class, () -> Crypto.readSegmentSize("AES_GCM_SEGMENTED:1:0"));
+        assertEquals("The Segment size must be positive.", cause3.getMessage());
+    }
+
+    @Test
+    void testUnsupportedAlgorithm() {
+        final SecretEDSKey key = Crypto.generateSymmetricKey(KeyAlgorithm.AES_CBC_256);
+        key.setSalt(new IVSalt());
+        final byte[] data = generateData(10);
+
+        final EDSException cause = assertThrows(EDSException.class, () -> Crypto.encrypt(key, SEGMENT_SIZE, data));
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
+        assertEquals("Segmented encryption is not supported for the Algorithm AES_CBC_256.", cause.getMessage());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static SecretEDSKey prepareGcmKey() {
+        final SecretEDSKey key = Crypto.generateSymmetricKey(KeyAlgorithm.AES_GCM_256);
+        key.setSalt(new IVSalt());
+
+        return key;
+    }
+
+    private static byte[] streamEncrypt(final SecretEDSKey key, final byte[] data) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = Crypto.encryptingStream(key, SEGMENT_SIZE, buffer)) {
+            // Writing in odd sized blocks, to ensure that these are handled
+            for (int i = 0; i < data.length; i += 700) {
+                out.write(data, i, Math.min(700, data.length - i));
+            }
+        }
+
+        return buffer.toByteArray();
+    }
+
+    private static byte[] streamDecrypt(final SecretEDSKey key, final byte[] encrypted) throws IOException {
+        try (InputStream in = Crypto.decryptingStream(key, SEGMENT_SIZE, new ByteArrayInputStream(encrypted))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.UUID;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.common.Utilities;
+import net.haugr.eds.core.enums.KeyAlgorithm;
+import net.haugr.eds.core.enums.StandardSetting;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.Settings;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.SessionEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.0
+ */
+final class SessionCacheTest extends DatabaseSetup {
+
+    private static final EDSKeyPair KEY_PAIR = Crypto.generateAsymmetricKey(KeyAlgorithm.RSA_2048);
+
+    @Test
+    void testAddAndFind() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session = prepareSession(1L);
+        final String lookupKey = UUID.randomUUID().toString();
+
+        cache.add(lookupKey, session, KEY_PAIR);
+        assertEquals(1, cache.size());
+        assertSame(KEY_PAIR, cache.find(lookupKey, session));
+        assertNull(cache.find(UUID.randomUUID().toString(), session));
+    }
+
+    @Test
+    void testFindWithChangedMember() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session = prepareSession(1L);
+        final String lookupKey = UUID.randomUUID().toString();
+        cache.add(lookupKey, session, KEY_PAIR);
+
+        // A new Login will alter the Session expiration, meaning that the
+        // cached entry no longer belongs to the current Session.
+        session.setExpires(session.getExpires().plusMinutes(1));
+        assertNull(cache.find(lookupKey, session));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFindWithChangedPublicKey() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session = prepareSession(1L);
+        final String lookupKey = UUID.randomUUID().toString();
+        cache.add(lookupKey, session, KEY_PAIR);
+
+        session.getMember().setPublicKey(UUID.randomUUID().toString());
+        assertNull(cache.find(lookupKey, session));
+    }
+
+    @Test
+    void testExpiredEntry() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session = prepareSession(1L);
+        session.setExpires(Utilities.newDate().minusMinutes(1));
+        final String lookupKey = UUID.randomUUID().toString();
+
+        cache.add(lookupKey, session, KEY_PAIR);
+        assertEquals(0, cache.size());
+        assertNull(cache.find(lookupKey, session));
+    }
+
+    @Test
+    void testRemoveMember() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session1 = prepareSession(1L);
+        final SessionEntity session2 = prepareSession(2L);
+        final String lookupKey1 = UUID.randomUUID().toString();
+        final String lookupKey2 = UUID.randomUUID().toString();
+        cache.add(lookupKey1, session1, KEY_PAIR);
+        cache.add(lookupKey2, session2, KEY_PAIR);
+        assertEquals(2, cache.size());
+
+        cache.remove(session1.getMember());
+        assertEquals(1, cache.size());
+        assertNull(cache.find(lookupKey1, session1));
+        assertSame(KEY_PAIR, cache.find(lookupKey2, session2));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFindWithReplacedSession() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session = prepareSession(1L);
+        final String lookupKey = UUID.randomUUID().toString();
+        cache.add(lookupKey, session, KEY_PAIR);
+
+        // Logging out and in again with the same Session Key, will create a
+        // new Session, with the same lookup key.
+        session.setId(2L);
+        assertNull(cache.find(lookupKey, session));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRemoveSession() {
+        final SessionCache cache = newSessionCache(settings);
+        final SessionEntity session1 = prepareSession(1L);
+        final SessionEntity session2 = prepareSession(2L);
+        session2.setMember(session1.getMember());
+        final String lookupKey1 = UUID.randomUUID().toString();
+        final String lookupKey2 = UUID.randomUUID().toString();
+        cache.add(lookupKey1, session1, KEY_PAIR);
+        cache.add(lookupKey2, session2, KEY_PAIR);
+        assertEquals(2, cache.size());
+
+        // A Member may have multiple Sessions, removing one of them must
+        // leave the others untouched.
+        cache.remove(lookupKey1);
+        assertEquals(1, cache.size());
+        assertNull(cache.find(lookupKey1, session1));
+        assertSame(KEY_PAIR, cache.find(lookupKey2, session2));
+    }
+
+    @Test
+    void testTrim() {
+        final Settings mySettings = newSettings();
+        final SessionCache cache = newSessionCache(mySettings);
+        final SessionEntity session1 = prepareSession(1L);
+        final SessionEntity session2 = prepareSession(2L);
+        final String lookupKey2 = UUID.randomUUID().toString();
+        cache.add(UUID.randomUUID().toString(), session1, KEY_PAIR);
+        cache.add(lookupKey2, session2, KEY_PAIR);
+
+        // The size was lowered by another EDS instance.
+        mySettings.set(StandardSetting.SESSION_CACHE_SIZE, "1");
+        cache.trim();
+        assertEquals(1, cache.size());
+        assertSame(KEY_PAIR, cache.find(lookupKey2, session2));
+
+        mySettings.set(StandardSetting.SESSION_CACHE_SIZE, "0");
+        cache.trim();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBoundedSize() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SESSION_CACHE_SIZE, "2");
+        final SessionCache cache = newSessionCache(mySettings);
+        final SessionEntity session1 = prepareSession(1L);
+        final SessionEntity session2 = prepareSession(2L);
+        final SessionEntity session3 = prepareSession(3L);
+        final String lookupKey1 = UUID.randomUUID().toString();
+
+        cache.add(lookupKey1, session1, KEY_PAIR);
+        cache.add(UUID.randomUUID().toString(), session2, KEY_PAIR);
+        cache.add(UUID.randomUUID().toString(), session3, KEY_PAIR);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.find(lookupKey1, session1));
+    }
+
+    @Test
+    void testDisabledCache() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SESSION_CACHE_SIZE, "0");
+        final SessionCache cache = newSessionCache(mySettings);
+        final SessionEntity session = prepareSession(1L);
+        final String lookupKey = UUID.randomUUID().toString();
+
+        cache.add(lookupKey, session, KEY_PAIR);
+        assertEquals(0, cache.size());
+        assertNull(cache.find(lookupKey, session));
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static SessionEntity prepareSession(final Long id) {
+        final MemberEntity member = new MemberEntity();
+        member.setId(id);
+        member.setPublicKey(Crypto.armoringPublicKey(KEY_PAIR.getPublic().getKey()));
+
+        final SessionEntity session = new SessionEntity();
+        session.setId(id);
+        session.setMember(member);
+        session.setExpires(Utilities.newDate().plusMinutes(5));
+
+        return session;
+    }
+
+    private static SessionCache newSessionCache(final Settings settings) {
+        try {
+            final Constructor<SessionCache> constructor = SessionCache.class.getDeclaredConstructor(Settings.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(settings);
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new EDSException(ReturnCode.ERROR, e.getMessage(), e);
+        }
+    }
+}
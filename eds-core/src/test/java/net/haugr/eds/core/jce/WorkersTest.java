@@ -0,0 +1,164 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class WorkersTest extends DatabaseSetup {
+
+    private ExecutorService executor = null;
+
+    @AfterEach
+    void unregisterWorkers() {
+        Workers.unregister();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testForEachWithoutWorkers() {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(100);
+
+        Workers.forEach(processed.length(), 4, i -> {
+            threads.add(Thread.currentThread());
+            processed.incrementAndGet(i);
+        });
+
+        assertEquals(Set.of(Thread.currentThread()), threads);
+        assertProcessedOnce(processed);
+    }
+
+    @Test
+    void testForEachWithWorkers() {
+        registerWorkers();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(100);
+
+        Workers.forEach(processed.length(), 4, i -> {
+            threads.add(Thread.currentThread());
+            processed.incrementAndGet(i);
+        });
+
+        assertTrue(threads.size() > 1);
+        assertTrue(threads.size() <= 4);
+        assertProcessedOnce(processed);
+    }
+
+    @Test
+    void testNestedWorkIsInline() {
+        registerWorkers();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(16);
+
+        Workers.forEach(4, 4, outer -> {
+            final Thread thread = Thread.currentThread();
+            Workers.forEach(4, 4, inner -> {
+                assertEquals(thread, Thread.currentThread());
+                processed.incrementAndGet((outer * 4) + inner);
+            });
+        });
+
+        assertProcessedOnce(processed);
+    }
+
+    @Test
+    void testFork() throws InterruptedException {
+        registerWorkers();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(10);
+
+        final Workers.Fork fork = Workers.fork(processed.length(), 3, processed::incrementAndGet);
+        fork.join();
+
+        assertProcessedOnce(processed);
+    }
+
+    @Test
+    void testFailureIsThrown() {
+        registerWorkers();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(10);
+
+        final EDSException cause = assertThrows(EDSException.class, () -> Workers.forEach(processed.length(), 4, i -> {
+            processed.incrementAndGet(i);
+            if (i == 9) {
+                throw new EDSException(ReturnCode.CRYPTO_ERROR, "Failed");
+            }
+        }));
+
+        // The other ranges must be completed, before the failure is thrown.
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
+        assertProcessedOnce(processed);
+    }
+
+    @Test
+    void testInlineFailureWaitsForWorkers() {
+        registerWorkers();
+        final AtomicIntegerArray processed = new AtomicIntegerArray(40);
+
+        // The first range is processed by the caller, and fails at once,
+        // whereas the Workers are slower, but must still be completed,
+        // before the failure is thrown.
+        final EDSException cause = assertThrows(EDSException.class, () -> Workers.forEach(processed.length(), 4, i -> {
+            if (i == 0) {
+                throw new EDSException(ReturnCode.CRYPTO_ERROR, "Failed");
+            }
+            sleep();
+            processed.incrementAndGet(i);
+        }));
+
+        assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
+        for (int i = 10; i < processed.length(); i++) {
+            assertEquals(1, processed.get(i));
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void registerWorkers() {
+        executor = Executors.newFixedThreadPool(4);
+        Workers.register(executor);
+    }
+
+    private static void assertProcessedOnce(final AtomicIntegerArray processed) {
+        for (int i = 0; i < processed.length(); i++) {
+            assertEquals(1, processed.get(i));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.MetadataEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>PostgreSQL aborts the transaction, once a statement has failed, so a
+ * Metadata record with a name already used in the folder, must be rejected
+ * before it is written. These tests verify that the statements are never
+ * issued, and that the transaction can continue after the warning.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class DataDaoTest extends DatabaseSetup {
+
+    private final List<String> statements = new ArrayList<>();
+    private Session session = null;
+    private DataDao dao = null;
+    private MetadataEntity root = null;
+
+    @BeforeEach
+    void openSession() {
+        session = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .withOptions()
+                .statementInspector(sql -> {
+                    statements.add(sql.toLowerCase(Locale.ENGLISH));
+                    return sql;
+                })
+                .openSession();
+        session.beginTransaction();
+        dao = new DataDao(session);
+        root = dao.findRootByMemberCircle(dao.find(MemberEntity.class, MEMBER_1_ID).getId(), CIRCLE_1_ID);
+    }
+
+    @AfterEach
+    void closeSession() {
+        session.getTransaction().rollback();
+        session.close();
+    }
+
+    @Test
+    void testAddingUsedName() {
+        dao.saveMetadata(prepareMetadata("Used Name"));
+        session.flush();
+        statements.clear();
+
+        final MetadataEntity duplicate = prepareMetadata("USED NAME");
+        final EDSException cause = assertThrows(EDSException.class, () -> dao.saveMetadata(duplicate));
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING, cause.getReturnCode());
+        assertEquals("The name 'USED NAME' provided is already being used in the given folder.", cause.getMessage());
+        assertNotWritten();
+        assertTransactionUsable();
+    }
+
+    @Test
+    void testRenamingToUsedName() {
+        dao.saveMetadata(prepareMetadata("Used Name"));
+        final MetadataEntity other = dao.saveMetadata(prepareMetadata("Other Name"));
+        session.flush();
+        statements.clear();
+
+        other.setName("used name");
+        final EDSException cause = assertThrows(EDSException.class, () -> dao.saveMetadata(other));
+        assertEquals(ReturnCode.IDENTIFICATION_WARNING, cause.getReturnCode());
+        assertFalse(session.contains(other));
+        assertNotWritten();
+        assertTransactionUsable();
+        assertEquals("Other Name", dao.find(MetadataEntity.class, other.getId()).getName());
+    }
+
+    @Test
+    void testRenamingToOwnName() {
+        final MetadataEntity entity = dao.saveMetadata(prepareMetadata("Own Name"));
+        session.flush();
+
+        entity.setName("OWN NAME");
+        dao.saveMetadata(entity);
+        session.flush();
+        assertTrue(session.contains(entity));
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private MetadataEntity prepareMetadata(final String name) {
+        final MetadataEntity entity = new MetadataEntity();
+        entity.setCircle(root.getCircle());
+        entity.setType(root.getType());
+        entity.setParentId(root.getId());
+        entity.setName(name);
+
+        return entity;
+    }
+
+    private void assertNotWritten() {
+        session.flush();
+        for (final String sql : statements) {
+            assertFalse(sql.startsWith("insert") || sql.startsWith("update"), "The Metadata was written: " + sql);
+        }
+    }
+
+    private void assertTransactionUsable() {
+        assertEquals(root.getChildren().longValue(), dao.countFolderContent(root.getId()));
+        dao.saveMetadata(prepareMetadata("Next Name"));
+        session.flush();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.exceptions.EDSException;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class FileBlobStoreTest extends DatabaseSetup {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testWriteAndReadBlob() throws IOException {
+        final BlobStore store = new FileBlobStore(directory);
+        final byte[] blob = generateData(65536);
+        final String checksum = crypto.generateChecksum(blob);
+
+        final String reference = store.write(checksum, blob);
+        assertEquals(128, reference.length());
+        assertArrayEquals(blob, store.read(reference));
+        try (InputStream stream = store.open(reference)) {
+            assertArrayEquals(blob, stream.readAllBytes());
+            assertEquals(checksum, crypto.generateChecksum(store.open(reference)));
+        }
+
+        // The Blob is placed in the sub-directories of the reference, and no
+        // temporary files are left behind.
+        final Path file = directory.resolve(reference.substring(0, 2)).resolve(reference.substring(2, 4)).resolve(reference);
+        assertTrue(Files.isRegularFile(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testWritingSameBlobTwice() throws IOException {
+        final BlobStore store = new FileBlobStore(directory);
+        final byte[] blob = generateData(1024);
+        final String checksum = crypto.generateChecksum(blob);
+
+        final String reference = store.write(checksum, blob);
+        final Path file = directory.resolve(reference.substring(0, 2)).resolve(reference.substring(2, 4)).resolve(reference);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(3600)));
+
+        // Writing the Blob again, only marks it as recently written.
+        assertEquals(reference, store.write(checksum, blob));
+        assertTrue(Files.getLastModifiedTime(file).toInstant().isAfter(Instant.now().minusSeconds(60)));
+        assertArrayEquals(blob, store.read(reference));
+    }
+
+    @Test
+    void testListingAndDeletingBlobs() throws IOException {
+        final BlobStore store = new FileBlobStore(directory);
+        final byte[] oldBlob = generateData(512);
+        final byte[] newBlob = generateData(256);
+        final String oldReference = store.write(crypto.generateChecksum(oldBlob), oldBlob);
+        final String newReference = store.write(crypto.generateChecksum(newBlob), newBlob);
+        final Path file = directory.resolve(oldReference.substring(0, 2)).resolve(oldReference.substring(2, 4)).resolve(oldReference);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(3600)));
+
+        try (Stream<String> references = store.references(Instant.now().minusSeconds(60))) {
+            assertEquals(List.of(oldReference), references.toList());
+        }
+        try (Stream<String> references = store.references(Instant.now().plusSeconds(60))) {
+            assertEquals(2, references.count());
+        }
+
+        store.delete(oldReference);
+        assertFalse(Files.exists(file));
+        assertArrayEquals(newBlob, store.read(newReference));
+    }
+
+    @Test
+    void testListingEmptyStore() {
+        final BlobStore store = new FileBlobStore(directory.resolve("not-created"));
+
+        try (Stream<String> references = store.references(Instant.now())) {
+            assertEquals(0, references.count());
+        }
+    }
+
+    @Test
+    void testReadingMissingBlob() {
+        final BlobStore store = new FileBlobStore(directory);
+        final String reference = "0123456789abcdef";
+
+        final EDSException cause = assertThrows(EDSException.class, () -> store.read(reference));
+        assertEquals(ReturnCode.INTEGRITY_ERROR, cause.getReturnCode());
+        assertEquals("The Blob 0123456789abcdef is missing.", cause.getMessage());
+
+        final EDSException streamCause = assertThrows(EDSException.class, () -> store.open(reference));
+        assertEquals(ReturnCode.INTEGRITY_ERROR, streamCause.getReturnCode());
+    }
+
+    @Test
+    void testInvalidReference() {
+        final BlobStore store = new FileBlobStore(directory);
+
+        final EDSException cause = assertThrows(EDSException.class, () -> store.read("../../etc/passwd"));
+        assertEquals(ReturnCode.INTEGRITY_ERROR, cause.getReturnCode());
+        assertEquals("The Blob reference '../../etc/passwd' is invalid.", cause.getMessage());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import jakarta.persistence.EntityManager;
+import net.haugr.eds.api.common.TrustLevel;
+import net.haugr.eds.core.enums.SanityStatus;
+import net.haugr.eds.core.model.entities.CircleEntity;
+import net.haugr.eds.core.model.entities.DataEntity;
+import net.haugr.eds.core.model.entities.DataTypeEntity;
+import net.haugr.eds.core.model.entities.KeyEntity;
+import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.MetadataEntity;
+import net.haugr.eds.core.setup.DatabaseSetup;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Explains the SQL of the Named Queries, as they are used by the DAOs,
+ * and fails if the database is scanning a table rather than using an
+ * index. The H2 database cannot index expressions, so the lookups of
+ * Members &amp; Circles via lower(name) are not checked here, they are
+ * covered by the functional indexes in PostgreSQL.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class QueryPlanTest extends DatabaseSetup {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    private final List<String> statements = new ArrayList<>();
+    private Session session = null;
+    private MemberEntity member = null;
+
+    @BeforeEach
+    void openSession() {
+        session = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .withOptions()
+                .statementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .openSession();
+        session.beginTransaction();
+        member = new CommonDao(session).find(MemberEntity.class, MEMBER_1_ID);
+    }
+
+    @AfterEach
+    void closeSession() {
+        session.getTransaction().rollback();
+        session.close();
+    }
+
+    @Test
+    void testMetadataQueries() {
+        final DataDao dao = new DataDao(session);
+        final MetadataEntity root = dao.findRootByMemberCircle(member.getId(), CIRCLE_1_ID);
+        final DataTypeEntity folder = root.getType();
+
+        assertIndexed(() -> dao.findRootByMemberCircle(member.getId(), CIRCLE_1_ID));
+        assertIndexed(() -> dao.findMetadataByMemberAndExternalId(member.getId(), root.getExternalId()));
+        assertIndexed(() -> dao.findMetadataByMemberAndName(member.getId(), "/"));
+        assertIndexed(() -> dao.findMetadataByMemberAndFolder(member, root.getId(), null, 1, 10));
+        assertIndexed(() -> dao.findMetadataByMemberAndFolder(member, root.getId(), DataDao.nextCursor(List.of(root), 1), 1, 10));
+        assertIndexed(() -> dao.countFolderContent(root.getId()));
+        assertIndexed(() -> dao.checkIfNameIsUsed(root));
+        assertIndexed(() -> dao.updateFolderContent(root.getId(), 1));
+        assertIndexed(() -> dao.countDataTypeUsage(folder));
+    }
+
+    @Test
+    void testDataQueries() {
+        final DataDao dao = new DataDao(session);
+        final MetadataEntity root = dao.findRootByMemberCircle(member.getId(), CIRCLE_1_ID);
+        final KeyEntity key = dao.findTrusteesByMember(member, EnumSet.allOf(TrustLevel.class)).getFirst().getKey();
+        // The Named Queries are created via the EntityManager API, as the
+        // untyped Session variant is deprecated.
+        final EntityManager manager = session;
+
+        assertIndexed(() -> dao.findDataByMetadata(root));
+        assertIndexed(() -> dao.findDataByMemberAndExternalId(member, root.getExternalId()));
+        assertIndexed(() -> dao.countDataByKey(key));
+        assertIndexed(() -> manager.createNamedQuery("data.findForRotation")
+                .setParameter("key", key)
+                .setParameter("lastId", 0L)
+                .getResultList());
+        assertIndexed(() -> manager.createNamedQuery("data.countForSanityCheck")
+                .setParameter("status", SanityStatus.OK)
+                .setParameter("date", LocalDateTime.now())
+                .getSingleResult());
+        assertIndexed(() -> manager.createNamedQuery("data.findForSanityCheck")
+                .setParameter("status", SanityStatus.OK)
+                .setParameter("date", LocalDateTime.now())
+                .setParameter("lastId", 0L)
+                .setParameter("endId", 100000L)
+                .getResultList());
+        assertIndexed(() -> manager.createNamedQuery("data.findMaxId")
+                .getSingleResult());
+        assertIndexed(() -> manager.createNamedQuery("lease.findByRangeStart")
+                .setParameter("rangeStart", 0L)
+                .getResultList());
+        assertIndexed(() -> manager.createNamedQuery("data.countByBlobReference")
+                .setParameter("reference", "0123456789abcdef")
+                .getSingleResult());
+        assertIndexed(() -> manager.createNamedQuery("chunk.read")
+                .setParameter("data", manager.getReference(DataEntity.class, 0L))
+                .setParameter("ordinal", 0)
+                .getResultList());
+
+        final SanityDao sanityDao = new SanityDao(session);
+        assertIndexed(() -> sanityDao.findFailedRecords(LocalDateTime.now()));
+        assertIndexed(() -> sanityDao.findFailedRecords(CIRCLE_1_ID, LocalDateTime.now()));
+        assertIndexed(() -> sanityDao.findFailedRecords(member, LocalDateTime.now()));
+    }
+
+    @Test
+    void testTrusteeQueries() {
+        final CommonDao dao = new CommonDao(session);
+        final TrusteeDao trusteeDao = new TrusteeDao(session);
+        final MemberDao memberDao = new MemberDao(session);
+        final CircleEntity circle = dao.find(CircleEntity.class, CIRCLE_1_ID);
+        final MemberEntity other = dao.find(MemberEntity.class, MEMBER_2_ID);
+
+        assertIndexed(() -> dao.findTrusteesByMember(member, EnumSet.allOf(TrustLevel.class)));
+        assertIndexed(() -> dao.hasTrustees(member, EnumSet.allOf(TrustLevel.class)));
+        assertIndexed(() -> dao.findTrusteesByMemberAndCircle(member, CIRCLE_1_ID, EnumSet.allOf(TrustLevel.class)));
+        assertIndexed(() -> dao.findTrusteeByCircleAndMember(CIRCLE_1_ID, MEMBER_1_ID));
+        assertIndexed(() -> dao.findTrusteesByCircle(circle));
+        assertIndexed(() -> trusteeDao.findTrusteesByMember(MEMBER_1_ID));
+        assertIndexed(() -> trusteeDao.findTrusteesByCircle(CIRCLE_1_ID));
+        assertIndexed(() -> trusteeDao.findTrusteesByMemberAndCircle(MEMBER_1_ID, CIRCLE_1_ID));
+        assertIndexed(() -> memberDao.findCirclesForMember(member));
+        assertIndexed(() -> memberDao.findCirclesBothBelongTo(member, other));
+    }
+
+    @Test
+    void testMemberQueries() {
+        final CommonDao dao = new CommonDao(session);
+        final EntityManager manager = session;
+
+        assertIndexed(() -> dao.findSession("lookupKey"));
+        assertIndexed(() -> dao.findSessions(member));
+        assertIndexed(() -> dao.removeSessions(member));
+        assertIndexed(() -> manager.createNamedQuery("session.removeExpired")
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate());
+        assertIndexed(() -> dao.find(MemberEntity.class, MEMBER_1_ID));
+        assertIndexed(() -> dao.find(CircleEntity.class, CIRCLE_1_ID));
+        assertIndexed(() -> dao.find(DataTypeEntity.class, 1L));
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    /**
+     * Runs the given Request, and explains all SQL statements it issued. The
+     * parameters are not bound, so the plan is the same as the one prepared
+     * for the statement, regardless of the values.
+     *
+     * @param request The DAO Request to check
+     */
+    private void assertIndexed(final Runnable request) {
+        // The read-mostly Entities are otherwise found in the Second-level
+        // Cache, without issuing any statements.
+        session.getSessionFactory().getCache().evictAllRegions();
+        session.clear();
+        statements.clear();
+        request.run();
+        final List<String> issued = List.copyOf(statements);
+        assertFalse(issued.isEmpty(), "No SQL statements were issued.");
+
+        session.doWork(connection -> {
+            for (final String sql : issued) {
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                    final int parameters = statement.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parameters; i++) {
+                        statement.setObject(i, null);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            final String plan = resultSet.getString(1);
+                            assertFalse(plan.contains(TABLE_SCAN), "The statement is scanning a table:\n" + plan);
+                        }
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+final class SanityThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testUnlimited() {
+        final SanityThrottle throttle = new SanityThrottle(0, 0, 0);
+
+        assertEquals(0L, throttle.calculatePause(1_000_000, 1_000_000_000, 1));
+        throttle.measured(SECOND);
+        assertEquals(1.0, throttle.getFactor());
+    }
+
+    @Test
+    void testRowsPerSecond() {
+        final SanityThrottle throttle = new SanityThrottle(100, 0, 0);
+
+        // 50 rows at 100 rows/second takes half a second, so if the batch
+        // took a quarter of a second, the remaining quarter is the pause.
+        assertEquals(SECOND / 4, throttle.calculatePause(50, 1_000_000_000, SECOND / 4));
+        assertEquals(0L, throttle.calculatePause(50, 1_000_000_000, SECOND));
+    }
+
+    @Test
+    void testBytesPerSecond() {
+        final SanityThrottle throttle = new SanityThrottle(0, 1024, 0);
+
+        assertEquals(SECOND, throttle.calculatePause(1, 2048, SECOND));
+    }
+
+    @Test
+    void testBackOffAndRecover() {
+        final SanityThrottle throttle = new SanityThrottle(100, 0, 100);
+
+        // A slow batch halves the speed, so the same number of rows takes
+        // twice as long, and the work itself is followed by a pause.
+        throttle.measured(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0.5, throttle.getFactor());
+        assertEquals(SECOND, throttle.calculatePause(100, 0, SECOND));
+        assertEquals(SECOND / 10, throttle.calculatePause(0, 0, SECOND / 10));
+
+        for (int i = 0; i < 10; i++) {
+            throttle.measured(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+        assertEquals(1.0 / 16, throttle.getFactor());
+
+        for (int i = 0; i < 20; i++) {
+            throttle.measured(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        assertEquals(1.0, throttle.getFactor());
+    }
+}
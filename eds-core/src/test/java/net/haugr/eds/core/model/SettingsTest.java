@@ -18,13 +18,18 @@ package net.haugr.eds.core.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.core.exceptions.EDSException;
 import net.haugr.eds.core.setup.DatabaseSetup;
 import net.haugr.eds.core.enums.HashAlgorithm;
 import net.haugr.eds.core.enums.KeyAlgorithm;
 import net.haugr.eds.core.enums.StandardSetting;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -128,6 +133,40 @@ final class SettingsTest extends DatabaseSetup {
         assertFalse(mySettings.hasShareTrustees());
     }
 
+    @Test
+    void testUpdatingSeveralSettings() {
+        final Settings mySettings = newSettings();
+        mySettings.set("my.new.key", "the awesome value");
+
+        final Map<String, String> changes = new HashMap<>();
+        changes.put(StandardSetting.SESSION_TIMEOUT.getKey(), "60");
+        changes.put(StandardSetting.SHOW_CIRCLES.getKey(), "false");
+        changes.put("my.new.key", null);
+        mySettings.update(changes);
+
+        assertEquals(Integer.valueOf(60), mySettings.getSessionTimeout());
+        assertFalse(mySettings.hasShowAllCircles());
+        assertNull(mySettings.get("my.new.key"));
+        assertFalse(mySettings.keys().contains("my.new.key"));
+        assertEquals(StandardSetting.values().length, mySettings.get().size());
+    }
+
+    @Test
+    void testReadingInvalidSettings() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SEGMENT_SIZE, "many");
+        mySettings.set(StandardSetting.EDS_CHARSET, "no charset");
+
+        // Invalid values are stored, but fails when they are read.
+        assertEquals("many", mySettings.get(StandardSetting.SEGMENT_SIZE.getKey()));
+        assertThrows(NumberFormatException.class, mySettings::getSegmentSize);
+        final EDSException cause = assertThrows(EDSException.class, mySettings::getCharset);
+        assertEquals(ReturnCode.SETTING_ERROR, cause.getReturnCode());
+
+        mySettings.set(StandardSetting.SEGMENT_SIZE, " 1024 ");
+        assertEquals(Integer.valueOf(1024), mySettings.getSegmentSize());
+    }
+
     // =========================================================================
     // Internal methods
     // =========================================================================
@@ -18,7 +18,6 @@ package net.haugr.eds.core.model.entities;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.time.ZoneOffset;
 import net.haugr.eds.api.common.Utilities;
@@ -66,13 +65,14 @@ final class KeyEntityTest extends DatabaseSetup {
         final KeyEntity key = prepareKey();
 
         // Now to the actual test, change the Expires, persist, detach and
-        // find the Entity again. Expected is no errors but the value is same.
+        // find the Entity again. As the Expires is set, when a Circle Key is
+        // replaced, the value must be updated.
         final LocalDateTime expires = Utilities.newDate();
         key.setExpires(expires);
         persistAndDetach(key);
 
         final KeyEntity found = find(KeyEntity.class, key.getId());
-        assertNull(toString(found.getExpires()));
+        assertEquals(expires.toEpochSecond(ZoneOffset.UTC), found.getExpires().toEpochSecond(ZoneOffset.UTC));
     }
 
     @Test
@@ -80,11 +80,12 @@ final class KeyEntityTest extends DatabaseSetup {
         final KeyEntity key = prepareKey();
 
         // Now to the actual test, change the GracePeriod, persist, detach and
-        // find the Entity again. Expected is no errors but the value is same.
+        // find the Entity again. As the GracePeriod is set, when a Circle Key
+        // is replaced, the value must be updated.
         key.setGracePeriod(3);
         persistAndDetach(key);
 
         final KeyEntity found = find(KeyEntity.class, key.getId());
-        assertNull(found.getGracePeriod());
+        assertEquals(3, found.getGracePeriod());
     }
 }
@@ -62,9 +62,6 @@ final class MemberEntityTest extends DatabaseSetup {
         assertEquals(entity.getPublicKey(), found.getPublicKey());
         assertEquals(entity.getPrivateKey(), found.getPrivateKey());
         assertEquals(MemberRole.STANDARD, found.getMemberRole());
-        assertNull(found.getSessionChecksum());
-        assertNull(found.getSessionCrypto());
-        assertNull(found.getSessionExpire());
     }
 
     @Test
@@ -38,11 +38,11 @@ final class VersionEntityTest extends DatabaseSetup {
     void testEntity() {
         final Query query = entityManager.createNamedQuery("version.findAll");
         final List<VersionEntity> found = CommonDao.findList(query);
-        assertEquals(4, found.size());
-        assertEquals(Long.valueOf(4L), found.getFirst().getId());
-        assertEquals("2.0.0", found.getFirst().getEDSVersion());
+        assertEquals(5, found.size());
+        assertEquals(Long.valueOf(5L), found.getFirst().getId());
+        assertEquals("2.1.0", found.getFirst().getEDSVersion());
         assertEquals("H2", found.getFirst().getDBVendor());
-        assertEquals(Integer.valueOf(4), found.getFirst().getSchemaVersion());
+        assertEquals(Integer.valueOf(5), found.getFirst().getSchemaVersion());
         assertNotNull(found.getFirst().getInstalled());
 
         // Now adding a new Entity, this must fail.
@@ -61,6 +61,7 @@ import net.haugr.eds.core.model.entities.CircleEntity;
 import net.haugr.eds.core.model.entities.DataEntity;
 import net.haugr.eds.core.model.entities.KeyEntity;
 import net.haugr.eds.core.model.entities.MemberEntity;
+import net.haugr.eds.core.model.entities.TrusteeEntity;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
@@ -146,6 +147,16 @@ public class DatabaseSetup {
         }
     }
 
+    /**
+     * Reverts the MasterKey to the default, and removes the previous
+     * MasterKey, as the MasterKey is a Singleton, which other tests otherwise
+     * will fail with, if it is not reverted.
+     */
+    protected void resetMasterKey() {
+        final MasterKey masterKey = MasterKey.getInstance(settings);
+        masterKey.setKeys(prepareNewMasterKeyInstance(settings).getKey(), null);
+    }
+
     protected ManagementBean prepareManagementBean(final Settings... settings) {
         final ManagementBean bean = new ManagementBean();
         inject(bean, entityManager);
@@ -312,6 +323,25 @@ public class DatabaseSetup {
         return entity;
     }
 
+    /**
+     * Extracts the Circle Key of the given Member, in the same way as it is
+     * done when the Member invokes a request. The Account Name of the test
+     * Members is also their Password.
+     *
+     * @param account  Account Name &amp; Password of the Member
+     * @param circleId External Id of the Circle
+     * @return The Circle Key
+     */
+    protected SecretEDSKey extractCircleKey(final String account, final String circleId) {
+        final MemberEntity member = dao.findMemberByName(account);
+        final TrusteeEntity trustee = dao.findTrusteeByCircleAndMember(circleId, member.getExternalId());
+        final String salt = crypto.decryptWithMasterKey(member.getSalt());
+        final SecretEDSKey passwordKey = crypto.generatePasswordKey(member.getPbeAlgorithm(), crypto.stringToBytes(account), salt);
+        final EDSKeyPair keyPair = crypto.extractAsymmetricKey(member.getRsaAlgorithm(), passwordKey, salt, member.getPublicKey(), member.getPrivateKey());
+
+        return Crypto.extractCircleKey(trustee.getKey().getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+    }
+
     protected <E extends EDSEntity> void save(final E entity) {
         dao.save(entity);
     }
@@ -388,7 +418,7 @@ public class DatabaseSetup {
                 for (final Annotation annotation : field.getAnnotations()) {
                     if ((annotation instanceof PersistenceContext) && (value instanceof EntityManager)) {
                         setField(instance, field, value);
-                    } else if ((annotation instanceof Resource) && ((value instanceof TimerService) || (value instanceof ThreadFactory))) {
+                    } else if ((annotation instanceof Resource) && field.getType().isInstance(value) && ((value instanceof TimerService) || (value instanceof ThreadFactory))) {
                         setField(instance, field, value);
                     }
                 }
@@ -19,6 +19,11 @@ INSERT INTO eds_settings (name, setting) VALUES
                                              ('eds.crypto.pbe.algorithm', 'PBE_GCM_256'),
                                              ('eds.crypto.pbe.iterations', '1024'),
                                              ('eds.crypto.hash.algorithm', 'SHA_512'),
+                                             ('eds.crypto.segment.size', '1048576'),
+                                             ('eds.crypto.parallelism', '4'),
+                                             ('eds.data.chunk.size', '1048576'),
+                                             ('eds.data.blob.directory', ''),
+                                             ('eds.crypto.keypair.pool.size', '4'),
                                              ('eds.system.salt', 'Default salt, also used as kill switch. Must be set in DB.'),
                                              ('eds.system.locale', 'EN'),
                                              ('eds.system.charset', 'UTF-8'),
@@ -26,7 +31,22 @@ INSERT INTO eds_settings (name, setting) VALUES
                                              ('eds.show.trustees', 'true'),
                                              ('eds.sanity.check.startup', 'true'),
                                              ('eds.sanity.check.interval.days', '180'),
+                                             ('eds.sanity.batch.size', '100'),
+                                             ('eds.sanity.workers', '0'),
+                                             ('eds.sanity.range.size', '100000'),
+                                             ('eds.sanity.lease.timeout.minutes', '10'),
+                                             ('eds.sanity.rows.per.second', '0'),
+                                             ('eds.sanity.bytes.per.second', '0'),
+                                             ('eds.sanity.backoff.latency.millis', '1000'),
                                              ('eds.session.timeout.minutes', '480'),
+                                             ('eds.session.cache.size', '1024'),
+                                             ('eds.session.max.per.member', '10'),
+                                             ('eds.circle.key.cache.size', '1024'),
+                                             ('eds.circle.key.cache.timeout.minutes', '15'),
+                                             ('eds.rotation.batch.size', '100'),
+                                             ('eds.rotation.batch.pause.millis', '250'),
+                                             ('eds.rotation.grace.period.days', '30'),
+                                             ('eds.cluster.instances', '1'),
                                              ('eds.masterkey.url', ''),
                                              ('eds.cors.value', 'http://localhost'),
                                              ('eds.is.ready', 'true');
@@ -31,6 +31,8 @@
 --     o types      -  The type of Objects (Data) to be stored
 --     o metadata   -  Objects to be stored, related to datatype & Circles
 --     o data       -  Storage of the actual encrypted data for each Object
+--     o rotations  -  Progress of the Data migration, when a Key is replaced
+--     o masterkey_rotations - Progress of the Master Key migration
 --     o signatures -  Cryptographic Signature References information
 -- -----------------------------------------------------------------------------
 -- Note; this is Script is the default to work with, however JPA create scripts
@@ -77,6 +79,8 @@ INSERT INTO eds_versions(schema_version, eds_version, db_vendor) VALUES (2, '1.1
 INSERT INTO eds_versions(schema_version, eds_version, db_vendor) VALUES (3, '1.2.0', 'H2');
 -- Java Version upgrade (8->21), breaks backwards compatibility, EDS 2.x
 INSERT INTO eds_versions(schema_version, eds_version, db_vendor) VALUES (4, '2.0.0', 'H2');
+-- Performance & Scalability improvements, EDS 2.1.x
+INSERT INTO eds_versions(schema_version, eds_version, db_vendor) VALUES (5, '2.1.0', 'H2');
 
 -- =============================================================================
 -- The EDS is configured via a set of property values, which are all stored in
@@ -95,6 +99,7 @@ CREATE TABLE eds_settings (
   id               INTEGER AUTO_INCREMENT,
   name             VARCHAR(256),
   setting          VARCHAR(256),
+  generation       BIGINT DEFAULT 0,
   altered          TIMESTAMP DEFAULT now(),
   added            TIMESTAMP DEFAULT now(),
 
@@ -107,9 +112,42 @@ CREATE TABLE eds_settings (
   /* Not Null Constraints */
   CONSTRAINT setting_notnull_id             CHECK (id IS NOT NULL),
   CONSTRAINT setting_notnull_name           CHECK (name IS NOT NULL),
+  CONSTRAINT setting_notnull_generation     CHECK (generation IS NOT NULL),
   CONSTRAINT setting_notnull_altered        CHECK (altered IS NOT NULL),
   CONSTRAINT setting_notnull_added          CHECK (added IS NOT NULL)
 );
+CREATE INDEX eds_settings_generation_index ON eds_settings (generation);
+
+-- =============================================================================
+-- The Generations are counters, which are increased whenever the Settings,
+-- Circles or DataTypes are changed. Each EDS instance in the cluster polls the
+-- counters, and reloads the changed Settings or evicts its in-memory caches,
+-- when they have been increased by another instance.
+-- =============================================================================
+CREATE TABLE eds_generations (
+  id               INTEGER AUTO_INCREMENT,
+  name             VARCHAR(256),
+  generation       BIGINT DEFAULT 0,
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT generation_pk                  PRIMARY KEY (id),
+
+  /* Unique Constraints */
+  CONSTRAINT generation_unique_name         UNIQUE (name),
+
+  /* Not Null Constraints */
+  CONSTRAINT generation_notnull_id          CHECK (id IS NOT NULL),
+  CONSTRAINT generation_notnull_name        CHECK (name IS NOT NULL),
+  CONSTRAINT generation_notnull_generation  CHECK (generation IS NOT NULL),
+  CONSTRAINT generation_notnull_altered     CHECK (altered IS NOT NULL),
+  CONSTRAINT generation_notnull_added       CHECK (added IS NOT NULL)
+);
+INSERT INTO eds_generations (name) VALUES
+    ('settings'),
+    ('circles'),
+    ('datatypes');
 
 -- =============================================================================
 -- This is the Account table for all Members. By default it is empty, and the
@@ -133,15 +171,6 @@ CREATE TABLE eds_settings (
 -- the entire Application Layer.
 --   The Member Role is giving a pointer towards what kinds of permissions that
 -- a member has, it can be either admin, standard, session or guest.
---   Sessions are important for websites, where a user is logging in, and then
--- just works with a session onwards. To better integrate EDS into websites, it
--- is important EDS also supports Sessions. This is done by having 3 fields in
--- this table, the session_checksum, which is generated using the MasterKey, and
--- used to find the member account. Secondly, the member's private key encrypted
--- using both a PBKDF2 symmetric key and the MasterKey. And finally, the expire
--- flag, which is pre-calculated with the "login time" and the maximum life time
--- of a session. So a Timed service can stop any existing sessions which have
--- not been logged out.
 -- =============================================================================
 CREATE TABLE eds_members (
   id               INTEGER AUTO_INCREMENT,
@@ -154,9 +183,6 @@ CREATE TABLE eds_members (
   public_key       VARCHAR(3072),  -- Public Key, stored armored
   private_key      VARCHAR(16384), -- Private Key, stored encrypted & armored
   member_role      VARCHAR(10) DEFAULT 'STANDARD',
-  session_checksum VARCHAR(256),   -- MasterKey Checksum of the given Session
-  session_crypto   VARCHAR(16384), -- Private Key, stored encrypted & armored
-  session_expire   TIMESTAMP,      -- Time, when the Session expires
   altered          TIMESTAMP DEFAULT now(),
   added            TIMESTAMP DEFAULT now(),
 
@@ -167,7 +193,6 @@ CREATE TABLE eds_members (
   CONSTRAINT member_unique_external_id      UNIQUE (external_id),
   CONSTRAINT member_unique_name             UNIQUE (name),
   CONSTRAINT member_unique_salt             UNIQUE (salt),
-  CONSTRAINT member_unique_session_checksum UNIQUE (session_checksum),
 
   /* Not Null Constraints */
   CONSTRAINT member_notnull_id              CHECK (id IS NOT NULL),
@@ -183,6 +208,47 @@ CREATE TABLE eds_members (
   CONSTRAINT member_notnull_added           CHECK (added IS NOT NULL)
 );
 
+-- =============================================================================
+-- Sessions are important for websites, where a user is logging in, and then
+-- just works with a session onwards. A Member may have multiple Sessions, i.e.
+-- one per device or browser, each with its own row in this table. The Session
+-- is found via the lookup_key, which is a keyed HMAC of the Session Key, where
+-- the HMAC key is derived from the MasterKey. The crypto field holds the
+-- member's private key encrypted using both a PBKDF2 symmetric key and the
+-- MasterKey. And finally, the expires flag, which is pre-calculated with the
+-- "login time" and the maximum life time of a session. So a Timed service can
+-- remove any existing sessions which have not been logged out.
+-- =============================================================================
+CREATE TABLE eds_sessions (
+  id               INTEGER AUTO_INCREMENT,
+  member_id        INTEGER,
+  lookup_key       VARCHAR(256),   -- Keyed HMAC of the given Session Key
+  crypto           VARCHAR(16384), -- Private Key, stored encrypted & armored
+  expires          TIMESTAMP,      -- Time, when the Session expires
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT session_pk                     PRIMARY KEY (id),
+  CONSTRAINT session_member_fk              FOREIGN KEY (member_id) REFERENCES eds_members (id) ON DELETE CASCADE,
+
+  /* Unique Constraints */
+  CONSTRAINT session_unique_lookup_key      UNIQUE (lookup_key),
+
+  /* Not Null Constraints */
+  CONSTRAINT session_notnull_id             CHECK (id IS NOT NULL),
+  CONSTRAINT session_notnull_member_id      CHECK (member_id IS NOT NULL),
+  CONSTRAINT session_notnull_lookup_key     CHECK (lookup_key IS NOT NULL),
+  CONSTRAINT session_notnull_crypto         CHECK (crypto IS NOT NULL),
+  CONSTRAINT session_notnull_expires        CHECK (expires IS NOT NULL),
+  CONSTRAINT session_notnull_altered        CHECK (altered IS NOT NULL),
+  CONSTRAINT session_notnull_added          CHECK (added IS NOT NULL)
+);
+CREATE INDEX eds_sessions_member_index ON eds_sessions (member_id);
+-- Expired Sessions are removed by the Sanitizer, which is looking them up
+-- by their expiration time.
+CREATE INDEX eds_sessions_expires_index ON eds_sessions (expires);
+
 -- =============================================================================
 -- Circles act as groupings for a collection of Members sharing data. A Circle
 -- is thus having an identifying name and nothing else really.
@@ -225,9 +291,10 @@ CREATE TABLE eds_circles (
 -- size supported by the Java Runtime Environment, i.e. 256 bits.
 --   Theoretically, AES encryption can be broken in a finite time. To prevent
 -- that data is compromised, it is a good idea to limit the usage of a key to
--- a given life time, forcing a re-encryption once the key has expired. It is
--- not enforced to have an expiration, as EDS doesn't support re-key yet (see
--- https://github.com/HaugrNet/eds/issues/43).
+-- a given life time, forcing a re-encryption once the key has expired. A Circle
+-- Administrator may replace the Circle Key, the previous Key is then marked as
+-- Deprecated, and expires after the grace period (in days), by which the Data
+-- should be migrated to the new Key, see eds_rotations.
 -- =============================================================================
 CREATE TABLE eds_keys (
   id               INTEGER AUTO_INCREMENT,
@@ -309,6 +376,11 @@ CREATE TABLE eds_trustees (
   CONSTRAINT trustee_notnull_altered        CHECK (altered IS NOT NULL),
   CONSTRAINT trustee_notnull_added          CHECK (added IS NOT NULL)
 );
+-- The unique constraint starts with the Member, which covers the lookups of
+-- a Member's Trustees. Lookups of a Circle's Trustees and of the Trustees
+-- using a given Key have their own indexes.
+CREATE INDEX eds_trustees_circle_index ON eds_trustees (circle_id, member_id);
+CREATE INDEX eds_trustees_key_index ON eds_trustees (key_id);
 
 -- =============================================================================
 -- Data stored is completely unknown to the EDS, since multiple Clients may
@@ -373,6 +445,8 @@ INSERT INTO eds_datatypes (datatype_name, datatype_value) VALUES
 -- is referencing a parent Folder, however - there is a check added, so it is
 -- not possible to create looping structures, since the Id must always be
 -- smaller than the current Id.
+--   Folders keep the number of Objects they contain as children, so it does not
+-- have to be counted when a Folder is listed or deleted.
 -- =============================================================================
 CREATE TABLE eds_metadata (
   id               INTEGER AUTO_INCREMENT,
@@ -381,6 +455,8 @@ CREATE TABLE eds_metadata (
   circle_id        INTEGER,
   datatype_id      INTEGER,
   name             VARCHAR(75),
+  name_key         VARCHAR(75) GENERATED ALWAYS AS (LOWER(name)), -- H2 cannot index lower(name)
+  children         BIGINT DEFAULT 0,
   altered          TIMESTAMP DEFAULT now(),
   added            TIMESTAMP DEFAULT now(),
 
@@ -391,6 +467,7 @@ CREATE TABLE eds_metadata (
 
   /* Unique Constraints */
   CONSTRAINT metadata_unique_external_id    UNIQUE (external_id),
+  CONSTRAINT metadata_unique_name           UNIQUE (parent_id, name_key, circle_id),
 
   /* Other Constraints */
   CONSTRAINT metadata_notnull_id            CHECK (id IS NOT NULL),
@@ -398,9 +475,13 @@ CREATE TABLE eds_metadata (
   CONSTRAINT metadata_not_before_parent_id  CHECK (parent_id < id),
   CONSTRAINT metadata_notnull_circle_id     CHECK (circle_id IS NOT NULL),
   CONSTRAINT metadata_notnull_type_id       CHECK (datatype_id IS NOT NULL),
+  CONSTRAINT metadata_notnull_children      CHECK (children IS NOT NULL),
   CONSTRAINT metadata_notnull_altered       CHECK (altered IS NOT NULL),
   CONSTRAINT metadata_notnull_added         CHECK (added IS NOT NULL)
 );
+CREATE INDEX eds_metadata_parent_index ON eds_metadata (parent_id, id);
+CREATE INDEX eds_metadata_circle_index ON eds_metadata (circle_id, name);
+CREATE INDEX eds_metadata_datatype_index ON eds_metadata (datatype_id);
 
 -- =============================================================================
 -- Metadata with data associated have the data & key information stored in this
@@ -416,6 +497,10 @@ CREATE TABLE eds_data (
   key_id           INTEGER,
   encrypted_data   LONGVARBINARY,
   initial_vector   VARCHAR(256), -- Storing it armored
+  data_key         VARCHAR(256), -- Wrapped Data Key, Storing it armored
+  segment_header   VARCHAR(256), -- Only for segmented encryption
+  chunks           INTEGER DEFAULT 0, -- Only for data stored in chunks
+  blob_reference   VARCHAR(256), -- Only for data stored in the Blob Store
   checksum         VARCHAR(256),
   sanity_status    VARCHAR(256) DEFAULT 'Ok',
   sanity_checked   TIMESTAMP DEFAULT now(),
@@ -432,6 +517,7 @@ CREATE TABLE eds_data (
   CONSTRAINT data_notnull_metadata_id       CHECK (metadata_id IS NOT NULL),
   CONSTRAINT data_notnull_key_id            CHECK (key_id IS NOT NULL),
   CONSTRAINT data_notnull_data              CHECK (encrypted_data IS NOT NULL),
+  CONSTRAINT data_notnull_chunks            CHECK (chunks IS NOT NULL),
   CONSTRAINT data_notnull_initial_vector    CHECK (initial_vector IS NOT NULL),
   CONSTRAINT data_notnull_checksum          CHECK (checksum IS NOT NULL),
   CONSTRAINT data_notnull_sanity_status     CHECK (sanity_status IS NOT NULL),
@@ -439,6 +525,156 @@ CREATE TABLE eds_data (
   CONSTRAINT data_notnull_altered           CHECK (altered IS NOT NULL),
   CONSTRAINT data_notnull_added             CHECK (added IS NOT NULL)
 );
+-- Data is found via its Metadata, Key rotation is reading the Data of a
+-- Key in batches ordered by Id, and the Sanitizer is looking for Data with
+-- a given status, which was last checked before a given time, and for Blobs
+-- which are no longer referenced.
+CREATE INDEX eds_data_metadata_index ON eds_data (metadata_id);
+CREATE INDEX eds_data_key_index ON eds_data (key_id, id);
+CREATE INDEX eds_data_sanity_index ON eds_data (sanity_status, sanity_checked);
+CREATE INDEX eds_data_blob_index ON eds_data (blob_reference);
+
+-- =============================================================================
+-- Larger encrypted Data is stored in fixed size chunks, rather than as a single
+-- value in eds_data. The chunks are read one at a time, so the Data is never
+-- read as a whole, unless needed, and updating the Data record, i.e. its status,
+-- does not rewrite the encrypted Data. The eds_data record has the number of
+-- chunks, and an empty encrypted_data.
+-- =============================================================================
+CREATE TABLE eds_data_chunks (
+  id               INTEGER AUTO_INCREMENT,
+  data_id          INTEGER,
+  ordinal          INTEGER,
+  chunk            LONGVARBINARY,
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT chunk_pk                       PRIMARY KEY (id),
+  CONSTRAINT chunk_data_fk                  FOREIGN KEY (data_id) REFERENCES eds_data (id) ON DELETE CASCADE,
+
+  /* Unique Constraints */
+  CONSTRAINT chunk_unique_ordinal           UNIQUE (data_id, ordinal),
+
+  /* Not Null Constraints */
+  CONSTRAINT chunk_notnull_id               CHECK (id IS NOT NULL),
+  CONSTRAINT chunk_notnull_data_id          CHECK (data_id IS NOT NULL),
+  CONSTRAINT chunk_notnull_ordinal          CHECK (ordinal IS NOT NULL),
+  CONSTRAINT chunk_notnull_chunk            CHECK (chunk IS NOT NULL),
+  CONSTRAINT chunk_notnull_altered          CHECK (altered IS NOT NULL),
+  CONSTRAINT chunk_notnull_added            CHECK (added IS NOT NULL)
+);
+
+-- =============================================================================
+-- When a Circle Key is replaced, the existing Data is migrated to the new Key
+-- in the background. This table holds the progress of the migration, together
+-- with the information needed to read and migrate the Data, which is still
+-- protected by the previous Key, i.e. the previous Circle Key, wrapped with the
+-- new Circle Key, so Members can read the Data, using the Circle Key from their
+-- Trustee relation. The new Circle Key is never stored here, it is only kept in
+-- memory, after a Trustee has accessed the Circle.
+--   The migration is made in batches, ordered by the Id of the Data, and the
+-- last processed Id is stored, so the migration can be resumed from there.
+-- =============================================================================
+CREATE TABLE eds_rotations (
+  id               INTEGER AUTO_INCREMENT,
+  circle_id        INTEGER,
+  old_key_id       INTEGER,
+  new_key_id       INTEGER,
+  wrapped_key      VARCHAR(256), -- Previous Circle Key, wrapped with the new
+  last_data_id     BIGINT DEFAULT 0,
+  processed        BIGINT DEFAULT 0,
+  total            BIGINT DEFAULT 0,
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT rotation_pk                    PRIMARY KEY (id),
+  CONSTRAINT rotation_circle_fk             FOREIGN KEY (circle_id) REFERENCES eds_circles (id) ON DELETE CASCADE,
+  CONSTRAINT rotation_old_key_fk            FOREIGN KEY (old_key_id) REFERENCES eds_keys (id) ON DELETE CASCADE,
+  CONSTRAINT rotation_new_key_fk            FOREIGN KEY (new_key_id) REFERENCES eds_keys (id) ON DELETE CASCADE,
+
+  /* Unique Constraints */
+  CONSTRAINT rotation_unique_old_key_id     UNIQUE (old_key_id),
+
+  /* Not Null Constraints */
+  CONSTRAINT rotation_notnull_id            CHECK (id IS NOT NULL),
+  CONSTRAINT rotation_notnull_circle_id     CHECK (circle_id IS NOT NULL),
+  CONSTRAINT rotation_notnull_old_key_id    CHECK (old_key_id IS NOT NULL),
+  CONSTRAINT rotation_notnull_new_key_id    CHECK (new_key_id IS NOT NULL),
+  CONSTRAINT rotation_notnull_wrapped_key   CHECK (wrapped_key IS NOT NULL),
+  CONSTRAINT rotation_notnull_last_data_id  CHECK (last_data_id IS NOT NULL),
+  CONSTRAINT rotation_notnull_processed     CHECK (processed IS NOT NULL),
+  CONSTRAINT rotation_notnull_total         CHECK (total IS NOT NULL),
+  CONSTRAINT rotation_notnull_altered       CHECK (altered IS NOT NULL),
+  CONSTRAINT rotation_notnull_added         CHECK (added IS NOT NULL)
+);
+
+-- =============================================================================
+-- The Master Key protects the Salts of the Members and the Initial Vectors of
+-- the Data. When the Master Key is replaced on an installation with Member
+-- Accounts, these are migrated to the new Master Key in the background, while
+-- both Master Keys are used for reading. This table holds the progress of the
+-- migration, and the previous Master Key, encrypted with the new Master Key,
+-- so the migration can be resumed after a restart. There is at most one record
+-- in the table, and it is removed once the migration has completed. In a cluster,
+-- the migration only begins, when all EDS instances are using the new Master Key.
+-- =============================================================================
+CREATE TABLE eds_masterkey_rotations (
+  id               INTEGER AUTO_INCREMENT,
+  previous_key     VARCHAR(256), -- Previous Master Key, encrypted with the new
+  last_member_id   BIGINT DEFAULT 0,
+  last_data_id     BIGINT DEFAULT 0,
+  processed        BIGINT DEFAULT 0,
+  ready_instances  VARCHAR(1024), -- EDS instances given the new Master Key
+  active_instances VARCHAR(1024), -- EDS instances using the new Master Key
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT masterkey_pk                   PRIMARY KEY (id),
+
+  /* Not Null Constraints */
+  CONSTRAINT masterkey_notnull_id           CHECK (id IS NOT NULL),
+  CONSTRAINT masterkey_notnull_previous_key CHECK (previous_key IS NOT NULL),
+  CONSTRAINT masterkey_notnull_last_member  CHECK (last_member_id IS NOT NULL),
+  CONSTRAINT masterkey_notnull_last_data    CHECK (last_data_id IS NOT NULL),
+  CONSTRAINT masterkey_notnull_processed    CHECK (processed IS NOT NULL),
+  CONSTRAINT masterkey_notnull_altered      CHECK (altered IS NOT NULL),
+  CONSTRAINT masterkey_notnull_added        CHECK (added IS NOT NULL)
+);
+
+-- =============================================================================
+-- The Sanity check is partitioned across the EDS instances in the cluster, by
+-- ranges of Data Ids. Before an instance checks a range, it must hold the Lease
+-- for it, so the instances are checking disjoint ranges. The Lease expires, if
+-- it is not renewed, so the range of an instance, which has stopped, is claimed
+-- by another instance. The Lease also holds the checkpoint of the range, so an
+-- interrupted check is resumed from where it stopped.
+-- =============================================================================
+CREATE TABLE eds_sanity_leases (
+  id               INTEGER AUTO_INCREMENT,
+  range_start      BIGINT, -- First Data Id of the range
+  owner            VARCHAR(256), -- The EDS instance holding the Lease
+  checkpoint       BIGINT, -- Last checked Data Id, if the range is unfinished
+  expires          TIMESTAMP DEFAULT now(),
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT lease_pk                       PRIMARY KEY (id),
+
+  /* Unique Constraints */
+  CONSTRAINT lease_unique_range_start       UNIQUE (range_start),
+
+  /* Not Null Constraints */
+  CONSTRAINT lease_notnull_id               CHECK (id IS NOT NULL),
+  CONSTRAINT lease_notnull_range_start      CHECK (range_start IS NOT NULL),
+  CONSTRAINT lease_notnull_owner            CHECK (owner IS NOT NULL),
+  CONSTRAINT lease_notnull_expires          CHECK (expires IS NOT NULL),
+  CONSTRAINT lease_notnull_altered          CHECK (altered IS NOT NULL),
+  CONSTRAINT lease_notnull_added            CHECK (added IS NOT NULL)
+);
 
 -- =============================================================================
 -- EDS also supports signatures, and part of the information for a Signature, is
@@ -38,6 +38,7 @@ public final class FetchData extends EDSRequest<FetchDataResponse> {
     private String dataName = null;
     private int pageNumber = 1;
     private int pageSize = 1;
+    private String cursor = null;
     private final List<Metadata> metadata = new ArrayList<>();
 
     // =========================================================================
@@ -64,10 +65,18 @@ public final class FetchData extends EDSRequest<FetchDataResponse> {
         this.pageSize = Converter.parseInt(pageSize, this.pageSize);
     }
 
+    public void setCursor(final String cursor) {
+        this.cursor = Converter.preCheck(cursor);
+    }
+
     public String records() {
         return Long.toString(response.getRecords());
     }
 
+    public String nextCursor() {
+        return (response != null) ? response.getNextCursor() : null;
+    }
+
     public String circleId() {
         return metadata.isEmpty() ? null : metadata.getFirst().getCircleId();
     }
@@ -174,6 +183,7 @@ public final class FetchData extends EDSRequest<FetchDataResponse> {
         request.setDataName(dataName);
         request.setPageNumber(pageNumber);
         request.setPageSize(pageSize);
+        request.setCursor(cursor);
 
         response = CallShare.fetchData(requestUrl, request);
         if (response != null) {
@@ -35,6 +35,7 @@ public final class Inventory extends EDSRequest<InventoryResponse> {
 
     private int pageNumber = 1;
     private int pageSize = Constants.MAX_PAGE_SIZE;
+    private String cursor = null;
     private final List<Metadata> metadata = new ArrayList<>();
 
     // =========================================================================
@@ -49,10 +50,18 @@ public final class Inventory extends EDSRequest<InventoryResponse> {
         this.pageSize = Converter.parseInt(pageSize, this.pageSize);
     }
 
+    public void setCursor(final String cursor) {
+        this.cursor = Converter.preCheck(cursor);
+    }
+
     public String records() {
         return Long.toString(response.getRecords());
     }
 
+    public String nextCursor() {
+        return (response != null) ? response.getNextCursor() : null;
+    }
+
     public String circleId() {
         final StringBuilder builder = new StringBuilder("[");
         if (response != null) {
@@ -133,6 +142,7 @@ public final class Inventory extends EDSRequest<InventoryResponse> {
         final InventoryRequest request = prepareRequest(InventoryRequest.class);
         request.setPageNumber(pageNumber);
         request.setPageSize(pageSize);
+        request.setCursor(cursor);
 
         response = CallManagement.inventory(requestUrl, request);
         if (response != null) {
@@ -0,0 +1,65 @@
+/*
+ * EDS, Encrypted Data Share - open source Cryptographic Sharing system.
+ * Copyright (c) 2016-2024, haugr.net
+ * mailto: eds AT haugr DOT net
+ *
+ * EDS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * EDS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package net.haugr.eds.rest;
+
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.requests.CacheRequest;
+import net.haugr.eds.core.ManagementBean;
+import net.haugr.eds.core.model.Settings;
+
+/**
+ * <p>REST interface for the Cache Statistics functionality.</p>
+ *
+ * @author Kim Jensen
+ * @since EDS 2.1
+ */
+@Path(Constants.REST_CACHES)
+public class CacheService {
+
+    private static final String METHOD = "caches";
+
+    @Inject
+    private ManagementBean bean;
+    private final Settings settings = Settings.getInstance();
+
+    /**
+     * Default Constructor.
+     */
+    public CacheService() {
+        // Empty Constructor
+    }
+
+    /**
+     * The REST Caches Endpoint.
+     *
+     * @param cacheRequest Cache Request
+     * @return Cache Response
+     */
+    @POST
+    @Consumes(CommonService.CONSUMES)
+    @Produces(CommonService.PRODUCES)
+    public Response caches(@NotNull final CacheRequest cacheRequest) {
+        return CommonService.runRequest(settings, bean, METHOD, cacheRequest, Constants.REST_CACHES);
+    }
+}
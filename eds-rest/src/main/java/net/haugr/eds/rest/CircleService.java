@@ -98,6 +98,21 @@ public class CircleService {
         return CommonService.runRequest(settings, bean, PROCESS_METHOD, deleteCircleRequest, Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_DELETE);
     }
 
+    /**
+     * The REST Rotate Circle Key Endpoint.
+     *
+     * @param rotateCircleRequest Rotate Circle Key Request
+     * @return Rotate Circle Key Response
+     */
+    @POST
+    @Path(Constants.REST_CIRCLES_ROTATE)
+    @Consumes(CommonService.CONSUMES)
+    @Produces(CommonService.PRODUCES)
+    public Response rotate(@NotNull final ProcessCircleRequest rotateCircleRequest) {
+        rotateCircleRequest.setAction(Action.ROTATE);
+        return CommonService.runRequest(settings, bean, PROCESS_METHOD, rotateCircleRequest, Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_ROTATE);
+    }
+
     /**
      * The REST Fetch Circles Endpoint.
      *
@@ -25,6 +25,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Response;
 import net.haugr.eds.api.common.Action;
 import net.haugr.eds.api.common.Constants;
+import net.haugr.eds.api.requests.BatchDataRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import net.haugr.eds.core.ShareBean;
@@ -41,6 +42,7 @@ public class DataService {
 
     private static final String PROCESS_METHOD = "processData";
     private static final String FETCH_METHOD = "fetchData";
+    private static final String BATCH_METHOD = "batchData";
 
     @Inject
     private ShareBean bean;
@@ -141,4 +143,18 @@ public class DataService {
     public Response fetch(@NotNull final FetchDataRequest fetchDataRequest) {
         return CommonService.runRequest(settings, bean, FETCH_METHOD, fetchDataRequest, Constants.REST_DATA_BASE + Constants.REST_DATA_FETCH);
     }
+
+    /**
+     * The REST Batch Data Endpoint.
+     *
+     * @param batchDataRequest Batch Data Request
+     * @return Batch Data Response
+     */
+    @POST
+    @Path(Constants.REST_DATA_BATCH)
+    @Consumes(CommonService.CONSUMES)
+    @Produces(CommonService.PRODUCES)
+    public Response batch(@NotNull final BatchDataRequest batchDataRequest) {
+        return CommonService.runRequest(settings, bean, BATCH_METHOD, batchDataRequest, Constants.REST_DATA_BASE + Constants.REST_DATA_BATCH);
+    }
 }
@@ -57,6 +57,7 @@ public class EDSApplication extends Application {
         set.add(SanityService.class);
         set.add(SettingService.class);
         set.add(InventoryService.class);
+        set.add(CacheService.class);
         set.add(SignatureService.class);
         set.add(TrusteeService.class);
         set.add(VersionService.class);
@@ -95,6 +95,19 @@ class BeanSetup extends DatabaseSetup {
         return prepareService(InventoryService.class, ManagementBean.class, objects);
     }
 
+    /**
+     * <p>Prepares a Cache Service instance. If the given Objects are
+     * present, then an internal Management Bean is set and so is the given
+     * resources. If no Objects are given, an empty service instance is
+     * returned without any bean or other settings set.</p>
+     *
+     * @param objects Resources to be injected into Service instance
+     * @return New Service instance with given resources injected
+     */
+    protected static CacheService prepareCacheService(final Object... objects) {
+        return prepareService(CacheService.class, ManagementBean.class, objects);
+    }
+
     /**
      * <p>Prepares a MasterKey Service instance. If the given Objects are
      * present, then an internal Management Bean is set and so is the given
@@ -90,6 +90,26 @@ final class CircleServiceTest extends BeanSetup {
         }
     }
 
+    @Test
+    void testRotate() {
+        final CircleService service = prepareCircleService(settings, entityManager);
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+
+        try (final Response response = service.rotate(request)) {
+            assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+        }
+    }
+
+    @Test
+    void testFlawedRotate() {
+        final CircleService service = prepareCircleService();
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+
+        try (final Response response = service.rotate(request)) {
+            assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+        }
+    }
+
     @Test
     void testFetch() {
         final CircleService service = prepareCircleService(settings, entityManager);
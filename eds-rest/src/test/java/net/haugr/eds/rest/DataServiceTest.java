@@ -19,6 +19,7 @@ package net.haugr.eds.rest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import net.haugr.eds.api.common.ReturnCode;
+import net.haugr.eds.api.requests.BatchDataRequest;
 import net.haugr.eds.api.requests.FetchDataRequest;
 import net.haugr.eds.api.requests.ProcessDataRequest;
 import jakarta.ws.rs.core.Response;
@@ -149,4 +150,24 @@ final class DataServiceTest extends BeanSetup {
             assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
         }
     }
+
+    @Test
+    void testBatch() {
+        final DataService service = prepareDataService(settings, entityManager);
+        final BatchDataRequest request = new BatchDataRequest();
+
+        try (final Response response = service.batch(request)) {
+            assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+        }
+    }
+
+    @Test
+    void testFlawedBatch() {
+        final DataService service = prepareDataService();
+        final BatchDataRequest request = new BatchDataRequest();
+
+        try (final Response response = service.batch(request)) {
+            assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+        }
+    }
 }
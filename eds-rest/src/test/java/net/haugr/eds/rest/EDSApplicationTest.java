@@ -29,6 +29,6 @@ final class EDSApplicationTest {
     @Test
     void testApplication() {
         final EDSApplication application = new EDSApplication();
-        assertEquals(12, application.getClasses().size());
+        assertEquals(13, application.getClasses().size());
     }
 }